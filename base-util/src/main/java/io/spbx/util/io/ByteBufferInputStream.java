@@ -0,0 +1,49 @@
+package io.spbx.util.io;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+
+// Reads directly from the buffer from its current position up to the limit, advancing it.
+public class ByteBufferInputStream extends InputStream {
+    private final ByteBuffer buffer;
+
+    public ByteBufferInputStream(@NotNull ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    public @NotNull ByteBuffer buffer() {
+        return buffer;
+    }
+
+    @Override
+    public int read() {
+        return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+    }
+
+    @Override
+    public int read(byte @NotNull [] b, int off, int len) {
+        if (len == 0) {
+            return 0;
+        }
+        if (!buffer.hasRemaining()) {
+            return -1;
+        }
+        int length = Math.min(len, buffer.remaining());
+        buffer.get(b, off, length);
+        return length;
+    }
+
+    @Override
+    public long skip(long n) {
+        int length = (int) Math.min(Math.max(n, 0), buffer.remaining());
+        buffer.position(buffer.position() + length);
+        return length;
+    }
+
+    @Override
+    public int available() {
+        return buffer.remaining();
+    }
+}
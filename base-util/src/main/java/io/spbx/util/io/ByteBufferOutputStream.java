@@ -0,0 +1,30 @@
+package io.spbx.util.io;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+// Writes directly into the buffer from its current position, advancing it.
+// Throws a `BufferOverflowException` if the remaining space is not enough: the buffer never grows.
+public class ByteBufferOutputStream extends OutputStream {
+    private final ByteBuffer buffer;
+
+    public ByteBufferOutputStream(@NotNull ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    public @NotNull ByteBuffer buffer() {
+        return buffer;
+    }
+
+    @Override
+    public void write(int b) {
+        buffer.put((byte) b);
+    }
+
+    @Override
+    public void write(byte @NotNull [] b, int off, int len) {
+        buffer.put(b, off, len);
+    }
+}
@@ -0,0 +1,44 @@
+package io.spbx.util.io;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class ByteBufferInputStreamTest {
+    @Test
+    public void read_heap_buffer() {
+        ByteBuffer buffer = ByteBuffer.wrap(new byte[] { 1, 2, (byte) 0xFF, 4 });
+        ByteBufferInputStream input = new ByteBufferInputStream(buffer);
+        assertThat(input.available()).isEqualTo(4);
+        assertThat(input.read()).isEqualTo(1);
+        assertThat(input.read()).isEqualTo(2);
+        assertThat(input.read()).isEqualTo(0xFF);
+        assertThat(input.available()).isEqualTo(1);
+        assertThat(input.read()).isEqualTo(4);
+        assertThat(input.read()).isEqualTo(-1);
+        assertThat(buffer.position()).isEqualTo(4);
+    }
+
+    @Test
+    public void read_direct_buffer_respects_position_and_limit() {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(8).put(new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 });
+        buffer.position(2).limit(6);
+        ByteBufferInputStream input = new ByteBufferInputStream(buffer);
+        byte[] bytes = new byte[8];
+        assertThat(input.read(bytes, 1, 8 - 1)).isEqualTo(4);
+        assertThat(bytes).isEqualTo(new byte[] { 0, 3, 4, 5, 6, 0, 0, 0 });
+        assertThat(input.read(bytes, 0, 8)).isEqualTo(-1);
+        assertThat(input.read(bytes, 0, 0)).isEqualTo(0);
+    }
+
+    @Test
+    public void readNBytes_and_skip() throws Exception {
+        ByteBufferInputStream input = new ByteBufferInputStream(ByteBuffer.wrap(new byte[] { 1, 2, 3, 4, 5 }));
+        assertThat(input.skip(2)).isEqualTo(2);
+        assertThat(input.readNBytes(2)).isEqualTo(new byte[] { 3, 4 });
+        assertThat(input.skip(10)).isEqualTo(1);
+        assertThat(input.readAllBytes()).isEmpty();
+    }
+}
@@ -0,0 +1,33 @@
+package io.spbx.util.io;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class ByteBufferOutputStreamTest {
+    @Test
+    public void write_direct_buffer() {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(6);
+        buffer.position(1);
+        ByteBufferOutputStream output = new ByteBufferOutputStream(buffer);
+        output.write(7);
+        output.write(new byte[] { 1, 2, 3, 4 }, 1, 3);
+        assertThat(buffer.position()).isEqualTo(5);
+
+        byte[] bytes = new byte[6];
+        buffer.flip().position(0);
+        buffer.get(bytes, 0, 5);
+        assertThat(bytes).isEqualTo(new byte[] { 0, 7, 2, 3, 4, 0 });
+    }
+
+    @Test
+    public void write_overflow() {
+        ByteBufferOutputStream output = new ByteBufferOutputStream(ByteBuffer.allocate(2));
+        output.write(1);
+        assertThrows(BufferOverflowException.class, () -> output.write(new byte[] { 1, 2 }, 0, 2));
+    }
+}
@@ -73,6 +73,7 @@ subprojects {
         "common"("com.google.protobuf:protobuf-java:4.26.1")
         "common"("com.leansoft:bigqueue:0.7.3")
         "common"("org.jctools:jctools-core:4.0.5")
+        "common"("io.netty.incubator:netty-incubator-transport-classes-io_uring:0.0.25.Final")
 
         // Json
         "common"("com.alibaba:fastjson:2.0.51")
@@ -0,0 +1,100 @@
+package io.spbx.webby.benchmarks.jmh;
+
+import com.carrotsearch.hppc.IntArrayList;
+import com.carrotsearch.hppc.IntObjectMap;
+import io.spbx.orm.api.Connector;
+import io.spbx.orm.api.Engine;
+import io.spbx.orm.api.QueryRunner;
+import io.spbx.orm.api.StatementCache;
+import io.spbx.orm.api.query.CreateTableQuery;
+import io.spbx.orm.api.query.Shortcuts;
+import io.spbx.orm.api.query.Where;
+import io.spbx.webby.auth.user.DefaultUser;
+import io.spbx.webby.auth.user.UserAccess;
+import io.spbx.webby.auth.user.UserTable;
+import io.spbx.webby.db.sql.SqlSettings;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+// Compares the `getBatchByPk()` across the engines and the batch sizes, with and without the statement cache.
+// The batch sizes vary in `[maxBatchSize / 2, maxBatchSize]`, so that the unbucketed IN-lists would never repeat.
+@Fork(value = 1, warmups = 0)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2000, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 5, time = 2000, timeUnit = TimeUnit.MILLISECONDS)
+public class BatchByPkJmhBenchmark {
+    @SuppressWarnings("FieldMayBeFinal")
+    @State(Scope.Benchmark)
+    public static class ExecutionPlan {
+        @Param({"H2", "SQLite"}) private Engine engine = Engine.H2;
+        @Param({"1", "10", "100", "1000", "10000"}) private int maxBatchSize = 0;
+        @Param({"0", "64"}) private int statementCacheSize = 0;
+        @Param({"20000"}) private int rows = 0;
+
+        private Connection connection;
+        private UserTable table;
+        private IntArrayList[] batches;
+        private int next;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            connection = SqlSettings.connectForDevOnly(SqlSettings.inMemoryForDevOnly(engine));
+            StatementCache cache = statementCacheSize > 0 ? new StatementCache(connection, statementCacheSize) : null;
+            QueryRunner runner = new QueryRunner(connection, cache);
+            table = new UserTable(new Connector() {
+                @Override
+                public @NotNull Connection connection() {
+                    return connection;
+                }
+
+                @Override
+                public @NotNull QueryRunner runner() {
+                    return runner;
+                }
+            });
+            table.admin().createTable(CreateTableQuery.of(table).ifNotExists());
+            table.deleteWhere(Where.of(Shortcuts.TRUE));
+            table.insertBatch(IntStream.range(1, rows + 1)
+                                  .mapToObj(id -> DefaultUser.newUser(id, Instant.now(), UserAccess.Simple))
+                                  .toList());
+
+            Random random = new Random(0);
+            batches = new IntArrayList[256];
+            for (int i = 0; i < batches.length; i++) {
+                int size = maxBatchSize / 2 + random.nextInt(maxBatchSize - maxBatchSize / 2) + 1;
+                batches[i] = IntArrayList.from(IntStream.range(0, size).map(j -> random.nextInt(rows) + 1).toArray());
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws SQLException {
+            connection.close();
+        }
+
+        private @NotNull IntArrayList nextBatch() {
+            return batches[next++ & (batches.length - 1)];
+        }
+    }
+
+    @Benchmark
+    public IntObjectMap<DefaultUser> getBatchByPk(ExecutionPlan plan) {
+        return plan.table.getBatchByPk(plan.nextBatch());
+    }
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("jmh.separateClasspathJAR", "true");
+        Options options = new OptionsBuilder().include(BatchByPkJmhBenchmark.class.getSimpleName()).build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,69 @@
+package io.spbx.webby.benchmarks.jmh;
+
+import io.spbx.webby.db.event.CachingKvdbEventStore;
+import io.spbx.webby.db.kv.javamap.JavaMapDbFactory;
+import io.spbx.webby.db.managed.FlushMode;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@Fork(value = 1, warmups = 0)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5000, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 10, time = 5000, timeUnit = TimeUnit.MILLISECONDS)
+public class EventStoreJmhBenchmark {
+    @SuppressWarnings("FieldMayBeFinal")
+    @State(Scope.Benchmark)
+    public static class ExecutionPlan {
+        @Param({"1", "16"}) private int shards = 0;
+        @Param({"10000"}) private int keys = 0;
+
+        private CachingKvdbEventStore<Integer, Long> store;
+
+        @Setup(Level.Iteration)
+        public void setUp() {
+            store = new CachingKvdbEventStore<>(
+                new JavaMapDbFactory().inMemoryDb(new ConcurrentHashMap<>()),
+                events -> events,
+                1 << 16,
+                1 << 20,
+                64,
+                shards
+            );
+        }
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public void append(ExecutionPlan plan) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        plan.store.append(random.nextInt(plan.keys), random.nextLong());
+    }
+
+    @Benchmark
+    @Group("append_while_flushing")
+    @GroupThreads(7)
+    public void append_with_flush(ExecutionPlan plan) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        plan.store.append(random.nextInt(plan.keys), random.nextLong());
+    }
+
+    @Benchmark
+    @Group("append_while_flushing")
+    @GroupThreads(1)
+    public void flush(ExecutionPlan plan) {
+        plan.store.flush(FlushMode.FULL_COMPACT);
+    }
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("jmh.separateClasspathJAR", "true");
+        Options options = new OptionsBuilder().include(EventStoreJmhBenchmark.class.getSimpleName()).build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,89 @@
+package io.spbx.webby.benchmarks.jmh;
+
+import com.carrotsearch.hppc.IntArrayList;
+import com.carrotsearch.hppc.IntIntHashMap;
+import com.carrotsearch.hppc.IntIntMap;
+import com.google.common.eventbus.EventBus;
+import io.spbx.webby.db.DbReadyEvent;
+import io.spbx.webby.db.count.primitive.*;
+import io.spbx.webby.db.kv.javamap.JavaMapDbFactory;
+import io.spbx.webby.db.managed.FlushMode;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+@Fork(value = 1, warmups = 0)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5000, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 10, time = 5000, timeUnit = TimeUnit.MILLISECONDS)
+@Threads(Threads.MAX)
+public class IntCounterJmhBenchmark {
+    @SuppressWarnings("FieldMayBeFinal")
+    @State(Scope.Benchmark)
+    public static class ExecutionPlan {
+        @Param({"LOCK_BASED", "NON_BLOCKING"}) private IntCounterType counterType = IntCounterType.LOCK_BASED;
+        @Param({"100", "10000"}) private int keys = 0;
+        @Param({"50"}) private int keysBatchSize = 0;
+
+        private IntCountStorage storage;
+        private IntCounter counter;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            storage = new KvCountStorage(new JavaMapDbFactory().inMemoryDb());
+            IntIntHashMap initial = new IntIntHashMap(keys);
+            IntStream.range(0, keys).forEach(key -> initial.put(key, key));
+            storage.storeBatch(initial);
+
+            EventBus eventBus = new EventBus();
+            counter = switch (counterType) {
+                case LOCK_BASED -> new LockBasedIntCounter(storage, eventBus);
+                case NON_BLOCKING -> new NonBlockingIntCounter(storage, eventBus);
+            };
+            eventBus.post(new DbReadyEvent());
+        }
+    }
+
+    @Benchmark
+    public int update(ExecutionPlan plan) {
+        return plan.counter.increment(ThreadLocalRandom.current().nextInt(plan.keys));
+    }
+
+    @Benchmark
+    public int estimate_count(ExecutionPlan plan) {
+        return plan.counter.estimateCount(ThreadLocalRandom.current().nextInt(plan.keys));
+    }
+
+    @Benchmark
+    public IntIntMap estimate_counts_batch(ExecutionPlan plan) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        IntArrayList keys = IntArrayList.from(IntStream.range(0, plan.keysBatchSize).map(j -> random.nextInt(plan.keys)).toArray());
+        return plan.counter.estimateCounts(keys);
+    }
+
+    @Benchmark
+    @Group("update_and_flush")
+    @GroupThreads(7)
+    public int update_with_flush(ExecutionPlan plan) {
+        return plan.counter.increment(ThreadLocalRandom.current().nextInt(plan.keys));
+    }
+
+    @Benchmark
+    @Group("update_and_flush")
+    @GroupThreads(1)
+    public void flush_incremental(ExecutionPlan plan) {
+        plan.counter.flush(FlushMode.INCREMENTAL);
+    }
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("jmh.separateClasspathJAR", "true");
+        Options options = new OptionsBuilder().include(IntCounterJmhBenchmark.class.getSimpleName()).build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,100 @@
+package io.spbx.webby.benchmarks.jmh;
+
+import com.google.common.io.MoreFiles;
+import com.google.common.io.RecursiveDeleteOption;
+import io.spbx.webby.app.AppSettings;
+import io.spbx.webby.app.ClassFilter;
+import io.spbx.webby.app.Settings.Toggle;
+import io.spbx.webby.db.kv.DbOptions;
+import io.spbx.webby.db.kv.DbType;
+import io.spbx.webby.db.kv.KeyValueDb;
+import io.spbx.webby.db.kv.KeyValueFactory;
+import io.spbx.webby.db.kv.KeyValueSettings;
+import io.spbx.webby.testing.Testing;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// Compare `gc.alloc.rate.norm` (bytes per op) of the byte-array backends across the revisions.
+@Fork(value = 1, warmups = 0, jvmArgsAppend = {
+    "--add-exports=java.base/sun.nio.ch=ALL-UNNAMED",
+    "--add-exports=jdk.unsupported/sun.misc=ALL-UNNAMED",
+    "--add-opens=java.base/java.nio=ALL-UNNAMED",
+})
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2000, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 5, time = 2000, timeUnit = TimeUnit.MILLISECONDS)
+public class KeyValueDbJmhBenchmark {
+    @SuppressWarnings("FieldMayBeFinal")
+    @State(Scope.Benchmark)
+    public static class ExecutionPlan {
+        @Param({"LMDB_JAVA", "LMDB_JNI", "ROCKS_DB"}) private DbType dbType = DbType.LMDB_JAVA;
+        @Param({"10000"}) private int keys = 0;
+        @Param({"100"}) private int valueLength = 0;
+
+        private Path tempDir;
+        private KeyValueDb<Long, String> db;
+        private String value;
+        private final Random random = new Random(0);
+
+        @Setup(Level.Trial)
+        public void setUp() throws IOException {
+            tempDir = Files.createTempDirectory("kv-jmh");
+
+            AppSettings settings = Testing.defaultAppSettings();
+            settings.setModelFilter(ClassFilter.ofSelectedPackagesOnly(Testing.CORE_MODELS));
+            settings.updateStorageSettings(storage -> storage.withKeyValue(KeyValueSettings.of(dbType, tempDir)));
+            settings.setProfileMode(Toggle.DISABLED);
+            KeyValueFactory factory = Testing.testStartup(settings).getInstance(KeyValueFactory.class);
+
+            db = factory.getDb(DbOptions.of("bench", Long.class, String.class));
+            value = "x".repeat(valueLength);
+            for (long key = 0; key < keys; key++) {
+                db.set(key, value);
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws IOException {
+            db.close();
+            MoreFiles.deleteRecursively(tempDir, RecursiveDeleteOption.ALLOW_INSECURE);
+        }
+
+        private long nextKey() {
+            return random.nextInt(keys);
+        }
+    }
+
+    @Benchmark
+    public String get(ExecutionPlan plan) {
+        return plan.db.get(plan.nextKey());
+    }
+
+    @Benchmark
+    public boolean containsKey(ExecutionPlan plan) {
+        return plan.db.containsKey(plan.nextKey());
+    }
+
+    @Benchmark
+    public void set(ExecutionPlan plan) {
+        plan.db.set(plan.nextKey(), plan.value);
+    }
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("jmh.separateClasspathJAR", "true");
+        Options options = new OptionsBuilder()
+            .include(KeyValueDbJmhBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,94 @@
+package io.spbx.webby.benchmarks.jmh;
+
+import io.spbx.orm.api.Connector;
+import io.spbx.orm.api.Engine;
+import io.spbx.orm.api.QueryRunner;
+import io.spbx.orm.api.query.CreateTableQuery;
+import io.spbx.orm.api.query.Shortcuts;
+import io.spbx.orm.api.query.Where;
+import io.spbx.webby.db.sql.SqlSettings;
+import io.spbx.webby.demo.model.PrimitiveModel;
+import io.spbx.webby.demo.model.PrimitiveModelTable;
+import org.jetbrains.annotations.NotNull;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+// Measures the generated row mapping of a primitive-heavy model: reading the rows via `forEach()` and
+// writing them via `insertBatch()`. The scores are per row, run with the GC profiler to see the allocation per row.
+@Fork(value = 1, warmups = 0)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2000, timeUnit = TimeUnit.MILLISECONDS)
+@Measurement(iterations = 5, time = 2000, timeUnit = TimeUnit.MILLISECONDS)
+@OperationsPerInvocation(RowMappingJmhBenchmark.ROWS)
+public class RowMappingJmhBenchmark {
+    static final int ROWS = 10000;
+
+    @SuppressWarnings("FieldMayBeFinal")
+    @State(Scope.Benchmark)
+    public static class ExecutionPlan {
+        @Param({"H2", "SQLite"}) private Engine engine = Engine.H2;
+
+        private Connection connection;
+        private PrimitiveModelTable table;
+        private List<PrimitiveModel> models;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            connection = SqlSettings.connectForDevOnly(SqlSettings.inMemoryForDevOnly(engine));
+            QueryRunner runner = new QueryRunner(connection);
+            table = new PrimitiveModelTable(new Connector() {
+                @Override
+                public @NotNull Connection connection() {
+                    return connection;
+                }
+
+                @Override
+                public @NotNull QueryRunner runner() {
+                    return runner;
+                }
+            });
+            table.admin().createTable(CreateTableQuery.of(table).ifNotExists());
+            models = IntStream.range(1, ROWS + 1)
+                .mapToObj(id -> new PrimitiveModel(id, id, 1, (byte) 2, (short) 3, 'M', 3.14f, 2.7, id % 2 == 0))
+                .toList();
+            table.deleteWhere(Where.of(Shortcuts.TRUE));
+            table.insertBatch(models);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws SQLException {
+            connection.close();
+        }
+    }
+
+    @Benchmark
+    public void readRows(ExecutionPlan plan, Blackhole blackhole) {
+        plan.table.forEach(blackhole::consume);
+    }
+
+    @Benchmark
+    public int[] writeRows(ExecutionPlan plan) {
+        plan.table.deleteWhere(Where.of(Shortcuts.TRUE));
+        return plan.table.insertBatch(plan.models);
+    }
+
+    public static void main(String[] args) throws Exception {
+        System.setProperty("jmh.separateClasspathJAR", "true");
+        Options options = new OptionsBuilder()
+            .include(RowMappingJmhBenchmark.class.getSimpleName())
+            .addProfiler(GCProfiler.class)
+            .build();
+        new Runner(options).run();
+    }
+}
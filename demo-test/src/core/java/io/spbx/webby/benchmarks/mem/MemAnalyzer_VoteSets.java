@@ -0,0 +1,62 @@
+package io.spbx.webby.benchmarks.mem;
+
+import com.carrotsearch.hppc.IntHashSet;
+import com.volkhart.memory.MemoryMeasurer;
+import io.spbx.webby.db.count.vote.CompactVoteSet;
+import org.jctools.counters.Counter;
+import org.jctools.counters.CountersFactory;
+import org.jctools.maps.NonBlockingHashMapLong;
+
+import java.text.NumberFormat;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+
+// Compares the bytes per vote of the `NonBlockingVotingCounter` cache: the hash set layout vs `CompactVoteSet`.
+//
+// Run with:
+// -ea --illegal-access=permit -javaagent:demo-test/src/core/resources/jars/measurer-0.1.1.jar
+public class MemAnalyzer_VoteSets {
+    private static final int KEYS = 10_000;
+    private static final int ACTORS = 100_000;
+
+    // The previous per-key layout: the votes, the db snapshot copy and the striped counter
+    private record HashVoteSet(IntHashSet votes, AtomicReference<IntHashSet> currentDbSnapshot, Counter counter) {
+        HashVoteSet(IntHashSet votes) {
+            this(votes, new AtomicReference<>(new IntHashSet(votes)), CountersFactory.createFixedSizeStripedCounter(4));
+        }
+    }
+
+    private static void measure(int votesPerKey) {
+        Random random = new Random(0);
+        NonBlockingHashMapLong<HashVoteSet> before = new NonBlockingHashMapLong<>();
+        NonBlockingHashMapLong<CompactVoteSet> after = new NonBlockingHashMapLong<>();
+        for (int key = 0; key < KEYS; key++) {
+            IntHashSet votes = new IntHashSet();
+            while (votes.size() < votesPerKey) {
+                int actor = random.nextInt(ACTORS) + 1;
+                votes.add(random.nextBoolean() ? actor : -actor);
+            }
+            before.put(key, new HashVoteSet(votes));
+            after.put(key, new CompactVoteSet(votes));
+        }
+
+        long totalVotes = (long) KEYS * votesPerKey;
+        long beforeBytes = MemoryMeasurer.measureBytes(before);
+        long afterBytes = MemoryMeasurer.measureBytes(after);
+        System.out.printf("votes per key: %d%n", votesPerKey);
+        System.out.printf("  hash sets:    %s bytes, %.1f bytes per vote%n", format(beforeBytes), (double) beforeBytes / totalVotes);
+        System.out.printf("  compact sets: %s bytes, %.1f bytes per vote%n", format(afterBytes), (double) afterBytes / totalVotes);
+    }
+
+    private static String format(long number) {
+        return NumberFormat.getInstance(Locale.US).format(number);
+    }
+
+    public static void main(String[] args) {
+        measure(1);
+        measure(10);
+        measure(100);
+        measure(1000);
+    }
+}
@@ -5,12 +5,16 @@ import com.carrotsearch.hppc.cursors.IntIntCursor;
 import com.google.common.eventbus.EventBus;
 import com.google.errorprone.annotations.CheckReturnValue;
 import io.spbx.util.base.OneOf;
+import io.spbx.webby.db.DbReadyEvent;
 import io.spbx.webby.db.StorageType;
 import io.spbx.webby.db.kv.javamap.JavaMapDbFactory;
+import io.spbx.webby.demo.model.IntsModel;
+import io.spbx.webby.demo.model.IntsModelTable;
 import io.spbx.webby.demo.model.UserRateModelTable;
 import io.spbx.webby.testing.ext.SqlDbExtension;
 import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.RegisterExtension;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.EnumSource;
@@ -18,13 +22,15 @@ import org.junit.jupiter.params.provider.EnumSource;
 import static com.google.common.truth.Truth.assertThat;
 import static io.spbx.util.testing.AssertHppc.assertMap;
 import static io.spbx.util.testing.TestingHppc.newIntMap;
+import static io.spbx.webby.demo.model.IntsModelTable.OwnColumn.foo;
+import static io.spbx.webby.demo.model.IntsModelTable.OwnColumn.value;
 import static io.spbx.webby.demo.model.UserRateModelTable.OwnColumn.content_id;
 import static io.spbx.webby.demo.model.UserRateModelTable.OwnColumn.user_id;
 
 // FIX[minor]: more test cases (existing state, check group by count, flush)
 @Tag("integration") @Tag("sql")
 public class IntCounterIntegrationTest {
-    @RegisterExtension static final SqlDbExtension SQL = SqlDbExtension.fromProperties().withManualCleanup(UserRateModelTable.META);
+    @RegisterExtension static final SqlDbExtension SQL = SqlDbExtension.fromProperties().withManualCleanup(UserRateModelTable.META, IntsModelTable.META);
 
     private IntCountStorage storage;
     private IntCounter counter;
@@ -72,6 +78,54 @@ public class IntCounterIntegrationTest {
         assertCounter(counter).hasCountEstimates(A, 7, B, -2, C, -1);
     }
 
+    @ParameterizedTest
+    @EnumSource(value = Scenario.class, names = {"KV_JAVA_LOCK", "KV_JAVA_NON_BLOCKING"})  // the table is self-managed
+    public void flush_persists_counts(Scenario scenario) {
+        setup(scenario);
+        counter.update(A, 5);
+        counter.update(B, -3);
+        counter.flush();
+        assertMap(storage.loadAll()).trimmed().containsExactlyTrimmed(A, 5, B, -3);
+
+        counter.update(A, 2);
+        counter.flush();
+        assertMap(storage.loadAll()).trimmed().containsExactlyTrimmed(A, 7, B, -3);
+    }
+
+    @Test
+    public void table_counter_column_store_new_and_existing_keys() {
+        IntsModelTable table = new IntsModelTable(SQL);
+        table.insert(new IntsModel(A, 0, 10));
+        storage = new TableCountStorage(table, foo, OneOf.ofFirst(value));
+
+        storage.storeBatch(newIntMap(A, 5, B, 3));
+        assertMap(storage.loadAll()).containsExactly(A, 5, B, 3);
+        assertThat(table.count()).isEqualTo(2);
+
+        storage.storeBatch(newIntMap(B, 4, C, -1));
+        assertMap(storage.loadAll()).containsExactly(A, 5, B, 4, C, -1);
+        assertThat(table.count()).isEqualTo(3);
+    }
+
+    @Test
+    public void table_counter_column_flush_new_and_existing_keys() {
+        IntsModelTable table = new IntsModelTable(SQL);
+        table.insert(new IntsModel(A, 0, 10));
+        storage = new TableCountStorage(table, foo, OneOf.ofFirst(value));
+        LockBasedIntCounter counter = new LockBasedIntCounter(storage, new EventBus());
+        counter.dbReady(new DbReadyEvent());
+
+        counter.update(A, 2);
+        counter.update(B, 5);
+        counter.flush();
+        assertMap(storage.loadAll()).containsExactly(A, 12, B, 5);
+
+        counter.update(B, -1);
+        counter.flush();
+        assertMap(storage.loadAll()).containsExactly(A, 12, B, 4);
+        assertThat(table.count()).isEqualTo(2);
+    }
+
     @CheckReturnValue
     private static @NotNull IntCounterSubject assertCounter(@NotNull IntCounter counter) {
         return new IntCounterSubject(counter);
@@ -93,17 +147,24 @@ public class IntCounterIntegrationTest {
             case SQL_DB -> new TableCountStorage(new UserRateModelTable(SQL), content_id, OneOf.ofSecond(user_id));
             case KEY_VALUE_DB -> new KvCountStorage(new JavaMapDbFactory().inMemoryDb());
         };
-        counter = new LockBasedIntCounter(storage, new EventBus());
+        counter = switch (scenario.counterType) {
+            case LOCK_BASED -> new LockBasedIntCounter(storage, new EventBus());
+            case NON_BLOCKING -> new NonBlockingIntCounter(storage, new EventBus());
+        };
     }
 
     private enum Scenario {
-        TABLE_LOCK(StorageType.SQL_DB),
-        KV_JAVA_LOCK(StorageType.KEY_VALUE_DB);
+        TABLE_LOCK(StorageType.SQL_DB, IntCounterType.LOCK_BASED),
+        TABLE_NON_BLOCKING(StorageType.SQL_DB, IntCounterType.NON_BLOCKING),
+        KV_JAVA_LOCK(StorageType.KEY_VALUE_DB, IntCounterType.LOCK_BASED),
+        KV_JAVA_NON_BLOCKING(StorageType.KEY_VALUE_DB, IntCounterType.NON_BLOCKING);
 
         private final StorageType store;
+        private final IntCounterType counterType;
 
-        Scenario(@NotNull StorageType store) {
+        Scenario(@NotNull StorageType store, @NotNull IntCounterType counterType) {
             this.store = store;
+            this.counterType = counterType;
         }
     }
 }
@@ -0,0 +1,111 @@
+package io.spbx.webby.db.count.primitive;
+
+import com.carrotsearch.hppc.IntIntHashMap;
+import com.carrotsearch.hppc.IntIntMap;
+import com.carrotsearch.hppc.procedures.IntIntProcedure;
+import com.google.common.eventbus.EventBus;
+import io.spbx.webby.db.DbReadyEvent;
+import io.spbx.webby.db.managed.FlushMode;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.google.common.truth.Truth.assertThat;
+import static io.spbx.util.testing.AssertHppc.assertMap;
+import static io.spbx.util.testing.TestingHppc.newIntMap;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class NonBlockingIntCounterTest {
+    private static final int A = 1000;
+    private static final int B = 2000;
+    private static final int C = 3000;
+
+    private final FakeStorage storage = new FakeStorage();
+    private NonBlockingIntCounter counter;
+
+    @BeforeEach
+    void setUp() {
+        storage.stored.putAll(newIntMap(A, 1, B, 2));
+        counter = new NonBlockingIntCounter(storage, new EventBus());
+        counter.dbReady(new DbReadyEvent());
+    }
+
+    @Test
+    public void flush_incremental_stores_only_dirty_keys() {
+        counter.update(A, 5);
+        counter.update(C, 3);
+        counter.flush(FlushMode.INCREMENTAL);
+        assertThat(storage.batches).containsExactly(newIntMap(A, 6, C, 3));
+
+        counter.flush(FlushMode.INCREMENTAL);
+        assertThat(storage.batches).hasSize(1);
+
+        counter.update(A, -1);
+        counter.flush(FlushMode.INCREMENTAL);
+        assertThat(storage.batches).containsExactly(newIntMap(A, 6, C, 3), newIntMap(A, 5)).inOrder();
+        assertMap(storage.stored).containsExactly(A, 5, B, 2, C, 3);
+    }
+
+    @Test
+    public void flush_all_stores_all_keys() {
+        counter.update(A, 5);
+        counter.flush(FlushMode.FULL_COMPACT);
+        assertThat(storage.batches).containsExactly(newIntMap(A, 6, B, 2));
+    }
+
+    @Test
+    public void flush_failed_keys_marked_dirty() {
+        counter.update(A, 5);
+        storage.failing = true;
+        assertThrows(IllegalStateException.class, () -> counter.flush(FlushMode.INCREMENTAL));
+        assertThat(storage.batches).isEmpty();
+
+        storage.failing = false;
+        counter.update(C, 3);
+        counter.flush(FlushMode.INCREMENTAL);
+        assertThat(storage.batches).containsExactly(newIntMap(A, 6, C, 3));
+        assertMap(storage.stored).containsExactly(A, 6, B, 2, C, 3);
+    }
+
+    @Test
+    public void concurrent_updates_hot_key() throws InterruptedException {
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                for (int j = 0; j < 10_000; j++) {
+                    counter.increment(C);
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertThat(counter.estimateCount(C)).isEqualTo(80_000);
+
+        counter.flush(FlushMode.INCREMENTAL);
+        assertThat(storage.batches).containsExactly(newIntMap(C, 80_000));
+    }
+
+    private static class FakeStorage implements IntCountStorage {
+        private final IntIntHashMap stored = new IntIntHashMap();
+        private final List<IntIntMap> batches = new ArrayList<>();
+        private boolean failing;
+
+        @Override
+        public void loadAll(@NotNull IntIntProcedure consumer) {
+            stored.forEach(consumer);
+        }
+
+        @Override
+        public void storeBatch(@NotNull IntIntMap map) {
+            if (failing) {
+                throw new IllegalStateException("Failed to store: " + map);
+            }
+            batches.add(new IntIntHashMap(map));
+            stored.putAll(map);
+        }
+    }
+}
@@ -14,6 +14,7 @@ import io.spbx.webby.auth.session.SessionManager;
 import io.spbx.webby.auth.user.DefaultUser;
 import io.spbx.webby.auth.user.UserAccess;
 import io.spbx.webby.auth.user.UserModel;
+import io.spbx.webby.db.codec.standard.OrderedCodecs;
 import io.spbx.webby.db.kv.chronicle.ChronicleDb;
 import io.spbx.webby.db.kv.chronicle.ChronicleFactory;
 import io.spbx.webby.db.kv.impl.AgnosticKeyValueFactory;
@@ -21,6 +22,7 @@ import io.spbx.webby.db.kv.mapdb.MapDbFactory;
 import io.spbx.webby.db.kv.mapdb.MapDbImpl;
 import io.spbx.webby.db.kv.paldb.PalDbFactory;
 import io.spbx.webby.db.kv.paldb.PalDbImpl;
+import io.spbx.webby.db.kv.sql.BlobTableDb;
 import io.spbx.webby.testing.*;
 import io.spbx.webby.testing.ext.EmbeddedRedisExtension;
 import io.spbx.webby.testing.ext.SqlDbExtension;
@@ -31,10 +33,12 @@ import org.junit.jupiter.api.extension.RegisterExtension;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.EnumSource;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 import java.util.stream.Stream;
 
 import static com.google.common.truth.Truth.assertThat;
@@ -286,6 +290,77 @@ public class KeyValueDbIntegrationTest {
         }
     }
 
+    @ParameterizedTest
+    @EnumSource(value = DbType.class, names = {"LEVEL_DB_JNI", "LMDB_JAVA", "ROCKS_DB", "TUPL"})
+    public void sorted_scans(DbType dbType) {
+        KeyValueFactory dbFactory = setupFactory(dbType);
+
+        DbOptions<String, Integer> options = DbOptions.of("sorted", String.class, Integer.class)
+            .withCustomKeyCodec(OrderedCodecs.ORDERED_STRING_CODEC);
+        try (SortedKeyValueDb<String, Integer> db = dbFactory.getSortedDb(options)) {
+            db.putAll(Map.of("a", 1, "ab", 2, "abc", 3, "b", 4, "ba", 5, "c", 6));
+
+            assertThat(keys(db.scan(null, null))).containsExactly("a", "ab", "abc", "b", "ba", "c").inOrder();
+            assertThat(keys(db.scan("ab", "ba"))).containsExactly("ab", "abc", "b").inOrder();
+            assertThat(keys(db.scanReverse("ab", "ba"))).containsExactly("b", "abc", "ab").inOrder();
+            assertThat(keys(db.scanReverse(null, null))).containsExactly("c", "ba", "b", "abc", "ab", "a").inOrder();
+            assertThat(keys(db.scanPrefix("ab"))).containsExactly("ab", "abc").inOrder();
+            assertThat(keys(db.scanPrefix("x"))).isEmpty();
+
+            ScanOptions<String> page = ScanOptions.<String>all().withLimit(4);
+            try (KeyValueCursor<String, Integer> cursor = db.cursor(page)) {
+                assertThat(keys(cursor)).containsExactly("a", "ab", "abc", "b").inOrder();
+                assertThat(cursor.resumeToken()).isNotNull();
+                assertThat(keys(db.cursor(page.resumeAfter(cursor.resumeToken())))).containsExactly("ba", "c").inOrder();
+            }
+            try (KeyValueCursor<String, Integer> cursor = db.cursor(page.withReverse())) {
+                assertThat(keys(cursor)).containsExactly("c", "ba", "b", "abc").inOrder();
+                assertThat(keys(db.cursor(page.withReverse().resumeAfter(cursor.resumeToken()))))
+                    .containsExactly("ab", "a").inOrder();
+            }
+        }
+    }
+
+    @Test
+    public void sql_blob_batched_writes() {
+        KeyValueFactory dbFactory = setup(DbType.SQL_DB, settings -> {
+            settings.setInt("db.sql.blob.write.batch.size", 4);
+            settings.setInt("db.sql.blob.write.delay.millis", 0);
+        }).getInstance(KeyValueFactory.class);
+
+        try (KeyValueDb<Long, String> db = dbFactory.getDb(DbOptions.of("batched", Long.class, String.class))) {
+            assertThat(db).isInstanceOf(BlobTableDb.class);
+            BlobTableDb<String, Long> blobDb = (BlobTableDb<String, Long>) db;
+            int rows = blobDb.internalTable().count();
+
+            db.set(1L, "foo");
+            db.set(2L, "bar");
+            db.set(1L, "baz");
+            assertThat(blobDb.internalTable().count()).isEqualTo(rows);
+            assertThat(db.get(1L)).isEqualTo("baz");
+            assertThat(db.getAll(List.of(1L, 2L, 3L))).containsExactly("baz", "bar", null).inOrder();
+
+            db.set(3L, "foobar");
+            db.delete(2L);
+            db.set(4L, "qux");
+            db.flush();
+            assertThat(blobDb.internalTable().count()).isEqualTo(rows + 3);
+            assertThat(db.getAll(List.of(1L, 2L, 3L, 4L))).containsExactly("baz", null, "foobar", "qux").inOrder();
+            assertThat(db.getAll(List.of(3L, 1L, 3L))).containsExactly("foobar", "baz", "foobar").inOrder();
+
+            db.delete(4L);
+            assertThat(db.get(4L)).isNull();
+            assertDb(db).isEqualTo(Map.of(1L, "baz", 3L, "foobar"));
+        }
+    }
+
+    private static <K, V> @NotNull List<K> keys(@NotNull KeyValueCursor<K, V> cursor) {
+        List<K> keys = new ArrayList<>();
+        cursor.forEachRemaining(entry -> keys.add(entry.getKey()));
+        cursor.close();
+        return keys;
+    }
+
     @Test
     public void internal_db() {
         AgnosticKeyValueFactory dbFactory = setup(DbType.JAVA_MAP).getInstance(AgnosticKeyValueFactory.class);
@@ -424,6 +499,10 @@ public class KeyValueDbIntegrationTest {
     }
 
     private static @NotNull Injector setup(@NotNull DbType dbType) {
+        return setup(dbType, settings -> {});
+    }
+
+    private static @NotNull Injector setup(@NotNull DbType dbType, @NotNull Consumer<AppSettings> customize) {
         TestingProps.assumePropIfSet("test.kv.only_type", dbType.name());
 
         AppSettings settings = Testing.defaultAppSettings();
@@ -442,6 +521,7 @@ public class KeyValueDbIntegrationTest {
         settings.setInt("db.swaydb.appendix.flush.checkpoint.size.bytes", 1 << 10);
 
         settings.setInt("db.redis.port", REDIS.port());
+        customize.accept(settings);
 
         if (dbType == DbType.SQL_DB) {
             settings.updateStorageSettings(storage -> storage.enableSql(SQL.settings()));
@@ -13,6 +13,7 @@ import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 import static com.google.common.truth.Truth.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -229,6 +230,27 @@ public interface PrimaryKeyTableTest<K, E, T extends TableObj<K, E>> extends Bas
         assertThat(table().fetchAll()).isEmpty();
     }
 
+    /** {@link TableObj#insertBulk(Iterable)} **/
+
+    @Test
+    default void insert_bulk_of_two_different() {
+        assumeKeys(2);
+        E entity1 = createEntity(keys()[0]);
+        E entity2 = createEntity(keys()[1]);
+        assertThat(table().insertBulk(List.of(entity1, entity2))).isEqualTo(2);
+
+        assertTableCount(2);
+        assertTableContains(keys()[0], entity1);
+        assertTableContains(keys()[1], entity2);
+        assertTableAll(entity1, entity2);
+    }
+
+    @Test
+    default void insert_bulk_empty() {
+        assertThat(table().insertBulk(List.of())).isEqualTo(0);
+        assertTableCount(0);
+    }
+
     /** {@link TableObj#updateByPk(Object)} **/
 
     @Test
@@ -396,6 +418,37 @@ public interface PrimaryKeyTableTest<K, E, T extends TableObj<K, E>> extends Bas
         assertTableAll(entity);
     }
 
+    /** {@link TableObj#stream()} **/
+
+    @Test
+    default void stream_all() {
+        assumeKeys(2);
+        E entity1 = createEntity(keys()[0]);
+        assertThat(table().insert(entity1)).isEqualTo(1);
+        E entity2 = createEntity(keys()[1]);
+        assertThat(table().insert(entity2)).isEqualTo(1);
+
+        try (Stream<E> stream = table().stream()) {
+            assertThat(stream.toList()).containsExactly(entity1, entity2);
+        }
+    }
+
+    /** {@link TableObj#forEachChunk(Filter, int, java.util.function.Consumer)} **/
+
+    @Test
+    default void for_each_chunk() {
+        assumeKeys(3);
+        E entity1 = createEntity(keys()[0]);
+        E entity2 = createEntity(keys()[1]);
+        E entity3 = createEntity(keys()[2]);
+        assertThat(table().insertBatch(List.of(entity1, entity2, entity3))).asList().containsExactly(1, 1, 1);
+
+        List<List<E>> chunks = new ArrayList<>();
+        table().forEachChunk(CompositeFilter.builder().build(), 2, chunks::add);
+        assertThat(chunks.stream().map(List::size).toList()).containsExactly(2, 1).inOrder();
+        assertThat(ListBuilder.concat(chunks.get(0), chunks.get(1))).containsExactly(entity1, entity2, entity3);
+    }
+
     /** {@link TableObj#fetchPage(CompositeFilter)} **/
 
     @Test
@@ -428,6 +481,31 @@ public interface PrimaryKeyTableTest<K, E, T extends TableObj<K, E>> extends Bas
         assertThat(page3.items()).isEmpty();
     }
 
+    /** {@link TableObj#fetchPage(PageToken, int)} **/
+
+    @Test
+    default void fetch_page_keyset() {
+        assumeKeys(3);
+        E entity1 = createEntity(keys()[0]);
+        assertThat(table().insert(entity1)).isEqualTo(1);
+        E entity2 = createEntity(keys()[1]);
+        assertThat(table().insert(entity2)).isEqualTo(1);
+        E entity3 = createEntity(keys()[2]);
+        assertThat(table().insert(entity3)).isEqualTo(1);
+
+        Page<E> page1 = table().fetchPage(null, 2);
+        assertThat(page1.hasNextPage()).isTrue();
+        assertThat(page1.nextToken()).isNotNull();
+        assertThat(page1.nextToken().hasLastItem()).isTrue();
+        assertThat(page1.items()).hasSize(2);
+
+        Page<E> page2 = table().fetchPage(page1.nextToken(), 2);
+        assertThat(page2.hasNextPage()).isFalse();
+        assertThat(page2.items()).hasSize(1);
+
+        assertThat(ListBuilder.concat(page1.items(), page2.items())).containsExactly(entity1, entity2, entity3);
+    }
+
     @NotNull E createEntity(@NotNull K key, int version);
 
     default @NotNull E createEntity(@NotNull K key) {
@@ -1,6 +1,9 @@
 package io.spbx.orm.api;
 
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Iterators;
 import com.google.common.collect.Lists;
+import com.google.common.collect.Streams;
 import com.google.errorprone.annotations.CanIgnoreReturnValue;
 import com.google.errorprone.annotations.MustBeClosed;
 import io.spbx.orm.api.entity.BatchEntityData;
@@ -12,6 +15,7 @@ import org.jetbrains.annotations.Nullable;
 import java.util.Collection;
 import java.util.List;
 import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * A base interface providing common API for table operations. Each {@link BaseTable} instance is working in context
@@ -47,6 +51,11 @@ public interface BaseTable<E> extends Iterable<E>, HasEngine, HasRunner {
      */
     @NotNull BaseTable<E> withReferenceFollowOnRead(@NotNull ReadFollow follow);
 
+    /**
+     * Returns the JDBC values of the {@code entity} columns in the order of {@link TableMeta#sqlColumns()}.
+     */
+    @Nullable Object @NotNull [] columnValuesOf(@NotNull E entity);
+
     // Size
 
     /**
@@ -108,6 +117,49 @@ public interface BaseTable<E> extends Iterable<E>, HasEngine, HasRunner {
     @MustBeClosed
     @NotNull ResultSetIterator<E> iterator(@NotNull Filter filter);
 
+    /**
+     * Returns an iterator over the entries matching the {@code filter}, which doesn't buffer the whole result
+     * in memory (see {@link QueryRunner#iterateStreaming}). Suitable for exporting large tables.
+     * <b>Important</b>: the caller is responsible for closing the iterator.
+     */
+    @MustBeClosed
+    @NotNull ResultSetIterator<E> streamingIterator(@NotNull Filter filter);
+
+    /**
+     * Returns a lazy stream over all entries in the table, backed by the {@link #streamingIterator(Filter)}.
+     * <b>Important</b>: the caller is responsible for closing the stream:
+     * <pre>
+     *     try (Stream&lt;Entity&gt; stream = table.stream()) {
+     *         stream.forEach(action);
+     *     }
+     * </pre>
+     */
+    @MustBeClosed
+    default @NotNull Stream<E> stream() {
+        return stream(CompositeFilter.builder().build());
+    }
+
+    /**
+     * Returns a lazy stream over the entries matching the {@code filter}, backed by the
+     * {@link #streamingIterator(Filter)}. <b>Important</b>: the caller is responsible for closing the stream.
+     */
+    @MustBeClosed
+    default @NotNull Stream<E> stream(@NotNull Filter filter) {
+        ResultSetIterator<E> iterator = streamingIterator(filter);
+        return Streams.stream(iterator).onClose(iterator::close);
+    }
+
+    /**
+     * Iterates over the entries matching the {@code filter} and calls a {@code consumer} on each chunk
+     * of at most {@code chunkSize} entries. Only a single chunk is held in memory at a time.
+     */
+    default void forEachChunk(@NotNull Filter filter, int chunkSize, @NotNull Consumer<List<E>> consumer) {
+        assert chunkSize > 0 : "Invalid chunk size: " + chunkSize;
+        try (ResultSetIterator<E> iterator = streamingIterator(filter)) {
+            Iterators.partition(iterator, chunkSize).forEachRemaining(consumer);
+        }
+    }
+
     /**
      * Iterates over all entries in the table and calls an {@code action} on each one.
      */
@@ -161,6 +213,31 @@ public interface BaseTable<E> extends Iterable<E>, HasEngine, HasRunner {
         return new Page<>(items, null);
     }
 
+    /**
+     * Fetches a single page of at most {@code limit} entries after the {@code token} (or the first page if null).
+     * Uses the keyset pagination by the primary key (see {@link KeysetPagination}), the returned token holds
+     * the key of the last entry. The offset tokens are still accepted.
+     */
+    default @NotNull Page<E> fetchPage(@Nullable PageToken token, int limit) {
+        return fetchPage(null, token, limit);
+    }
+
+    /**
+     * Fetches a single page of at most {@code limit} entries matching the {@code where} after the {@code token}
+     * (or the first page if null). Uses the keyset pagination by the primary key (see {@link KeysetPagination}).
+     * The next page token is returned only if there are more entries.
+     */
+    default @NotNull Page<E> fetchPage(@Nullable Where where, @Nullable PageToken token, int limit) {
+        KeysetPagination keyset = KeysetPagination.of(meta());
+        List<E> items = fetchAllMatching(keyset.filter(where, token, limit + 1, engine()));
+        if (items.size() > limit) {
+            List<E> page = items.subList(0, limit);
+            PageToken nextToken = keyset.tokenOf(columnValuesOf(page.getLast()));
+            return new Page<>(List.copyOf(page), nextToken);
+        }
+        return new Page<>(items, null);
+    }
+
     /**
      * Returns a single entry matching the {@code filter}, or null if none match.
      */
@@ -208,6 +285,18 @@ public interface BaseTable<E> extends Iterable<E>, HasEngine, HasRunner {
     @CanIgnoreReturnValue
     int[] insertBatch(@NotNull Collection<? extends E> batch);
 
+    /**
+     * Inserts the {@code entities} in bulk via multi-row inserts (see {@link BulkInsert}). The {@code entities}
+     * are consumed lazily, so it's possible to load an arbitrary large stream in constant memory.
+     *
+     * @return the total number of inserted rows
+     * @throws QueryException if the insertion failed, e.g. due to PK or FK conflict
+     */
+    @CanIgnoreReturnValue
+    default int insertBulk(@NotNull Iterable<? extends E> entities) {
+        return BulkInsert.of(meta(), engine()).run(runner(), Iterables.transform(entities, this::columnValuesOf));
+    }
+
     /**
      * Inserts the {@code BatchEntityData} into the table. The {@code batchData} rows may or may not be complete.
      *
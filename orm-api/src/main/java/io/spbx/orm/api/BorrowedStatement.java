@@ -0,0 +1,592 @@
+package io.spbx.orm.api;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.net.URL;
+import java.sql.*;
+import java.util.Calendar;
+
+// The statement borrowed from the `StatementCache`: forwards all calls to the cached statement, except for `close()`
+// which returns the statement to the cache. Written by hand (and not as a `Proxy`), so that the typed setters
+// don't box the values and go through the reflection.
+class BorrowedStatement implements PreparedStatement {
+    private final StatementCache cache;
+    private final String sql;
+    private final PreparedStatement statement;
+    private boolean returned;
+
+    BorrowedStatement(@NotNull StatementCache cache, @NotNull String sql, @NotNull PreparedStatement statement) {
+        this.cache = cache;
+        this.sql = sql;
+        this.statement = statement;
+    }
+
+    @Override
+    public void close() throws SQLException {
+        if (!returned) {
+            returned = true;
+            cache.release(sql, statement);
+        }
+    }
+
+    @Override
+    public boolean isClosed() throws SQLException {
+        return returned || statement.isClosed();
+    }
+
+    @Override
+    public String toString() {
+        return statement.toString();
+    }
+
+    private @NotNull PreparedStatement statement() throws SQLException {
+        if (returned) {
+            throw new SQLException("Statement is closed: " + sql);
+        }
+        return statement;
+    }
+
+    @Override
+    public ResultSet executeQuery() throws SQLException {
+        return statement().executeQuery();
+    }
+
+    @Override
+    public int executeUpdate() throws SQLException {
+        return statement().executeUpdate();
+    }
+
+    @Override
+    public void setNull(int index, int sqlType) throws SQLException {
+        statement().setNull(index, sqlType);
+    }
+
+    @Override
+    public void setBoolean(int index, boolean value) throws SQLException {
+        statement().setBoolean(index, value);
+    }
+
+    @Override
+    public void setByte(int index, byte value) throws SQLException {
+        statement().setByte(index, value);
+    }
+
+    @Override
+    public void setShort(int index, short value) throws SQLException {
+        statement().setShort(index, value);
+    }
+
+    @Override
+    public void setInt(int index, int value) throws SQLException {
+        statement().setInt(index, value);
+    }
+
+    @Override
+    public void setLong(int index, long value) throws SQLException {
+        statement().setLong(index, value);
+    }
+
+    @Override
+    public void setFloat(int index, float value) throws SQLException {
+        statement().setFloat(index, value);
+    }
+
+    @Override
+    public void setDouble(int index, double value) throws SQLException {
+        statement().setDouble(index, value);
+    }
+
+    @Override
+    public void setBigDecimal(int index, BigDecimal value) throws SQLException {
+        statement().setBigDecimal(index, value);
+    }
+
+    @Override
+    public void setString(int index, String value) throws SQLException {
+        statement().setString(index, value);
+    }
+
+    @Override
+    public void setBytes(int index, byte[] value) throws SQLException {
+        statement().setBytes(index, value);
+    }
+
+    @Override
+    public void setDate(int index, Date value) throws SQLException {
+        statement().setDate(index, value);
+    }
+
+    @Override
+    public void setTime(int index, Time value) throws SQLException {
+        statement().setTime(index, value);
+    }
+
+    @Override
+    public void setTimestamp(int index, Timestamp value) throws SQLException {
+        statement().setTimestamp(index, value);
+    }
+
+    @Override
+    public void setAsciiStream(int index, InputStream value, int length) throws SQLException {
+        statement().setAsciiStream(index, value, length);
+    }
+
+    @Override
+    @SuppressWarnings("deprecation")
+    public void setUnicodeStream(int index, InputStream value, int length) throws SQLException {
+        statement().setUnicodeStream(index, value, length);
+    }
+
+    @Override
+    public void setBinaryStream(int index, InputStream value, int length) throws SQLException {
+        statement().setBinaryStream(index, value, length);
+    }
+
+    @Override
+    public void clearParameters() throws SQLException {
+        statement().clearParameters();
+    }
+
+    @Override
+    public void setObject(int index, Object value, int targetSqlType) throws SQLException {
+        statement().setObject(index, value, targetSqlType);
+    }
+
+    @Override
+    public void setObject(int index, Object value) throws SQLException {
+        statement().setObject(index, value);
+    }
+
+    @Override
+    public boolean execute() throws SQLException {
+        return statement().execute();
+    }
+
+    @Override
+    public void addBatch() throws SQLException {
+        statement().addBatch();
+    }
+
+    @Override
+    public void setCharacterStream(int index, Reader value, int length) throws SQLException {
+        statement().setCharacterStream(index, value, length);
+    }
+
+    @Override
+    public void setRef(int index, Ref value) throws SQLException {
+        statement().setRef(index, value);
+    }
+
+    @Override
+    public void setBlob(int index, Blob value) throws SQLException {
+        statement().setBlob(index, value);
+    }
+
+    @Override
+    public void setClob(int index, Clob value) throws SQLException {
+        statement().setClob(index, value);
+    }
+
+    @Override
+    public void setArray(int index, Array value) throws SQLException {
+        statement().setArray(index, value);
+    }
+
+    @Override
+    public ResultSetMetaData getMetaData() throws SQLException {
+        return statement().getMetaData();
+    }
+
+    @Override
+    public void setDate(int index, Date value, Calendar calendar) throws SQLException {
+        statement().setDate(index, value, calendar);
+    }
+
+    @Override
+    public void setTime(int index, Time value, Calendar calendar) throws SQLException {
+        statement().setTime(index, value, calendar);
+    }
+
+    @Override
+    public void setTimestamp(int index, Timestamp value, Calendar calendar) throws SQLException {
+        statement().setTimestamp(index, value, calendar);
+    }
+
+    @Override
+    public void setNull(int index, int sqlType, String typeName) throws SQLException {
+        statement().setNull(index, sqlType, typeName);
+    }
+
+    @Override
+    public void setURL(int index, URL value) throws SQLException {
+        statement().setURL(index, value);
+    }
+
+    @Override
+    public ParameterMetaData getParameterMetaData() throws SQLException {
+        return statement().getParameterMetaData();
+    }
+
+    @Override
+    public void setRowId(int index, RowId value) throws SQLException {
+        statement().setRowId(index, value);
+    }
+
+    @Override
+    public void setNString(int index, String value) throws SQLException {
+        statement().setNString(index, value);
+    }
+
+    @Override
+    public void setNCharacterStream(int index, Reader value, long length) throws SQLException {
+        statement().setNCharacterStream(index, value, length);
+    }
+
+    @Override
+    public void setNClob(int index, NClob value) throws SQLException {
+        statement().setNClob(index, value);
+    }
+
+    @Override
+    public void setClob(int index, Reader value, long length) throws SQLException {
+        statement().setClob(index, value, length);
+    }
+
+    @Override
+    public void setBlob(int index, InputStream value, long length) throws SQLException {
+        statement().setBlob(index, value, length);
+    }
+
+    @Override
+    public void setNClob(int index, Reader value, long length) throws SQLException {
+        statement().setNClob(index, value, length);
+    }
+
+    @Override
+    public void setSQLXML(int index, SQLXML value) throws SQLException {
+        statement().setSQLXML(index, value);
+    }
+
+    @Override
+    public void setObject(int index, Object value, int targetSqlType, int scaleOrLength) throws SQLException {
+        statement().setObject(index, value, targetSqlType, scaleOrLength);
+    }
+
+    @Override
+    public void setAsciiStream(int index, InputStream value, long length) throws SQLException {
+        statement().setAsciiStream(index, value, length);
+    }
+
+    @Override
+    public void setBinaryStream(int index, InputStream value, long length) throws SQLException {
+        statement().setBinaryStream(index, value, length);
+    }
+
+    @Override
+    public void setCharacterStream(int index, Reader value, long length) throws SQLException {
+        statement().setCharacterStream(index, value, length);
+    }
+
+    @Override
+    public void setAsciiStream(int index, InputStream value) throws SQLException {
+        statement().setAsciiStream(index, value);
+    }
+
+    @Override
+    public void setBinaryStream(int index, InputStream value) throws SQLException {
+        statement().setBinaryStream(index, value);
+    }
+
+    @Override
+    public void setCharacterStream(int index, Reader value) throws SQLException {
+        statement().setCharacterStream(index, value);
+    }
+
+    @Override
+    public void setNCharacterStream(int index, Reader value) throws SQLException {
+        statement().setNCharacterStream(index, value);
+    }
+
+    @Override
+    public void setClob(int index, Reader value) throws SQLException {
+        statement().setClob(index, value);
+    }
+
+    @Override
+    public void setBlob(int index, InputStream value) throws SQLException {
+        statement().setBlob(index, value);
+    }
+
+    @Override
+    public void setNClob(int index, Reader value) throws SQLException {
+        statement().setNClob(index, value);
+    }
+
+    @Override
+    public void setObject(int index, Object value, SQLType targetSqlType, int scaleOrLength) throws SQLException {
+        statement().setObject(index, value, targetSqlType, scaleOrLength);
+    }
+
+    @Override
+    public void setObject(int index, Object value, SQLType targetSqlType) throws SQLException {
+        statement().setObject(index, value, targetSqlType);
+    }
+
+    @Override
+    public long executeLargeUpdate() throws SQLException {
+        return statement().executeLargeUpdate();
+    }
+
+    @Override
+    public ResultSet executeQuery(String sql) throws SQLException {
+        return statement().executeQuery(sql);
+    }
+
+    @Override
+    public int executeUpdate(String sql) throws SQLException {
+        return statement().executeUpdate(sql);
+    }
+
+    @Override
+    public int getMaxFieldSize() throws SQLException {
+        return statement().getMaxFieldSize();
+    }
+
+    @Override
+    public void setMaxFieldSize(int max) throws SQLException {
+        statement().setMaxFieldSize(max);
+    }
+
+    @Override
+    public int getMaxRows() throws SQLException {
+        return statement().getMaxRows();
+    }
+
+    @Override
+    public void setMaxRows(int max) throws SQLException {
+        statement().setMaxRows(max);
+    }
+
+    @Override
+    public void setEscapeProcessing(boolean enable) throws SQLException {
+        statement().setEscapeProcessing(enable);
+    }
+
+    @Override
+    public int getQueryTimeout() throws SQLException {
+        return statement().getQueryTimeout();
+    }
+
+    @Override
+    public void setQueryTimeout(int seconds) throws SQLException {
+        statement().setQueryTimeout(seconds);
+    }
+
+    @Override
+    public void cancel() throws SQLException {
+        statement().cancel();
+    }
+
+    @Override
+    public SQLWarning getWarnings() throws SQLException {
+        return statement().getWarnings();
+    }
+
+    @Override
+    public void clearWarnings() throws SQLException {
+        statement().clearWarnings();
+    }
+
+    @Override
+    public void setCursorName(String name) throws SQLException {
+        statement().setCursorName(name);
+    }
+
+    @Override
+    public boolean execute(String sql) throws SQLException {
+        return statement().execute(sql);
+    }
+
+    @Override
+    public ResultSet getResultSet() throws SQLException {
+        return statement().getResultSet();
+    }
+
+    @Override
+    public int getUpdateCount() throws SQLException {
+        return statement().getUpdateCount();
+    }
+
+    @Override
+    public boolean getMoreResults() throws SQLException {
+        return statement().getMoreResults();
+    }
+
+    @Override
+    public void setFetchDirection(int direction) throws SQLException {
+        statement().setFetchDirection(direction);
+    }
+
+    @Override
+    public int getFetchDirection() throws SQLException {
+        return statement().getFetchDirection();
+    }
+
+    @Override
+    public void setFetchSize(int rows) throws SQLException {
+        statement().setFetchSize(rows);
+    }
+
+    @Override
+    public int getFetchSize() throws SQLException {
+        return statement().getFetchSize();
+    }
+
+    @Override
+    public int getResultSetConcurrency() throws SQLException {
+        return statement().getResultSetConcurrency();
+    }
+
+    @Override
+    public int getResultSetType() throws SQLException {
+        return statement().getResultSetType();
+    }
+
+    @Override
+    public void addBatch(String sql) throws SQLException {
+        statement().addBatch(sql);
+    }
+
+    @Override
+    public void clearBatch() throws SQLException {
+        statement().clearBatch();
+    }
+
+    @Override
+    public int[] executeBatch() throws SQLException {
+        return statement().executeBatch();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return statement().getConnection();
+    }
+
+    @Override
+    public boolean getMoreResults(int current) throws SQLException {
+        return statement().getMoreResults(current);
+    }
+
+    @Override
+    public ResultSet getGeneratedKeys() throws SQLException {
+        return statement().getGeneratedKeys();
+    }
+
+    @Override
+    public int executeUpdate(String sql, int autoGeneratedKeys) throws SQLException {
+        return statement().executeUpdate(sql, autoGeneratedKeys);
+    }
+
+    @Override
+    public int executeUpdate(String sql, int[] columnIndexes) throws SQLException {
+        return statement().executeUpdate(sql, columnIndexes);
+    }
+
+    @Override
+    public int executeUpdate(String sql, String[] columnNames) throws SQLException {
+        return statement().executeUpdate(sql, columnNames);
+    }
+
+    @Override
+    public boolean execute(String sql, int autoGeneratedKeys) throws SQLException {
+        return statement().execute(sql, autoGeneratedKeys);
+    }
+
+    @Override
+    public boolean execute(String sql, int[] columnIndexes) throws SQLException {
+        return statement().execute(sql, columnIndexes);
+    }
+
+    @Override
+    public boolean execute(String sql, String[] columnNames) throws SQLException {
+        return statement().execute(sql, columnNames);
+    }
+
+    @Override
+    public int getResultSetHoldability() throws SQLException {
+        return statement().getResultSetHoldability();
+    }
+
+    @Override
+    public void setPoolable(boolean poolable) throws SQLException {
+        statement().setPoolable(poolable);
+    }
+
+    @Override
+    public boolean isPoolable() throws SQLException {
+        return statement().isPoolable();
+    }
+
+    @Override
+    public void closeOnCompletion() throws SQLException {
+        statement().closeOnCompletion();
+    }
+
+    @Override
+    public boolean isCloseOnCompletion() throws SQLException {
+        return statement().isCloseOnCompletion();
+    }
+
+    @Override
+    public long getLargeUpdateCount() throws SQLException {
+        return statement().getLargeUpdateCount();
+    }
+
+    @Override
+    public void setLargeMaxRows(long max) throws SQLException {
+        statement().setLargeMaxRows(max);
+    }
+
+    @Override
+    public long getLargeMaxRows() throws SQLException {
+        return statement().getLargeMaxRows();
+    }
+
+    @Override
+    public long[] executeLargeBatch() throws SQLException {
+        return statement().executeLargeBatch();
+    }
+
+    @Override
+    public long executeLargeUpdate(String sql) throws SQLException {
+        return statement().executeLargeUpdate(sql);
+    }
+
+    @Override
+    public long executeLargeUpdate(String sql, int autoGeneratedKeys) throws SQLException {
+        return statement().executeLargeUpdate(sql, autoGeneratedKeys);
+    }
+
+    @Override
+    public long executeLargeUpdate(String sql, int[] columnIndexes) throws SQLException {
+        return statement().executeLargeUpdate(sql, columnIndexes);
+    }
+
+    @Override
+    public long executeLargeUpdate(String sql, String[] columnNames) throws SQLException {
+        return statement().executeLargeUpdate(sql, columnNames);
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        return statement().unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return statement().isWrapperFor(iface);
+    }
+}
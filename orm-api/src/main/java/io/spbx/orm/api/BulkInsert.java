@@ -0,0 +1,113 @@
+package io.spbx.orm.api;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Inserts the rows in bulk via the multi-row <code>INSERT INTO ... VALUES (...), (...), ...</code> statements:
+ * a single round-trip and a single statement parse per chunk of rows.
+ * <p>
+ * The rows are consumed lazily, so only one chunk is held in memory at a time. The chunk size is limited by
+ * the number of bound parameters the engine accepts. All full chunks share the same SQL, so that the statement
+ * can be reused by the {@link StatementCache}. The engines without the multi-row <code>VALUES</code>
+ * (e.g. {@link Engine#Oracle}) fall back to the JDBC batch of single-row inserts.
+ */
+public class BulkInsert {
+    public static final int DEFAULT_CHUNK_ROWS = 500;
+
+    private final String table;
+    private final List<String> columns;
+    private final boolean isMultiRow;
+    private final int chunkRows;
+    private final String fullChunkSql;
+
+    public BulkInsert(@NotNull String table, @NotNull List<String> columns, @NotNull Engine engine, int maxChunkRows) {
+        assert !columns.isEmpty() : "No columns to insert into `%s`".formatted(table);
+        assert maxChunkRows > 0 : "Invalid chunk size: " + maxChunkRows;
+        this.table = table;
+        this.columns = List.copyOf(columns);
+        this.isMultiRow = isMultiRowSupported(engine);
+        this.chunkRows = Math.max(1, Math.min(Math.min(maxChunkRows, maxRows(engine)), maxParams(engine) / columns.size()));
+        this.fullChunkSql = insertSql(isMultiRow ? chunkRows : 1);
+    }
+
+    public static @NotNull BulkInsert of(@NotNull TableMeta meta, @NotNull Engine engine) {
+        List<String> columns = meta.sqlColumns().stream().map(TableMeta.ColumnMeta::name).toList();
+        return new BulkInsert(meta.sqlTableName(), columns, engine, DEFAULT_CHUNK_ROWS);
+    }
+
+    public int chunkRows() {
+        return chunkRows;
+    }
+
+    /**
+     * Inserts all {@code rows}, each one holding the values of all columns in order.
+     *
+     * @return the total number of inserted rows
+     * @throws QueryException if the insertion failed, e.g. due to PK or FK conflict
+     */
+    public int run(@NotNull QueryRunner runner, @NotNull Iterable<Object[]> rows) {
+        int total = 0;
+        List<Object[]> chunk = new ArrayList<>(chunkRows);
+        for (Object[] row : rows) {
+            assert row.length == columns.size() :
+                "Row values don't match the columns: values=%d columns=%d".formatted(row.length, columns.size());
+            chunk.add(row);
+            if (chunk.size() == chunkRows) {
+                total += runChunk(runner, chunk);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            total += runChunk(runner, chunk);
+        }
+        return total;
+    }
+
+    private int runChunk(@NotNull QueryRunner runner, @NotNull List<Object[]> chunk) {
+        String sql = !isMultiRow || chunk.size() == chunkRows ? fullChunkSql : insertSql(chunk.size());
+        try {
+            if (!isMultiRow) {
+                return Arrays.stream(runner.runUpdateBatch(sql, chunk)).map(count -> Math.max(count, 0)).sum();
+            }
+            Object[] params = new Object[chunk.size() * columns.size()];
+            for (int i = 0; i < chunk.size(); i++) {
+                System.arraycopy(chunk.get(i), 0, params, i * columns.size(), columns.size());
+            }
+            return runner.runUpdate(sql, params);
+        } catch (SQLException e) {
+            throw new QueryException("Failed to bulk insert rows into %s".formatted(table), sql, e);
+        }
+    }
+
+    private @NotNull String insertSql(int rows) {
+        String row = "(" + "?, ".repeat(columns.size() - 1) + "?)";
+        return "INSERT INTO %s (%s)\nVALUES %s".formatted(table, String.join(", ", columns),
+                                                       String.join(", ", Collections.nCopies(rows, row)));
+    }
+
+    private static boolean isMultiRowSupported(@NotNull Engine engine) {
+        return switch (engine) {
+            case Derby, H2, HyperSQL, MariaDB, MsSqlServer, MySQL, PostgreSQL, SQLite -> true;
+            case Oracle, Sybase, Unknown -> false;
+        };
+    }
+
+    // SQLite before 3.32 allows 999 parameters, SQL Server allows 2100 parameters and 1000 rows
+    private static int maxParams(@NotNull Engine engine) {
+        return switch (engine) {
+            case SQLite -> 999;
+            case MsSqlServer -> 2000;
+            default -> 32767;
+        };
+    }
+
+    private static int maxRows(@NotNull Engine engine) {
+        return engine == Engine.MsSqlServer ? 1000 : Integer.MAX_VALUE;
+    }
+}
@@ -26,18 +26,33 @@ import java.util.List;
 /**
  * A utility wrapper-class of a {@code Connection} which provides a more convenient API methods for
  * query preparation and running.
+ * <p>
+ * If the {@link StatementCache} is provided, the statements are borrowed from the cache instead of being prepared
+ * on every call. Closing the returned statements gives them back to the cache.
  */
 public class QueryRunner {
+    public static final int STREAMING_FETCH_SIZE = 1000;
+
     private final Connection connection;
+    private final @Nullable StatementCache statementCache;
 
-    public QueryRunner(@NotNull Connection connection) {
+    public QueryRunner(@NotNull Connection connection, @Nullable StatementCache statementCache) {
         this.connection = connection;
+        this.statementCache = statementCache;
+    }
+
+    public QueryRunner(@NotNull Connection connection) {
+        this(connection, null);
     }
 
     /*package*/ @NotNull Connection connection() {
         return connection;
     }
 
+    public @Nullable StatementCache statementCache() {
+        return statementCache;
+    }
+
     @CheckReturnValue
     public @NotNull InTransaction<QueryRunner> tx() {
         return new InTransaction<>(connection, this);
@@ -166,38 +181,81 @@ public class QueryRunner {
         return list;
     }
 
+    // Streaming
+
+    /**
+     * Executes the {@code sql} query with a forward-only read-only cursor, which doesn't buffer the whole result
+     * in memory. The engine-specific settings:
+     * <ul>
+     *     <li>{@link Engine#MySQL} streams the rows one by one (fetch size {@link Integer#MIN_VALUE}).
+     *     No other query can run on this connection until the iterator is closed.</li>
+     *     <li>{@link Engine#PostgreSQL} uses the server-side cursor, which requires the auto-commit off.
+     *     If it's on, it's turned off for the duration of the iteration and restored on close.</li>
+     *     <li>Other engines get the {@link #STREAMING_FETCH_SIZE} hint.</li>
+     * </ul>
+     * The statement is never borrowed from the {@link StatementCache}.
+     */
+    @MustBeClosed
+    public <E> @NotNull ResultSetIterator<E> iterateStreaming(@NotNull String sql,
+                                                              @NotNull Args args,
+                                                              @NotNull Engine engine,
+                                                              @NotNull ResultSetIterator.Converter<E> converter)
+            throws SQLException {
+        assert args.isAllResolved() : "Query contains unresolved args: query=`%s` args=`%s`".formatted(sql, args);
+        boolean restoreAutoCommit = engine == Engine.PostgreSQL && connection.getAutoCommit();
+        if (restoreAutoCommit) {
+            connection.setAutoCommit(false);
+        }
+        PreparedStatement prepared = null;
+        try {
+            prepared = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            prepared.setFetchSize(engine == Engine.MySQL ? Integer.MIN_VALUE : STREAMING_FETCH_SIZE);
+            args.setPreparedParams(prepared);
+            return new ResultSetIterator<>(prepared.executeQuery(), true, converter,
+                                           restoreAutoCommit ? () -> connection.setAutoCommit(true) : null);
+        } catch (SQLException e) {
+            if (prepared != null) {
+                prepared.close();
+            }
+            if (restoreAutoCommit) {
+                connection.setAutoCommit(true);
+            }
+            throw e;
+        }
+    }
+
     // Prepare Query
 
     @MustBeClosed
     public @NotNull PreparedStatement prepareQuery(@NotNull String sql) throws SQLException {
-        return connection.prepareStatement(sql);
+        return prepareStatement(sql);
     }
 
     @MustBeClosed
     public @NotNull PreparedStatement prepareQuery(@NotNull String sql, @NotNull Args args) throws SQLException {
         assert args.isAllResolved() : "Query contains unresolved args: query=`%s` args=`%s`".formatted(sql, args);
-        PreparedStatement prepared = connection.prepareStatement(sql);
+        PreparedStatement prepared = prepareStatement(sql);
         args.setPreparedParams(prepared);
         return prepared;
     }
 
     @MustBeClosed
     public @NotNull PreparedStatement prepareQuery(@NotNull String sql, @Nullable Object param) throws SQLException {
-        PreparedStatement prepared = connection.prepareStatement(sql);
+        PreparedStatement prepared = prepareStatement(sql);
         prepared.setObject(1, param);
         return prepared;
     }
 
     @MustBeClosed
     public @NotNull PreparedStatement prepareQuery(@NotNull String sql, int param) throws SQLException {
-        PreparedStatement prepared = connection.prepareStatement(sql);
+        PreparedStatement prepared = prepareStatement(sql);
         prepared.setInt(1, param);
         return prepared;
     }
 
     @MustBeClosed
     public @NotNull PreparedStatement prepareQuery(@NotNull String sql, long param) throws SQLException {
-        PreparedStatement prepared = connection.prepareStatement(sql);
+        PreparedStatement prepared = prepareStatement(sql);
         prepared.setLong(1, param);
         return prepared;
     }
@@ -206,7 +264,7 @@ public class QueryRunner {
     public @NotNull PreparedStatement prepareQuery(@NotNull String sql,
                                                    @Nullable Object param1,
                                                    @Nullable Object param2) throws SQLException {
-        PreparedStatement prepared = connection.prepareStatement(sql);
+        PreparedStatement prepared = prepareStatement(sql);
         prepared.setObject(1, param1);
         prepared.setObject(2, param2);
         return prepared;
@@ -217,7 +275,7 @@ public class QueryRunner {
                                                    @Nullable Object param1,
                                                    @Nullable Object param2,
                                                    @Nullable Object param3) throws SQLException {
-        PreparedStatement prepared = connection.prepareStatement(sql);
+        PreparedStatement prepared = prepareStatement(sql);
         prepared.setObject(1, param1);
         prepared.setObject(2, param2);
         prepared.setObject(3, param3);
@@ -227,28 +285,28 @@ public class QueryRunner {
     @MustBeClosed
     public @NotNull PreparedStatement prepareQuery(@NotNull String sql,
                                                    @Nullable Object @NotNull ... params) throws SQLException {
-        PreparedStatement prepared = connection.prepareStatement(sql);
+        PreparedStatement prepared = prepareStatement(sql);
         setPreparedParams(prepared, params);
         return prepared;
     }
 
     @MustBeClosed
     public @NotNull PreparedStatement prepareQuery(@NotNull String sql, @NotNull Iterable<?> params) throws SQLException {
-        PreparedStatement prepared = connection.prepareStatement(sql);
+        PreparedStatement prepared = prepareStatement(sql);
         setPreparedParams(prepared, params);
         return prepared;
     }
 
     @MustBeClosed
     public @NotNull PreparedStatement prepareQuery(@NotNull String sql, @NotNull IntContainer params) throws SQLException {
-        PreparedStatement prepared = connection.prepareStatement(sql);
+        PreparedStatement prepared = prepareStatement(sql);
         setPreparedParams(prepared, params);
         return prepared;
     }
 
     @MustBeClosed
     public @NotNull PreparedStatement prepareQuery(@NotNull String sql, @NotNull LongContainer params) throws SQLException {
-        PreparedStatement prepared = connection.prepareStatement(sql);
+        PreparedStatement prepared = prepareStatement(sql);
         setPreparedParams(prepared, params);
         return prepared;
     }
@@ -258,6 +316,11 @@ public class QueryRunner {
         return prepareQuery(query.repr(), query.args());
     }
 
+    @MustBeClosed
+    private @NotNull PreparedStatement prepareStatement(@NotNull String sql) throws SQLException {
+        return statementCache != null ? statementCache.borrow(sql) : connection.prepareStatement(sql);
+    }
+
     // Set params
 
     public static int setPreparedParams(@NotNull PreparedStatement statement,
@@ -323,7 +386,7 @@ public class QueryRunner {
     }
 
     public int runUpdate(@NotNull String sql) throws SQLException {
-        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+        try (PreparedStatement statement = prepareStatement(sql)) {
             return statement.executeUpdate();
         }
     }
@@ -4,6 +4,7 @@ import com.google.errorprone.annotations.MustBeClosed;
 import io.spbx.util.base.Pair;
 import io.spbx.util.base.Unchecked;
 import io.spbx.util.func.ThrowFunction;
+import io.spbx.util.func.ThrowRunnable;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
@@ -12,7 +13,6 @@ import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.Iterator;
-import java.util.concurrent.atomic.AtomicBoolean;
 
 import static io.spbx.util.base.EasyCast.castAny;
 
@@ -21,18 +21,29 @@ import static io.spbx.util.base.EasyCast.castAny;
  * The {@link ResultSetIterator} takes in a {@code converter} to convert rows to {@code E} objects.
  * Note that {@link ResultSetIterator} is {@link Closeable} and is recommended to be used
  * with a <code>try-resource</code> syntax.
+ * <p>
+ * Like the underlying {@link ResultSet}, the iterator is not thread-safe.
  */
 public class ResultSetIterator<E> implements Iterator<E>, Closeable {
     private final ResultSet resultSet;
     private final boolean ownsStatement;
     private final Converter<E> converter;
-    private final AtomicBoolean nextCalled = new AtomicBoolean();
-    private final AtomicBoolean hasNextCached = new AtomicBoolean();
+    private final @Nullable ThrowRunnable<SQLException> onClose;
+    private boolean nextCalled;
+    private boolean hasNextCached;
 
-    public ResultSetIterator(@NotNull ResultSet resultSet, boolean ownsStatement, @NotNull Converter<E> converter) {
+    public ResultSetIterator(@NotNull ResultSet resultSet,
+                             boolean ownsStatement,
+                             @NotNull Converter<E> converter,
+                             @Nullable ThrowRunnable<SQLException> onClose) {
         this.resultSet = resultSet;
         this.ownsStatement = ownsStatement;
         this.converter = converter;
+        this.onClose = onClose;
+    }
+
+    public ResultSetIterator(@NotNull ResultSet resultSet, boolean ownsStatement, @NotNull Converter<E> converter) {
+        this(resultSet, ownsStatement, converter, null);
     }
 
     @MustBeClosed
@@ -45,10 +56,11 @@ public class ResultSetIterator<E> implements Iterator<E>, Closeable {
         // switch to resultSet.isLast() when it's supported:
         // https://github.com/xerial/sqlite-jdbc/issues/682
         try {
-            if (nextCalled.compareAndSet(false, true)) {
-                hasNextCached.set(resultSet.next());
+            if (!nextCalled) {
+                hasNextCached = resultSet.next();
+                nextCalled = true;
             }
-            return hasNextCached.get();
+            return hasNextCached;
         } catch (SQLException e) {
             return Unchecked.rethrow(e);
         }
@@ -57,7 +69,7 @@ public class ResultSetIterator<E> implements Iterator<E>, Closeable {
     @Override
     public E next() {
         try {
-            nextCalled.set(false);
+            nextCalled = false;
             return converter.apply(resultSet);
         } catch (SQLException e) {
             return Unchecked.rethrow(e);
@@ -86,6 +98,18 @@ public class ResultSetIterator<E> implements Iterator<E>, Closeable {
             resultSet.close();
         } catch (SQLException e) {
             Unchecked.rethrow(e);
+        } finally {
+            runOnClose();
+        }
+    }
+
+    private void runOnClose() {
+        if (onClose != null) {
+            try {
+                onClose.run();
+            } catch (SQLException e) {
+                Unchecked.rethrow(e);
+            }
         }
     }
 
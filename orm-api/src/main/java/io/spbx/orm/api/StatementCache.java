@@ -0,0 +1,146 @@
+package io.spbx.orm.api;
+
+import com.google.errorprone.annotations.MustBeClosed;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A bounded LRU cache of the {@link PreparedStatement}s of a single {@link Connection}, keyed by the SQL.
+ * <p>
+ * {@link #borrow(String)} returns the idle statement for the SQL or prepares a new one. Closing the borrowed
+ * statement returns it to the cache: the parameters and the batch are cleared, but the statement stays open
+ * for the next borrow. At most one idle statement is kept per SQL, so the nested borrows of the same SQL
+ * get separate statements. The least recently used statements are closed once the cache grows over the max size.
+ * <p>
+ * The cache is bound to the connection: it must be closed (or {@link #invalidate()}d) when the connection is.
+ */
+public class StatementCache implements Closeable {
+    private final Connection connection;
+    private final int maxSize;
+    private final @Nullable Listener listener;
+    private final LinkedHashMap<String, PreparedStatement> idle;
+    private long hits;
+    private long misses;
+    private boolean closed;
+
+    public StatementCache(@NotNull Connection connection, int maxSize, @Nullable Listener listener) {
+        assert maxSize > 0 : "Invalid max size: " + maxSize;
+        this.connection = connection;
+        this.maxSize = maxSize;
+        this.listener = listener;
+        this.idle = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, PreparedStatement> eldest) {
+                if (size() > StatementCache.this.maxSize) {
+                    closeQuietly(eldest.getValue());
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    public StatementCache(@NotNull Connection connection, int maxSize) {
+        this(connection, maxSize, null);
+    }
+
+    /**
+     * Returns the statement for the {@code sql}. The caller must close the statement to return it to the cache.
+     */
+    @MustBeClosed
+    public @NotNull PreparedStatement borrow(@NotNull String sql) throws SQLException {
+        PreparedStatement statement;
+        synchronized (this) {
+            statement = idle.remove(sql);
+            if (statement != null && !statement.isClosed()) {
+                hits++;
+            } else {
+                misses++;
+                statement = null;
+            }
+        }
+        if (listener != null) {
+            listener.onLookup(statement != null);
+        }
+        if (statement == null) {
+            statement = connection.prepareStatement(sql);
+        }
+        return new BorrowedStatement(this, sql, statement);
+    }
+
+    /**
+     * Closes all idle statements. The statements currently borrowed are closed when returned.
+     */
+    public void invalidate() {
+        List<PreparedStatement> statements;
+        synchronized (this) {
+            statements = new ArrayList<>(idle.values());
+            idle.clear();
+        }
+        statements.forEach(StatementCache::closeQuietly);
+    }
+
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+        }
+        invalidate();
+    }
+
+    public synchronized int size() {
+        return idle.size();
+    }
+
+    public synchronized long hits() {
+        return hits;
+    }
+
+    public synchronized long misses() {
+        return misses;
+    }
+
+    void release(@NotNull String sql, @NotNull PreparedStatement statement) throws SQLException {
+        if (statement.isClosed()) {
+            return;
+        }
+        try {
+            statement.clearParameters();
+            statement.clearBatch();
+        } catch (SQLException e) {
+            statement.close();
+            throw e;
+        }
+        PreparedStatement existing;
+        synchronized (this) {
+            existing = closed ? statement : idle.putIfAbsent(sql, statement);
+        }
+        if (existing != null) {
+            statement.close();
+        }
+    }
+
+    private static void closeQuietly(@NotNull PreparedStatement statement) {
+        try {
+            statement.close();
+        } catch (SQLException ignore) {
+        }
+    }
+
+    /**
+     * Receives the cache lookups, e.g. to report the hit rate.
+     */
+    @FunctionalInterface
+    public interface Listener {
+        void onLookup(boolean hit);
+    }
+}
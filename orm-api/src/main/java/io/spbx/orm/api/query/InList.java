@@ -0,0 +1,160 @@
+package io.spbx.orm.api.query;
+
+import com.carrotsearch.hppc.IntContainer;
+import com.carrotsearch.hppc.LongContainer;
+import io.spbx.orm.api.Engine;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Splits the keys of the <code>IN (...)</code> clause into the chunks with a stable number of parameters.
+ * <p>
+ * Every distinct number of parameters makes a distinct SQL, which defeats the prepared statement caches
+ * (both the client and the server ones). So the chunk size is rounded up to the power of two (up to
+ * {@link #MAX_CHUNK_SIZE}) and the extra parameters are padded with the repeated last key, which doesn't change
+ * the result. The key sets larger than {@link #MAX_CHUNK_SIZE} are split into several chunks.
+ * <p>
+ * {@link Engine#PostgreSQL} binds the int, long and string keys as a single array parameter:
+ * <code>= ANY(?)</code>, so that the SQL doesn't depend on the number of keys at all.
+ */
+public class InList {
+    public static final int MAX_CHUNK_SIZE = 512;
+
+    private static final String[] PLACEHOLDERS = new String[Integer.numberOfTrailingZeros(MAX_CHUNK_SIZE) + 1];
+    static {
+        for (int i = 0; i < PLACEHOLDERS.length; i++) {
+            int size = 1 << i;
+            PLACEHOLDERS[i] = "IN (" + "?,".repeat(size - 1) + "?)";
+        }
+    }
+    private static final String ANY_ARRAY = "= ANY(?)";
+
+    /**
+     * A single chunk of keys: the SQL to append after the column (e.g. <code>IN (?,?)</code>) and the params for it.
+     */
+    public record Chunk(@NotNull String repr, @NotNull List<?> params) {}
+
+    /**
+     * Returns the smallest power of two not less than the {@code size}.
+     */
+    public static int bucketSize(int size) {
+        assert size > 0 && size <= MAX_CHUNK_SIZE : "Invalid chunk size: " + size;
+        return Integer.highestOneBit(size) == size ? size : Integer.highestOneBit(size) << 1;
+    }
+
+    /**
+     * Returns the <code>IN (?,...)</code> clause with the number of parameters rounded up to the bucket size.
+     */
+    public static @NotNull String placeholders(int size) {
+        return PLACEHOLDERS[Integer.numberOfTrailingZeros(bucketSize(size))];
+    }
+
+    public static @NotNull List<Chunk> chunksOf(@NotNull Collection<?> keys, @NotNull Engine engine) {
+        assert !keys.isEmpty() : "Keys must not be empty";
+        if (engine == Engine.PostgreSQL) {
+            Object array = toTypedArrayOrNull(keys);
+            if (array != null) {
+                return List.of(new Chunk(ANY_ARRAY, List.of(array)));
+            }
+        }
+        List<?> list = keys instanceof List<?> ? (List<?>) keys : new ArrayList<>(keys);
+        List<Chunk> chunks = new ArrayList<>(chunksNum(list.size()));
+        for (int i = 0; i < list.size(); i += MAX_CHUNK_SIZE) {
+            chunks.add(paddedChunk(list.subList(i, Math.min(i + MAX_CHUNK_SIZE, list.size()))));
+        }
+        return chunks;
+    }
+
+    public static @NotNull List<Chunk> chunksOf(@NotNull IntContainer keys, @NotNull Engine engine) {
+        assert !keys.isEmpty() : "Keys must not be empty";
+        int[] array = keys.toArray();
+        if (engine == Engine.PostgreSQL) {
+            return List.of(new Chunk(ANY_ARRAY, List.of(array)));
+        }
+        List<Chunk> chunks = new ArrayList<>(chunksNum(array.length));
+        for (int i = 0; i < array.length; i += MAX_CHUNK_SIZE) {
+            int size = Math.min(MAX_CHUNK_SIZE, array.length - i);
+            int bucket = bucketSize(size);
+            ArrayList<Object> params = new ArrayList<>(bucket);
+            for (int j = 0; j < bucket; j++) {
+                params.add(array[i + Math.min(j, size - 1)]);
+            }
+            chunks.add(new Chunk(placeholders(bucket), params));
+        }
+        return chunks;
+    }
+
+    public static @NotNull List<Chunk> chunksOf(@NotNull LongContainer keys, @NotNull Engine engine) {
+        assert !keys.isEmpty() : "Keys must not be empty";
+        long[] array = keys.toArray();
+        if (engine == Engine.PostgreSQL) {
+            return List.of(new Chunk(ANY_ARRAY, List.of(array)));
+        }
+        List<Chunk> chunks = new ArrayList<>(chunksNum(array.length));
+        for (int i = 0; i < array.length; i += MAX_CHUNK_SIZE) {
+            int size = Math.min(MAX_CHUNK_SIZE, array.length - i);
+            int bucket = bucketSize(size);
+            ArrayList<Object> params = new ArrayList<>(bucket);
+            for (int j = 0; j < bucket; j++) {
+                params.add(array[i + Math.min(j, size - 1)]);
+            }
+            chunks.add(new Chunk(placeholders(bucket), params));
+        }
+        return chunks;
+    }
+
+    /**
+     * Returns the terms padded to the bucket size with the repeated last term. Can be used for {@link IsIn}.
+     * The lists larger than {@link #MAX_CHUNK_SIZE} are returned as is.
+     */
+    public static <T extends Term> @NotNull List<T> padded(@NotNull List<T> terms) {
+        if (terms.isEmpty() || terms.size() > MAX_CHUNK_SIZE) {
+            return terms;
+        }
+        int bucket = bucketSize(terms.size());
+        if (bucket == terms.size()) {
+            return terms;
+        }
+        ArrayList<T> result = new ArrayList<>(bucket);
+        result.addAll(terms);
+        T last = terms.getLast();
+        while (result.size() < bucket) {
+            result.add(last);
+        }
+        return result;
+    }
+
+    private static @NotNull Chunk paddedChunk(@NotNull List<?> keys) {
+        int bucket = bucketSize(keys.size());
+        ArrayList<Object> params = new ArrayList<>(bucket);
+        params.addAll(keys);
+        Object last = keys.getLast();
+        while (params.size() < bucket) {
+            params.add(last);
+        }
+        return new Chunk(placeholders(bucket), params);
+    }
+
+    private static int chunksNum(int size) {
+        return (size + MAX_CHUNK_SIZE - 1) / MAX_CHUNK_SIZE;
+    }
+
+    // The array types natively supported by the PostgreSQL driver
+    private static @Nullable Object toTypedArrayOrNull(@NotNull Collection<?> keys) {
+        Class<?> klass = keys.iterator().next().getClass();
+        if (klass == Integer.class) {
+            return keys.stream().mapToInt(key -> (Integer) key).toArray();
+        }
+        if (klass == Long.class) {
+            return keys.stream().mapToLong(key -> (Long) key).toArray();
+        }
+        if (klass == String.class) {
+            return keys.toArray(String[]::new);
+        }
+        return null;
+    }
+}
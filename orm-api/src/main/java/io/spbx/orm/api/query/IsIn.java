@@ -26,4 +26,9 @@ public class IsIn extends Unit implements BoolTerm {
     public static @NotNull IsIn isIn(@NotNull Term lhs, @NotNull List<? extends Term> terms) {
         return new IsIn(lhs, terms);
     }
+
+    // Pads the terms to the stable number, so that the query is the same for the similar sizes. See `InList`.
+    public static @NotNull IsIn isInBucketed(@NotNull Term lhs, @NotNull List<? extends Term> terms) {
+        return new IsIn(lhs, InList.padded(terms));
+    }
 }
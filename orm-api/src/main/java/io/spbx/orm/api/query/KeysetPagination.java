@@ -0,0 +1,220 @@
+package io.spbx.orm.api.query;
+
+import com.google.common.collect.ImmutableList;
+import io.spbx.orm.api.Engine;
+import io.spbx.orm.api.PageToken;
+import io.spbx.orm.api.TableMeta;
+import io.spbx.orm.api.TableMeta.ColumnMeta;
+import io.spbx.orm.api.TableMeta.Constraint;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static java.util.Objects.requireNonNull;
+
+/**
+ * Implements the keyset (seek) pagination over the table rows.
+ * <p>
+ * The rows are ordered by the primary key columns (or the first not-null unique key if there's no primary key),
+ * so that the order is total. The next page starts right after the last row of the previous page:
+ * <code>WHERE (a, b) > (?, ?) ORDER BY a, b LIMIT ?</code>. Unlike <code>OFFSET</code>, the cost of the query
+ * doesn't depend on how deep the page is.
+ * <p>
+ * The ordering values of the last row are encoded into the {@link PageToken#lastItem()}. The engines without
+ * the row value comparison get the expanded condition: <code>a > ? OR (a = ? AND b > ?)</code>.
+ */
+public class KeysetPagination {
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+    private static final String SEPARATOR = ",";
+
+    private final TableMeta meta;
+    private final ImmutableList<ColumnMeta> columns;
+    private final int[] indices;
+    private final Order order;
+
+    private KeysetPagination(@NotNull TableMeta meta, @NotNull List<ColumnMeta> columns, @NotNull Order order) {
+        this.meta = meta;
+        this.columns = ImmutableList.copyOf(columns);
+        this.indices = columns.stream().mapToInt(column -> meta.sqlColumns().indexOf(column)).toArray();
+        this.order = order;
+    }
+
+    public static @NotNull KeysetPagination of(@NotNull TableMeta meta, @NotNull Order order) {
+        return new KeysetPagination(meta, pickOrderingColumns(meta), order);
+    }
+
+    public static @NotNull KeysetPagination of(@NotNull TableMeta meta) {
+        return of(meta, Order.ASC);
+    }
+
+    public @NotNull List<Column> columns() {
+        return columns.stream().map(ColumnMeta::column).toList();
+    }
+
+    public @NotNull Order order() {
+        return order;
+    }
+
+    /**
+     * Returns the filter selecting the page after the {@code token} (or the first page if it's null) of at most
+     * {@code limit} rows, which also match the {@code where}. The offset tokens are supported too.
+     */
+    public @NotNull CompositeFilter filter(@Nullable Where where,
+                                           @Nullable PageToken token,
+                                           int limit,
+                                           @NotNull Engine engine) {
+        CompositeFilter.Builder builder = CompositeFilter.builder();
+        if (where != null) {
+            builder.with(where);
+        }
+        if (token != null && token.hasLastItem()) {
+            Object[] values = decode(requireNonNull(token.lastItem()));
+            builder.with(Where.of(seek(values, engine)));
+        }
+        builder.with(OrderBy.of(order, fullColumns()));
+        if (token != null && token.hasOffset()) {
+            builder.with(Pagination.ofOffset(token.offset(), limit), engine);
+        } else {
+            builder.with(Pagination.firstPage(limit), engine);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Returns the token of the next page after the row with the {@code rowValues}.
+     * The {@code rowValues} are the values of all columns in the order of {@link TableMeta#sqlColumns()}.
+     */
+    public @NotNull PageToken tokenOf(@Nullable Object @NotNull [] rowValues) {
+        assert rowValues.length == meta.sqlColumns().size() :
+            "Row values don't match the columns: values=%d columns=%d".formatted(rowValues.length, meta.sqlColumns().size());
+        ArrayList<String> encoded = new ArrayList<>(indices.length);
+        for (int index : indices) {
+            encoded.add(encodeValue(requireNonNull(rowValues[index], "Ordering column value is null")));
+        }
+        return PageToken.ofLastItem(String.join(SEPARATOR, encoded));
+    }
+
+    @NotNull BoolTerm seek(@Nullable Object @NotNull [] values, @NotNull Engine engine) {
+        List<FullColumn> fullColumns = fullColumns();
+        String compare = order == Order.ASC ? ">" : "<";
+        if (fullColumns.size() == 1) {
+            return new HardcodedBoolTerm("%s %s ?".formatted(fullColumns.getFirst().repr(), compare), Args.of(values));
+        }
+        if (engine.isOneOf(Engine.H2, Engine.MySQL, Engine.MariaDB, Engine.PostgreSQL, Engine.SQLite)) {
+            String names = fullColumns.stream().map(FullColumn::repr).collect(Collectors.joining(", "));
+            String params = fullColumns.stream().map(column -> "?").collect(Collectors.joining(", "));
+            return new HardcodedBoolTerm("(%s) %s (%s)".formatted(names, compare, params), Args.of(values));
+        }
+
+        List<String> disjuncts = new ArrayList<>(fullColumns.size());
+        List<Object> args = new ArrayList<>();
+        for (int i = 0; i < fullColumns.size(); i++) {
+            List<String> conjuncts = new ArrayList<>(i + 1);
+            for (int j = 0; j < i; j++) {
+                conjuncts.add("%s = ?".formatted(fullColumns.get(j).repr()));
+                args.add(values[j]);
+            }
+            conjuncts.add("%s %s ?".formatted(fullColumns.get(i).repr(), compare));
+            args.add(values[i]);
+            disjuncts.add("(%s)".formatted(String.join(" AND ", conjuncts)));
+        }
+        return new HardcodedBoolTerm(String.join(" OR ", disjuncts), Args.of(args));
+    }
+
+    @NotNull Object @NotNull [] decode(@NotNull String lastItem) {
+        String[] parts = lastItem.split(SEPARATOR, -1);
+        InvalidQueryException.assure(parts.length == columns.size(), "Invalid page token: %s", lastItem);
+        Object[] values = new Object[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            try {
+                values[i] = decodeValue(parts[i], columns.get(i).type());
+            } catch (IllegalArgumentException e) {
+                throw new InvalidQueryException("Invalid page token: %s (%s)", lastItem, e.getMessage());
+            }
+        }
+        return values;
+    }
+
+    private @NotNull List<FullColumn> fullColumns() {
+        return columns.stream().map(column -> column.column().fullFrom(meta)).toList();
+    }
+
+    private static @NotNull List<ColumnMeta> pickOrderingColumns(@NotNull TableMeta meta) {
+        List<ColumnMeta> primaryKeys = findColumns(meta, meta.primaryKeys());
+        if (!primaryKeys.isEmpty()) {
+            return primaryKeys;
+        }
+        for (Constraint unique : meta.unique()) {
+            List<ColumnMeta> uniqueKeys = findColumns(meta, unique);
+            if (!uniqueKeys.isEmpty() && uniqueKeys.stream().allMatch(ColumnMeta::isNotNull)) {
+                return uniqueKeys;
+            }
+        }
+        throw new InvalidQueryException("Table `%s` has no primary or not-null unique key to paginate by", meta.sqlTableName());
+    }
+
+    private static @NotNull List<ColumnMeta> findColumns(@NotNull TableMeta meta, @NotNull Constraint constraint) {
+        return constraint.columns().stream()
+            .map(column -> meta.sqlColumns().stream()
+                .filter(columnMeta -> columnMeta.name().equals(column.name()))
+                .findFirst()
+                .orElseThrow(() -> new InvalidQueryException("Column `%s` not found in `%s`", column, meta.sqlTableName())))
+            .toList();
+    }
+
+    private static @NotNull String encodeValue(@NotNull Object value) {
+        if (value instanceof byte[] bytes) {
+            return ENCODER.encodeToString(bytes);
+        }
+        if (value instanceof String str) {
+            return ENCODER.encodeToString(str.getBytes(StandardCharsets.UTF_8));
+        }
+        return value.toString();
+    }
+
+    private static @NotNull Object decodeValue(@NotNull String value, @NotNull Class<?> type) {
+        if (type == int.class || type == Integer.class) {
+            return Integer.parseInt(value);
+        }
+        if (type == long.class || type == Long.class) {
+            return Long.parseLong(value);
+        }
+        if (type == short.class || type == Short.class) {
+            return Short.parseShort(value);
+        }
+        if (type == byte.class || type == Byte.class) {
+            return Byte.parseByte(value);
+        }
+        if (type == double.class || type == Double.class) {
+            return Double.parseDouble(value);
+        }
+        if (type == float.class || type == Float.class) {
+            return Float.parseFloat(value);
+        }
+        if (type == boolean.class || type == Boolean.class) {
+            return Boolean.parseBoolean(value);
+        }
+        if (type == byte[].class) {
+            return DECODER.decode(value);
+        }
+        if (type == Timestamp.class) {
+            return Timestamp.valueOf(value);
+        }
+        if (type == Date.class) {
+            return Date.valueOf(value);
+        }
+        if (type == Time.class) {
+            return Time.valueOf(value);
+        }
+        return new String(DECODER.decode(value), StandardCharsets.UTF_8);
+    }
+}
@@ -86,6 +86,10 @@ public class Shortcuts {
         return IsIn.isIn(lhs, terms);
     }
 
+    public static @NotNull IsIn isInBucketed(@NotNull Term lhs, @NotNull List<? extends Term> terms) {
+        return IsIn.isInBucketed(lhs, terms);
+    }
+
     // FIX[minor]: isIn for ints, longs
 
     public static @NotNull Like like(@NotNull Term lhs, @NotNull Term rhs) {
@@ -0,0 +1,65 @@
+package io.spbx.orm.api;
+
+import com.mockrunner.jdbc.PreparedStatementResultSetHandler;
+import com.mockrunner.mock.jdbc.MockConnection;
+import com.mockrunner.mock.jdbc.MockPreparedStatement;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.google.common.truth.Truth.assertThat;
+import static io.spbx.orm.testing.MockingJdbc.assertThat;
+import static io.spbx.orm.testing.MockingJdbc.mockConnection;
+
+public class BulkInsertTest {
+    private MockConnection mockedConnection;
+    private PreparedStatementResultSetHandler resultSetHandler;
+    private QueryRunner runner;
+
+    @BeforeEach
+    void setUp() {
+        mockedConnection = mockConnection();
+        resultSetHandler = mockedConnection.getPreparedStatementResultSetHandler();
+        runner = new QueryRunner(mockedConnection);
+    }
+
+    @Test
+    public void chunkRows_limited_by_engine() {
+        assertThat(new BulkInsert("t", List.of("a", "b"), Engine.H2, 500).chunkRows()).isEqualTo(500);
+        assertThat(new BulkInsert("t", List.of("a", "b", "c"), Engine.SQLite, 500).chunkRows()).isEqualTo(333);
+        assertThat(new BulkInsert("t", List.of("a"), Engine.MsSqlServer, 5000).chunkRows()).isEqualTo(1000);
+        assertThat(new BulkInsert("t", List.of("a", "b", "c", "d"), Engine.MsSqlServer, 5000).chunkRows()).isEqualTo(500);
+    }
+
+    @Test
+    public void run_full_and_partial_chunks() {
+        BulkInsert bulkInsert = new BulkInsert("t", List.of("a", "b"), Engine.H2, 2);
+        bulkInsert.run(runner, List.of(new Object[] { 1, "x" }, new Object[] { 2, "y" }, new Object[] { 3, "z" }));
+
+        List<MockPreparedStatement> statements = resultSetHandler.getPreparedStatements();
+        assertThat(statements).hasSize(2);
+        assertThat(statements.get(0)).queryEquals("INSERT INTO t (a, b)\nVALUES (?, ?), (?, ?)")
+            .withParams().equalExactly(1, "x", 2, "y");
+        assertThat(statements.get(1)).queryEquals("INSERT INTO t (a, b)\nVALUES (?, ?)")
+            .withParams().equalExactly(3, "z");
+    }
+
+    @Test
+    public void run_empty() {
+        BulkInsert bulkInsert = new BulkInsert("t", List.of("a", "b"), Engine.PostgreSQL, 2);
+        assertThat(bulkInsert.run(runner, List.of())).isEqualTo(0);
+        assertThat(resultSetHandler.getPreparedStatements()).isEmpty();
+    }
+
+    @Test
+    public void run_batch_fallback() {
+        BulkInsert bulkInsert = new BulkInsert("t", List.of("a", "b"), Engine.Oracle, 2);
+        bulkInsert.run(runner, List.of(new Object[] { 1, "x" }, new Object[] { 2, "y" }, new Object[] { 3, "z" }));
+
+        List<MockPreparedStatement> statements = resultSetHandler.getPreparedStatements();
+        assertThat(statements).hasSize(2);
+        assertThat(statements.get(0)).queryEquals("INSERT INTO t (a, b)\nVALUES (?, ?)");
+        assertThat(statements.get(1)).queryEquals("INSERT INTO t (a, b)\nVALUES (?, ?)");
+    }
+}
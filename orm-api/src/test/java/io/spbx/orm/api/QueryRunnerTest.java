@@ -315,6 +315,47 @@ public class QueryRunnerTest {
         assertThat(mockedConnection).executedQueries().containsExactly("select it");
     }
 
+    /** {@link QueryRunner#iterateStreaming(String, Args, Engine, ResultSetIterator.Converter)} **/
+
+    @Test
+    public void iterateStreaming_mysql() throws SQLException {
+        bugfixPatchConsistencyLevel();
+
+        MockResultSet resultSet = mockResultSet(List.of(array(111), array(222)));
+        resultSetHandler.prepareResultSet("select stream", resultSet);
+
+        List<Object> all = new ArrayList<>();
+        try (ResultSetIterator<Object> iterator = runner.iterateStreaming(
+                "select stream", Args.of(1), Engine.MySQL, ResultSetIterator.firstColumn())) {
+            Iterators.addAll(all, iterator);
+        }
+
+        assertThat(all).containsExactly(111, 222);
+        assertThat(mockedConnection).executedQueries().containsExactly("select stream");
+        MockPreparedStatement statement = resultSetHandler.getPreparedStatements().getFirst();
+        assertThat(statement).withParams().equalExactly(1);
+        assertThat(statement.getFetchSize()).isEqualTo(Integer.MIN_VALUE);
+    }
+
+    @Test
+    public void iterateStreaming_postgres_restores_auto_commit() throws SQLException {
+        bugfixPatchConsistencyLevel();
+        mockedConnection.setAutoCommit(true);
+
+        MockResultSet resultSet = mockResultSet(List.of(array(111), array(222)));
+        resultSetHandler.prepareResultSet("select stream", resultSet);
+
+        try (ResultSetIterator<Object> iterator = runner.iterateStreaming(
+                "select stream", Args.of(), Engine.PostgreSQL, ResultSetIterator.firstColumn())) {
+            assertThat(mockedConnection).hasAutocommit(false);
+            assertThat(Iterators.size(iterator)).isEqualTo(2);
+        }
+
+        assertThat(mockedConnection).hasAutocommit(true);
+        assertThat(resultSetHandler.getPreparedStatements().getFirst().getFetchSize())
+            .isEqualTo(QueryRunner.STREAMING_FETCH_SIZE);
+    }
+
     /** {@link QueryRunner#fetchAll(SelectQuery, ResultSetIterator.Converter)} **/
 
     @Test
@@ -555,6 +596,11 @@ public class QueryRunnerTest {
                 // The last param is non-default. It will force MockStatement to clone result sets correctly.
                 return super.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_UPDATABLE);
             }
+
+            @Override
+            public PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency) throws SQLException {
+                return super.prepareStatement(sql, resultSetType, ResultSet.CONCUR_UPDATABLE);
+            }
         };
         resultSetHandler = mockedConnection.getPreparedStatementResultSetHandler();
         runner = new QueryRunner(mockedConnection);
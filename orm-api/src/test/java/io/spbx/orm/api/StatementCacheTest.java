@@ -0,0 +1,192 @@
+package io.spbx.orm.api;
+
+import com.mockrunner.jdbc.PreparedStatementResultSetHandler;
+import com.mockrunner.mock.jdbc.MockConnection;
+import com.mockrunner.mock.jdbc.MockPreparedStatement;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.google.common.truth.Truth.assertThat;
+import static io.spbx.orm.testing.MockingJdbc.mockConnection;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class StatementCacheTest {
+    private MockConnection mockedConnection;
+    private PreparedStatementResultSetHandler resultSetHandler;
+    private final List<Boolean> lookups = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        mockedConnection = mockConnection();
+        resultSetHandler = mockedConnection.getPreparedStatementResultSetHandler();
+    }
+
+    @Test
+    public void borrow_reuses_returned_statement() throws SQLException {
+        StatementCache cache = new StatementCache(mockedConnection, 4, lookups::add);
+
+        try (PreparedStatement statement = cache.borrow("select 1")) {
+            statement.setInt(1, 1);
+        }
+        try (PreparedStatement statement = cache.borrow("select 1")) {
+            statement.setInt(1, 2);
+        }
+
+        assertThat(preparedSql()).containsExactly("select 1");
+        assertThat(closedStatements()).isEqualTo(0);
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.hits()).isEqualTo(1);
+        assertThat(cache.misses()).isEqualTo(1);
+        assertThat(lookups).containsExactly(false, true).inOrder();
+    }
+
+    @Test
+    public void borrow_nested_same_sql() throws SQLException {
+        StatementCache cache = new StatementCache(mockedConnection, 4);
+
+        try (PreparedStatement outer = cache.borrow("select 1");
+             PreparedStatement inner = cache.borrow("select 1")) {
+            assertThat(outer).isNotSameInstanceAs(inner);
+        }
+
+        assertThat(preparedSql()).containsExactly("select 1", "select 1");
+        assertThat(closedStatements()).isEqualTo(1);
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(cache.misses()).isEqualTo(2);
+    }
+
+    @Test
+    public void borrowed_statement_closed_after_return() throws SQLException {
+        StatementCache cache = new StatementCache(mockedConnection, 4);
+
+        PreparedStatement statement = cache.borrow("select 1");
+        assertThat(statement.isClosed()).isFalse();
+        statement.close();
+        assertThat(statement.isClosed()).isTrue();
+        assertThrows(SQLException.class, statement::executeQuery);
+        statement.close();  // no-op
+
+        assertThat(cache.size()).isEqualTo(1);
+        assertThat(closedStatements()).isEqualTo(0);
+    }
+
+    @Test
+    public void borrowed_statement_forwards_calls() throws SQLException {
+        StatementCache cache = new StatementCache(mockedConnection, 4);
+
+        try (PreparedStatement statement = cache.borrow("select ?, ?, ?")) {
+            statement.setInt(1, 1);
+            statement.setLong(2, 2L);
+            statement.setString(3, "3");
+            statement.setFetchSize(100);
+
+            MockPreparedStatement mock = resultSetHandler.getPreparedStatements().getFirst();
+            assertThat(mock.getParameter(1)).isEqualTo(1);
+            assertThat(mock.getParameter(2)).isEqualTo(2L);
+            assertThat(mock.getParameter(3)).isEqualTo("3");
+            assertThat(statement.getFetchSize()).isEqualTo(100);
+            assertThat(statement.getConnection()).isSameInstanceAs(mockedConnection);
+        }
+    }
+
+    @Test
+    public void borrow_after_underlying_closed() throws SQLException {
+        StatementCache cache = new StatementCache(mockedConnection, 4);
+
+        try (PreparedStatement ignored = cache.borrow("select 1")) {
+            resultSetHandler.getPreparedStatements().getFirst().close();
+        }
+        assertThat(cache.size()).isEqualTo(0);
+
+        try (PreparedStatement ignored = cache.borrow("select 1")) {
+            assertThat(cache.misses()).isEqualTo(2);
+        }
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void lru_eviction() throws SQLException {
+        StatementCache cache = new StatementCache(mockedConnection, 2);
+
+        borrowAndReturn(cache, "select 1");
+        borrowAndReturn(cache, "select 2");
+        borrowAndReturn(cache, "select 1");
+        borrowAndReturn(cache, "select 3");  // evicts "select 2"
+
+        assertThat(cache.size()).isEqualTo(2);
+        assertThat(closedSql()).containsExactly("select 2");
+
+        borrowAndReturn(cache, "select 1");
+        borrowAndReturn(cache, "select 3");
+        assertThat(cache.hits()).isEqualTo(3);
+        assertThat(cache.misses()).isEqualTo(3);
+    }
+
+    @Test
+    public void invalidate_closes_idle_statements() throws SQLException {
+        StatementCache cache = new StatementCache(mockedConnection, 4);
+
+        borrowAndReturn(cache, "select 1");
+        PreparedStatement borrowed = cache.borrow("select 2");
+        cache.invalidate();
+
+        assertThat(cache.size()).isEqualTo(0);
+        assertThat(closedSql()).containsExactly("select 1");
+
+        borrowed.close();
+        assertThat(cache.size()).isEqualTo(1);
+    }
+
+    @Test
+    public void close_closes_all_statements() throws SQLException {
+        StatementCache cache = new StatementCache(mockedConnection, 4);
+
+        borrowAndReturn(cache, "select 1");
+        PreparedStatement borrowed = cache.borrow("select 2");
+        cache.close();
+        borrowed.close();
+
+        assertThat(cache.size()).isEqualTo(0);
+        assertThat(closedSql()).containsExactly("select 1", "select 2");
+    }
+
+    @Test
+    public void query_runner_uses_cache() throws SQLException {
+        StatementCache cache = new StatementCache(mockedConnection, 4);
+        QueryRunner runner = new QueryRunner(mockedConnection, cache);
+
+        runner.runUpdate("update t set x = ?", 1);
+        runner.runUpdate("update t set x = ?", 2);
+        runner.runUpdate("update t set x = ?", 3);
+
+        assertThat(preparedSql()).containsExactly("update t set x = ?");
+        assertThat(cache.hits()).isEqualTo(2);
+        assertThat(runner.statementCache()).isSameInstanceAs(cache);
+    }
+
+    private static void borrowAndReturn(StatementCache cache, String sql) throws SQLException {
+        try (PreparedStatement ignored = cache.borrow(sql)) {
+            assertThat(ignored.isClosed()).isFalse();
+        }
+    }
+
+    private List<String> preparedSql() {
+        return resultSetHandler.getPreparedStatements().stream().map(MockPreparedStatement::getSQL).toList();
+    }
+
+    private List<String> closedSql() {
+        return resultSetHandler.getPreparedStatements().stream()
+            .filter(MockPreparedStatement::isClosed)
+            .map(MockPreparedStatement::getSQL)
+            .toList();
+    }
+
+    private long closedStatements() {
+        return resultSetHandler.getPreparedStatements().stream().filter(MockPreparedStatement::isClosed).count();
+    }
+}
@@ -0,0 +1,79 @@
+package io.spbx.orm.api.query;
+
+import com.carrotsearch.hppc.IntArrayList;
+import com.carrotsearch.hppc.LongArrayList;
+import io.spbx.orm.api.Engine;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class InListTest {
+    @Test
+    public void bucketSize_simple() {
+        assertThat(InList.bucketSize(1)).isEqualTo(1);
+        assertThat(InList.bucketSize(2)).isEqualTo(2);
+        assertThat(InList.bucketSize(3)).isEqualTo(4);
+        assertThat(InList.bucketSize(5)).isEqualTo(8);
+        assertThat(InList.bucketSize(100)).isEqualTo(128);
+        assertThat(InList.bucketSize(512)).isEqualTo(512);
+    }
+
+    @Test
+    public void placeholders_simple() {
+        assertThat(InList.placeholders(1)).isEqualTo("IN (?)");
+        assertThat(InList.placeholders(2)).isEqualTo("IN (?,?)");
+        assertThat(InList.placeholders(3)).isEqualTo("IN (?,?,?,?)");
+        assertThat(InList.placeholders(4)).isEqualTo("IN (?,?,?,?)");
+    }
+
+    @Test
+    public void chunksOf_collection_padded() {
+        List<InList.Chunk> chunks = InList.chunksOf(List.of("a", "b", "c"), Engine.SQLite);
+        assertThat(chunks).containsExactly(new InList.Chunk("IN (?,?,?,?)", List.of("a", "b", "c", "c")));
+    }
+
+    @Test
+    public void chunksOf_collection_large() {
+        List<Integer> keys = IntStream.range(0, InList.MAX_CHUNK_SIZE + 3).boxed().toList();
+        List<InList.Chunk> chunks = InList.chunksOf(keys, Engine.MySQL);
+        assertThat(chunks).hasSize(2);
+        assertThat(chunks.get(0).params()).isEqualTo(keys.subList(0, InList.MAX_CHUNK_SIZE));
+        assertThat(chunks.get(1).repr()).isEqualTo("IN (?,?,?,?)");
+        assertThat(chunks.get(1).params()).containsExactly(512, 513, 514, 514).inOrder();
+    }
+
+    @Test
+    public void chunksOf_ints_padded() {
+        List<InList.Chunk> chunks = InList.chunksOf(IntArrayList.from(1, 2, 3, 4, 5), Engine.H2);
+        assertThat(chunks).containsExactly(new InList.Chunk("IN (?,?,?,?,?,?,?,?)", List.of(1, 2, 3, 4, 5, 5, 5, 5)));
+    }
+
+    @Test
+    public void chunksOf_longs_padded() {
+        List<InList.Chunk> chunks = InList.chunksOf(LongArrayList.from(1, 2, 3), Engine.Derby);
+        assertThat(chunks).containsExactly(new InList.Chunk("IN (?,?,?,?)", List.of(1L, 2L, 3L, 3L)));
+    }
+
+    @Test
+    public void chunksOf_postgres_array() {
+        List<InList.Chunk> ints = InList.chunksOf(IntArrayList.from(1, 2, 3), Engine.PostgreSQL);
+        assertThat(ints).hasSize(1);
+        assertThat(ints.getFirst().repr()).isEqualTo("= ANY(?)");
+        assertThat((int[]) ints.getFirst().params().getFirst()).asList().containsExactly(1, 2, 3).inOrder();
+
+        List<InList.Chunk> strings = InList.chunksOf(List.of("a", "b"), Engine.PostgreSQL);
+        assertThat(strings).hasSize(1);
+        assertThat(strings.getFirst().repr()).isEqualTo("= ANY(?)");
+        assertThat((String[]) strings.getFirst().params().getFirst()).asList().containsExactly("a", "b").inOrder();
+    }
+
+    @Test
+    public void chunksOf_postgres_unsupported_type() {
+        byte[] key = {1, 2};
+        List<InList.Chunk> chunks = InList.chunksOf(List.of(key), Engine.PostgreSQL);
+        assertThat(chunks).containsExactly(new InList.Chunk("IN (?)", List.of(key)));
+    }
+}
@@ -0,0 +1,143 @@
+package io.spbx.orm.api.query;
+
+import io.spbx.orm.api.Engine;
+import io.spbx.orm.api.PageToken;
+import io.spbx.orm.api.TableMeta;
+import io.spbx.orm.testing.PersonTableData.PersonColumn;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Timestamp;
+import java.util.List;
+
+import static com.google.common.truth.Truth.assertThat;
+import static io.spbx.orm.testing.AssertSql.assertThat;
+import static io.spbx.orm.testing.PersonTableData.PERSON_META;
+import static io.spbx.orm.testing.PersonTableData.parseDate;
+import static io.spbx.orm.testing.PersonTableData.photo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class KeysetPaginationTest {
+    private static final TableMeta COMPOSITE_META = new TableMeta() {
+        @Override
+        public @NotNull String sqlTableName() {
+            return "person";
+        }
+
+        @Override
+        public @NotNull List<ColumnMeta> sqlColumns() {
+            return List.of(
+                ColumnMeta.of(PersonColumn.id, int.class),
+                ColumnMeta.of(PersonColumn.name, String.class).withPrimaryKey(ConstraintStatus.COMPOSITE),
+                ColumnMeta.of(PersonColumn.birthday, Timestamp.class).withPrimaryKey(ConstraintStatus.COMPOSITE)
+            );
+        }
+
+        @Override
+        public @NotNull Constraint primaryKeys() {
+            return Constraint.of(PersonColumn.name, PersonColumn.birthday);
+        }
+
+        @Override
+        public @NotNull Iterable<Constraint> unique() {
+            return List.of();
+        }
+    };
+
+    @Test
+    public void filter_first_page() {
+        CompositeFilter filter = KeysetPagination.of(PERSON_META).filter(null, null, 5, Engine.H2);
+        assertThat(filter)
+            .matches("""
+                ORDER BY person.id ASC
+                LIMIT ?
+                """)
+            .containsArgsExactly(5);
+    }
+
+    @Test
+    public void filter_next_page_single_column() {
+        KeysetPagination keyset = KeysetPagination.of(PERSON_META);
+        PageToken token = keyset.tokenOf(personRow(7));
+        CompositeFilter filter = keyset.filter(null, token, 5, Engine.SQLite);
+        assertThat(filter)
+            .matches("""
+                WHERE person.id > ?
+                ORDER BY person.id ASC
+                LIMIT ?
+                """)
+            .containsArgsExactly(7, 5);
+    }
+
+    @Test
+    public void filter_next_page_desc_with_where() {
+        KeysetPagination keyset = KeysetPagination.of(PERSON_META, Order.DESC);
+        CompositeFilter filter = keyset.filter(Where.of(PersonColumn.sex.bool()), PageToken.ofLastItem("7"), 5, Engine.MySQL);
+        assertThat(filter)
+            .matches("""
+                WHERE sex AND (person.id < ?)
+                ORDER BY person.id DESC
+                LIMIT ?
+                """)
+            .containsArgsExactly(7, 5);
+    }
+
+    @Test
+    public void filter_next_page_composite_tuple() {
+        KeysetPagination keyset = KeysetPagination.of(COMPOSITE_META);
+        PageToken token = keyset.tokenOf(new Object[] { 1, "foo", parseDate("2000-01-01") });
+        CompositeFilter filter = keyset.filter(null, token, 10, Engine.PostgreSQL);
+        assertThat(filter)
+            .matches("""
+                WHERE (person.name, person.birthday) > (?, ?)
+                ORDER BY person.name ASC, person.birthday ASC
+                LIMIT ?
+                """)
+            .containsArgsExactly("foo", parseDate("2000-01-01"), 10);
+    }
+
+    @Test
+    public void filter_next_page_composite_expanded() {
+        KeysetPagination keyset = KeysetPagination.of(COMPOSITE_META);
+        PageToken token = keyset.tokenOf(new Object[] { 1, "foo", parseDate("2000-01-01") });
+        CompositeFilter filter = keyset.filter(null, token, 10, Engine.Oracle);
+        assertThat(filter)
+            .matches("""
+                WHERE (person.name > ?) OR (person.name = ? AND person.birthday > ?)
+                ORDER BY person.name ASC, person.birthday ASC
+                FETCH NEXT ? ROWS ONLY
+                """)
+            .containsArgsExactly("foo", "foo", parseDate("2000-01-01"), 10);
+    }
+
+    @Test
+    public void filter_offset_token() {
+        CompositeFilter filter = KeysetPagination.of(PERSON_META).filter(null, PageToken.ofOffset(20), 5, Engine.H2);
+        assertThat(filter)
+            .matches("""
+                ORDER BY person.id ASC
+                LIMIT ?
+                OFFSET ?
+                """)
+            .containsArgsExactly(5, 20);
+    }
+
+    @Test
+    public void token_round_trip() {
+        KeysetPagination keyset = KeysetPagination.of(COMPOSITE_META);
+        PageToken token = keyset.tokenOf(new Object[] { 1, "a,b:c", parseDate("2000-01-01") });
+        assertThat(token.hasLastItem()).isTrue();
+        assertThat(keyset.decode(token.lastItem())).asList().containsExactly("a,b:c", parseDate("2000-01-01")).inOrder();
+    }
+
+    @Test
+    public void token_invalid() {
+        KeysetPagination keyset = KeysetPagination.of(PERSON_META);
+        assertThrows(InvalidQueryException.class, () -> keyset.filter(null, PageToken.ofLastItem("foo"), 5, Engine.H2));
+        assertThrows(InvalidQueryException.class, () -> keyset.filter(null, PageToken.ofLastItem("1,2"), 5, Engine.H2));
+    }
+
+    private static @NotNull Object[] personRow(int id) {
+        return new Object[] { id, "Bill", "US", false, parseDate("1955-10-28"), 160, 1.77, photo(id) };
+    }
+}
@@ -3,6 +3,8 @@ package io.spbx.orm.api.query;
 import io.spbx.orm.testing.FakeColumn;
 import org.junit.jupiter.api.Test;
 
+import java.util.List;
+
 import static io.spbx.orm.api.query.CompareType.GE;
 import static io.spbx.orm.api.query.CompareType.LE;
 import static io.spbx.orm.api.query.Shortcuts.*;
@@ -39,4 +41,17 @@ public class WhereTest {
         Where where = Where.of(lookupBy(FakeColumn.INT, UNRESOLVED_NUM));
         assertThat(where).matches("WHERE i = ?").containsUnresolved();
     }
+
+    @Test
+    public void is_in_bucketed() {
+        assertThat(Where.of(isInBucketed(FakeColumn.INT, List.of(var(1)))))
+            .matches("WHERE i IN (?)")
+            .containsArgsExactly(1);
+        assertThat(Where.of(isInBucketed(FakeColumn.INT, List.of(var(1), var(2), var(3)))))
+            .matches("WHERE i IN (?, ?, ?, ?)")
+            .containsArgsExactly(1, 2, 3, 3);
+        assertThat(Where.of(isInBucketed(FakeColumn.INT, List.of(var(1), var(2), var(3), var(4)))))
+            .matches("WHERE i IN (?, ?, ?, ?)")
+            .containsArgsExactly(1, 2, 3, 4);
+    }
 }
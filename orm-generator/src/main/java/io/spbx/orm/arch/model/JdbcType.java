@@ -38,6 +38,10 @@ public enum JdbcType {
         return "get%s".formatted(name());
     }
 
+    public @NotNull String setterMethod() {
+        return "set%s".formatted(name());
+    }
+
     private static final ImmutableMap<Class<?>, JdbcType> TYPES_BY_CLASS = EasyMaps.mergeToImmutable(
         Arrays.stream(JdbcType.values()).collect(Collectors.toMap(JdbcType::nativeType, type -> type)),
         Map.of(java.util.Date.class, Date)
@@ -26,7 +26,7 @@ class ImportsCollector {
         ResultSetIterator.class, TableMeta.class,
         EntityData.class, EntityIntData.class, EntityLongData.class, EntityColumnMap.class,
         BatchEntityData.class, BatchEntityIntData.class, BatchEntityLongData.class,
-        Contextual.class
+        Contextual.class, InList.class
     );
 
     private final ModelAdaptersLocator locator;
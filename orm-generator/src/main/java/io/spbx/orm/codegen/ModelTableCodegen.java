@@ -380,16 +380,19 @@ public class ModelTableCodegen extends BaseCodegen {
             return;  // will use a slow default implementation
         }
 
+        // The IN-list size is bucketed, so that the query is the same for the similar batch sizes
         String queryExecution = """
-            String query = SELECT_ENTITY_ALL[follow.ordinal()] + "WHERE $pk_column IN (" + "?,".repeat(keys.size() - 1) + "?)";
-            try (PreparedStatement statement = runner().prepareQuery(query, keys);
-                 ResultSet result = statement.executeQuery()) {
-                while (result.next()) {
-                    $ModelClass entity = fromRow(result, follow, 0);
-                    map.put(entity.$pk_getter, entity);
+            for (InList.Chunk chunk : InList.chunksOf(keys, engine())) {
+                String query = SELECT_ENTITY_ALL[follow.ordinal()] + "WHERE $pk_column " + chunk.repr();
+                try (PreparedStatement statement = runner().prepareQuery(query, chunk.params());
+                     ResultSet result = statement.executeQuery()) {
+                    while (result.next()) {
+                        $ModelClass entity = fromRow(result, follow, 0);
+                        map.put(entity.$pk_getter, entity);
+                    }
+                } catch (SQLException e) {
+                    throw new QueryException("Failed to find by PK batch in $TableClass", query, chunk.params(), e);
                 }
-            } catch (SQLException e) {
-                throw new QueryException("Failed to find by PK batch in $TableClass", query, keys, e);
             }\
         """;
 
@@ -531,6 +534,16 @@ public class ModelTableCodegen extends BaseCodegen {
             } catch (SQLException e) {
                 throw new QueryException("Failed to iterate over $TableClass", query, filter.args(), e);
             }
+        }
+
+        @Override
+        public @Nonnull ResultSetIterator<$ModelClass> streamingIterator(@Nonnull Filter filter) {
+            String query = SELECT_ENTITY_ALL[follow.ordinal()] + filter.repr();
+            try {
+                return runner().iterateStreaming(query, filter.args(), engine(), result -> fromRow(result, follow, 0));
+            } catch (SQLException e) {
+                throw new QueryException("Failed to iterate over $TableClass", query, filter.args(), e);
+            }
         }\n
         """, mainContext);
     }
@@ -547,8 +560,9 @@ public class ModelTableCodegen extends BaseCodegen {
         public int insert(@Nonnull $ModelClass $model_param) {
             $model_id_assert
             String query = $sql_query_literal;
-            try {
-                return runner().runUpdate(query, valuesForInsert($model_param));
+            try (PreparedStatement statement = runner().prepareQuery(query)) {
+                bindInsert(statement, $model_param);
+                return statement.executeUpdate();
             } catch (SQLException e) {
                 throw new QueryException("Failed to insert entity into $TableClass", query, $model_param, e);
             }
@@ -573,20 +587,23 @@ public class ModelTableCodegen extends BaseCodegen {
                 default -> throw new UnsupportedOperationException(
                     "Insert-ignore unsupported for %s. Use insert() inside try-catch block".formatted(engine()));
             };
-            try {
-                return runner().runUpdate(query, valuesForInsert($model_param));
+            try (PreparedStatement statement = runner().prepareQuery(query)) {
+                bindInsert(statement, $model_param);
+                return statement.executeUpdate();
             } catch (SQLException e) {
                 throw new QueryException("Failed to insert entity into $TableClass", query, $model_param, e);
-           }
+            }
         }\n
         """, EasyMaps.merge(context, mainContext));
     }
 
     private void valuesForInsert() {
         ValuesArrayMaker maker = new ValuesArrayMaker("$model_param", table.fields());
+        StatementBindMaker bindMaker = new StatementBindMaker("$model_param", "statement", table.fields());
         Map<String, String> context = Map.of(
             "$array_init", maker.makeInitValues().join(linesJoiner(INDENT2)),
-            "$array_convert", maker.makeConvertValues().join(linesJoiner(INDENT1, true))
+            "$array_convert", maker.makeConvertValues().join(linesJoiner(INDENT1, true)),
+            "$bind_values", bindMaker.makeBindValues().join(linesJoiner(INDENT1, true))
         );
 
         appendCode("""
@@ -596,6 +613,16 @@ public class ModelTableCodegen extends BaseCodegen {
             };
         $array_convert
             return array;
+        }
+
+        @Override
+        public @Nonnull Object[] columnValuesOf(@Nonnull $ModelClass $model_param) {
+            return valuesForInsert($model_param);
+        }
+
+        protected static void bindInsert(@Nonnull PreparedStatement statement,
+                                         @Nonnull $ModelClass $model_param) throws SQLException {
+        $bind_values
         }\n
         """, EasyMaps.merge(context, mainContext));
     }
@@ -808,8 +835,12 @@ public class ModelTableCodegen extends BaseCodegen {
         @Override
         public int[] insertBatch(@Nonnull Collection<? extends $ModelClass> batch) {
             String query = $sql_query_literal;
-            try {
-                return runner().runUpdateBatch(query, batch.stream().map($TableClass::valuesForInsert).toList());
+            try (PreparedStatement statement = runner().prepareQuery(query)) {
+                for ($ModelClass $model_param : batch) {
+                    bindInsert(statement, $model_param);
+                    statement.addBatch();
+                }
+                return statement.executeBatch();
             } catch (SQLException e) {
                 throw new QueryException("Failed to insert a batch of entities into $TableClass", query, batch, e);
             }
@@ -0,0 +1,85 @@
+package io.spbx.orm.codegen;
+
+import com.google.common.primitives.Primitives;
+import io.spbx.orm.arch.model.JdbcType;
+import io.spbx.orm.arch.model.OneColumnTableField;
+import io.spbx.orm.arch.model.TableField;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+// Binds the model fields straight to the `PreparedStatement` params, without the intermediate `Object[]`.
+// The native columns use the typed setters (e.g. `setInt`), so the primitive values aren't boxed.
+// The adapted fields still fill a small array of their own columns.
+class StatementBindMaker {
+    private final String param;
+    private final String statementParam;
+    private final List<FieldBinder> binders;
+
+    public StatementBindMaker(@NotNull String param, @NotNull String statementParam, @NotNull Iterable<TableField> fields) {
+        this.param = param;
+        this.statementParam = statementParam;
+        this.binders = ValuesArrayMaker.zipWithColumnIndex(fields, FieldBinder::new);
+    }
+
+    public @NotNull Snippet makeBindValues() {
+        return new Snippet().withLines(binders.stream().flatMap(FieldBinder::bindLines));
+    }
+
+    private class FieldBinder {
+        private final TableField field;
+        private final int columnIndex;
+
+        private FieldBinder(@NotNull TableField field, int columnIndex) {
+            this.field = field;
+            this.columnIndex = columnIndex;
+        }
+
+        public @NotNull Stream<String> bindLines() {
+            return switch (field.typeSupport()) {
+                case NATIVE -> {
+                    assert field instanceof OneColumnTableField : "Native field is not one column: %s".formatted(field);
+                    JdbcType jdbcType = ((OneColumnTableField) field).column().jdbcType();
+                    String setter = jdbcType.nativeType() == field.javaType() ? jdbcType.setterMethod() : "setObject";
+                    yield Stream.of(setterLine(setter, columnIndex, accessFieldExpr()));
+                }
+                case FOREIGN_KEY -> Stream.of(setterLine("setObject", columnIndex, accessFieldExpr() + ".getFk()"));
+                case MAPPER_API -> Stream.of(
+                    setterLine("setObject", columnIndex, field.mapperApiOrDie().expr().fieldToJdbc(accessFieldExpr()))
+                );
+                case ADAPTER_API -> {
+                    String array = "_%s".formatted(field.javaName());
+                    Stream<String> fill = Stream.of(
+                        "Object[] %s = new Object[%d];".formatted(array, field.columnsNumber()),
+                        fillArrayLine(array)
+                    );
+                    Stream<String> set = IntStream.range(0, field.columnsNumber())
+                        .mapToObj(i -> setterLine("setObject", columnIndex + i, "%s[%d]".formatted(array, i)));
+                    yield Stream.concat(fill, set);
+                }
+            };
+        }
+
+        // Special case: `char` type. Has a custom support, but shouldn't be handled for null.
+        private @NotNull String fillArrayLine(@NotNull String array) {
+            if (field.isNotNull() || Primitives.allPrimitiveTypes().contains(field.javaType())) {
+                return field.adapterApiOrDie().statement().fillArrayValues(accessFieldExpr(), array, 0);
+            }
+            return "Optional.ofNullable(%s).ifPresent(%s -> %s);".formatted(
+                accessFieldExpr(),
+                field.javaName(),
+                field.adapterApiOrDie().expr().fillArrayValues(field.javaName(), array, 0)
+            );
+        }
+
+        private @NotNull String setterLine(@NotNull String setter, int index, @NotNull String valueExpr) {
+            return "%s.%s(%d, %s);".formatted(statementParam, setter, index + 1, valueExpr);
+        }
+
+        private @NotNull String accessFieldExpr() {
+            return "%s.%s".formatted(param, field.javaAccessor());
+        }
+    }
+}
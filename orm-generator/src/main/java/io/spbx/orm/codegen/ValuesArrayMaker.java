@@ -26,8 +26,8 @@ class ValuesArrayMaker {
         return new Snippet().withLines(converters.stream().map(FieldConverter::fillValuesLine));
     }
 
-    private static <T> @NotNull List<T> zipWithColumnIndex(@NotNull Iterable<TableField> fields,
-                                                           @NotNull ObjIntFunction<TableField, T> converter) {
+    static <T> @NotNull List<T> zipWithColumnIndex(@NotNull Iterable<TableField> fields,
+                                                   @NotNull ObjIntFunction<TableField, T> converter) {
         ArrayList<T> result = new ArrayList<>();
         int columnIndex = 0;
         for (TableField field : fields) {
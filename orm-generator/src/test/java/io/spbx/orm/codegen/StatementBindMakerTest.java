@@ -0,0 +1,109 @@
+package io.spbx.orm.codegen;
+
+import io.spbx.orm.api.ForeignInt;
+import io.spbx.orm.api.annotate.Sql;
+import io.spbx.orm.arch.model.TableArch;
+import io.spbx.util.base.EasyWrappers.MutableInt;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Optional;
+
+import static io.spbx.orm.arch.factory.TestingArch.buildTableArch;
+import static io.spbx.orm.codegen.AssertSnippet.assertThatJava;
+
+public class StatementBindMakerTest {
+    @Test
+    public void primitive_columns() {
+        record Primitives(int id, int i, long l, byte b, short s, char ch, float f, double d, boolean bool) {}
+
+        TableArch tableArch = buildTableArch(Primitives.class);
+
+        assertThatJava(makeBindValues(tableArch)).matches("""
+            statement.setInt(1, $param.id());
+            statement.setInt(2, $param.i());
+            statement.setLong(3, $param.l());
+            statement.setByte(4, $param.b());
+            statement.setShort(5, $param.s());
+            Object[] _ch = new Object[1];
+            CharacterJdbcAdapter.fillArrayValues($param.ch(), _ch, 0);
+            statement.setObject(6, _ch[0]);
+            statement.setFloat(7, $param.f());
+            statement.setDouble(8, $param.d());
+            statement.setBoolean(9, $param.bool());
+            """);
+    }
+
+    @Test
+    public void wrappers_columns() {
+        record Wrappers(Integer id, Long l, Boolean bool) {}
+
+        TableArch tableArch = buildTableArch(Wrappers.class);
+
+        assertThatJava(makeBindValues(tableArch)).matches("""
+            statement.setObject(1, $param.id());
+            statement.setObject(2, $param.l());
+            statement.setObject(3, $param.bool());
+            """);
+    }
+
+    @Test
+    public void object_columns() {
+        record Objs(String id, byte[] bytes, Timestamp ts) {}
+
+        TableArch tableArch = buildTableArch(Objs.class);
+
+        assertThatJava(makeBindValues(tableArch)).matches("""
+            statement.setString(1, $param.id());
+            statement.setBytes(2, $param.bytes());
+            statement.setTimestamp(3, $param.ts());
+            """);
+    }
+
+    @Test
+    public void columns_with_mappers() {
+        record Mappers(Optional<String> str) {}
+
+        TableArch tableArch = buildTableArch(Mappers.class);
+
+        assertThatJava(makeBindValues(tableArch)).matches("""
+            statement.setObject(1, $param.str().orElse(null));
+            """);
+    }
+
+    @Test
+    public void columns_with_adapters() {
+        record Adapters(MutableInt i, @Sql(nullable = true) java.awt.Point point) {}
+
+        TableArch tableArch = buildTableArch(Adapters.class);
+
+        assertThatJava(makeBindValues(tableArch)).matches("""
+            Object[] _i = new Object[1];
+            EasyWrappers_MutableInt_JdbcAdapter.ADAPTER.fillArrayValues($param.i(), _i, 0);
+            statement.setObject(1, _i[0]);
+            Object[] _point = new Object[2];
+            Optional.ofNullable($param.point()).ifPresent(point ->\
+             PointJdbcAdapter.ADAPTER.fillArrayValues(point, _point, 0));
+            statement.setObject(2, _point[0]);
+            statement.setObject(3, _point[1]);
+            """);
+    }
+
+    @Test
+    public void foreign_int_column() {
+        record User(int userId, String name) {}
+        record Song(ForeignInt<User> author) {}
+
+        TableArch tableArch = buildTableArch(Song.class, List.of(User.class));
+
+        assertThatJava(makeBindValues(tableArch)).matches("""
+            statement.setObject(1, $param.author().getFk());
+            """);
+    }
+
+    private static @NotNull Snippet makeBindValues(@NotNull TableArch tableArch) {
+        return new StatementBindMaker("$param", "statement", tableArch.fields()).makeBindValues();
+    }
+}
@@ -3,6 +3,7 @@ package io.spbx.webby.app;
 import io.spbx.util.props.PropertyMap;
 import io.spbx.webby.db.kv.DbType;
 import io.spbx.webby.routekit.QueryParser;
+import io.spbx.webby.url.annotate.Execution;
 import io.spbx.webby.url.annotate.FrameType;
 import io.spbx.webby.url.annotate.Marshal;
 import io.spbx.webby.url.annotate.Render;
@@ -30,6 +31,7 @@ public interface Settings extends PropertyMap {
     Property SQL_PASSWORD = Property.of("webby.sql.password", "");
 
     Property URL_QUERY_PARSER = Property.of("webby.url.query.parser", "");
+    BoolProperty URL_ROUTER_COMPILED = BoolProperty.of("webby.url.router.compiled", false);
     EnumProperty<Render> RENDER = EnumProperty.of("webby.render", Render.JTE);
     PathProperty WEB_PATH = PathProperty.of("webby.web.path", Path.of("web"));
     PathProperty VIEW_PATHS = PathProperty.of("webby.view.paths", Path.of("web"));
@@ -37,6 +39,21 @@ public interface Settings extends PropertyMap {
     EnumProperty<Marshal> HTTP_REQUEST_MARSHAL = EnumProperty.of("webby.http.request.marshal", Marshal.JSON);
     EnumProperty<Marshal> HTTP_RESPONSE_MARSHAL = EnumProperty.of("webby.http.request.marshal", Marshal.AS_STRING);
     PathProperty USER_CONTENT = PathProperty.of("webby.user.content.path", Path.of("user-content"));
+    EnumProperty<Execution> HTTP_EXECUTION = EnumProperty.of("webby.http.execution", Execution.EVENT_LOOP);
+    IntProperty HTTP_EXECUTION_POOL_SIZE = IntProperty.of("webby.http.execution.pool.size", 0);
+    IntProperty HTTP_EXECUTION_QUEUE_SIZE = IntProperty.of("webby.http.execution.queue.size", 1024);
+    IntProperty HTTP_CONTENT_STREAM_BUFFER_SIZE = IntProperty.of("webby.http.content.stream.buffer.size", 256 << 10);
+    LongProperty STATIC_CACHE_MAX_SIZE = LongProperty.of("webby.static.cache.max.size", 64L << 20);
+    IntProperty STATIC_CACHE_MAX_FILE_SIZE = IntProperty.of("webby.static.cache.max.file.size", 1 << 20);
+
+    BoolProperty ACCESS_LOG = BoolProperty.of("webby.access.log.enabled", false);
+    PathProperty ACCESS_LOG_PATH = PathProperty.of("webby.access.log.path", Path.of("logs", "access.log"));
+    DoubleProperty ACCESS_LOG_SAMPLE_RATE = DoubleProperty.of("webby.access.log.sample.rate", 1.0);
+    IntProperty ACCESS_LOG_BUFFER_SIZE = IntProperty.of("webby.access.log.buffer.size", 8192);
+    LongProperty ACCESS_LOG_MAX_FILE_SIZE = LongProperty.of("webby.access.log.max.file.size", 100L << 20);
+    IntProperty ACCESS_LOG_MAX_FILES = IntProperty.of("webby.access.log.max.files", 10);
+    BoolProperty METRICS = BoolProperty.of("webby.metrics.enabled", false);
+    Property METRICS_URL = Property.of("webby.metrics.url", "/metrics");
 
     EnumProperty<FrameType> WS_FRAME_TYPE = EnumProperty.of("webby.ws.frame.type", FrameType.FROM_CLIENT);
     EnumProperty<Marshal> WS_FRAME_MARSHAL = EnumProperty.of("webby.ws.frame.marshal", Marshal.JSON);
@@ -59,6 +76,7 @@ public interface Settings extends PropertyMap {
 
     default @NotNull Toggle profileMode() { return getEnum(PROFILE_MODE); }
     default boolean isProfileMode() { return profileMode().isEnabledFor(runMode()); }
+    default boolean isMetricsEnabled() { return getBool(METRICS); }
 
     default @NotNull Toggle safeMode() { return getEnum(SAFE_MODE); }
     default boolean isSafeMode() { return safeMode().isEnabledFor(runMode()); }
@@ -74,6 +92,7 @@ public interface Settings extends PropertyMap {
     default @NotNull Marshal defaultRequestContentMarshal() { return getEnum(HTTP_REQUEST_MARSHAL); }
     default @NotNull Marshal defaultResponseContentMarshal() { return getEnum(HTTP_RESPONSE_MARSHAL); }
     default @NotNull Path userContentPath() { return getPath(USER_CONTENT); }
+    default @NotNull Execution defaultExecution() { return getEnum(HTTP_EXECUTION); }
 
     default @NotNull FrameType defaultFrameType() { return getEnum(WS_FRAME_TYPE); }
     default @NotNull Marshal defaultFrameContentMarshal() { return getEnum(WS_FRAME_MARSHAL); }
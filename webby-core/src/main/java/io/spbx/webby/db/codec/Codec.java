@@ -5,6 +5,8 @@ import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufInputStream;
 import io.netty.buffer.Unpooled;
 import io.spbx.util.func.Reversible;
+import io.spbx.util.io.ByteBufferInputStream;
+import io.spbx.util.io.ByteBufferOutputStream;
 import io.spbx.webby.app.AppSettings;
 import org.jetbrains.annotations.NotNull;
 
@@ -48,6 +50,17 @@ public interface Codec<T> extends Reversible<byte[], T> {
         }
     }
 
+    // Writes from the current buffer position, advancing it.
+    // Throws `BufferOverflowException` if the remaining space is not enough (the buffer position is undefined then).
+    @CanIgnoreReturnValue
+    default int writeTo(@NotNull ByteBuffer buffer, @NotNull T instance) {
+        try {
+            return writeTo(new ByteBufferOutputStream(buffer), instance);
+        } catch (IOException impossible) {
+            return rethrow(impossible);
+        }
+    }
+
     default @NotNull ByteBuffer writeToByteBuffer(@NotNull T instance) {
         return ByteBuffer.wrap(writeToBytes(instance));
     }
@@ -75,8 +88,18 @@ public interface Codec<T> extends Reversible<byte[], T> {
         }
     }
 
+    // Reads from the current buffer position, advancing it. The buffer content isn't copied.
+    default @NotNull T readFrom(@NotNull ByteBuffer buffer) {
+        try {
+            return readFrom(new ByteBufferInputStream(buffer), buffer.remaining());
+        } catch (IOException impossible) {
+            return rethrow(impossible);
+        }
+    }
+
+    // Unlike `readFrom()`, doesn't change the buffer position
     default @NotNull T readFromByteBuffer(@NotNull ByteBuffer buffer) {
-        return readFromByteBuf(Unpooled.wrappedBuffer(buffer));
+        return readFrom(buffer.duplicate());
     }
 
     default @NotNull T readFromByteBuf(@NotNull ByteBuf buf) {
@@ -21,6 +21,7 @@ import org.jetbrains.annotations.Nullable;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 import java.nio.charset.Charset;
 
 import static io.spbx.util.base.EasyCast.castAny;
@@ -49,7 +50,7 @@ public class CodecProvider {
     }
 
     private final LazyBoolean isTrackingCodecOn = new LazyBoolean(() ->
-        settings.isProfileMode() && settings.getBool("perf.track.codec.enabled", true)
+        (settings.isProfileMode() || settings.isMetricsEnabled()) && settings.getBool("perf.track.codec.enabled", true)
     );
 
     public <T> @Nullable Codec<T> getCodecOrNull(@NotNull Class<T> klass) {
@@ -81,6 +82,16 @@ public class CodecProvider {
         public @NotNull Integer readFrom(@NotNull InputStream input, int available) throws IOException {
             return readInt32(input);
         }
+
+        @Override
+        public int writeTo(@NotNull ByteBuffer buffer, @NotNull Integer instance) {
+            return writeInt32(instance, buffer);
+        }
+
+        @Override
+        public @NotNull Integer readFrom(@NotNull ByteBuffer buffer) {
+            return readInt32(buffer);
+        }
     };
 
     public static final Codec<Long> LONG_CODEC = new Codec<>() {
@@ -98,6 +109,16 @@ public class CodecProvider {
         public @NotNull Long readFrom(@NotNull InputStream input, int available) throws IOException {
             return readLong64(input);
         }
+
+        @Override
+        public int writeTo(@NotNull ByteBuffer buffer, @NotNull Long instance) {
+            return writeLong64(instance, buffer);
+        }
+
+        @Override
+        public @NotNull Long readFrom(@NotNull ByteBuffer buffer) {
+            return readLong64(buffer);
+        }
     };
 
     public static final Codec<String> STRING_CODEC = new Codec<>() {
@@ -122,5 +143,15 @@ public class CodecProvider {
         public @NotNull String readFrom(@NotNull InputStream input, int available) throws IOException {
             return readString(input, charset);
         }
+
+        @Override
+        public int writeTo(@NotNull ByteBuffer buffer, @NotNull String instance) {
+            return writeString(instance, charset, buffer);
+        }
+
+        @Override
+        public @NotNull String readFrom(@NotNull ByteBuffer buffer) {
+            return readString(buffer, charset);
+        }
     };
 }
@@ -8,6 +8,7 @@ import org.jetbrains.annotations.NotNull;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.ByteBuffer;
 
 public class TrackingCodecAdapter<T> implements Codec<T> {
     private final Codec<T> delegate;
@@ -30,13 +31,32 @@ public class TrackingCodecAdapter<T> implements Codec<T> {
 
     @Override
     public int writeTo(@NotNull OutputStream output, @NotNull T instance) throws IOException {
-        long start = System.currentTimeMillis();
+        long start = System.nanoTime();
         int totalWrittenBytes = delegate.writeTo(output, instance);
-        long elapsedMillis = System.currentTimeMillis() - start;
-        listener.report(Stat.CODEC_WRITE, totalWrittenBytes, elapsedMillis, delegate);
+        long elapsedNanos = System.nanoTime() - start;
+        listener.report(Stat.CODEC_WRITE, totalWrittenBytes, elapsedNanos, delegate);
         return totalWrittenBytes;
     }
 
+    @Override
+    public int writeTo(@NotNull ByteBuffer buffer, @NotNull T instance) {
+        long start = System.nanoTime();
+        int totalWrittenBytes = delegate.writeTo(buffer, instance);
+        long elapsedNanos = System.nanoTime() - start;
+        listener.report(Stat.CODEC_WRITE, totalWrittenBytes, elapsedNanos, delegate);
+        return totalWrittenBytes;
+    }
+
+    @Override
+    public @NotNull T readFrom(@NotNull ByteBuffer buffer) {
+        int position = buffer.position();
+        long start = System.nanoTime();
+        T instance = delegate.readFrom(buffer);
+        long elapsedNanos = System.nanoTime() - start;
+        listener.report(Stat.CODEC_READ, buffer.position() - position, elapsedNanos, delegate);
+        return instance;
+    }
+
     @Override
     public @NotNull T readFrom(@NotNull InputStream input, int available) throws IOException {
         MutableInt counter = new MutableInt();
@@ -84,10 +104,10 @@ public class TrackingCodecAdapter<T> implements Codec<T> {
             }
         };
 
-        long start = System.currentTimeMillis();
+        long start = System.nanoTime();
         T instance = delegate.readFrom(wrapper, available);
-        long elapsedMillis = System.currentTimeMillis() - start;
-        listener.report(Stat.CODEC_READ, counter.value, elapsedMillis, delegate);
+        long elapsedNanos = System.nanoTime() - start;
+        listener.report(Stat.CODEC_READ, counter.value, elapsedNanos, delegate);
         return instance;
     }
 }
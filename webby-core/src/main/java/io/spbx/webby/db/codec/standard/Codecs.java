@@ -12,6 +12,9 @@ import org.jetbrains.annotations.VisibleForTesting;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.nio.charset.Charset;
 import java.nio.charset.StandardCharsets;
 import java.util.Set;
@@ -25,6 +28,9 @@ public class Codecs {
     public static final int INT32_SIZE = Integer.BYTES;
     public static final int INT64_SIZE = Long.BYTES;
 
+    private static final int SCRATCH_SIZE = 4096;
+    private static final ThreadLocal<byte[]> LOCAL_SCRATCH = ThreadLocal.withInitial(() -> new byte[SCRATCH_SIZE]);
+
     public static int writeByte8(int value, @NotNull OutputStream output) throws IOException {
         assert Byte.MIN_VALUE <= value && value <= Byte.MAX_VALUE : "Value does not fit in byte: %d".formatted(value);
         output.write(value);
@@ -63,6 +69,28 @@ public class Codecs {
         return Longs.fromByteArray(input.readNBytes(INT64_SIZE));
     }
 
+    // The `ByteBuffer` versions are big-endian (same as the streams) regardless of the buffer order
+
+    public static int writeInt32(int value, @NotNull ByteBuffer buffer) {
+        buffer.putInt(buffer.order() == ByteOrder.BIG_ENDIAN ? value : Integer.reverseBytes(value));
+        return INT32_SIZE;
+    }
+
+    public static int readInt32(@NotNull ByteBuffer buffer) {
+        int value = buffer.getInt();
+        return buffer.order() == ByteOrder.BIG_ENDIAN ? value : Integer.reverseBytes(value);
+    }
+
+    public static int writeLong64(long value, @NotNull ByteBuffer buffer) {
+        buffer.putLong(buffer.order() == ByteOrder.BIG_ENDIAN ? value : Long.reverseBytes(value));
+        return INT64_SIZE;
+    }
+
+    public static long readLong64(@NotNull ByteBuffer buffer) {
+        long value = buffer.getLong();
+        return buffer.order() == ByteOrder.BIG_ENDIAN ? value : Long.reverseBytes(value);
+    }
+
     public static int writeBoolean8(boolean value, @NotNull OutputStream output) throws IOException {
         return writeByte8(value ? 1 : 0, output);
     }
@@ -126,6 +154,31 @@ public class Codecs {
         return new String(bytes, charset);
     }
 
+    public static int writeString(@NotNull String value, @NotNull Charset charset, @NotNull ByteBuffer buffer) {
+        byte[] bytes = value.getBytes(charset);
+        writeInt32(bytes.length, buffer);
+        buffer.put(bytes);
+        return INT32_SIZE + bytes.length;
+    }
+
+    // Decodes straight from the heap buffer array. The direct buffers are copied to the local scratch array first
+    // (the `String` makes its own copy anyway). The virtual threads don't keep the scratch: they're mostly one per task.
+    public static @NotNull String readString(@NotNull ByteBuffer buffer, @NotNull Charset charset) {
+        int length = readInt32(buffer);
+        if (length < 0 || length > buffer.remaining()) {
+            throw new BufferUnderflowException();
+        }
+        if (buffer.hasArray()) {
+            String result = new String(buffer.array(), buffer.arrayOffset() + buffer.position(), length, charset);
+            buffer.position(buffer.position() + length);
+            return result;
+        }
+        boolean useScratch = length <= SCRATCH_SIZE && !Thread.currentThread().isVirtual();
+        byte[] bytes = useScratch ? LOCAL_SCRATCH.get() : new byte[length];
+        buffer.get(bytes, 0, length);
+        return new String(bytes, 0, length, charset);
+    }
+
     public static int writeNullableString(@Nullable String value, @NotNull Charset charset, @NotNull OutputStream output) throws IOException {
         byte[] bytes = value != null ? value.getBytes(charset) : null;
         return writeNullableByteArray(bytes, output);
@@ -0,0 +1,97 @@
+package io.spbx.webby.db.codec.standard;
+
+import io.spbx.webby.db.codec.Codec;
+import io.spbx.webby.db.codec.CodecSize;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+
+import static io.spbx.webby.db.codec.standard.Codecs.*;
+
+// The key codecs, which bytes compare (unsigned, lexicographically) in the same order as the values.
+// Needed for the range and prefix scans in the sorted dbs, see `SortedKeyValueDb`.
+// The numbers are big-endian with the sign bit flipped. The instants are the epoch seconds (encoded as a number)
+// followed by the nanos, so the pre-epoch instants keep the order too. The strings are raw UTF-8 without the length,
+// so they can only be used as the whole key (or its last part), but the string prefix is the byte prefix.
+public class OrderedCodecs {
+    public static final Codec<Integer> ORDERED_INT_CODEC = new Codec<>() {
+        @Override
+        public @NotNull CodecSize size() {
+            return CodecSize.fixed(INT32_SIZE);
+        }
+
+        @Override
+        public int writeTo(@NotNull OutputStream output, @NotNull Integer instance) throws IOException {
+            return writeInt32(instance ^ Integer.MIN_VALUE, output);
+        }
+
+        @Override
+        public @NotNull Integer readFrom(@NotNull InputStream input, int available) throws IOException {
+            return readInt32(input) ^ Integer.MIN_VALUE;
+        }
+    };
+
+    public static final Codec<Long> ORDERED_LONG_CODEC = new Codec<>() {
+        @Override
+        public @NotNull CodecSize size() {
+            return CodecSize.fixed(INT64_SIZE);
+        }
+
+        @Override
+        public int writeTo(@NotNull OutputStream output, @NotNull Long instance) throws IOException {
+            return writeLong64(instance ^ Long.MIN_VALUE, output);
+        }
+
+        @Override
+        public @NotNull Long readFrom(@NotNull InputStream input, int available) throws IOException {
+            return readLong64(input) ^ Long.MIN_VALUE;
+        }
+    };
+
+    public static final Codec<Instant> ORDERED_INSTANT_CODEC = new Codec<>() {
+        @Override
+        public @NotNull CodecSize size() {
+            return CodecSize.fixed(INT64_SIZE + INT32_SIZE);
+        }
+
+        @Override
+        public int writeTo(@NotNull OutputStream output, @NotNull Instant instance) throws IOException {
+            return writeLong64(instance.getEpochSecond() ^ Long.MIN_VALUE, output) + writeInt32(instance.getNano(), output);
+        }
+
+        @Override
+        public @NotNull Instant readFrom(@NotNull InputStream input, int available) throws IOException {
+            long seconds = readLong64(input) ^ Long.MIN_VALUE;
+            int nanos = readInt32(input);
+            return Instant.ofEpochSecond(seconds, nanos);
+        }
+    };
+
+    public static final Codec<String> ORDERED_STRING_CODEC = new Codec<>() {
+        @Override
+        public @NotNull CodecSize size() {
+            return CodecSize.minSize(0);
+        }
+
+        @Override
+        public int sizeOf(@NotNull String instance) {
+            return instance.getBytes(StandardCharsets.UTF_8).length;
+        }
+
+        @Override
+        public int writeTo(@NotNull OutputStream output, @NotNull String instance) throws IOException {
+            byte[] bytes = instance.getBytes(StandardCharsets.UTF_8);
+            output.write(bytes);
+            return bytes.length;
+        }
+
+        @Override
+        public @NotNull String readFrom(@NotNull InputStream input, int available) throws IOException {
+            return new String(input.readNBytes(available), StandardCharsets.UTF_8);
+        }
+    };
+}
@@ -5,12 +5,14 @@ import com.google.inject.Inject;
 import io.spbx.util.base.OneOf;
 import io.spbx.webby.app.Settings;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.VisibleForTesting;
 
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.logging.Level;
 
 public class FileSystemStorage implements UserContentStorage {
@@ -39,6 +41,21 @@ public class FileSystemStorage implements UserContentStorage {
 
     @Override
     public void addFile(@NotNull FileId fileId, byte @NotNull [] content, @NotNull WriteMode mode) throws IOException {
+        Path path = prepareToWrite(fileId, mode);
+        if (path != null) {
+            Files.write(path, content);
+        }
+    }
+
+    @Override
+    public void addFile(@NotNull FileId fileId, @NotNull InputStream content, @NotNull WriteMode mode) throws IOException {
+        Path path = prepareToWrite(fileId, mode);
+        if (path != null) {
+            Files.copy(content, path, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private @Nullable Path prepareToWrite(@NotNull FileId fileId, @NotNull WriteMode mode) throws IOException {
         if (!fileId.isSafe()) {
             throw new SecurityException("File id is unsafe: " + fileId);
         }
@@ -52,12 +69,12 @@ public class FileSystemStorage implements UserContentStorage {
                 case OVERWRITE -> log.at(Level.INFO).log("Overwriting existing file: %s", fileId);
             }
             if (mode != WriteMode.OVERWRITE) {
-                return;
+                return null;
             }
         }
 
         Files.createDirectories(path.getParent());
-        Files.write(path, content);
+        return path;
     }
 
     @Override
@@ -13,6 +13,8 @@ public interface UserContentStorage {
 
     void addFile(@NotNull FileId fileId, byte @NotNull [] content, @NotNull WriteMode mode) throws IOException;
 
+    void addFile(@NotNull FileId fileId, @NotNull InputStream content, @NotNull WriteMode mode) throws IOException;
+
     long getFileSizeInBytes(@NotNull FileId fileId) throws IOException;
 
     long getLastModifiedMillis(@NotNull FileId fileId) throws IOException;
@@ -5,13 +5,15 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 public record CountingOptions(@NotNull String name,
+                              @NotNull IntCounterType counterType,
                               @NotNull StorageType storeType,
                               @Nullable CountingTableSpec tableSpec) {
-    public static @NotNull CountingOptions ofKeyValue(@NotNull String name) {
-        return new CountingOptions(name, StorageType.KEY_VALUE_DB, null);
+    public static @NotNull CountingOptions ofKeyValue(@NotNull String name, @NotNull IntCounterType counterType) {
+        return new CountingOptions(name, counterType, StorageType.KEY_VALUE_DB, null);
     }
 
-    public static @NotNull CountingOptions ofSqlTable(@NotNull CountingTableSpec tableSpec) {
-        return new CountingOptions(tableSpec.table().sqlTableName(), StorageType.SQL_DB, tableSpec);
+    public static @NotNull CountingOptions ofSqlTable(@NotNull IntCounterType counterType,
+                                                      @NotNull CountingTableSpec tableSpec) {
+        return new CountingOptions(tableSpec.table().sqlTableName(), counterType, StorageType.SQL_DB, tableSpec);
     }
 }
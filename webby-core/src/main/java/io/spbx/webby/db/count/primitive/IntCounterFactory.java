@@ -24,7 +24,10 @@ public class IntCounterFactory {
 
     public @NotNull IntCounter getIntCounter(@NotNull CountingOptions options) {
         IntCountStorage storage = getStorage(options);
-        LockBasedIntCounter counter = new LockBasedIntCounter(storage, eventBus);
+        IntCounter counter = switch (options.counterType()) {
+            case LOCK_BASED -> new LockBasedIntCounter(storage, eventBus);
+            case NON_BLOCKING -> new NonBlockingIntCounter(storage, eventBus);
+        };
         cacheCleaner.register(options.name(), counter);
         lifetime.onTerminate(counter);
         return counter;
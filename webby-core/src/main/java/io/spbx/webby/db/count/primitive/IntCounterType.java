@@ -0,0 +1,6 @@
+package io.spbx.webby.db.count.primitive;
+
+public enum IntCounterType {
+    LOCK_BASED,
+    NON_BLOCKING,
+}
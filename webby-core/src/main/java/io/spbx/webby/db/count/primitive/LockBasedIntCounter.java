@@ -1,6 +1,7 @@
 package io.spbx.webby.db.count.primitive;
 
 import com.carrotsearch.hppc.IntContainer;
+import com.carrotsearch.hppc.IntHashSet;
 import com.carrotsearch.hppc.IntIntHashMap;
 import com.carrotsearch.hppc.IntIntMap;
 import com.google.common.eventbus.EventBus;
@@ -12,7 +13,9 @@ import io.spbx.webby.db.managed.HasCache;
 import org.jetbrains.annotations.NotNull;
 
 import javax.annotation.concurrent.ThreadSafe;
+import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
 /**
@@ -21,13 +24,16 @@ import java.util.concurrent.locks.ReentrantReadWriteLock;
  * Always returns exact counts, batch methods always return a consistent view.
  * <p>
  * The implementation uses an in-memory cache and a persistent storage.
+ * The flush stores only the keys updated since the previous flush, unless the full flush is requested.
  */
 @ThreadSafe
 public class LockBasedIntCounter implements IntCounter, HasCache<IntIntMap> {
     private final ReadWriteLock LOCK = new ReentrantReadWriteLock();
+    private final Lock FLUSH_LOCK = new ReentrantLock();
 
     private final IntCountStorage store;
     private final IntIntHashMap cache;
+    private final IntHashSet dirty = new IntHashSet();
 
     public LockBasedIntCounter(@NotNull IntCountStorage store, @NotNull EventBus eventBus) {
         this.store = store;
@@ -44,6 +50,7 @@ public class LockBasedIntCounter implements IntCounter, HasCache<IntIntMap> {
     public int update(int key, int delta) {
         LOCK.writeLock().lock();
         try {
+            dirty.add(key);
             return cache.addTo(key, delta);
         } finally {
             LOCK.writeLock().unlock();
@@ -72,11 +79,37 @@ public class LockBasedIntCounter implements IntCounter, HasCache<IntIntMap> {
 
     @Override
     public void flush(@NotNull FlushMode mode) {
-        LOCK.readLock().lock();
+        // Serializes the flushes, so that an older snapshot can't overwrite a newer one in the storage
+        FLUSH_LOCK.lock();
         try {
-            store.storeBatch(cache);
+            IntIntMap batch;
+            LOCK.writeLock().lock();
+            try {
+                batch = mode.isFlushAll() ? new IntIntHashMap(cache) : EasyHppc.slice(cache, dirty);
+                dirty.clear();
+            } finally {
+                LOCK.writeLock().unlock();
+            }
+
+            try {
+                if (!batch.isEmpty()) {
+                    store.storeBatch(batch);
+                }
+            } catch (RuntimeException e) {
+                markDirty(batch);
+                throw e;
+            }
         } finally {
-            LOCK.readLock().unlock();
+            FLUSH_LOCK.unlock();
+        }
+    }
+
+    private void markDirty(@NotNull IntIntMap batch) {
+        LOCK.writeLock().lock();
+        try {
+            dirty.addAll(batch.keys());
+        } finally {
+            LOCK.writeLock().unlock();
         }
     }
 
@@ -0,0 +1,217 @@
+package io.spbx.webby.db.count.primitive;
+
+import com.carrotsearch.hppc.IntContainer;
+import com.carrotsearch.hppc.IntIntHashMap;
+import com.carrotsearch.hppc.IntIntMap;
+import com.carrotsearch.hppc.cursors.IntCursor;
+import com.google.common.eventbus.EventBus;
+import com.google.common.eventbus.Subscribe;
+import io.spbx.webby.db.DbReadyEvent;
+import io.spbx.webby.db.managed.FlushMode;
+import io.spbx.webby.db.managed.HasCache;
+import org.jctools.counters.Counter;
+import org.jctools.counters.CountersFactory;
+import org.jctools.maps.NonBlockingHashMapLong;
+import org.jetbrains.annotations.NotNull;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * An {@link IntCounter} implementation based on a non-blocking map of counters.
+ * <p>
+ * The updates of different keys never contend. Each count is a single CAS-updated int, and only the hot keys
+ * (the ones which lost a CAS race) are switched to a striped counter, so that the updates of the same key contend
+ * only on the counter stripe. The batch methods don't return a consistent view under concurrent updates.
+ * <p>
+ * The flush stores only the keys updated since the previous flush, unless the full flush is requested.
+ * The updated keys are queued on the first update after the flush, so the flush doesn't scan the whole cache.
+ */
+@ThreadSafe
+public class NonBlockingIntCounter implements IntCounter, HasCache<IntIntMap> {
+    private final Lock FLUSH_LOCK = new ReentrantLock();
+
+    private final IntCountStorage store;
+    private final NonBlockingHashMapLong<Count> cache;
+    private final Queue<Count> dirty = new ConcurrentLinkedQueue<>();
+
+    public NonBlockingIntCounter(@NotNull IntCountStorage store, @NotNull EventBus eventBus) {
+        this.store = store;
+        this.cache = new NonBlockingHashMapLong<>(Math.max(store.size(), 1024));
+        eventBus.register(this);
+    }
+
+    @Subscribe
+    public void dbReady(@NotNull DbReadyEvent event) {
+        store.loadAll((key, value) -> {
+            Count existing = cache.putIfAbsent(key, new Count(key, value));
+            if (existing != null) {
+                existing.load(value);
+            }
+        });
+    }
+
+    @Override
+    public int update(int key, int delta) {
+        Count count = getOrCreate(key);
+        int value = count.add(delta);
+        if (count.markDirty()) {
+            dirty.offer(count);
+        }
+        return value;
+    }
+
+    @Override
+    public int estimateCount(int key) {
+        Count count = cache.get(key);
+        return count != null ? count.get() : 0;
+    }
+
+    @Override
+    public @NotNull IntIntMap estimateCounts(@NotNull IntContainer keys) {
+        IntIntHashMap map = new IntIntHashMap(keys.size());
+        for (IntCursor cursor : keys) {
+            map.put(cursor.value, estimateCount(cursor.value));
+        }
+        return map;
+    }
+
+    @Override
+    public void flush(@NotNull FlushMode mode) {
+        // Serializes the flushes, so that an older snapshot can't overwrite a newer one in the storage
+        FLUSH_LOCK.lock();
+        try {
+            List<Count> counts = new ArrayList<>();
+            for (Count count = dirty.poll(); count != null; count = dirty.poll()) {
+                counts.add(count);
+            }
+            if (mode.isFlushAll()) {
+                counts.clear();
+                counts.addAll(cache.values());
+            }
+
+            // The dirty flag is cleared before reading the value, so the concurrent updates are queued for the next flush
+            IntIntHashMap batch = new IntIntHashMap(counts.size());
+            int[] values = new int[counts.size()];
+            for (int i = 0; i < counts.size(); i++) {
+                Count count = counts.get(i);
+                count.clearDirty();
+                values[i] = count.get();
+                if (mode.isFlushAll() || count.isChanged(values[i])) {
+                    batch.put(count.key, values[i]);
+                }
+            }
+
+            try {
+                if (!batch.isEmpty()) {
+                    store.storeBatch(batch);
+                }
+            } catch (RuntimeException e) {
+                for (Count count : counts) {
+                    if (count.markDirty()) {
+                        dirty.offer(count);
+                    }
+                }
+                throw e;
+            }
+
+            for (int i = 0; i < counts.size(); i++) {
+                counts.get(i).markStored(values[i]);
+            }
+        } finally {
+            FLUSH_LOCK.unlock();
+        }
+    }
+
+    @Override
+    public @NotNull IntIntMap cache() {
+        IntIntHashMap map = new IntIntHashMap();
+        for (long key : cache.keySetLong()) {
+            map.put((int) key, estimateCount((int) key));
+        }
+        return map;
+    }
+
+    private @NotNull Count getOrCreate(int key) {
+        Count count = cache.get(key);
+        if (count == null) {
+            Count newCount = new Count(key, 0);
+            count = cache.putIfAbsent(key, newCount);
+            return count != null ? count : newCount;
+        }
+        return count;
+    }
+
+    private static final class Count {
+        private static final AtomicIntegerFieldUpdater<Count> BASE =
+            AtomicIntegerFieldUpdater.newUpdater(Count.class, "base");
+        private static final AtomicIntegerFieldUpdater<Count> DIRTY =
+            AtomicIntegerFieldUpdater.newUpdater(Count.class, "dirty");
+
+        private final int key;
+        private volatile int base;
+        private volatile Counter stripes;  // created on the first contended update
+        private volatile int dirty;
+        private volatile int stored;
+
+        public Count(int key, int value) {
+            this.key = key;
+            this.base = value;
+            this.stored = value;
+        }
+
+        public int get() {
+            Counter striped = stripes;
+            return striped != null ? base + (int) striped.get() : base;
+        }
+
+        public int add(int delta) {
+            Counter striped = stripes;
+            if (striped == null) {
+                int current = base;
+                if (BASE.compareAndSet(this, current, current + delta)) {
+                    return current + delta;
+                }
+                striped = inflate();
+            }
+            striped.inc(delta);
+            return get();
+        }
+
+        // The db value loaded after the key has been updated in memory
+        public void load(int value) {
+            BASE.addAndGet(this, value);
+            stored = value;
+        }
+
+        // Returns true if the count has just become dirty and must be queued
+        public boolean markDirty() {
+            return dirty == 0 && DIRTY.compareAndSet(this, 0, 1);
+        }
+
+        public void clearDirty() {
+            dirty = 0;
+        }
+
+        public boolean isChanged(int value) {
+            return value != stored;
+        }
+
+        public void markStored(int value) {
+            stored = value;
+        }
+
+        private synchronized @NotNull Counter inflate() {
+            if (stripes == null) {
+                stripes = CountersFactory.createFixedSizeStripedCounter(4);
+            }
+            return stripes;
+        }
+    }
+}
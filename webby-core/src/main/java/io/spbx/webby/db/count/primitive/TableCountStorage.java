@@ -1,18 +1,24 @@
 package io.spbx.webby.db.count.primitive;
 
 import com.carrotsearch.hppc.IntArrayList;
+import com.carrotsearch.hppc.IntIntHashMap;
 import com.carrotsearch.hppc.IntIntMap;
 import com.carrotsearch.hppc.cursors.IntIntCursor;
 import com.carrotsearch.hppc.procedures.IntIntProcedure;
 import com.google.common.flogger.FluentLogger;
 import io.spbx.orm.api.BaseTable;
+import io.spbx.orm.api.QueryException;
+import io.spbx.orm.api.entity.BatchEntityIntData;
 import io.spbx.orm.api.entity.EntityIntData;
 import io.spbx.orm.api.query.*;
 import io.spbx.util.base.OneOf;
 import org.jetbrains.annotations.NotNull;
 
+import java.sql.Statement;
 import java.util.List;
+import java.util.logging.Level;
 
+import static io.spbx.orm.api.query.Shortcuts.UNRESOLVED_NUM;
 import static io.spbx.orm.api.query.Shortcuts.lookupBy;
 
 public class TableCountStorage implements IntCountStorage {
@@ -48,15 +54,59 @@ public class TableCountStorage implements IntCountStorage {
 
     @Override
     public void storeBatch(@NotNull IntIntMap map) {
-        if (counterColumn != null) {
-            for (IntIntCursor cursor : map) {
-                table.updateWhereOrInsertData(
-                    new EntityIntData(List.of(counterColumn), IntArrayList.from(cursor.value)),
-                    Where.of(lookupBy(keyColumn, cursor.key))
-                );
-            }
-        } else {
+        if (counterColumn == null) {
             log.atInfo().log("Storage %s is self-managed: not storing the count map from cache", this);
+            return;
+        }
+        if (map.isEmpty()) {
+            return;
+        }
+
+        List<Column> columns = List.of(keyColumn, counterColumn);
+        IntArrayList rows = new IntArrayList(map.size() * 2);
+        for (IntIntCursor cursor : map) {
+            rows.add(cursor.key, cursor.value);
+        }
+
+        try {
+            // Update the existing rows in one batch, then insert the ones that didn't match
+            int[] updated = table.updateDataWhereBatch(
+                new BatchEntityIntData(columns, rows),
+                Contextual.resolvingByOrderedList(
+                    Where.of(lookupBy(keyColumn, UNRESOLVED_NUM)),
+                    array -> List.of(array.get(0))
+                )
+            );
+            // Some drivers report SUCCESS_NO_INFO instead of the row counts: these rows are upserted one by one
+            IntArrayList missing = new IntArrayList();
+            IntIntHashMap unknown = new IntIntHashMap();
+            for (int i = 0; i < updated.length; i++) {
+                int key = rows.get(2 * i);
+                int value = rows.get(2 * i + 1);
+                if (updated[i] == 0) {
+                    missing.add(key, value);
+                } else if (updated[i] == Statement.SUCCESS_NO_INFO) {
+                    unknown.put(key, value);
+                }
+            }
+            if (!missing.isEmpty()) {
+                table.insertDataBatch(new BatchEntityIntData(columns, missing));
+            }
+            if (!unknown.isEmpty()) {
+                storeBatchUltraSafe(unknown);
+            }
+        } catch (QueryException e) {
+            log.at(Level.SEVERE).withCause(e).log("Failed to store batch. Fall back to ultra-safe method");
+            storeBatchUltraSafe(map);
+        }
+    }
+
+    private void storeBatchUltraSafe(@NotNull IntIntMap map) {
+        for (IntIntCursor cursor : map) {
+            table.updateWhereOrInsertData(
+                new EntityIntData(List.of(counterColumn), IntArrayList.from(cursor.value)),
+                Where.of(lookupBy(keyColumn, cursor.key))
+            );
         }
     }
 }
@@ -0,0 +1,153 @@
+package io.spbx.webby.db.count.vote;
+
+import com.carrotsearch.hppc.IntArrayList;
+import com.carrotsearch.hppc.IntByteHashMap;
+import com.carrotsearch.hppc.IntContainer;
+import com.carrotsearch.hppc.IntHashSet;
+import com.carrotsearch.hppc.cursors.IntByteCursor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import javax.annotation.concurrent.ThreadSafe;
+import java.util.Arrays;
+
+/**
+ * A memory-compact set of votes per single key.
+ * <p>
+ * The votes are stored as a sorted array of signed actors: <code>+actor</code> for the upvote and
+ * <code>-actor</code> for the downvote. The recent changes go to a small delta log, which is merged
+ * into a new array on the flush or once it grows over {@link #MAX_DELTA_SIZE}. The arrays are never modified,
+ * so the array last persisted in the storage is shared with the current one until the next change.
+ * <p>
+ * Compared to the hash set, the memory overhead is ~4 bytes per vote.
+ */
+@ThreadSafe
+public final class CompactVoteSet {
+    private static final int[] EMPTY = new int[0];
+    private static final int MAX_DELTA_SIZE = 64;
+
+    private int[] votes;
+    private @Nullable IntByteHashMap delta;  // actor -> vote (-1, 0, 1)
+    private volatile int[] stored;
+    private volatile int count;
+
+    public CompactVoteSet(@NotNull IntContainer votes) {
+        this.votes = toSortedArray(votes);
+        this.stored = this.votes;
+        this.count = countOf(this.votes);
+    }
+
+    public int count() {
+        return count;
+    }
+
+    public synchronized int vote(int actor) {
+        assert actor > 0 : "Actor unsupported: " + actor;
+        if (delta != null && delta.containsKey(actor)) {
+            return delta.get(actor);
+        }
+        return Arrays.binarySearch(votes, actor) >= 0 ? 1 : Arrays.binarySearch(votes, -actor) >= 0 ? -1 : 0;
+    }
+
+    /**
+     * Applies the signed {@code actor} vote: cancels the opposite vote if present or casts the new one otherwise.
+     * Returns whether the vote has changed.
+     */
+    public synchronized boolean updateVote(int actor, int delta) {
+        int current = vote(Math.abs(actor));
+        int sign = Integer.signum(actor);
+        int next = current == -sign ? 0 : current == 0 ? sign : current;
+        if (next == current) {
+            return false;
+        }
+        if (this.delta == null) {
+            this.delta = new IntByteHashMap();
+        }
+        this.delta.put(Math.abs(actor), (byte) next);
+        count += delta;
+        if (this.delta.size() >= MAX_DELTA_SIZE) {
+            compact();
+        }
+        return true;
+    }
+
+    /**
+     * Returns whether there are votes not yet persisted in the storage.
+     */
+    public synchronized boolean isDirty() {
+        return delta != null || votes != stored;
+    }
+
+    /**
+     * Returns the current sorted votes. The returned array must not be modified.
+     */
+    public synchronized int @NotNull [] snapshot() {
+        compact();
+        return votes;
+    }
+
+    /**
+     * Returns the sorted votes last persisted in the storage. The returned array must not be modified.
+     */
+    public int @NotNull [] stored() {
+        return stored;
+    }
+
+    /**
+     * Marks the {@code snapshot} as persisted, unless the stored state has been updated concurrently.
+     */
+    public synchronized boolean markStored(int @NotNull [] expected, int @NotNull [] snapshot) {
+        if (stored != expected) {
+            return false;
+        }
+        stored = snapshot;
+        return true;
+    }
+
+    public synchronized @NotNull IntHashSet toSet() {
+        return toSet(snapshot());
+    }
+
+    public static @NotNull IntHashSet toSet(int @NotNull [] votes) {
+        IntHashSet set = new IntHashSet(votes.length);
+        set.addAll(votes);
+        return set;
+    }
+
+    private void compact() {
+        if (delta == null) {
+            return;
+        }
+        IntArrayList merged = new IntArrayList(votes.length + delta.size());
+        for (int vote : votes) {
+            if (!delta.containsKey(Math.abs(vote))) {
+                merged.add(vote);
+            }
+        }
+        for (IntByteCursor cursor : delta) {
+            if (cursor.value != 0) {
+                merged.add(cursor.value * cursor.key);
+            }
+        }
+        votes = merged.isEmpty() ? EMPTY : merged.toArray();
+        Arrays.sort(votes);
+        delta = null;
+    }
+
+    private static int @NotNull [] toSortedArray(@NotNull IntContainer votes) {
+        if (votes.isEmpty()) {
+            return EMPTY;
+        }
+        int[] array = votes.toArray();
+        Arrays.sort(array);
+        return array;
+    }
+
+    private static int countOf(int @NotNull [] votes) {
+        int count = 0;
+        for (int vote : votes) {
+            count += Integer.compare(vote, 0);
+        }
+        return count;
+    }
+}
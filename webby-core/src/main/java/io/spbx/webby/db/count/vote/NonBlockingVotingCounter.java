@@ -2,6 +2,7 @@ package io.spbx.webby.db.count.vote;
 
 import com.carrotsearch.hppc.*;
 import com.carrotsearch.hppc.cursors.IntCursor;
+import com.carrotsearch.hppc.cursors.LongObjectCursor;
 import com.carrotsearch.hppc.procedures.IntObjectProcedure;
 import com.google.common.eventbus.EventBus;
 import com.google.common.eventbus.Subscribe;
@@ -10,22 +11,18 @@ import io.spbx.webby.db.count.StoreChangedEvent;
 import io.spbx.webby.db.managed.ClearCacheMode;
 import io.spbx.webby.db.managed.FlushMode;
 import io.spbx.webby.db.managed.HasCache;
-import org.jctools.counters.Counter;
-import org.jctools.counters.CountersFactory;
 import org.jctools.maps.NonBlockingHashMapLong;
 import org.jetbrains.annotations.NotNull;
 
 import javax.annotation.concurrent.ThreadSafe;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.concurrent.atomic.AtomicReference;
 import java.util.logging.Level;
-import java.util.stream.IntStream;
 
 @ThreadSafe
 public class NonBlockingVotingCounter implements VotingCounter, HasCache<IntIntMap> {
     private static final FluentLogger log = FluentLogger.forEnclosingClass();
     private final VotingStorage store;
-    private final NonBlockingHashMapLong<VoteSet> cache;
+    private final NonBlockingHashMapLong<CompactVoteSet> cache;
     private final AtomicBoolean storeDirty = new AtomicBoolean();
 
     public NonBlockingVotingCounter(@NotNull VotingStorage store, @NotNull EventBus eventBus) {
@@ -55,7 +52,7 @@ public class NonBlockingVotingCounter implements VotingCounter, HasCache<IntIntM
     }
 
     private int update(int key, int actor, int delta) {
-        VoteSet value = getOrLoadVotesForKey(key);
+        CompactVoteSet value = getOrLoadVotesForKey(key);
         value.updateVote(actor, delta);
         return value.count();
     }
@@ -88,26 +85,38 @@ public class NonBlockingVotingCounter implements VotingCounter, HasCache<IntIntM
 
     @Override
     public void flush(@NotNull FlushMode mode) {
+        boolean isFullFlush = storeDirty.getAndSet(false) || mode.isFlushAll();
         IntObjectHashMap<IntHashSet> curr = new IntObjectHashMap<>();
         IntObjectHashMap<IntHashSet> prev = new IntObjectHashMap<>();
-        long[] keys = cache.keySetLong();
-        for (long key : keys) {
-            VoteSet value = cache.get(key);
-            curr.put((int) key, value.copyVotes());
-            prev.put((int) key, value.currentDbSnapshot());
+        LongObjectHashMap<int[]> stored = new LongObjectHashMap<>();
+        LongObjectHashMap<int[]> snapshots = new LongObjectHashMap<>();
+        for (long key : cache.keySetLong()) {
+            CompactVoteSet value = cache.get(key);
+            if (value == null || !isFullFlush && !value.isDirty()) {
+                continue;
+            }
+            int[] expected = value.stored();
+            int[] snapshot = value.snapshot();
+            curr.put((int) key, CompactVoteSet.toSet(snapshot));
+            prev.put((int) key, CompactVoteSet.toSet(expected));
+            stored.put(key, expected);
+            snapshots.put(key, snapshot);
         }
 
-        boolean isFullFlush = storeDirty.getAndSet(false) || mode.isFlushAll();
-        store.storeBatch(curr, isFullFlush ? null : prev);
+        if (!curr.isEmpty()) {
+            store.storeBatch(curr, isFullFlush ? null : prev);
+        }
 
         if (mode.clearCacheMode() == ClearCacheMode.FORCE_CLEAR_ALL) {
             cache.clear();
             return;
         }
 
-        for (long key : keys) {
-            // FIX[minor]: log warning if false
-            cache.get(key).updateSnapshot(prev.get((int) key), curr.get((int) key));
+        for (LongObjectCursor<int[]> cursor : snapshots) {
+            CompactVoteSet value = cache.get(cursor.key);
+            if (value != null && !value.markStored(stored.get(cursor.key), cursor.value)) {
+                log.at(Level.WARNING).log("Votes for key=%d have been stored concurrently", cursor.key);
+            }
         }
     }
 
@@ -120,20 +129,20 @@ public class NonBlockingVotingCounter implements VotingCounter, HasCache<IntIntM
         return map;
     }
 
-    private @NotNull VoteSet getOrLoadVotesForKey(int key) {
-        VoteSet value = cache.get(key);
+    private @NotNull CompactVoteSet getOrLoadVotesForKey(int key) {
+        CompactVoteSet value = cache.get(key);
         if (value == null) {
             IntHashSet votes = store.load(key);
-            value = new VoteSet(votes);
+            value = new CompactVoteSet(votes);
             cache.put(key, value);
         }
         return value;
     }
 
-    private void getOrLoadForKeys(@NotNull IntContainer keys, @NotNull IntObjectProcedure<VoteSet> consumer) {
+    private void getOrLoadForKeys(@NotNull IntContainer keys, @NotNull IntObjectProcedure<CompactVoteSet> consumer) {
         IntArrayList keysToLoad = new IntArrayList();
         for (IntCursor cursor : keys) {
-            VoteSet value = cache.get(cursor.value);
+            CompactVoteSet value = cache.get(cursor.value);
             if (value != null) {
                 consumer.apply(cursor.value, value);
             } else {
@@ -142,48 +151,10 @@ public class NonBlockingVotingCounter implements VotingCounter, HasCache<IntIntM
         }
         if (!keysToLoad.isEmpty()) {
             store.loadBatch(keysToLoad, (key, intSet) -> {
-                VoteSet votes = new VoteSet(intSet);
+                CompactVoteSet votes = new CompactVoteSet(intSet);
                 cache.put(key, votes);
                 consumer.apply(key, votes);
             });
         }
     }
-
-    private static final class VoteSet {
-        private final AtomicReference<IntHashSet> currentDbSnapshot = new AtomicReference<>();
-        private final IntHashSet votes;
-        private final Counter counter = CountersFactory.createFixedSizeStripedCounter(4);
-
-        public VoteSet(@NotNull IntHashSet votes) {
-            this.votes = votes;
-            this.currentDbSnapshot.set(new IntHashSet(votes));
-            this.counter.inc(votes.isEmpty() ? 0 : IntStream.of(votes.keys).map(vote -> Integer.compare(vote, 0)).sum());
-        }
-
-        public int count() {
-            return (int) counter.get();
-        }
-
-        public synchronized @NotNull IntHashSet copyVotes() {
-            return new IntHashSet(votes);
-        }
-
-        public @NotNull IntHashSet currentDbSnapshot() {
-            return currentDbSnapshot.get();
-        }
-
-        public boolean updateSnapshot(@NotNull IntHashSet expected, @NotNull IntHashSet snapshot) {
-            return currentDbSnapshot.compareAndSet(expected, snapshot);
-        }
-
-        public synchronized int vote(int actor) {
-            return votes.contains(actor) ? 1 : votes.contains(-actor) ? -1 : 0;
-        }
-
-        public synchronized void updateVote(int actor, int delta) {
-            if (votes.remove(-actor) || votes.add(actor)) {
-                counter.inc(delta);
-            }
-        }
-    }
 }
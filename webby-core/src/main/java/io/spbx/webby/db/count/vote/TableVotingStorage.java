@@ -69,7 +69,7 @@ public class TableVotingStorage implements VotingStorage {
     public void loadBatch(@NotNull IntContainer keys, @NotNull IntObjectProcedure<@NotNull IntHashSet> consumer) {
         if (!keys.isEmpty()) {
             EasyHppc.iterateChunks(keys, AppSettings.live().getInt(SQL_MAX_PARAMS), chunk ->
-                loadQueryResults(builder -> builder.where(Where.of(isIn(keyColumn, makeIntVariables(chunk)))), consumer)
+                loadQueryResults(builder -> builder.where(Where.of(isInBucketed(keyColumn, makeIntVariables(chunk)))), consumer)
             );
         }
     }
@@ -130,7 +130,7 @@ public class TableVotingStorage implements VotingStorage {
             for (IntObjectCursor<IntHashSet> cursor : diff.deleted) {
                 table.deleteWhere(Where.and(
                     lookupBy(keyColumn, cursor.key),
-                    isIn(actorColumn, makeIntVariables(cursor.value))
+                    isInBucketed(actorColumn, makeIntVariables(cursor.value))
                 ));
             }
         } catch (QueryException e) {
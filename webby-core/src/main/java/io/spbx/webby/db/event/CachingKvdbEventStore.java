@@ -14,15 +14,25 @@ import org.jetbrains.annotations.VisibleForTesting;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 
+// The keys are split into shards, each shard appends to its own concurrent buffer.
+// The flush swaps the buffer of one shard at a time and writes the old one to the db,
+// so the appenders wait only for the swap, never for the db or the `Compacter`.
 public class CachingKvdbEventStore<K, E> implements KeyEventStore<K, E>, HasCache<Multimap<K, E>> {
-    private final ReadWriteLock LOCK = new ReentrantReadWriteLock();  // Alternative: Guava Striped
-
     private final KeyValueDb<K, List<E>> db;
-    private final Multimap<K, E> cache = ArrayListMultimap.create();
     private final KeyEventStoreFactory.Compacter<E> compacter;
+    private final Shard<K, E>[] shards;
+    private final AtomicInteger cacheSize = new AtomicInteger();
+    private final AtomicBoolean hardLimitFlush = new AtomicBoolean();
 
     private final int cacheSizeSoftLimit;
     private final int cacheSizeHardLimit;
@@ -32,99 +42,144 @@ public class CachingKvdbEventStore<K, E> implements KeyEventStore<K, E>, HasCach
                                  @NotNull KeyEventStoreFactory.Compacter<E> compacter,
                                  int cacheSizeSoftLimit,
                                  int cacheSizeHardLimit,
-                                 int flushBatchSize) {
+                                 int flushBatchSize,
+                                 int shardsNum) {
         assert cacheSizeSoftLimit > 0 :
             "Invalid cache size limits: soft=%d hard=%d".formatted(cacheSizeSoftLimit, cacheSizeHardLimit);
         assert cacheSizeHardLimit >= cacheSizeSoftLimit :
             "Invalid cache size limits: soft=%d hard=%d".formatted(cacheSizeSoftLimit, cacheSizeHardLimit);
+        assert shardsNum > 0 : "Invalid shards number: " + shardsNum;
         this.db = db;
         this.compacter = compacter;
         this.cacheSizeSoftLimit = cacheSizeSoftLimit;
         this.cacheSizeHardLimit = cacheSizeHardLimit;
         this.flushBatchSize = flushBatchSize;
+        @SuppressWarnings({"unchecked", "rawtypes"})
+        Shard<K, E>[] shards = new Shard[shardsNum];
+        for (int i = 0; i < shardsNum; i++) {
+            shards[i] = new Shard<>();
+        }
+        this.shards = shards;
     }
 
     @Override
     public void append(@NotNull K key, @NotNull E event) {
-        LOCK.readLock().lock();
+        Shard<K, E> shard = shardFor(key);
+        shard.swapLock.readLock().lock();
         try {
-            cache.put(key, event);
+            shard.buffer.computeIfAbsent(key, k -> new ConcurrentLinkedQueue<>()).add(event);
         } finally {
-            LOCK.readLock().unlock();
+            shard.swapLock.readLock().unlock();
         }
-        if (cache.size() >= cacheSizeHardLimit) {
-            flush(FlushMode.FULL_COMPACT);
+
+        // Only one appender pays for the flush, the rest proceed
+        if (cacheSize.incrementAndGet() >= cacheSizeHardLimit && hardLimitFlush.compareAndSet(false, true)) {
+            try {
+                flush(FlushMode.FULL_COMPACT);
+            } finally {
+                hardLimitFlush.set(false);
+            }
         }
     }
 
     @Override
     public @NotNull List<E> getAll(@NotNull K key) {
-        LOCK.readLock().lock();
+        Shard<K, E> shard = shardFor(key);
+        shard.flushLock.lock();
         try {
-            Collection<E> cached = cache.get(key);
+            Collection<E> cached = shard.buffer.get(key);
             List<E> persistent = db.get(key);
-            return concatToList(cached, persistent);
+            return concatToList(cached != null ? cached : List.of(), persistent);
         } finally {
-            LOCK.readLock().unlock();
+            shard.flushLock.unlock();
         }
     }
 
     @Override
     public void deleteAll(@NotNull K key) {
-        LOCK.writeLock().lock();
+        Shard<K, E> shard = shardFor(key);
+        shard.flushLock.lock();
         try {
-            cache.removeAll(key);
+            Collection<E> removed;
+            shard.swapLock.writeLock().lock();
+            try {
+                removed = shard.buffer.remove(key);
+            } finally {
+                shard.swapLock.writeLock().unlock();
+            }
+            if (removed != null) {
+                cacheSize.addAndGet(-removed.size());
+            }
             db.delete(key);
         } finally {
-            LOCK.writeLock().unlock();
+            shard.flushLock.unlock();
         }
     }
 
     @Override
     public void flush() {
-        if (cache.size() >= cacheSizeSoftLimit) {
+        if (cacheSize.get() >= cacheSizeSoftLimit) {
             flush(FlushMode.INCREMENTAL);
         }
     }
 
     @Override
     public void flush(@NotNull FlushMode mode) {
-        LOCK.writeLock().lock();
+        for (Shard<K, E> shard : shards) {
+            flushShard(shard);
+        }
+    }
+
+    private void flushShard(@NotNull Shard<K, E> shard) {
+        shard.flushLock.lock();
         try {
-            ArrayList<K> allKeys = new ArrayList<>(cache.keySet());
+            Map<K, ConcurrentLinkedQueue<E>> flushing;
+            shard.swapLock.writeLock().lock();
+            try {
+                if (shard.buffer.isEmpty()) {
+                    return;
+                }
+                flushing = shard.buffer;
+                shard.buffer = new ConcurrentHashMap<>();
+            } finally {
+                shard.swapLock.writeLock().unlock();
+            }
+
+            ArrayList<K> allKeys = new ArrayList<>(flushing.keySet());
             int totalSize = allKeys.size();
+            int flushedEvents = 0;
             for (int i = 0; i < totalSize; i += flushBatchSize) {
                 int batch = Math.min(flushBatchSize, totalSize - i);
                 List<K> keys = allKeys.subList(i, i + batch);
                 List<@Nullable List<E>> values = db.getAll(keys);
                 assert keys.size() == values.size() :
                     "Internal error: keys/values mismatch: keys=%s values=%s".formatted(keys, values);
-                List<List<E>> combined = BiStream.zip(keys, values)
-                    .mapKeys(cache::get)
+                List<Collection<E>> cached = keys.stream().<Collection<E>>map(flushing::get).toList();
+                flushedEvents += cached.stream().mapToInt(Collection::size).sum();
+                List<List<E>> combined = BiStream.zip(cached, values)
                     .mapKeys(compacter::compactInMemory)
                     .mapToObj(CachingKvdbEventStore::concatToList)
                     .toList();
                 db.putAll(keys, combined);
             }
-            cache.clear();
+            cacheSize.addAndGet(-flushedEvents);
         } finally {
-            LOCK.writeLock().unlock();
+            shard.flushLock.unlock();
         }
     }
 
     @Override
     public void close() {
-        LOCK.writeLock().lock();
-        try {
-            flush(FlushMode.FULL_CLEAR);
-            db.close();
-        } finally {
-            LOCK.writeLock().unlock();
-        }
+        flush(FlushMode.FULL_CLEAR);
+        db.close();
     }
 
     public @NotNull Multimap<K, E> cache() {
-        return cache;
+        Multimap<K, E> snapshot = ArrayListMultimap.create();
+        for (Shard<K, E> shard : shards) {
+            shard.buffer.forEach(snapshot::putAll);
+        }
+        return snapshot;
     }
 
     @VisibleForTesting
@@ -132,10 +187,23 @@ public class CachingKvdbEventStore<K, E> implements KeyEventStore<K, E>, HasCach
         return db;
     }
 
+    private @NotNull Shard<K, E> shardFor(@NotNull K key) {
+        int hash = key.hashCode();
+        return shards[Math.floorMod(hash ^ (hash >>> 16), shards.length)];
+    }
+
     private static <E> @NotNull List<E> concatToList(@NotNull Collection<E> cached, @Nullable List<E> persistent) {
         if (persistent != null) {
             return ListBuilder.concat(cached, persistent);
         }
         return new ArrayList<>(cached);
     }
+
+    private static final class Shard<K, E> {
+        // Serializes the flushes and the reads of the shard, so that the flushed events are seen exactly once
+        private final Lock flushLock = new ReentrantLock();
+        // Shared by the appenders, exclusive only for the buffer swap
+        private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+        private volatile ConcurrentHashMap<K, ConcurrentLinkedQueue<E>> buffer = new ConcurrentHashMap<>();
+    }
 }
@@ -34,13 +34,15 @@ public class KeyEventStoreFactory {
         int cacheSizeHardLimit = properties.getInt("db.event.store.cache.size.hard.limit", 1 << 17);
         int flushBatchSize = properties.getInt("db.event.store.flush.batch.size", 64);
         int averageSizePerKey = properties.getInt("db.event.store.average.size", 10);
+        int shardsNum = properties.getInt("db.event.store.shards", 16);
 
         Codec<List<E>> codec = getListCodec(options.value(), averageSizePerKey);
         KeyValueDb<K, List<E>> db = factory.getDb(
             DbOptions.<K, List<E>>of(options.name(), options.key(), castAny(List.class)).withCustomValueCodec(codec)
         );
-        CachingKvdbEventStore<K, E> store =
-            new CachingKvdbEventStore<>(db, options.compacter(), cacheSizeSoftLimit, cacheSizeHardLimit, flushBatchSize);
+        CachingKvdbEventStore<K, E> store = new CachingKvdbEventStore<>(
+            db, options.compacter(), cacheSizeSoftLimit, cacheSizeHardLimit, flushBatchSize, shardsNum
+        );
         cacheCleaner.register(options.name(), store);
         lifetime.onTerminate(store);
         return store;
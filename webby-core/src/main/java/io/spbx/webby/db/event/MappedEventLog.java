@@ -0,0 +1,335 @@
+package io.spbx.webby.db.event;
+
+import com.google.common.flogger.FluentLogger;
+import io.spbx.util.base.Unchecked;
+import io.spbx.webby.db.codec.Codec;
+import io.spbx.webby.db.managed.FlushMode;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+import java.util.stream.Stream;
+import java.util.zip.CRC32C;
+
+/**
+ * An {@link EventLog} implementation stored in the segmented memory-mapped files.
+ * <p>
+ * Each record is <code>[size:int32][crc32c:int32][payload]</code>, where the size includes the header.
+ * The payload is encoded by the {@link Codec} directly into the mapped region. The zero size marks the end of the segment.
+ * The records are addressed by the offsets: the position of the record in the whole log.
+ * {@link #readFrom(long, Consumer)} replays the log from any offset and returns the offset to continue from,
+ * which allows to tail the log.
+ * <p>
+ * On open, each segment is scanned and truncated after the last valid record.
+ *
+ * @see MappedEventLogOptions
+ */
+public class MappedEventLog<E> implements EventLog<E> {
+    private static final FluentLogger log = FluentLogger.forEnclosingClass();
+
+    static final int HEADER_SIZE = 8;
+    private static final String SUFFIX = ".log";
+    private static final byte[] ZEROS = new byte[4096];
+    private static final ThreadLocal<CRC32C> CRC = ThreadLocal.withInitial(CRC32C::new);
+
+    private final MappedEventLogOptions options;
+    private final Codec<E> codec;
+    private final ConcurrentNavigableMap<Long, Segment> segments = new ConcurrentSkipListMap<>();
+
+    private Segment active;
+    private int unsyncedEvents;
+    private long lastSyncMillis = System.currentTimeMillis();
+
+    public MappedEventLog(@NotNull MappedEventLogOptions options, @NotNull Codec<E> codec) {
+        this.options = options;
+        this.codec = codec;
+        try {
+            Files.createDirectories(options.directory());
+            for (Path path : listSegmentFiles(options.directory())) {
+                Segment segment = Segment.open(path, options.segmentSize());
+                segments.put(segment.baseOffset, segment);
+            }
+            if (segments.isEmpty()) {
+                Segment segment = Segment.create(options.directory(), 0, options.segmentSize());
+                segments.put(segment.baseOffset, segment);
+            }
+            active = segments.lastEntry().getValue();
+        } catch (IOException e) {
+            Unchecked.rethrow("Failed to open the event log at %s".formatted(options.directory()), e);
+        }
+    }
+
+    @Override
+    public void append(@NotNull E event) {
+        appendAndGetOffset(event);
+    }
+
+    /**
+     * Appends the {@code event} and returns its offset.
+     *
+     * @throws IllegalArgumentException if the event doesn't fit into an empty segment
+     */
+    public synchronized long appendAndGetOffset(@NotNull E event) {
+        int size = codec.sizeOf(event);
+        if (size > options.segmentSize() - HEADER_SIZE) {
+            throw eventTooLarge(event);
+        }
+        long offset = active.tryAppend(codec, event);
+        if (offset < 0) {
+            // The size may be unknown in advance: an event which doesn't fit into an empty segment never will
+            if (active.position == 0) {
+                throw eventTooLarge(event);
+            }
+            rollSegment();
+            offset = active.tryAppend(codec, event);
+            if (offset < 0) {
+                throw eventTooLarge(event);
+            }
+            // Only after the append succeeded, so that a failed append never deletes the retained events
+            deleteExpiredSegments();
+        }
+        syncIfNecessary();
+        return offset;
+    }
+
+    @Override
+    public void forEach(@NotNull Consumer<E> consumer) {
+        readFrom(startOffset(), consumer);
+    }
+
+    /**
+     * Reads the events starting at {@code offset} (or at the earliest retained one) and
+     * returns the offset after the last read event.
+     */
+    public long readFrom(long offset, @NotNull Consumer<E> consumer) {
+        Map.Entry<Long, Segment> entry = segments.floorEntry(offset);
+        if (entry == null) {
+            entry = segments.firstEntry();
+            offset = entry.getKey();
+        }
+        while (entry != null) {
+            Segment segment = entry.getValue();
+            offset = segment.readFrom(offset, codec, consumer);
+            entry = segments.higherEntry(segment.baseOffset);
+            if (entry != null) {
+                offset = Math.max(offset, entry.getKey());
+            }
+        }
+        return offset;
+    }
+
+    /**
+     * Returns the offset of the earliest retained event.
+     */
+    public long startOffset() {
+        return segments.firstKey();
+    }
+
+    /**
+     * Returns the offset of the next appended event.
+     */
+    public long endOffset() {
+        Segment last = segments.lastEntry().getValue();
+        return last.baseOffset + last.position;
+    }
+
+    /**
+     * Deletes the segments which contain only the events before the {@code offset}.
+     */
+    public synchronized void truncateBefore(long offset) {
+        for (Map.Entry<Long, Segment> entry : segments.headMap(offset, false).entrySet()) {
+            Segment segment = entry.getValue();
+            if (segment != active && segment.baseOffset + segment.position <= offset) {
+                deleteSegment(segment);
+            }
+        }
+    }
+
+    @Override
+    public synchronized void flush(@NotNull FlushMode mode) {
+        active.sync();
+        unsyncedEvents = 0;
+        lastSyncMillis = System.currentTimeMillis();
+    }
+
+    @Override
+    public synchronized void close() {
+        flush(FlushMode.FULL_CLEAR);
+        for (Segment segment : segments.values()) {
+            segment.close();
+        }
+    }
+
+    private void rollSegment() {
+        active.sync();
+        try {
+            active = Segment.create(options.directory(), active.baseOffset + active.position, options.segmentSize());
+            segments.put(active.baseOffset, active);
+        } catch (IOException e) {
+            Unchecked.rethrow("Failed to create a segment in %s".formatted(options.directory()), e);
+        }
+    }
+
+    private void deleteExpiredSegments() {
+        if (options.retainSegments() > 0) {
+            while (segments.size() > options.retainSegments()) {
+                deleteSegment(segments.firstEntry().getValue());
+            }
+        }
+    }
+
+    private void deleteSegment(@NotNull Segment segment) {
+        segments.remove(segment.baseOffset);
+        segment.close();
+        try {
+            Files.deleteIfExists(segment.path);
+        } catch (IOException e) {
+            log.at(Level.WARNING).withCause(e).log("Failed to delete the segment %s", segment.path);
+        }
+    }
+
+    // The time-based sync is checked only on append: an idle log isn't synced until the next append, flush or close
+    private void syncIfNecessary() {
+        unsyncedEvents++;
+        boolean byEvents = options.syncEveryEvents() > 0 && unsyncedEvents >= options.syncEveryEvents();
+        boolean byTime = options.syncEveryMillis() > 0 &&
+                         System.currentTimeMillis() - lastSyncMillis >= options.syncEveryMillis();
+        if (byEvents || byTime) {
+            flush(FlushMode.INCREMENTAL);
+        }
+    }
+
+    private @NotNull IllegalArgumentException eventTooLarge(@NotNull E event) {
+        return new IllegalArgumentException(
+            "The event doesn't fit into the segment: size=%d, event=%s".formatted(options.segmentSize(), event)
+        );
+    }
+
+    private static @NotNull List<Path> listSegmentFiles(@NotNull Path directory) throws IOException {
+        try (Stream<Path> stream = Files.list(directory)) {
+            return stream.filter(path -> path.getFileName().toString().endsWith(SUFFIX)).sorted().toList();
+        }
+    }
+
+    private static final class Segment {
+        private final Path path;
+        private final long baseOffset;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private volatile int position;
+
+        private Segment(@NotNull Path path, long baseOffset, @NotNull FileChannel channel, int size) throws IOException {
+            this.path = path;
+            this.baseOffset = baseOffset;
+            this.channel = channel;
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        }
+
+        public static @NotNull Segment create(@NotNull Path directory, long baseOffset, int size) throws IOException {
+            Path path = directory.resolve("%020d%s".formatted(baseOffset, SUFFIX));
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                                                   StandardOpenOption.READ, StandardOpenOption.WRITE);
+            return new Segment(path, baseOffset, channel, size);
+        }
+
+        public static @NotNull Segment open(@NotNull Path path, int size) throws IOException {
+            String name = path.getFileName().toString();
+            long baseOffset = Long.parseLong(name.substring(0, name.length() - SUFFIX.length()));
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            Segment segment = new Segment(path, baseOffset, channel, (int) Math.max(channel.size(), size));
+            segment.recover();
+            return segment;
+        }
+
+        // Called under the log lock
+        public <E> long tryAppend(@NotNull Codec<E> codec, @NotNull E event) {
+            int start = position;
+            if (buffer.capacity() - start < HEADER_SIZE) {
+                return -1;
+            }
+            ByteBuffer payload = buffer.duplicate().position(start + HEADER_SIZE);
+            try {
+                codec.writeTo(payload, event);
+            } catch (BufferOverflowException e) {
+                return -1;  // the partial write isn't visible: the length is written last
+            }
+            int length = payload.position() - start - HEADER_SIZE;
+            buffer.putInt(start + 4, checksum(start + HEADER_SIZE, length));
+            buffer.putInt(start, HEADER_SIZE + length);
+            position = start + HEADER_SIZE + length;
+            return baseOffset + start;
+        }
+
+        public <E> long readFrom(long offset, @NotNull Codec<E> codec, @NotNull Consumer<E> consumer) {
+            int pos = (int) Math.max(offset - baseOffset, 0);
+            int end = position;
+            while (pos < end) {
+                int length = buffer.getInt(pos) - HEADER_SIZE;
+                int expected = buffer.getInt(pos + 4);
+                int actual = checksum(pos + HEADER_SIZE, length);
+                if (actual != expected) {
+                    throw new IllegalStateException(
+                        "Checksum mismatch in %s at offset %d".formatted(path, baseOffset + pos)
+                    );
+                }
+                E event = codec.readFrom(buffer.slice(pos + HEADER_SIZE, length));
+                consumer.accept(event);
+                pos += HEADER_SIZE + length;
+            }
+            return baseOffset + pos;
+        }
+
+        public void sync() {
+            buffer.force();
+        }
+
+        public void close() {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                log.at(Level.WARNING).withCause(e).log("Failed to close the segment %s", path);
+            }
+        }
+
+        private void recover() {
+            int pos = 0;
+            while (buffer.capacity() - pos >= HEADER_SIZE) {
+                int length = buffer.getInt(pos) - HEADER_SIZE;
+                if (length < 0 || length > buffer.capacity() - pos - HEADER_SIZE) {
+                    break;
+                }
+                if (buffer.getInt(pos + 4) != checksum(pos + HEADER_SIZE, length)) {
+                    log.at(Level.WARNING).log("Truncating %s at offset %d: checksum mismatch", path, baseOffset + pos);
+                    break;
+                }
+                pos += HEADER_SIZE + length;
+            }
+            // Erases the invalid tail, so that it's never taken for the records appended later
+            if (buffer.capacity() - pos >= HEADER_SIZE && buffer.getInt(pos) != 0) {
+                for (int i = pos; i < buffer.capacity(); i += ZEROS.length) {
+                    buffer.put(i, ZEROS, 0, Math.min(ZEROS.length, buffer.capacity() - i));
+                }
+            }
+            position = pos;
+        }
+
+        private int checksum(int from, int length) {
+            CRC32C crc = CRC.get();
+            crc.reset();
+            crc.update(buffer.slice(from, length));
+            return (int) crc.getValue();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package io.spbx.webby.db.event;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.file.Path;
+
+// The options of the `MappedEventLog`.
+// `segmentSize` is the size of each mapped segment file, a single record must fit into it.
+// `syncEveryEvents` and `syncEveryMillis` define the group commit: the appends are synced to disk once
+// either of them is reached (0 disables it). Both are checked on append only, so an idle log stays unsynced
+// until the next append. Regardless of these, the log is synced on flush and on close.
+// `retainSegments` is the max number of segments kept on disk, the oldest ones are deleted (0 keeps all).
+public record MappedEventLogOptions(@NotNull Path directory,
+                                    int segmentSize,
+                                    int syncEveryEvents,
+                                    long syncEveryMillis,
+                                    int retainSegments) {
+    public static final int DEFAULT_SEGMENT_SIZE = 64 << 20;
+
+    public MappedEventLogOptions {
+        assert segmentSize > MappedEventLog.HEADER_SIZE : "Invalid segment size: " + segmentSize;
+        assert syncEveryEvents >= 0 : "Invalid sync events: " + syncEveryEvents;
+        assert syncEveryMillis >= 0 : "Invalid sync millis: " + syncEveryMillis;
+        assert retainSegments >= 0 : "Invalid retain segments: " + retainSegments;
+    }
+
+    public static @NotNull MappedEventLogOptions of(@NotNull Path directory) {
+        return new MappedEventLogOptions(directory, DEFAULT_SEGMENT_SIZE, 0, 0, 0);
+    }
+
+    public @NotNull MappedEventLogOptions withSegmentSize(int segmentSize) {
+        return new MappedEventLogOptions(directory, segmentSize, syncEveryEvents, syncEveryMillis, retainSegments);
+    }
+
+    public @NotNull MappedEventLogOptions withGroupCommit(int syncEveryEvents, long syncEveryMillis) {
+        return new MappedEventLogOptions(directory, segmentSize, syncEveryEvents, syncEveryMillis, retainSegments);
+    }
+
+    public @NotNull MappedEventLogOptions withRetainSegments(int retainSegments) {
+        return new MappedEventLogOptions(directory, segmentSize, syncEveryEvents, syncEveryMillis, retainSegments);
+    }
+}
@@ -0,0 +1,34 @@
+package io.spbx.webby.db.kv;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+// The non-blocking companion of the `KeyValueDb`.
+// The network-backed dbs implement it natively, the rest are run on the executor (see `AsyncDbAdapter`).
+// The returned futures can be returned by the handlers directly.
+public interface AsyncKeyValueDb<K, V> {
+    // Get
+
+    @NotNull CompletableFuture<@Nullable V> getAsync(@NotNull K key);
+
+    default @NotNull CompletableFuture<List<@Nullable V>> getAllAsync(@NotNull K @NotNull [] keys) {
+        return getAllAsync(Arrays.asList(keys));
+    }
+
+    @NotNull CompletableFuture<List<@Nullable V>> getAllAsync(@NotNull Iterable<K> keys);
+
+    // Set/put
+
+    @NotNull CompletableFuture<Void> putAsync(@NotNull K key, @NotNull V value);
+
+    @NotNull CompletableFuture<Void> putAllAsync(@NotNull Map<? extends K, ? extends V> map);
+
+    // Delete
+
+    @NotNull CompletableFuture<Void> deleteAsync(@NotNull K key);
+}
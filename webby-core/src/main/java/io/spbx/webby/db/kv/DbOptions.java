@@ -9,22 +9,27 @@ public record DbOptions<K, V>(@NotNull String name,
                               @NotNull Class<V> value,
                               @Nullable DbType type,
                               @Nullable Codec<K> keyCodec,
-                              @Nullable Codec<V> valueCodec) {
+                              @Nullable Codec<V> valueCodec,
+                              @Nullable NearCacheOptions<K, V> nearCache) {
     public static <K, V> @NotNull DbOptions<K, V> of(@NotNull String name,
                                                      @NotNull Class<K> key,
                                                      @NotNull Class<V> value) {
-        return new DbOptions<>(name, key, value, null, null, null);
+        return new DbOptions<>(name, key, value, null, null, null, null);
     }
 
     public @NotNull DbOptions<K, V> withCustomType(@NotNull DbType type) {
-        return new DbOptions<>(name, key, value, type, keyCodec, valueCodec);
+        return new DbOptions<>(name, key, value, type, keyCodec, valueCodec, nearCache);
     }
 
     public @NotNull DbOptions<K, V> withCustomKeyCodec(@NotNull Codec<K> codec) {
-        return new DbOptions<>(name, key, value, type, codec, valueCodec);
+        return new DbOptions<>(name, key, value, type, codec, valueCodec, nearCache);
     }
 
     public @NotNull DbOptions<K, V> withCustomValueCodec(@NotNull Codec<V> codec) {
-        return new DbOptions<>(name, key, value, type, keyCodec, codec);
+        return new DbOptions<>(name, key, value, type, keyCodec, codec, nearCache);
+    }
+
+    public @NotNull DbOptions<K, V> withNearCache(@NotNull NearCacheOptions<K, V> nearCache) {
+        return new DbOptions<>(name, key, value, type, keyCodec, valueCodec, nearCache);
     }
 }
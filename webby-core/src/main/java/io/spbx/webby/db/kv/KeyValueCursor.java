@@ -0,0 +1,39 @@
+package io.spbx.webby.db.kv;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+// The streaming iterator over the `SortedKeyValueDb` range.
+// Holds the native iterator (and possibly the read transaction), hence must be closed and used by one thread.
+public interface KeyValueCursor<K, V> extends Iterator<Map.Entry<K, V>>, Closeable {
+    // The token to pass to `ScanOptions.resumeAfter()` to continue after the last returned entry,
+    // or `null` if the range is exhausted.
+    @Nullable String resumeToken();
+
+    default @NotNull Stream<Map.Entry<K, V>> stream() {
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(this, 0), false).onClose(this::close);
+    }
+
+    // Reads the remaining entries and closes the cursor
+    default @NotNull List<Map.Entry<K, V>> toList() {
+        try {
+            List<Map.Entry<K, V>> result = new ArrayList<>();
+            forEachRemaining(result::add);
+            return result;
+        } finally {
+            close();
+        }
+    }
+
+    @Override
+    void close();
+}
@@ -4,4 +4,8 @@ import org.jetbrains.annotations.NotNull;
 
 public interface KeyValueFactory {
     <K, V> @NotNull KeyValueDb<K, V> getDb(@NotNull DbOptions<K, V> options);
+
+    <K, V> @NotNull AsyncKeyValueDb<K, V> getAsyncDb(@NotNull DbOptions<K, V> options);
+
+    <K, V> @NotNull SortedKeyValueDb<K, V> getSortedDb(@NotNull DbOptions<K, V> options);
 }
@@ -0,0 +1,55 @@
+package io.spbx.webby.db.kv;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.function.ToIntBiFunction;
+
+// The in-process cache in front of the `KeyValueDb`.
+// `maxWeight` is the max number of entries, unless the `weigher` is set.
+// `negativeCaching` also caches the missing keys (the deleted keys are always cached as missing).
+// `writeBatchSize` is the number of the pending writes that triggers the batch flush in `WRITE_BEHIND` mode.
+public record NearCacheOptions<K, V>(long maxWeight,
+                                     @Nullable ToIntBiFunction<K, V> weigher,
+                                     boolean negativeCaching,
+                                     @NotNull WriteMode writeMode,
+                                     int writeBatchSize) {
+    public static final int DEFAULT_WRITE_BATCH_SIZE = 256;
+
+    public NearCacheOptions {
+        assert maxWeight > 0 : "Invalid max weight: " + maxWeight;
+        assert writeBatchSize > 0 : "Invalid write batch size: " + writeBatchSize;
+    }
+
+    public static <K, V> @NotNull NearCacheOptions<K, V> ofMaxSize(long maxSize) {
+        return new NearCacheOptions<>(maxSize, null, false, WriteMode.WRITE_THROUGH, DEFAULT_WRITE_BATCH_SIZE);
+    }
+
+    public static <K, V> @NotNull NearCacheOptions<K, V> ofMaxWeight(long maxWeight,
+                                                                     @NotNull ToIntBiFunction<K, V> weigher) {
+        return new NearCacheOptions<>(maxWeight, weigher, false, WriteMode.WRITE_THROUGH, DEFAULT_WRITE_BATCH_SIZE);
+    }
+
+    public @NotNull NearCacheOptions<K, V> withNegativeCaching() {
+        return new NearCacheOptions<>(maxWeight, weigher, true, writeMode, writeBatchSize);
+    }
+
+    public @NotNull NearCacheOptions<K, V> withWriteThrough() {
+        return new NearCacheOptions<>(maxWeight, weigher, negativeCaching, WriteMode.WRITE_THROUGH, writeBatchSize);
+    }
+
+    public @NotNull NearCacheOptions<K, V> withWriteBehind(int writeBatchSize) {
+        return new NearCacheOptions<>(maxWeight, weigher, negativeCaching, WriteMode.WRITE_BEHIND, writeBatchSize);
+    }
+
+    public boolean isWriteBehind() {
+        return writeMode == WriteMode.WRITE_BEHIND;
+    }
+
+    public enum WriteMode {
+        // Every write goes to the db immediately
+        WRITE_THROUGH,
+        // The writes are coalesced and go to the db in batches: on reaching the batch size, on flush or on close
+        WRITE_BEHIND,
+    }
+}
@@ -0,0 +1,43 @@
+package io.spbx.webby.db.kv;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+// The key range of the scan in `SortedKeyValueDb`: `from` is inclusive, `to` is exclusive, `null` means unbounded.
+// The `prefix` further restricts the range to the keys, which encoded bytes start with the encoded prefix.
+// `limit` is the max number of entries returned by the cursor (`0` is unlimited).
+// `resumeToken` continues the scan after the last entry returned by the previous cursor with the same range.
+public record ScanOptions<K>(@Nullable K from,
+                             @Nullable K to,
+                             @Nullable K prefix,
+                             boolean reverse,
+                             int limit,
+                             @Nullable String resumeToken) {
+    public ScanOptions {
+        assert limit >= 0 : "Invalid limit: " + limit;
+    }
+
+    public static <K> @NotNull ScanOptions<K> all() {
+        return new ScanOptions<>(null, null, null, false, 0, null);
+    }
+
+    public static <K> @NotNull ScanOptions<K> range(@Nullable K from, @Nullable K to) {
+        return new ScanOptions<>(from, to, null, false, 0, null);
+    }
+
+    public static <K> @NotNull ScanOptions<K> prefix(@NotNull K prefix) {
+        return new ScanOptions<>(null, null, prefix, false, 0, null);
+    }
+
+    public @NotNull ScanOptions<K> withReverse() {
+        return new ScanOptions<>(from, to, prefix, true, limit, resumeToken);
+    }
+
+    public @NotNull ScanOptions<K> withLimit(int limit) {
+        return new ScanOptions<>(from, to, prefix, reverse, limit, resumeToken);
+    }
+
+    public @NotNull ScanOptions<K> resumeAfter(@Nullable String resumeToken) {
+        return new ScanOptions<>(from, to, prefix, reverse, limit, resumeToken);
+    }
+}
@@ -0,0 +1,22 @@
+package io.spbx.webby.db.kv;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+// The `KeyValueDb` which keeps the keys sorted by the encoded bytes (unsigned, lexicographically).
+// The key order matches the natural order only if the key codec preserves it, see `OrderedCodecs`.
+public interface SortedKeyValueDb<K, V> extends KeyValueDb<K, V> {
+    @NotNull KeyValueCursor<K, V> cursor(@NotNull ScanOptions<K> options);
+
+    default @NotNull KeyValueCursor<K, V> scan(@Nullable K from, @Nullable K to) {
+        return cursor(ScanOptions.range(from, to));
+    }
+
+    default @NotNull KeyValueCursor<K, V> scanReverse(@Nullable K from, @Nullable K to) {
+        return cursor(ScanOptions.range(from, to).withReverse());
+    }
+
+    default @NotNull KeyValueCursor<K, V> scanPrefix(@NotNull K prefix) {
+        return cursor(ScanOptions.prefix(prefix));
+    }
+}
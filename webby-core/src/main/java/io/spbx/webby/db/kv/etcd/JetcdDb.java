@@ -7,22 +7,20 @@ import io.etcd.jetcd.KeyValue;
 import io.etcd.jetcd.kv.GetResponse;
 import io.etcd.jetcd.options.GetOption;
 import io.spbx.webby.db.codec.Codec;
+import io.spbx.webby.db.kv.AsyncKeyValueDb;
 import io.spbx.webby.db.kv.KeyValueDb;
 import io.spbx.webby.db.kv.impl.ByteArrayDb;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.nio.charset.StandardCharsets;
-import java.util.Collection;
-import java.util.List;
-import java.util.Map;
-import java.util.Set;
+import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 import static io.spbx.util.base.Unchecked.Suppliers.runRethrow;
 
-public class JetcdDb<K, V> extends ByteArrayDb<K, V> implements KeyValueDb<K, V> {
+public class JetcdDb<K, V> extends ByteArrayDb<K, V> implements KeyValueDb<K, V>, AsyncKeyValueDb<K, V> {
     private final KV kv;
     private final ByteSequence namespace;
     private final boolean prefixed;
@@ -54,8 +52,26 @@ public class JetcdDb<K, V> extends ByteArrayDb<K, V> implements KeyValueDb<K, V>
 
     @Override
     public @Nullable V get(@NotNull K key) {
-        List<KeyValue> keyValues = runRethrow(() -> asyncGet(key).get().getKvs());
-        return keyValues.isEmpty() ? null : toValue(keyValues.getFirst().getValue());
+        return runRethrow(() -> getAsync(key).get());
+    }
+
+    @Override
+    public @NotNull CompletableFuture<@Nullable V> getAsync(@NotNull K key) {
+        return asyncGet(key).thenApply(response -> {
+            List<KeyValue> keyValues = response.getKvs();
+            return keyValues.isEmpty() ? null : toValue(keyValues.getFirst().getValue());
+        });
+    }
+
+    // The gets are sent concurrently over the same grpc channel
+    @Override
+    public @NotNull CompletableFuture<List<@Nullable V>> getAllAsync(@NotNull Iterable<K> keys) {
+        List<CompletableFuture<V>> futures = new ArrayList<>();
+        for (K key : keys) {
+            futures.add(getAsync(key));
+        }
+        return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+            .thenApply(ignore -> futures.stream().map(CompletableFuture::join).toList());
     }
 
     @Override
@@ -85,12 +101,30 @@ public class JetcdDb<K, V> extends ByteArrayDb<K, V> implements KeyValueDb<K, V>
 
     @Override
     public void set(@NotNull K key, @NotNull V value) {
-        runRethrow(() -> kv.put(wrapByteSequence(fromKey(key)), wrapByteSequence(fromValue(value))).get());
+        runRethrow(() -> putAsync(key, value).get());
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Void> putAsync(@NotNull K key, @NotNull V value) {
+        return kv.put(wrapByteSequence(fromKey(key)), wrapByteSequence(fromValue(value))).thenApply(ignore -> null);
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Void> putAllAsync(@NotNull Map<? extends K, ? extends V> map) {
+        CompletableFuture<?>[] futures = map.entrySet().stream()
+            .map(entry -> putAsync(entry.getKey(), entry.getValue()))
+            .toArray(CompletableFuture[]::new);
+        return CompletableFuture.allOf(futures);
     }
 
     @Override
     public void delete(@NotNull K key) {
-        runRethrow(() -> kv.delete(wrapByteSequence(fromKey(key))).get());
+        runRethrow(() -> deleteAsync(key).get());
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Void> deleteAsync(@NotNull K key) {
+        return kv.delete(wrapByteSequence(fromKey(key))).thenApply(ignore -> null);
     }
 
     @Override
@@ -42,6 +42,22 @@ public class AgnosticKeyValueFactory implements KeyValueFactory {
         return delegate.getDb(options);
     }
 
+    @Override
+    public @NotNull <K, V> AsyncKeyValueDb<K, V> getAsyncDb(@NotNull DbOptions<K, V> options) {
+        if (options.type() != null) {
+            return pickFactory(options.type()).getAsyncDb(options);
+        }
+        return delegate.getAsyncDb(options);
+    }
+
+    @Override
+    public @NotNull <K, V> SortedKeyValueDb<K, V> getSortedDb(@NotNull DbOptions<K, V> options) {
+        if (options.type() != null) {
+            return pickFactory(options.type()).getSortedDb(options);
+        }
+        return delegate.getSortedDb(options);
+    }
+
     public <F extends InternalKeyValueFactory> @NotNull F getInternalFactory(@NotNull DbType type) {
         return castAny(pickFactory(type));
     }
@@ -0,0 +1,47 @@
+package io.spbx.webby.db.kv.impl;
+
+import io.spbx.webby.db.kv.AsyncKeyValueDb;
+import io.spbx.webby.db.kv.KeyValueDb;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+// Runs the blocking calls of any `KeyValueDb` on the dedicated executor.
+public class AsyncDbAdapter<K, V> implements AsyncKeyValueDb<K, V> {
+    private final KeyValueDb<K, V> delegate;
+    private final Executor executor;
+
+    public AsyncDbAdapter(@NotNull KeyValueDb<K, V> delegate, @NotNull Executor executor) {
+        this.delegate = delegate;
+        this.executor = executor;
+    }
+
+    @Override
+    public @NotNull CompletableFuture<@Nullable V> getAsync(@NotNull K key) {
+        return CompletableFuture.supplyAsync(() -> delegate.get(key), executor);
+    }
+
+    @Override
+    public @NotNull CompletableFuture<List<@Nullable V>> getAllAsync(@NotNull Iterable<K> keys) {
+        return CompletableFuture.supplyAsync(() -> delegate.getAll(keys), executor);
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Void> putAsync(@NotNull K key, @NotNull V value) {
+        return CompletableFuture.runAsync(() -> delegate.set(key, value), executor);
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Void> putAllAsync(@NotNull Map<? extends K, ? extends V> map) {
+        return CompletableFuture.runAsync(() -> delegate.putAll(map), executor);
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Void> deleteAsync(@NotNull K key) {
+        return CompletableFuture.runAsync(() -> delegate.delete(key), executor);
+    }
+}
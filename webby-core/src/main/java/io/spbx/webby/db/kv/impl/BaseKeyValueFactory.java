@@ -1,19 +1,28 @@
 package io.spbx.webby.db.kv.impl;
 
+import com.google.common.base.Suppliers;
 import com.google.inject.Inject;
 import io.spbx.util.lazy.LazyBoolean;
 import io.spbx.webby.app.Settings;
 import io.spbx.webby.common.Lifetime;
 import io.spbx.webby.db.codec.Codec;
 import io.spbx.webby.db.codec.CodecProvider;
+import io.spbx.webby.db.kv.AsyncKeyValueDb;
 import io.spbx.webby.db.kv.DbOptions;
 import io.spbx.webby.db.kv.KeyValueDb;
+import io.spbx.webby.db.kv.NearCacheOptions;
+import io.spbx.webby.db.kv.SortedKeyValueDb;
+import io.spbx.webby.db.managed.BackgroundCacheCleaner;
+import io.spbx.webby.db.managed.FlushMode;
+import io.spbx.webby.perf.stats.DbStatsListener;
 import io.spbx.webby.perf.stats.impl.StatsManager;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.function.Supplier;
 
 import static io.spbx.util.base.EasyCast.castAny;
@@ -23,23 +32,70 @@ import static io.spbx.webby.app.AppConfigException.assure;
 
 public abstract class BaseKeyValueFactory implements InternalKeyValueFactory {
     protected final Map<String, KeyValueDb<?, ?>> cache = new HashMap<>();
+    private final Map<String, NearCacheDbAdapter<?, ?>> nearCaches = new HashMap<>();
 
     @Inject protected Settings settings;
     @Inject protected StatsManager statsManager;
     @Inject protected CodecProvider provider;
     @Inject protected Lifetime lifetime;
+    @Inject protected BackgroundCacheCleaner cacheCleaner;
 
     private final LazyBoolean isTrackingKeyValuesOn = new LazyBoolean(() ->
-        settings.isProfileMode() && settings.getBool("perf.track.db.kv.enabled", true)
+        (settings.isProfileMode() || settings.isMetricsEnabled()) && settings.getBool("perf.track.db.kv.enabled", true)
     );
 
+    // The async calls are mostly blocking I/O, so the virtual threads are started on demand
+    private final Supplier<ExecutorService> asyncExecutor = Suppliers.memoize(() -> {
+        ExecutorService executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("webby-db-", 0).factory());
+        lifetime.onTerminate(executor::shutdown);
+        return executor;
+    });
+
     @Override
     public @NotNull <K, V> KeyValueDb<K, V> getDb(@NotNull DbOptions<K, V> options) {
         KeyValueDb<K, V> internalDb = getInternalDb(options);
-        if (isTrackingKeyValuesOn.get()) {
-            return new TrackingDbAdapter<>(internalDb, statsManager.newDbListener());
+        DbStatsListener listener = isTrackingKeyValuesOn.get() ? statsManager.newDbListener() : null;
+        KeyValueDb<K, V> db = listener != null ? new TrackingDbAdapter<>(internalDb, listener) : internalDb;
+        NearCacheOptions<K, V> nearCache = options.nearCache();
+        if (nearCache != null) {
+            return nearCacheIfAbsent(options.name(), db, nearCache, listener);
         }
-        return internalDb;
+        return db;
+    }
+
+    // The native async db is used unless there is a near-cache in front of it, which must see all the calls.
+    // Tracked the same way as the blocking db.
+    @Override
+    public @NotNull <K, V> AsyncKeyValueDb<K, V> getAsyncDb(@NotNull DbOptions<K, V> options) {
+        if (options.nearCache() == null && getInternalDb(options) instanceof AsyncKeyValueDb<?, ?> asyncDb) {
+            AsyncKeyValueDb<K, V> internalDb = castAny(asyncDb);
+            DbStatsListener listener = isTrackingKeyValuesOn.get() ? statsManager.newDbListener() : null;
+            return listener != null ? new TrackingAsyncDbAdapter<>(internalDb, listener) : internalDb;
+        }
+        return new AsyncDbAdapter<>(getDb(options), asyncExecutor());
+    }
+
+    // The sorted db is the internal one: the scans bypass the tracking and the near-cache (incl. pending writes)
+    @Override
+    public @NotNull <K, V> SortedKeyValueDb<K, V> getSortedDb(@NotNull DbOptions<K, V> options) {
+        KeyValueDb<K, V> internalDb = getInternalDb(options);
+        assure(internalDb instanceof SortedKeyValueDb<?, ?>, "The db doesn't support sorted scans: %s", internalDb);
+        return castAny(internalDb);
+    }
+
+    // The near-cache is shared by all callers of the same db, otherwise the caches would diverge.
+    // Registered after the internal db, so the pending writes are flushed before the db is closed.
+    private <K, V> @NotNull KeyValueDb<K, V> nearCacheIfAbsent(@NotNull String name,
+                                                               @NotNull KeyValueDb<K, V> db,
+                                                               @NotNull NearCacheOptions<K, V> options,
+                                                               @Nullable DbStatsListener listener) {
+        NearCacheDbAdapter<?, ?> nearCache = nearCaches.computeIfAbsent(name, k -> {
+            NearCacheDbAdapter<K, V> adapter = new NearCacheDbAdapter<>(db, options, listener);
+            cacheCleaner.register(name, adapter);
+            lifetime.onTerminate(() -> adapter.flush(FlushMode.FULL_CLEAR));
+            return adapter;
+        });
+        return castAny(nearCache);
     }
 
     protected <K, V, KV extends KeyValueDb<K, V>> @NotNull KV cacheIfAbsent(@NotNull DbOptions<K, V> options,
@@ -49,6 +105,10 @@ public abstract class BaseKeyValueFactory implements InternalKeyValueFactory {
         return castAny(db);
     }
 
+    protected @NotNull ExecutorService asyncExecutor() {
+        return asyncExecutor.get();
+    }
+
     protected <K, V> @NotNull Codec<K> keyCodecOrDie(@NotNull DbOptions<K, V> options) {
         return firstNonNull(options.keyCodec(), () -> provider.getCodecOrDie(options.key()));
     }
@@ -0,0 +1,86 @@
+package io.spbx.webby.db.kv.impl;
+
+import io.spbx.webby.db.kv.KeyValueCursor;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.AbstractMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.function.Function;
+
+// The base of the native cursors over the sorted byte keys.
+// The subclass positions the native iterator at the start of the range and steps it in the scan direction,
+// this class stops at the range bound, enforces the limit and produces the resume token.
+public abstract class ByteArrayCursor<K, V> implements KeyValueCursor<K, V> {
+    protected final ByteRange range;
+    private final int limit;
+    private final Function<byte[], K> keyDecoder;
+    private final Function<byte[], V> valueDecoder;
+
+    private Map.Entry<byte[], byte[]> next;
+    private byte[] lastKey;
+    private int returned;
+    private boolean exhausted;
+    private boolean closed;
+
+    protected ByteArrayCursor(@NotNull ByteRange range,
+                              int limit,
+                              @NotNull Function<byte[], K> keyDecoder,
+                              @NotNull Function<byte[], V> valueDecoder) {
+        this.range = range;
+        this.limit = limit;
+        this.keyDecoder = keyDecoder;
+        this.valueDecoder = valueDecoder;
+        this.exhausted = range.isEmpty();
+    }
+
+    // Returns the next native entry in the scan direction (the first one in the range on the first call),
+    // or `null` if the native iterator is exhausted. The returned arrays must not be reused.
+    protected abstract @Nullable Map.Entry<byte[], byte[]> advance();
+
+    // Releases the native iterator, called once
+    protected abstract void release();
+
+    @Override
+    public boolean hasNext() {
+        if (next != null) {
+            return true;
+        }
+        if (closed || exhausted || (limit > 0 && returned >= limit)) {
+            return false;
+        }
+        Map.Entry<byte[], byte[]> entry = advance();
+        if (entry == null || !range.contains(entry.getKey())) {
+            exhausted = true;
+            return false;
+        }
+        next = entry;
+        return true;
+    }
+
+    @Override
+    public @NotNull Map.Entry<K, V> next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Map.Entry<byte[], byte[]> entry = next;
+        next = null;
+        returned++;
+        lastKey = entry.getKey();
+        return new AbstractMap.SimpleEntry<>(keyDecoder.apply(entry.getKey()), valueDecoder.apply(entry.getValue()));
+    }
+
+    @Override
+    public @Nullable String resumeToken() {
+        return lastKey == null || (!hasNext() && exhausted) ? null : ByteRange.encodeToken(lastKey);
+    }
+
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            release();
+        }
+    }
+}
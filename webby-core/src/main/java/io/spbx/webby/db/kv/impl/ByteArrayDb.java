@@ -4,10 +4,19 @@ import io.spbx.webby.db.codec.Codec;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.nio.BufferOverflowException;
 import java.nio.ByteBuffer;
 import java.util.AbstractMap;
 
 public abstract class ByteArrayDb<K, V> {
+    // The direct buffers are expensive to allocate, hence reused by all dbs in the (platform) thread.
+    // Each returned buffer is valid until the next call for the same slot in the same thread.
+    // The virtual threads are mostly one per task, so nothing is cached for them: a buffer is allocated per call.
+    private static final ThreadLocal<LocalBuffers> LOCAL_BUFFERS = ThreadLocal.withInitial(LocalBuffers::new);
+    private static final int KEY_SLOT = 0;
+    private static final int VALUE_SLOT = 1;
+    private static final int OUTPUT_SLOT = 2;
+
     protected final Codec<K> keyCodec;
     protected final Codec<V> valueCodec;
 
@@ -21,8 +30,7 @@ public abstract class ByteArrayDb<K, V> {
     }
 
     protected @NotNull ByteBuffer directBufferFromKey(@NotNull K key) {
-        byte[] bytes = fromKey(key);
-        return ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+        return writeToLocalBuffer(KEY_SLOT, keyCodec, key);
     }
 
     protected @Nullable K asKey(byte @Nullable [] bytes) {
@@ -34,7 +42,7 @@ public abstract class ByteArrayDb<K, V> {
     }
 
     protected @Nullable K asKey(@Nullable ByteBuffer buffer) {
-        return buffer == null ? null : keyCodec.readFromByteBuffer(buffer);
+        return buffer == null ? null : keyCodec.readFrom(buffer);
     }
 
     protected byte @NotNull [] fromValue(@NotNull V value) {
@@ -42,8 +50,12 @@ public abstract class ByteArrayDb<K, V> {
     }
 
     protected @NotNull ByteBuffer directBufferFromValue(@NotNull V value) {
-        byte[] bytes = fromValue(value);
-        return ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+        return writeToLocalBuffer(VALUE_SLOT, valueCodec, value);
+    }
+
+    // A cleared direct buffer to read the native values into, e.g. `RocksDB.get(ReadOptions, ByteBuffer, ByteBuffer)`
+    protected @NotNull ByteBuffer directOutputBuffer(int minCapacity) {
+        return acquire(OUTPUT_SLOT, minCapacity);
     }
 
     protected @Nullable V asValue(byte @Nullable [] bytes) {
@@ -55,7 +67,7 @@ public abstract class ByteArrayDb<K, V> {
     }
 
     protected @Nullable V asValue(@Nullable ByteBuffer buffer) {
-        return buffer == null ? null : valueCodec.readFromByteBuffer(buffer);
+        return buffer == null ? null : valueCodec.readFrom(buffer);
     }
 
     protected @NotNull AbstractMap.SimpleEntry<K, V> asMapEntry(@Nullable K key, @Nullable V value) {
@@ -69,4 +81,44 @@ public abstract class ByteArrayDb<K, V> {
     protected @NotNull AbstractMap.SimpleEntry<K, V> asMapEntry(@Nullable ByteBuffer key, @Nullable ByteBuffer value) {
         return new AbstractMap.SimpleEntry<>(asKey(key), asValue(value));
     }
+
+    private static <T> @NotNull ByteBuffer writeToLocalBuffer(int slot, @NotNull Codec<T> codec, @NotNull T instance) {
+        int capacity = codec.sizeOf(instance);
+        while (true) {
+            ByteBuffer buffer = acquire(slot, capacity);
+            try {
+                codec.writeTo(buffer, instance);
+                return buffer.flip();
+            } catch (BufferOverflowException e) {
+                capacity = buffer.capacity() * 2;
+            }
+        }
+    }
+
+    private static @NotNull ByteBuffer acquire(int slot, int minCapacity) {
+        if (Thread.currentThread().isVirtual()) {
+            return ByteBuffer.allocateDirect(minCapacity > 0 ? minCapacity : LocalBuffers.INITIAL_SIZE);
+        }
+        return LOCAL_BUFFERS.get().acquire(slot, minCapacity);
+    }
+
+    private static class LocalBuffers {
+        private static final int INITIAL_SIZE = 256;
+        private static final int MAX_RETAINED_SIZE = 1 << 20;
+
+        private final ByteBuffer[] slots = new ByteBuffer[3];  // allocated on the first use
+
+        // The huge buffers are used once and not retained, to keep the per-thread footprint bounded
+        private @NotNull ByteBuffer acquire(int slot, int minCapacity) {
+            ByteBuffer buffer = slots[slot];
+            if (buffer == null || buffer.capacity() < minCapacity) {
+                int capacity = buffer == null ? INITIAL_SIZE : buffer.capacity() * 2;
+                buffer = ByteBuffer.allocateDirect(Math.max(minCapacity, capacity));
+                if (buffer.capacity() <= MAX_RETAINED_SIZE) {
+                    slots[slot] = buffer;
+                }
+            }
+            return buffer.clear();
+        }
+    }
 }
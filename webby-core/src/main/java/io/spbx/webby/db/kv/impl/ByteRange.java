@@ -0,0 +1,72 @@
+package io.spbx.webby.db.kv.impl;
+
+import io.spbx.webby.db.kv.ScanOptions;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.function.Function;
+
+// The encoded `ScanOptions` range: `lower` is inclusive, `upper` is exclusive, `null` means unbounded.
+// The keys are compared as unsigned bytes, which is the default order of RocksDB, LevelDB, LMDB and Tupl.
+public record ByteRange(byte @Nullable [] lower, byte @Nullable [] upper, boolean reverse) {
+    public static <K> @NotNull ByteRange of(@NotNull ScanOptions<K> options, @NotNull Function<K, byte[]> encoder) {
+        byte[] lower = options.from() != null ? encoder.apply(options.from()) : null;
+        byte[] upper = options.to() != null ? encoder.apply(options.to()) : null;
+        if (options.prefix() != null) {
+            byte[] prefix = encoder.apply(options.prefix());
+            lower = max(lower, prefix);
+            upper = min(upper, prefixUpperBound(prefix));
+        }
+        if (options.resumeToken() != null) {
+            byte[] lastKey = decodeToken(options.resumeToken());
+            if (options.reverse()) {
+                upper = min(upper, lastKey);
+            } else {
+                lower = max(lower, Arrays.copyOf(lastKey, lastKey.length + 1));  // the next possible key
+            }
+        }
+        return new ByteRange(lower, upper, options.reverse());
+    }
+
+    public boolean contains(byte @NotNull [] key) {
+        return (lower == null || Arrays.compareUnsigned(key, lower) >= 0) &&
+               (upper == null || Arrays.compareUnsigned(key, upper) < 0);
+    }
+
+    public boolean isEmpty() {
+        return lower != null && upper != null && Arrays.compareUnsigned(lower, upper) >= 0;
+    }
+
+    public static @NotNull String encodeToken(byte @NotNull [] key) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key);
+    }
+
+    public static byte @NotNull [] decodeToken(@NotNull String token) {
+        return Base64.getUrlDecoder().decode(token);
+    }
+
+    // The smallest key greater than all the keys with this prefix, or `null` if there is none (all bytes are 0xFF)
+    static byte @Nullable [] prefixUpperBound(byte @NotNull [] prefix) {
+        for (int i = prefix.length - 1; i >= 0; i--) {
+            if (prefix[i] != (byte) 0xFF) {
+                byte[] bound = Arrays.copyOf(prefix, i + 1);
+                bound[i]++;
+                return bound;
+            }
+        }
+        return null;
+    }
+
+    private static byte @Nullable [] max(byte @Nullable [] lower, byte @NotNull [] other) {
+        return lower == null || Arrays.compareUnsigned(other, lower) > 0 ? other : lower;
+    }
+
+    private static byte @Nullable [] min(byte @Nullable [] upper, byte @Nullable [] other) {
+        if (other == null) {
+            return upper;
+        }
+        return upper == null || Arrays.compareUnsigned(other, upper) < 0 ? other : upper;
+    }
+}
@@ -0,0 +1,356 @@
+package io.spbx.webby.db.kv.impl;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.Striped;
+import io.spbx.webby.db.kv.KeyValueDb;
+import io.spbx.webby.db.kv.NearCacheOptions;
+import io.spbx.webby.db.managed.ClearCacheMode;
+import io.spbx.webby.db.managed.FlushMode;
+import io.spbx.webby.db.managed.ManagedPersistent;
+import io.spbx.webby.perf.stats.DbStatsListener;
+import io.spbx.webby.perf.stats.Stat;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.VisibleForTesting;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiConsumer;
+import java.util.function.ToIntBiFunction;
+
+import static io.spbx.util.base.EasyCast.castAny;
+
+// Keeps the hot entries in-process, bounded by the number of entries or the total weight.
+// In the `WRITE_BEHIND` mode, the writes are kept in the pending map (which is never evicted) until the next flush,
+// so the repeated writes to the same key are coalesced into one batch `putAll`/`removeAll` of the delegate.
+// The scanning operations (size, keys, values, etc.) flush the pending writes first and go to the delegate directly.
+public class NearCacheDbAdapter<K, V> implements KeyValueDb<K, V>, ManagedPersistent {
+    // Cached value for the keys which are known to be missing in the db
+    private static final Object ABSENT = new Object();
+    // Pending value for the deleted keys
+    private static final Object TOMBSTONE = new Object();
+
+    private final KeyValueDb<K, V> delegate;
+    private final NearCacheOptions<K, V> options;
+    private final @Nullable DbStatsListener listener;
+    private final Cache<K, Object> cache;
+    private final ConcurrentMap<K, Object> pending = new ConcurrentHashMap<>();
+    private final Striped<Lock> writeLocks = Striped.lock(64);
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    public NearCacheDbAdapter(@NotNull KeyValueDb<K, V> delegate,
+                              @NotNull NearCacheOptions<K, V> options,
+                              @Nullable DbStatsListener listener) {
+        this.delegate = delegate;
+        this.options = options;
+        this.listener = listener;
+        this.cache = buildCache(options);
+    }
+
+    private static <K, V> @NotNull Cache<K, Object> buildCache(@NotNull NearCacheOptions<K, V> options) {
+        ToIntBiFunction<K, V> weigher = options.weigher();
+        if (weigher == null) {
+            return CacheBuilder.newBuilder().maximumSize(options.maxWeight()).build();
+        }
+        return CacheBuilder.newBuilder()
+            .maximumWeight(options.maxWeight())
+            .weigher((K key, Object value) -> value == ABSENT ? 1 : weigher.applyAsInt(key, castAny(value)))
+            .build();
+    }
+
+    // DB size
+
+    @Override
+    public int size() {
+        flushPending();
+        return delegate.size();
+    }
+
+    @Override
+    public long longSize() {
+        flushPending();
+        return delegate.longSize();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        flushPending();
+        return delegate.isEmpty();
+    }
+
+    // Get single
+
+    @Override
+    public @Nullable V get(@NotNull K key) {
+        Object value = pending.get(key);
+        if (value == null) {
+            value = cache.getIfPresent(key);
+        }
+        if (value != null) {
+            reportHit(key);
+            return value == ABSENT || value == TOMBSTONE ? null : castAny(value);
+        }
+        reportMiss(key);
+        V loaded = delegate.get(key);
+        cacheLoaded(key, loaded);
+        return loaded;
+    }
+
+    // Get batch
+
+    @Override
+    public @NotNull List<@Nullable V> getAll(@NotNull K @NotNull [] keys) {
+        return getAll(Arrays.asList(keys));
+    }
+
+    @Override
+    public @NotNull List<@Nullable V> getAll(@NotNull Iterable<K> keys) {
+        List<V> result = new ArrayList<>();
+        List<K> missingKeys = new ArrayList<>();
+        List<Integer> missingIndexes = new ArrayList<>();
+        for (K key : keys) {
+            Object value = pending.get(key);
+            if (value == null) {
+                value = cache.getIfPresent(key);
+            }
+            if (value != null) {
+                reportHit(key);
+                result.add(value == ABSENT || value == TOMBSTONE ? null : castAny(value));
+            } else {
+                reportMiss(key);
+                missingKeys.add(key);
+                missingIndexes.add(result.size());
+                result.add(null);
+            }
+        }
+        if (!missingKeys.isEmpty()) {
+            List<V> loaded = delegate.getAll(missingKeys);
+            for (int i = 0; i < missingKeys.size(); i++) {
+                V value = loaded.get(i);
+                cacheLoaded(missingKeys.get(i), value);
+                result.set(missingIndexes.get(i), value);
+            }
+        }
+        return result;
+    }
+
+    // Contains
+
+    @Override
+    public boolean containsKey(@NotNull K key) {
+        return get(key) != null;
+    }
+
+    // Scanning
+
+    @Override
+    public boolean containsValue(@NotNull V value) {
+        flushPending();
+        return delegate.containsValue(value);
+    }
+
+    @Override
+    public void forEach(@NotNull BiConsumer<? super K, ? super V> action) {
+        flushPending();
+        delegate.forEach(action);
+    }
+
+    @Override
+    public @NotNull Iterator<Map.Entry<K, V>> iterator() {
+        flushPending();
+        return delegate.iterator();
+    }
+
+    @Override
+    public @NotNull Set<K> keySet() {
+        flushPending();
+        return delegate.keySet();
+    }
+
+    @Override
+    public @NotNull Collection<V> values() {
+        flushPending();
+        return delegate.values();
+    }
+
+    @Override
+    public @NotNull Set<Map.Entry<K, V>> entrySet() {
+        flushPending();
+        return delegate.entrySet();
+    }
+
+    @Override
+    public @NotNull Map<K, V> copyToMap() {
+        flushPending();
+        return delegate.copyToMap();
+    }
+
+    // Set/put
+
+    @Override
+    public void set(@NotNull K key, @NotNull V value) {
+        write(key, value);
+    }
+
+    @Override
+    public void putAll(@NotNull Map<? extends K, ? extends V> map) {
+        if (options.isWriteBehind()) {
+            map.forEach(this::write);
+        } else {
+            Iterable<Lock> locks = writeLocks.bulkGet(map.keySet());
+            locks.forEach(Lock::lock);
+            try {
+                delegate.putAll(map);
+                map.forEach(cache::put);
+            } finally {
+                locks.forEach(Lock::unlock);
+            }
+        }
+    }
+
+    // Delete/remove
+
+    @Override
+    public void delete(@NotNull K key) {
+        write(key, TOMBSTONE);
+    }
+
+    @Override
+    public void clear() {
+        flushLock.lock();
+        try {
+            pending.clear();
+            cache.invalidateAll();
+            delegate.clear();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // I/O
+
+    @Override
+    public void flush() {
+        flushPending();
+        delegate.flush();
+    }
+
+    @Override
+    public void forceFlush() {
+        flushPending();
+        delegate.forceFlush();
+    }
+
+    @Override
+    public void flush(@NotNull FlushMode mode) {
+        flushPending();
+        if (mode.clearCacheMode() == ClearCacheMode.FORCE_CLEAR_ALL) {
+            cache.invalidateAll();
+        }
+        if (mode.isFlushAll()) {
+            delegate.flush();
+        }
+    }
+
+    @Override
+    public void close() {
+        flushPending();
+        cache.invalidateAll();
+        delegate.close();
+    }
+
+    @VisibleForTesting
+    int pendingSize() {
+        return pending.size();
+    }
+
+    @VisibleForTesting
+    long cachedSize() {
+        return cache.size();
+    }
+
+    // The writes to the same key are serialized, so that the cache is never left behind the db
+    private void write(@NotNull K key, @NotNull Object value) {
+        Lock lock = writeLocks.get(key);
+        lock.lock();
+        try {
+            if (options.isWriteBehind()) {
+                pending.put(key, value);
+            } else if (value == TOMBSTONE) {
+                delegate.delete(key);
+            } else {
+                delegate.set(key, castAny(value));
+            }
+            cache.put(key, value == TOMBSTONE ? ABSENT : value);
+        } finally {
+            lock.unlock();
+        }
+        if (options.isWriteBehind() && pending.size() >= options.writeBatchSize() && flushLock.tryLock()) {
+            try {
+                writePending();
+            } finally {
+                flushLock.unlock();
+            }
+        }
+    }
+
+    // A concurrent write wins over the loaded value: it's only cached if there is nothing newer
+    private void cacheLoaded(@NotNull K key, @Nullable V value) {
+        if (value != null) {
+            cache.asMap().putIfAbsent(key, value);
+        } else if (options.negativeCaching()) {
+            cache.asMap().putIfAbsent(key, ABSENT);
+        }
+    }
+
+    private void flushPending() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            writePending();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // The entries are removed from the pending map only after they are persisted and only if not updated meanwhile,
+    // so the reads never miss the pending writes.
+    private void writePending() {
+        assert flushLock.isHeldByCurrentThread() : "Flush lock is not held";
+        Map<K, V> updates = new HashMap<>();
+        List<K> deletes = new ArrayList<>();
+        Map<K, Object> snapshot = new HashMap<>(pending);
+        snapshot.forEach((key, value) -> {
+            if (value == TOMBSTONE) {
+                deletes.add(key);
+            } else {
+                updates.put(key, castAny(value));
+            }
+        });
+        if (!updates.isEmpty()) {
+            delegate.putAll(updates);
+        }
+        if (!deletes.isEmpty()) {
+            delegate.removeAll(deletes);
+        }
+        snapshot.forEach(pending::remove);
+    }
+
+    private void reportHit(@NotNull K key) {
+        if (listener != null) {
+            listener.reportKey(Stat.DB_CACHE_HIT, key).close();
+        }
+    }
+
+    private void reportMiss(@NotNull K key) {
+        if (listener != null) {
+            listener.reportKey(Stat.DB_CACHE_MISS, key).close();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package io.spbx.webby.db.kv.impl;
+
+import io.spbx.webby.db.kv.AsyncKeyValueDb;
+import io.spbx.webby.perf.stats.DbStatsListener;
+import io.spbx.webby.perf.stats.Stat;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static io.spbx.webby.perf.stats.DbStatsListener.OpContext;
+
+// Reports the async calls of the native async dbs (see `TrackingDbAdapter` for the blocking ones).
+// The op contexts are bound to the calling thread, so the call is reported when it's issued: the counts and the keys
+// are accurate, the elapsed time covers only the issuing (the result arrives later on another thread).
+public class TrackingAsyncDbAdapter<K, V> implements AsyncKeyValueDb<K, V> {
+    private final AsyncKeyValueDb<K, V> delegate;
+    private final DbStatsListener listener;
+
+    public TrackingAsyncDbAdapter(@NotNull AsyncKeyValueDb<K, V> delegate, @NotNull DbStatsListener listener) {
+        this.delegate = delegate;
+        this.listener = listener;
+    }
+
+    @Override
+    public @NotNull CompletableFuture<@Nullable V> getAsync(@NotNull K key) {
+        try (OpContext ignored = listener.reportKey(Stat.DB_GET, key)) {
+            return delegate.getAsync(key);
+        }
+    }
+
+    @Override
+    public @NotNull CompletableFuture<List<@Nullable V>> getAllAsync(@NotNull K @NotNull [] keys) {
+        try (OpContext ignored = listener.reportKeys(Stat.DB_GET, keys)) {
+            return delegate.getAllAsync(keys);
+        }
+    }
+
+    @Override
+    public @NotNull CompletableFuture<List<@Nullable V>> getAllAsync(@NotNull Iterable<K> keys) {
+        try (OpContext ignored = listener.reportKeys(Stat.DB_GET, keys)) {
+            return delegate.getAllAsync(keys);
+        }
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Void> putAsync(@NotNull K key, @NotNull V value) {
+        try (OpContext ignored = listener.reportKey(Stat.DB_SET, key)) {
+            return delegate.putAsync(key, value);
+        }
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Void> putAllAsync(@NotNull Map<? extends K, ? extends V> map) {
+        try (OpContext ignored = listener.reportKeys(Stat.DB_SET, map.keySet())) {
+            return delegate.putAllAsync(map);
+        }
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Void> deleteAsync(@NotNull K key) {
+        try (OpContext ignored = listener.reportKey(Stat.DB_DELETE, key)) {
+            return delegate.deleteAsync(key);
+        }
+    }
+}
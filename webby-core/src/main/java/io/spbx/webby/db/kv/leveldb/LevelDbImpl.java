@@ -5,8 +5,12 @@ import com.google.errorprone.annotations.CanIgnoreReturnValue;
 import com.google.mu.util.stream.BiStream;
 import io.spbx.util.base.Unchecked;
 import io.spbx.webby.db.codec.Codec;
-import io.spbx.webby.db.kv.KeyValueDb;
+import io.spbx.webby.db.kv.KeyValueCursor;
+import io.spbx.webby.db.kv.ScanOptions;
+import io.spbx.webby.db.kv.SortedKeyValueDb;
+import io.spbx.webby.db.kv.impl.ByteArrayCursor;
 import io.spbx.webby.db.kv.impl.ByteArrayDb;
+import io.spbx.webby.db.kv.impl.ByteRange;
 import org.iq80.leveldb.DB;
 import org.iq80.leveldb.DBIterator;
 import org.iq80.leveldb.WriteBatch;
@@ -24,7 +28,7 @@ import java.util.stream.Stream;
 import static io.spbx.util.base.EasyWrappers.MutableInt;
 import static io.spbx.util.io.EasyIo.Close.closeQuietly;
 
-public class LevelDbImpl<K, V> extends ByteArrayDb<K, V> implements KeyValueDb<K, V> {
+public class LevelDbImpl<K, V> extends ByteArrayDb<K, V> implements SortedKeyValueDb<K, V> {
     private final DB db;
 
     public LevelDbImpl(@NotNull DB db, @NotNull Codec<K> keyCodec, @NotNull Codec<V> valueCodec) {
@@ -87,6 +91,11 @@ public class LevelDbImpl<K, V> extends ByteArrayDb<K, V> implements KeyValueDb<K
         return collect(new HashSet<>(), entry -> asMapEntry(entry.getKey(), entry.getValue()));
     }
 
+    @Override
+    public @NotNull KeyValueCursor<K, V> cursor(@NotNull ScanOptions<K> options) {
+        return new LevelDbCursor(ByteRange.of(options, this::fromKey), options.limit());
+    }
+
     @Override
     public void set(@NotNull K key, @NotNull V value) {
         db.put(fromKey(key), fromValue(value));
@@ -241,4 +250,46 @@ public class LevelDbImpl<K, V> extends ByteArrayDb<K, V> implements KeyValueDb<K
         });
         return destination;
     }
+
+    // Note: the reverse iteration is supported only by the JNI LevelDB, the iq80 port throws on `hasPrev()`.
+    // `DBIterator.prev()` returns the entry before the current position, hence the last entry is taken separately.
+    private class LevelDbCursor extends ByteArrayCursor<K, V> {
+        private final DBIterator iterator = db.iterator();
+        private boolean positioned;
+
+        private LevelDbCursor(@NotNull ByteRange range, int limit) {
+            super(range, limit, LevelDbImpl.this::asKeyNotNull, LevelDbImpl.this::asValueNotNull);
+        }
+
+        @Override
+        protected @Nullable Map.Entry<byte[], byte[]> advance() {
+            if (!positioned) {
+                positioned = true;
+                if (!range.reverse()) {
+                    if (range.lower() != null) {
+                        iterator.seek(range.lower());
+                    } else {
+                        iterator.seekToFirst();
+                    }
+                } else {
+                    if (range.upper() != null) {
+                        iterator.seek(range.upper());
+                    }
+                    if (range.upper() == null || !iterator.hasNext()) {
+                        iterator.seekToLast();
+                        return iterator.hasNext() ? iterator.peekNext() : null;
+                    }
+                }
+            }
+            if (range.reverse()) {
+                return iterator.hasPrev() ? iterator.prev() : null;
+            }
+            return iterator.hasNext() ? iterator.next() : null;
+        }
+
+        @Override
+        protected void release() {
+            closeQuietly(iterator);
+        }
+    }
 }
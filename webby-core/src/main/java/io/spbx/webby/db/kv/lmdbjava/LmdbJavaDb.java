@@ -3,13 +3,19 @@ package io.spbx.webby.db.kv.lmdbjava;
 import com.google.common.collect.Streams;
 import com.google.mu.util.stream.BiStream;
 import io.spbx.webby.db.codec.Codec;
-import io.spbx.webby.db.kv.KeyValueDb;
+import io.spbx.webby.db.kv.KeyValueCursor;
+import io.spbx.webby.db.kv.ScanOptions;
+import io.spbx.webby.db.kv.SortedKeyValueDb;
+import io.spbx.webby.db.kv.impl.ByteArrayCursor;
 import io.spbx.webby.db.kv.impl.ByteArrayDb;
+import io.spbx.webby.db.kv.impl.ByteRange;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import org.lmdbjava.Cursor;
 import org.lmdbjava.CursorIterable;
 import org.lmdbjava.Dbi;
 import org.lmdbjava.Env;
+import org.lmdbjava.GetOp;
 import org.lmdbjava.Txn;
 
 import java.nio.ByteBuffer;
@@ -20,7 +26,7 @@ import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
-public class LmdbJavaDb<K, V> extends ByteArrayDb<K, V> implements KeyValueDb<K, V> {
+public class LmdbJavaDb<K, V> extends ByteArrayDb<K, V> implements SortedKeyValueDb<K, V> {
     private final Env<ByteBuffer> env;
     private final Dbi<ByteBuffer> db;
 
@@ -115,6 +121,11 @@ public class LmdbJavaDb<K, V> extends ByteArrayDb<K, V> implements KeyValueDb<K,
         });
     }
 
+    @Override
+    public @NotNull KeyValueCursor<K, V> cursor(@NotNull ScanOptions<K> options) {
+        return new LmdbCursor(ByteRange.of(options, this::fromKey), options.limit());
+    }
+
     @Override
     public void set(@NotNull K key, @NotNull V value) {
         inWriteTxn(txn -> putInTxn(key, value, txn));
@@ -224,4 +235,53 @@ public class LmdbJavaDb<K, V> extends ByteArrayDb<K, V> implements KeyValueDb<K,
             txn.commit();
         }
     }
+
+    // Holds the read transaction till closed, which also binds the cursor to the thread
+    private class LmdbCursor extends ByteArrayCursor<K, V> {
+        private final Txn<ByteBuffer> txn = env.txnRead();
+        private final Cursor<ByteBuffer> cursor = db.openCursor(txn);
+        private boolean positioned;
+
+        private LmdbCursor(@NotNull ByteRange range, int limit) {
+            super(range, limit, LmdbJavaDb.this::asKeyNotNull, LmdbJavaDb.this::asValueNotNull);
+        }
+
+        @Override
+        protected @Nullable Map.Entry<byte[], byte[]> advance() {
+            boolean valid;
+            if (!positioned) {
+                positioned = true;
+                valid = seekStart();
+            } else {
+                valid = range.reverse() ? cursor.prev() : cursor.next();
+            }
+            return valid ? new AbstractMap.SimpleEntry<>(toBytes(cursor.key()), toBytes(cursor.val())) : null;
+        }
+
+        private boolean seekStart() {
+            if (!range.reverse()) {
+                return range.lower() != null ? cursor.get(toDirectBuffer(range.lower()), GetOp.MDB_SET_RANGE) : cursor.first();
+            }
+            if (range.upper() != null && cursor.get(toDirectBuffer(range.upper()), GetOp.MDB_SET_RANGE)) {
+                return cursor.prev();  // the upper bound is exclusive
+            }
+            return cursor.last();
+        }
+
+        @Override
+        protected void release() {
+            cursor.close();
+            txn.close();
+        }
+    }
+
+    private static byte @NotNull [] toBytes(@NotNull ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.remaining()];
+        buffer.duplicate().get(bytes);
+        return bytes;
+    }
+
+    private static @NotNull ByteBuffer toDirectBuffer(byte @NotNull [] bytes) {
+        return ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+    }
 }
@@ -9,6 +9,7 @@ import org.fusesource.lmdbjni.*;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.nio.ByteBuffer;
 import java.util.*;
 import java.util.function.BiConsumer;
 import java.util.function.Consumer;
@@ -46,14 +47,14 @@ public class LmdbJniDb <K, V> extends ByteArrayDb<K, V> implements KeyValueDb<K,
     @Override
     public @NotNull List<@Nullable V> getAll(@NotNull K @NotNull [] keys) {
         try (Transaction transaction = env.createReadTransaction()) {
-            return Arrays.stream(keys).map(this::fromKey).map(key -> db.get(transaction, key)).map(this::asValue).toList();
+            return Arrays.stream(keys).map(key -> getInTransaction(key, transaction)).toList();
         }
     }
 
     @Override
     public @NotNull List<@Nullable V> getAll(@NotNull Iterable<K> keys) {
         try (Transaction transaction = env.createReadTransaction()) {
-            return Streams.stream(keys).map(this::fromKey).map(key -> db.get(transaction, key)).map(this::asValue).toList();
+            return Streams.stream(keys).map(key -> getInTransaction(key, transaction)).toList();
         }
     }
 
@@ -103,7 +104,7 @@ public class LmdbJniDb <K, V> extends ByteArrayDb<K, V> implements KeyValueDb<K,
 
     @Override
     public void set(@NotNull K key, @NotNull V value) {
-        db.put(fromKey(key), fromValue(value));
+        inWriteTransaction(transaction -> putInTransaction(key, value, transaction));
     }
 
     @Override
@@ -199,8 +200,25 @@ public class LmdbJniDb <K, V> extends ByteArrayDb<K, V> implements KeyValueDb<K,
         }
     }
 
+    // The value is copied from the mapped page straight into the local direct buffer, without a `byte[]`.
+    // Not used for a single `get()`: lmdbjni allocates a direct buffer per transaction for the `DirectBuffer` API.
+    private @Nullable V getInTransaction(@NotNull K key, @NotNull Transaction transaction) {
+        DirectBuffer value = new DirectBuffer();
+        if (db.get(transaction, directKey(key), value) == LMDBException.NOTFOUND) {
+            return null;
+        }
+        ByteBuffer buffer = directOutputBuffer(value.capacity());
+        value.getBytes(0, buffer, value.capacity());
+        return asValue(buffer.flip());
+    }
+
     private void putInTransaction(@NotNull K key, @NotNull V value, @NotNull Transaction transaction) {
-        db.put(transaction, fromKey(key), fromValue(value));
+        db.put(transaction, directKey(key), new DirectBuffer(directBufferFromValue(value).slice()));
+    }
+
+    // `DirectBuffer` wraps the whole capacity, hence the slice
+    private @NotNull DirectBuffer directKey(@NotNull K key) {
+        return new DirectBuffer(directBufferFromKey(key).slice());
     }
 
     private void inWriteTransaction(@NotNull Consumer<Transaction> consumer) {
@@ -6,35 +6,52 @@ import com.google.common.collect.Streams;
 import com.google.mu.util.stream.BiStream;
 import io.spbx.util.collect.EasyIterables;
 import io.spbx.webby.db.codec.Codec;
+import io.spbx.webby.db.kv.AsyncKeyValueDb;
 import io.spbx.webby.db.kv.KeyValueDb;
 import io.spbx.webby.db.kv.impl.ByteArrayDb;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import redis.clients.jedis.Jedis;
+import redis.clients.jedis.Pipeline;
+import redis.clients.jedis.Response;
 import redis.clients.jedis.params.ScanParams;
 import redis.clients.jedis.resps.ScanResult;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.BiConsumer;
+import java.util.function.Function;
 import java.util.function.IntFunction;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
-public class JedisDb<K, V> extends ByteArrayDb<K, V> implements KeyValueDb<K, V> {
+// The async calls are queued and sent in a single pipeline by the executor, so the concurrent calls share one round-trip.
+// The blocking calls and the pipeline share one connection, so each of them holds the connection lock.
+public class JedisDb<K, V> extends ByteArrayDb<K, V> implements KeyValueDb<K, V>, AsyncKeyValueDb<K, V> {
     private static final byte[] CURSOR_START = "0".getBytes();
     private static final IntFunction<byte[][]> NEW_ARRAY = byte[][]::new;
 
     private final Jedis jedis;
-    private final Supplier<RedisInfo> info = Suppliers.memoize(() -> RedisInfo.parseFrom(internalDb().info()));
+    private final Executor executor;
+    private final Queue<PipelinedCall<?, ?>> pipelineQueue = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean pipelineScheduled = new AtomicBoolean();
+    private final Supplier<RedisInfo> info = Suppliers.memoize(() -> RedisInfo.parseFrom(locked(Jedis::info)));
 
     private final byte[] namespace;
     private final byte[] namespacePattern;
 
-    public JedisDb(@NotNull Jedis jedis, @Nullable String name, @NotNull Codec<K> keyCodec, @NotNull Codec<V> valueCodec) {
+    public JedisDb(@NotNull Jedis jedis,
+                   @NotNull Executor executor,
+                   @Nullable String name,
+                   @NotNull Codec<K> keyCodec,
+                   @NotNull Codec<V> valueCodec) {
         super(keyCodec, valueCodec);
         this.jedis = jedis;
+        this.executor = executor;
 
         if (name != null) {
             namespace = "%s:".formatted(name).getBytes();
@@ -53,29 +70,38 @@ public class JedisDb<K, V> extends ByteArrayDb<K, V> implements KeyValueDb<K, V>
     @Override
     public long longSize() {
         if (namespace.length == 0) {
-            return jedis.dbSize();
+            return locked(Jedis::dbSize);
         }
-        return jedis.keys(namespacePattern).size();
+        return locked(client -> client.keys(namespacePattern)).size();
     }
 
     @Override
     public @Nullable V get(@NotNull K key) {
-        return asValue(jedis.get(fromKey(key)));
+        byte[] bytes = locked(client -> client.get(fromKey(key)));
+        return asValue(bytes);
     }
 
     @Override
     public @NotNull List<@Nullable V> getAll(@NotNull K @NotNull [] keys) {
-        return keys.length == 0 ? List.of() : jedis.mget(fromKeys(keys)).stream().map(this::asValue).toList();
+        if (keys.length == 0) {
+            return List.of();
+        }
+        byte[][] keysBytes = fromKeys(keys);
+        return locked(client -> client.mget(keysBytes)).stream().map(this::asValue).toList();
     }
 
     @Override
     public @NotNull List<@Nullable V> getAll(@NotNull Iterable<K> keys) {
-        return Iterables.isEmpty(keys) ? List.of() : jedis.mget(fromKeys(keys)).stream().map(this::asValue).toList();
+        if (Iterables.isEmpty(keys)) {
+            return List.of();
+        }
+        byte[][] keysBytes = fromKeys(keys);
+        return locked(client -> client.mget(keysBytes)).stream().map(this::asValue).toList();
     }
 
     @Override
     public boolean containsKey(@NotNull K key) {
-        return jedis.exists(fromKey(key));
+        return locked(client -> client.exists(fromKey(key)));
     }
 
     @Override
@@ -94,9 +120,12 @@ public class JedisDb<K, V> extends ByteArrayDb<K, V> implements KeyValueDb<K, V>
     public void forEach(@NotNull BiConsumer<? super K, ? super V> action) {
         byte[] cursor = CURSOR_START;
         while (true) {
-            ScanResult<byte[]> scanResult = jedis.scan(cursor, new ScanParams().match(namespacePattern));
+            byte[] scanCursor = cursor;
+            ScanParams params = new ScanParams().match(namespacePattern);
+            ScanResult<byte[]> scanResult = locked(client -> client.scan(scanCursor, params));
             List<byte[]> chunkKeys = scanResult.getResult();
-            List<byte[]> chunkValues = chunkKeys.isEmpty() ? List.of() : jedis.mget(chunkKeys.toArray(NEW_ARRAY));
+            byte[][] chunkKeysBytes = chunkKeys.toArray(NEW_ARRAY);
+            List<byte[]> chunkValues = chunkKeys.isEmpty() ? List.of() : locked(client -> client.mget(chunkKeysBytes));
             BiStream.zip(chunkKeys, chunkValues).mapKeys(this::asKey).mapValues(this::asValue).forEach(action);
             if (scanResult.isCompleteIteration()) {
                 return;
@@ -108,12 +137,12 @@ public class JedisDb<K, V> extends ByteArrayDb<K, V> implements KeyValueDb<K, V>
     @Override
     public @NotNull Iterable<K> keys() {
         // Optimize: iterate chunks via scan
-        return jedis.keys(namespacePattern).stream().map(this::asKey).toList();
+        return locked(client -> client.keys(namespacePattern)).stream().map(this::asKey).toList();
     }
 
     @Override
     public @NotNull Set<K> keySet() {
-        return jedis.keys(namespacePattern).stream().map(this::asKey).collect(Collectors.toSet());
+        return locked(client -> client.keys(namespacePattern)).stream().map(this::asKey).collect(Collectors.toSet());
     }
 
     @Override
@@ -132,12 +161,13 @@ public class JedisDb<K, V> extends ByteArrayDb<K, V> implements KeyValueDb<K, V>
 
     @Override
     public void set(@NotNull K key, @NotNull V value) {
-        jedis.set(fromKey(key), fromValue(value));
+        locked(client -> client.set(fromKey(key), fromValue(value)));
     }
 
     @Override
     public @Nullable V put(@NotNull K key, @NotNull V value) {
-        return asValue(jedis.getSet(fromKey(key), fromValue(value)));
+        byte[] bytes = locked(client -> client.getSet(fromKey(key), fromValue(value)));
+        return asValue(bytes);
     }
 
     @Override
@@ -146,7 +176,7 @@ public class JedisDb<K, V> extends ByteArrayDb<K, V> implements KeyValueDb<K, V>
         byte[] valueBytes = fromValue(value);
 
         // Based on https://github.com/nathan7/redis-require/blob/master/getsetnx.redis.lua
-        Object result = jedis.eval("""
+        Object result = locked(client -> client.eval("""
             -- EVAL getsetnx 1 key val
             local key = KEYS[1]
             local val = ARGV[1]
@@ -157,7 +187,7 @@ public class JedisDb<K, V> extends ByteArrayDb<K, V> implements KeyValueDb<K, V>
               redis.call('set', key, val)
               return nil
             end
-        """.getBytes(), 1, keyBytes, valueBytes);
+        """.getBytes(), 1, keyBytes, valueBytes));
         assert result == null || result instanceof byte[] : "Unexpected eval result: %s".formatted(result);
         return asValue((byte[]) result);
     }
@@ -171,7 +201,7 @@ public class JedisDb<K, V> extends ByteArrayDb<K, V> implements KeyValueDb<K, V>
             keyVals[i++] = fromValue(entry.getValue());
         }
         if (keyVals.length > 0)
-            jedis.mset(keyVals);
+            locked(client -> client.mset(keyVals));
     }
 
     @Override
@@ -182,7 +212,7 @@ public class JedisDb<K, V> extends ByteArrayDb<K, V> implements KeyValueDb<K, V>
             keyVals.add(fromValue(entry.getValue()));
         }
         if (!keyVals.isEmpty())
-            jedis.mset(keyVals.toArray(NEW_ARRAY));
+            locked(client -> client.mset(keyVals.toArray(NEW_ARRAY)));
     }
 
     @Override
@@ -193,7 +223,7 @@ public class JedisDb<K, V> extends ByteArrayDb<K, V> implements KeyValueDb<K, V>
             keyVals.add(fromValue(entry.getValue()));
         });
         if (!keyVals.isEmpty())
-            jedis.mset(keyVals.toArray(NEW_ARRAY));
+            locked(client -> client.mset(keyVals.toArray(NEW_ARRAY)));
     }
 
     @Override
@@ -207,7 +237,7 @@ public class JedisDb<K, V> extends ByteArrayDb<K, V> implements KeyValueDb<K, V>
             keyVals[i * 2 + 1] = fromValue(values[i]);
         }
         if (keyVals.length > 0)
-            jedis.mset(keyVals);
+            locked(client -> client.mset(keyVals));
     }
 
     @Override
@@ -224,18 +254,19 @@ public class JedisDb<K, V> extends ByteArrayDb<K, V> implements KeyValueDb<K, V>
             keyVals[i * 2 + 1] = fromValue(valuesList.get(i));
         }
         if (keyVals.length > 0)
-            jedis.mset(keyVals);
+            locked(client -> client.mset(keyVals));
     }
 
     @Override
     public void delete(@NotNull K key) {
-        jedis.del(fromKey(key));
+        locked(client -> client.del(fromKey(key)));
     }
 
     @Override
     public @Nullable V remove(@NotNull K key) {
         if (info.get().isVersionAfter("6.2.0")) {
-            return asValue(jedis.getDel(fromKey(key)));
+            byte[] bytes = locked(client -> client.getDel(fromKey(key)));
+            return asValue(bytes);
         }
         return KeyValueDb.super.remove(key);
     }
@@ -243,18 +274,18 @@ public class JedisDb<K, V> extends ByteArrayDb<K, V> implements KeyValueDb<K, V>
     @Override
     public void removeAll(@NotNull K @NotNull [] keys) {
         if (keys.length > 0)
-            jedis.del(fromKeys(keys));
+            locked(client -> client.del(fromKeys(keys)));
     }
 
     @Override
     public void removeAll(@NotNull Iterable<K> keys) {
         if (!Iterables.isEmpty(keys))
-            jedis.del(fromKeys(keys));
+            locked(client -> client.del(fromKeys(keys)));
     }
 
     @Override
     public void clear() {
-        jedis.flushDB();
+        locked(Jedis::flushDB);
     }
 
     @Override
@@ -264,9 +295,56 @@ public class JedisDb<K, V> extends ByteArrayDb<K, V> implements KeyValueDb<K, V>
 
     @Override
     public void close() {
-        jedis.close();
+        synchronized (jedis) {
+            jedis.close();
+        }
+    }
+
+    // Async
+
+    @Override
+    public @NotNull CompletableFuture<@Nullable V> getAsync(@NotNull K key) {
+        byte[] keyBytes = fromKey(key);
+        return pipelined(pipeline -> pipeline.get(keyBytes), this::asValue);
+    }
+
+    @Override
+    public @NotNull CompletableFuture<List<@Nullable V>> getAllAsync(@NotNull Iterable<K> keys) {
+        if (Iterables.isEmpty(keys)) {
+            return CompletableFuture.completedFuture(List.of());
+        }
+        byte[][] keysBytes = fromKeys(keys);
+        return pipelined(pipeline -> pipeline.mget(keysBytes), values -> values.stream().map(this::asValue).toList());
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Void> putAsync(@NotNull K key, @NotNull V value) {
+        byte[] keyBytes = fromKey(key);
+        byte[] valueBytes = fromValue(value);
+        return pipelined(pipeline -> pipeline.set(keyBytes, valueBytes), ignore -> null);
+    }
+
+    @Override
+    public @NotNull CompletableFuture<Void> putAllAsync(@NotNull Map<? extends K, ? extends V> map) {
+        if (map.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        byte[][] keyVals = new byte[2 * map.size()][];
+        int i = 0;
+        for (Map.Entry<? extends K, ? extends V> entry : map.entrySet()) {
+            keyVals[i++] = fromKey(entry.getKey());
+            keyVals[i++] = fromValue(entry.getValue());
+        }
+        return pipelined(pipeline -> pipeline.mset(keyVals), ignore -> null);
     }
 
+    @Override
+    public @NotNull CompletableFuture<Void> deleteAsync(@NotNull K key) {
+        byte[] keyBytes = fromKey(key);
+        return pipelined(pipeline -> pipeline.del(keyBytes), ignore -> null);
+    }
+
+    // The callers must hold the lock of the returned connection (see `locked()`)
     public @NotNull Jedis internalDb() {
         return jedis;
     }
@@ -288,4 +366,68 @@ public class JedisDb<K, V> extends ByteArrayDb<K, V> implements KeyValueDb<K, V>
     private byte[][] fromKeys(@NotNull Iterable<K> keys) {
         return Streams.stream(keys).map(this::fromKey).toArray(NEW_ARRAY);
     }
+
+    // All calls share the single connection (incl. the async pipeline), so each command holds its lock
+    private <T> T locked(@NotNull Function<Jedis, T> command) {
+        synchronized (jedis) {
+            return command.apply(jedis);
+        }
+    }
+
+    private <R, T> @NotNull CompletableFuture<T> pipelined(@NotNull Function<Pipeline, Response<R>> command,
+                                                           @NotNull Function<R, T> mapper) {
+        PipelinedCall<R, T> call = new PipelinedCall<>(command, mapper);
+        pipelineQueue.add(call);
+        if (pipelineScheduled.compareAndSet(false, true)) {
+            executor.execute(this::runPipeline);
+        }
+        return call.future;
+    }
+
+    // Takes all the queued calls (including the ones added while the previous pipeline was running)
+    private void runPipeline() {
+        pipelineScheduled.set(false);
+        List<PipelinedCall<?, ?>> calls = new ArrayList<>();
+        for (PipelinedCall<?, ?> call; (call = pipelineQueue.poll()) != null; ) {
+            calls.add(call);
+        }
+        if (calls.isEmpty()) {
+            return;
+        }
+        try {
+            synchronized (jedis) {
+                try (Pipeline pipeline = jedis.pipelined()) {
+                    calls.forEach(call -> call.send(pipeline));
+                    pipeline.sync();
+                }
+            }
+            calls.forEach(PipelinedCall::complete);
+        } catch (Throwable e) {
+            calls.forEach(call -> call.future.completeExceptionally(e));
+        }
+    }
+
+    private static class PipelinedCall<R, T> {
+        private final Function<Pipeline, Response<R>> command;
+        private final Function<R, T> mapper;
+        private final CompletableFuture<T> future = new CompletableFuture<>();
+        private Response<R> response;
+
+        private PipelinedCall(@NotNull Function<Pipeline, Response<R>> command, @NotNull Function<R, T> mapper) {
+            this.command = command;
+            this.mapper = mapper;
+        }
+
+        private void send(@NotNull Pipeline pipeline) {
+            response = command.apply(pipeline);
+        }
+
+        private void complete() {
+            try {
+                future.complete(mapper.apply(response.get()));
+            } catch (Throwable e) {
+                future.completeExceptionally(e);
+            }
+        }
+    }
 }
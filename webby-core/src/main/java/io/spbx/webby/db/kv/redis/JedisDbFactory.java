@@ -27,7 +27,7 @@ public class JedisDbFactory extends BaseKeyValueFactory {
                 .build();
             Jedis jedis = new Jedis(hp, config);
 
-            return new JedisDb<>(jedis, options.name(), keyCodec, valueCodec);
+            return new JedisDb<>(jedis, asyncExecutor(), options.name(), keyCodec, valueCodec);
         });
     }
 }
@@ -10,12 +10,17 @@ import io.spbx.util.func.ThrowConsumer;
 import io.spbx.util.func.ThrowFunction;
 import io.spbx.util.func.ThrowPredicate;
 import io.spbx.webby.db.codec.Codec;
-import io.spbx.webby.db.kv.KeyValueDb;
+import io.spbx.webby.db.kv.KeyValueCursor;
+import io.spbx.webby.db.kv.ScanOptions;
+import io.spbx.webby.db.kv.SortedKeyValueDb;
+import io.spbx.webby.db.kv.impl.ByteArrayCursor;
 import io.spbx.webby.db.kv.impl.ByteArrayDb;
+import io.spbx.webby.db.kv.impl.ByteRange;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.rocksdb.*;
 
+import java.nio.ByteBuffer;
 import java.util.*;
 import java.util.function.BiConsumer;
 import java.util.function.Function;
@@ -23,9 +28,10 @@ import java.util.stream.Stream;
 
 import static io.spbx.util.base.Unchecked.rethrow;
 
-public class RocksDbImpl<K, V> extends ByteArrayDb<K, V> implements KeyValueDb<K, V> {
+public class RocksDbImpl<K, V> extends ByteArrayDb<K, V> implements SortedKeyValueDb<K, V> {
     private static final FlushOptions FLUSH_OPTIONS = new FlushOptions();
     private static final WriteOptions WRITE_OPTIONS = new WriteOptions();
+    private static final ReadOptions READ_OPTIONS = new ReadOptions();
 
     private final RocksDB db;
 
@@ -49,7 +55,7 @@ public class RocksDbImpl<K, V> extends ByteArrayDb<K, V> implements KeyValueDb<K
     @Override
     public @Nullable V get(@NotNull K key) {
         try {
-            return asValue(db.get(fromKey(key)));
+            return asValue(getDirect(directBufferFromKey(key)));
         } catch (RocksDBException e) {
             return rethrow(e);
         }
@@ -78,7 +84,7 @@ public class RocksDbImpl<K, V> extends ByteArrayDb<K, V> implements KeyValueDb<K
     @Override
     public boolean containsKey(@NotNull K key) {
         try {
-            return db.get(fromKey(key)) != null;
+            return getDirect(directBufferFromKey(key)) != null;
         } catch (RocksDBException e) {
             return rethrow(e);
         }
@@ -117,10 +123,15 @@ public class RocksDbImpl<K, V> extends ByteArrayDb<K, V> implements KeyValueDb<K
         return collect(new HashSet<>(), entry -> asMapEntry(entry.key(), entry.value()));
     }
 
+    @Override
+    public @NotNull KeyValueCursor<K, V> cursor(@NotNull ScanOptions<K> options) {
+        return new RocksCursor(ByteRange.of(options, this::fromKey), options.limit());
+    }
+
     @Override
     public void set(@NotNull K key, @NotNull V value) {
         try {
-            db.put(fromKey(key), fromValue(value));
+            db.put(WRITE_OPTIONS, directBufferFromKey(key), directBufferFromValue(value));
         } catch (RocksDBException e) {
             rethrow(e);
         }
@@ -130,9 +141,7 @@ public class RocksDbImpl<K, V> extends ByteArrayDb<K, V> implements KeyValueDb<K
     public void putAll(@NotNull Map<? extends K, ? extends V> map) {
         writeBatch(batch -> {
             for (Map.Entry<? extends K, ? extends V> entry : map.entrySet()) {
-                byte[] key = fromKey(entry.getKey());
-                byte[] value = fromValue(entry.getValue());
-                batch.put(key, value);
+                batch.put(directBufferFromKey(entry.getKey()), directBufferFromValue(entry.getValue()));
             }
         });
     }
@@ -141,9 +150,7 @@ public class RocksDbImpl<K, V> extends ByteArrayDb<K, V> implements KeyValueDb<K
     public void putAll(@NotNull Iterable<? extends Map.Entry<? extends K, ? extends V>> entries) {
         writeBatch(batch -> {
             for (Map.Entry<? extends K, ? extends V> entry : entries) {
-               byte[] key = fromKey(entry.getKey());
-               byte[] value = fromValue(entry.getValue());
-               batch.put(key, value);
+               batch.put(directBufferFromKey(entry.getKey()), directBufferFromValue(entry.getValue()));
             }
         });
     }
@@ -152,9 +159,7 @@ public class RocksDbImpl<K, V> extends ByteArrayDb<K, V> implements KeyValueDb<K
     public void putAll(@NotNull Stream<? extends Map.Entry<? extends K, ? extends V>> entries) {
         writeBatch(batch ->
             entries.forEach(Consumers.rethrow(entry -> {
-               byte[] key = fromKey(entry.getKey());
-               byte[] value = fromValue(entry.getValue());
-               batch.put(key, value);
+               batch.put(directBufferFromKey(entry.getKey()), directBufferFromValue(entry.getValue()));
             }))
         );
     }
@@ -164,7 +169,7 @@ public class RocksDbImpl<K, V> extends ByteArrayDb<K, V> implements KeyValueDb<K
         assert keys.length == values.length : "Illegal arrays length: %d vs %d".formatted(keys.length, values.length);
         writeBatch(batch -> {
             for (int i = 0, n = keys.length; i < n; i++) {
-                batch.put(fromKey(keys[i]), fromValue(values[i]));
+                batch.put(directBufferFromKey(keys[i]), directBufferFromValue(values[i]));
             }
         });
     }
@@ -182,7 +187,7 @@ public class RocksDbImpl<K, V> extends ByteArrayDb<K, V> implements KeyValueDb<K
     @Override
     public void delete(@NotNull K key) {
         try {
-            db.delete(fromKey(key));
+            db.delete(WRITE_OPTIONS, directBufferFromKey(key));
         } catch (RocksDBException e) {
             rethrow(e);
         }
@@ -192,7 +197,7 @@ public class RocksDbImpl<K, V> extends ByteArrayDb<K, V> implements KeyValueDb<K
     public void removeAll(@NotNull K @NotNull [] keys) {
         writeBatch(batch -> {
            for (K key : keys) {
-               batch.delete(fromKey(key));
+               batch.delete(directBufferFromKey(key));
            }
         });
     }
@@ -201,7 +206,7 @@ public class RocksDbImpl<K, V> extends ByteArrayDb<K, V> implements KeyValueDb<K
     public void removeAll(@NotNull Iterable<K> keys) {
         writeBatch(batch -> {
             for (K key : keys) {
-                batch.delete(fromKey(key));
+                batch.delete(directBufferFromKey(key));
             }
         });
     }
@@ -233,6 +238,22 @@ public class RocksDbImpl<K, V> extends ByteArrayDb<K, V> implements KeyValueDb<K
         return db;
     }
 
+    // Reads into the local direct buffer, growing it if the value doesn't fit
+    private @Nullable ByteBuffer getDirect(@NotNull ByteBuffer key) throws RocksDBException {
+        int capacity = 0;
+        while (true) {
+            ByteBuffer value = directOutputBuffer(capacity);
+            int size = db.get(READ_OPTIONS, key.rewind(), value);
+            if (size == RocksDB.NOT_FOUND) {
+                return null;
+            }
+            if (size <= value.capacity()) {
+                return value;
+            }
+            capacity = size;
+        }
+    }
+
     private void writeBatch(@NotNull ThrowConsumer<WriteBatch, RocksDBException> action) {
         try (WriteBatch batch = new WriteBatch()) {
             action.accept(batch);
@@ -281,4 +302,48 @@ public class RocksDbImpl<K, V> extends ByteArrayDb<K, V> implements KeyValueDb<K
         });
         return destination;
     }
+
+    private class RocksCursor extends ByteArrayCursor<K, V> {
+        private final RocksIterator iterator = db.newIterator(READ_OPTIONS);
+        private boolean positioned;
+
+        private RocksCursor(@NotNull ByteRange range, int limit) {
+            super(range, limit, RocksDbImpl.this::asKeyNotNull, RocksDbImpl.this::asValueNotNull);
+        }
+
+        @Override
+        protected @Nullable Map.Entry<byte[], byte[]> advance() {
+            if (!positioned) {
+                seekStart();
+                positioned = true;
+            } else if (range.reverse()) {
+                iterator.prev();
+            } else {
+                iterator.next();
+            }
+            return iterator.isValid() ? new AbstractMap.SimpleEntry<>(iterator.key(), iterator.value()) : null;
+        }
+
+        private void seekStart() {
+            if (!range.reverse()) {
+                if (range.lower() != null) {
+                    iterator.seek(range.lower());
+                } else {
+                    iterator.seekToFirst();
+                }
+            } else if (range.upper() != null) {
+                iterator.seekForPrev(range.upper());
+                if (iterator.isValid() && Arrays.equals(iterator.key(), range.upper())) {
+                    iterator.prev();  // the upper bound is exclusive
+                }
+            } else {
+                iterator.seekToLast();
+            }
+        }
+
+        @Override
+        protected void release() {
+            iterator.close();
+        }
+    }
 }
@@ -2,41 +2,68 @@ package io.spbx.webby.db.kv.sql;
 
 import com.google.common.io.BaseEncoding;
 import io.spbx.orm.api.TableObj;
-import io.spbx.orm.api.query.Compare;
-import io.spbx.orm.api.query.Func;
-import io.spbx.orm.api.query.HardcodedStringTerm;
-import io.spbx.orm.api.query.Where;
+import io.spbx.orm.api.query.*;
 import io.spbx.webby.db.codec.Codec;
 import io.spbx.webby.db.kv.KeyValueDb;
 import io.spbx.webby.db.kv.impl.ByteArrayDb;
+import io.spbx.webby.db.managed.FlushMode;
+import io.spbx.webby.db.managed.ManagedPersistent;
 import io.spbx.webby.db.model.BlobKv;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.VisibleForTesting;
 
-import java.util.AbstractMap;
-import java.util.Collection;
-import java.util.Map;
-import java.util.Set;
+import java.nio.ByteBuffer;
+import java.sql.Statement;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.stream.Collectors;
 
 import static io.spbx.orm.api.query.CompareType.EQ;
 import static io.spbx.orm.api.query.Shortcuts.*;
+import static io.spbx.util.base.EasyCast.castAny;
 
-public class BlobTableDb<V, K> extends ByteArrayDb<K, V> implements KeyValueDb<K, V> {
+// In the batched mode (`writeBatchSize > 0`), the sets and deletes are kept in the pending map, which overlays the table
+// for the reads, and are written in one transaction via JDBC batches once the batch size or the delay is reached,
+// on flush or on close. The scanning operations (size, keys, values, etc.) flush the pending writes first.
+public class BlobTableDb<V, K> extends ByteArrayDb<K, V> implements KeyValueDb<K, V>, ManagedPersistent {
     // Hardcoding the table columns to avoid a dep on the generated BlobKvTable from the core...
     private static final HardcodedStringTerm ID_COLUMN = new HardcodedStringTerm("id");
     private static final HardcodedStringTerm VALUE_COLUMN = new HardcodedStringTerm("value");
+    private static final Where WHERE_ID = Where.of(EQ.compare(ID_COLUMN, unresolved("id", TermType.STRING)));
+    // Pending value for the deleted keys
+    private static final Object TOMBSTONE = new Object();
 
     private final TableObj<byte[], BlobKv> table;
     private final byte[] namespace;
     private final Where whereNamespace;
 
+    private final int writeBatchSize;
+    private final long writeDelayMillis;
+    private final ConcurrentMap<K, Object> pending = new ConcurrentHashMap<>();
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private volatile long lastFlushMillis = System.currentTimeMillis();
+
     public BlobTableDb(@NotNull TableObj<byte[], BlobKv> table,
                        @NotNull String name,
                        @NotNull Codec<K> keyCodec,
                        @NotNull Codec<V> valueCodec) {
+        this(table, name, keyCodec, valueCodec, 0, 0);
+    }
+
+    public BlobTableDb(@NotNull TableObj<byte[], BlobKv> table,
+                       @NotNull String name,
+                       @NotNull Codec<K> keyCodec,
+                       @NotNull Codec<V> valueCodec,
+                       int writeBatchSize,
+                       long writeDelayMillis) {
         super(keyCodec, valueCodec);
+        assert writeBatchSize >= 0 : "Invalid write batch size: " + writeBatchSize;
         this.table = table;
+        this.writeBatchSize = writeBatchSize;
+        this.writeDelayMillis = writeDelayMillis;
 
         String namespace = "%s:".formatted(name);
         this.namespace = namespace.getBytes();
@@ -47,19 +74,63 @@ public class BlobTableDb<V, K> extends ByteArrayDb<K, V> implements KeyValueDb<K
         };
     }
 
+    public boolean isBatched() {
+        return writeBatchSize > 0;
+    }
+
     @Override
     public int size() {
+        flushPending();
         return table.count(whereNamespace);
     }
 
     @Override
     public @Nullable V get(@NotNull K key) {
+        Object pendingValue = pending.get(key);
+        if (pendingValue != null) {
+            return pendingValue == TOMBSTONE ? null : castAny(pendingValue);
+        }
         BlobKv blob = table.getByPkOrNull(fromKey(key));
         return blob != null ? asValue(blob.value()) : null;
     }
 
+    @Override
+    public @NotNull List<@Nullable V> getAll(@NotNull K @NotNull [] keys) {
+        return getAll(Arrays.asList(keys));
+    }
+
+    // The keys missing in the pending map are fetched in bulk via `id IN (...)`. The same key may be requested twice.
+    @Override
+    public @NotNull List<@Nullable V> getAll(@NotNull Iterable<K> keys) {
+        List<V> result = new ArrayList<>();
+        Map<ByteBuffer, List<Integer>> missing = new HashMap<>();
+        for (K key : keys) {
+            Object pendingValue = pending.get(key);
+            if (pendingValue == null) {
+                missing.computeIfAbsent(ByteBuffer.wrap(fromKey(key)), k -> new ArrayList<>()).add(result.size());
+            }
+            result.add(pendingValue == null || pendingValue == TOMBSTONE ? null : castAny(pendingValue));
+        }
+
+        List<ByteBuffer> ids = new ArrayList<>(missing.keySet());
+        for (int i = 0; i < ids.size(); i += InList.MAX_CHUNK_SIZE) {
+            List<Variable> vars = ids.subList(i, Math.min(i + InList.MAX_CHUNK_SIZE, ids.size())).stream()
+                .map(id -> var(id.array()))
+                .toList();
+            for (BlobKv blob : table.fetchAllMatching(Where.of(isInBucketed(ID_COLUMN, vars)))) {
+                List<Integer> indices = missing.get(ByteBuffer.wrap(blob.id()));
+                if (indices != null) {
+                    V value = asValue(blob.value());
+                    indices.forEach(index -> result.set(index, value));
+                }
+            }
+        }
+        return result;
+    }
+
     @Override
     public boolean containsValue(@NotNull V value) {
+        flushPending();
         byte[] bytes = fromValue(value);
         Compare compare = switch (table.engine()) {
             case SQLite -> EQ.compare(Func.HEX.apply(VALUE_COLUMN), var(upperhex(bytes)));
@@ -75,21 +146,25 @@ public class BlobTableDb<V, K> extends ByteArrayDb<K, V> implements KeyValueDb<K
 
     @Override
     public @NotNull Iterable<K> keys() {
+        flushPending();
         return table.fetchAllMatching(whereNamespace).stream().map(BlobKv::id).map(this::asKey).toList();
     }
 
     @Override
     public @NotNull Set<K> keySet() {
+        flushPending();
         return table.fetchAllMatching(whereNamespace).stream().map(BlobKv::id).map(this::asKey).collect(Collectors.toSet());
     }
 
     @Override
     public @NotNull Collection<V> values() {
+        flushPending();
         return table.fetchAllMatching(whereNamespace).stream().map(BlobKv::value).map(this::asValue).toList();
     }
 
     @Override
     public @NotNull Set<Map.Entry<K, V>> entrySet() {
+        flushPending();
         return table.fetchAllMatching(whereNamespace).stream()
                 .map(entity -> new AbstractMap.SimpleEntry<>(asKey(entity.id()), asValue(entity.value())))
                 .collect(Collectors.toSet());
@@ -97,13 +172,23 @@ public class BlobTableDb<V, K> extends ByteArrayDb<K, V> implements KeyValueDb<K
 
     @Override
     public void set(@NotNull K key, @NotNull V value) {
-        BlobKv blob = new BlobKv(fromKey(key), fromValue(value));
-        table.updateByPkOrInsert(blob);
+        if (isBatched()) {
+            pending.put(key, value);
+            flushIfNecessary();
+        } else {
+            BlobKv blob = new BlobKv(fromKey(key), fromValue(value));
+            table.updateByPkOrInsert(blob);
+        }
     }
 
     @Override
     public void delete(@NotNull K key) {
-        table.deleteByPk(fromKey(key));
+        if (isBatched()) {
+            pending.put(key, TOMBSTONE);
+            flushIfNecessary();
+        } else {
+            table.deleteByPk(fromKey(key));
+        }
     }
 
     @Override
@@ -111,14 +196,89 @@ public class BlobTableDb<V, K> extends ByteArrayDb<K, V> implements KeyValueDb<K
         for (K key : keys()) {
             delete(key);
         }
+        flushPending();
     }
 
     @Override
     public void flush() {
+        flushPending();
+    }
+
+    @Override
+    public void flush(@NotNull FlushMode mode) {
+        flushPending();
     }
 
     @Override
     public void close() {
+        flushPending();
+    }
+
+    @VisibleForTesting
+    int pendingSize() {
+        return pending.size();
+    }
+
+    private void flushIfNecessary() {
+        boolean isDelayed = writeDelayMillis > 0 && System.currentTimeMillis() - lastFlushMillis >= writeDelayMillis;
+        if (pending.size() >= writeBatchSize || isDelayed) {
+            flushPending();
+        }
+    }
+
+    private void flushPending() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            writePending();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // The entries are removed from the pending map only after the transaction is committed and
+    // only if not updated meanwhile, so the reads never miss the pending writes.
+    private void writePending() {
+        Map<K, Object> snapshot = new HashMap<>(pending);
+        List<BlobKv> updates = new ArrayList<>();
+        List<Variable> deletes = new ArrayList<>();
+        snapshot.forEach((key, value) -> {
+            if (value == TOMBSTONE) {
+                deletes.add(var(fromKey(key)));
+            } else {
+                updates.add(new BlobKv(fromKey(key), fromValue(castAny(value))));
+            }
+        });
+
+        table.runner().tx().run(() -> {
+            if (!updates.isEmpty()) {
+                upsertBatch(updates);
+            }
+            for (int i = 0; i < deletes.size(); i += InList.MAX_CHUNK_SIZE) {
+                List<Variable> chunk = deletes.subList(i, Math.min(i + InList.MAX_CHUNK_SIZE, deletes.size()));
+                table.deleteWhere(Where.of(isInBucketed(ID_COLUMN, chunk)));
+            }
+        });
+        lastFlushMillis = System.currentTimeMillis();
+        snapshot.forEach(pending::remove);
+    }
+
+    private void upsertBatch(@NotNull List<BlobKv> blobs) {
+        int[] updated = table.updateWhereBatch(blobs, Contextual.resolvingByOrderedList(WHERE_ID, blob -> List.of(blob.id())));
+        List<BlobKv> missing = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                missing.add(blobs.get(i));
+            } else if (updated[i] == Statement.SUCCESS_NO_INFO) {
+                // The driver doesn't report whether the row existed
+                table.updateByPkOrInsert(blobs.get(i));
+            }
+        }
+        if (!missing.isEmpty()) {
+            table.insertBatch(missing);
+        }
     }
 
     public @NotNull TableObj<byte[], BlobKv> internalTable() {
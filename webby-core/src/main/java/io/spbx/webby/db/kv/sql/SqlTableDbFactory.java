@@ -26,7 +26,14 @@ public class SqlTableDbFactory extends BaseKeyValueFactory {
                 TableObj<byte[], BlobKv> blobTable = tableManager.getMatchingTableOrDie(BlobKv.DB_NAME, byte[].class, BlobKv.class);
                 Codec<K> keyCodec = keyCodecOrDie(options);
                 Codec<V> valueCodec = valueCodecOrDie(options);
-                return new BlobTableDb<>(blobTable, options.name(), keyCodec, valueCodec);
+                int writeBatchSize = settings.getInt("db.sql.blob.write.batch.size", 0);
+                long writeDelayMillis = settings.getInt("db.sql.blob.write.delay.millis", 1000);
+                BlobTableDb<V, K> db =
+                    new BlobTableDb<>(blobTable, options.name(), keyCodec, valueCodec, writeBatchSize, writeDelayMillis);
+                if (db.isBatched()) {
+                    cacheCleaner.register("%s.blob".formatted(options.name()), db);
+                }
+                return db;
             }
 
             throw IllegalArgumentExceptions.format(
@@ -8,8 +8,12 @@ import io.spbx.util.collect.EasyIterables;
 import io.spbx.util.func.ThrowConsumer;
 import io.spbx.util.func.ThrowFunction;
 import io.spbx.webby.db.codec.Codec;
-import io.spbx.webby.db.kv.KeyValueDb;
+import io.spbx.webby.db.kv.KeyValueCursor;
+import io.spbx.webby.db.kv.ScanOptions;
+import io.spbx.webby.db.kv.SortedKeyValueDb;
+import io.spbx.webby.db.kv.impl.ByteArrayCursor;
 import io.spbx.webby.db.kv.impl.ByteArrayDb;
+import io.spbx.webby.db.kv.impl.ByteRange;
 import org.cojen.tupl.*;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -24,7 +28,7 @@ import static io.spbx.util.base.Unchecked.Runnables.runRethrow;
 import static io.spbx.util.base.Unchecked.Suppliers.runRethrow;
 import static io.spbx.util.base.Unchecked.rethrow;
 
-public class TuplDb<K, V> extends ByteArrayDb<K, V> implements KeyValueDb<K, V> {
+public class TuplDb<K, V> extends ByteArrayDb<K, V> implements SortedKeyValueDb<K, V> {
     private final Index index;
     private final Database database;
 
@@ -149,6 +153,11 @@ public class TuplDb<K, V> extends ByteArrayDb<K, V> implements KeyValueDb<K, V>
         return set;
     }
 
+    @Override
+    public @NotNull KeyValueCursor<K, V> cursor(@NotNull ScanOptions<K> options) {
+        return new TuplCursor(ByteRange.of(options, this::fromKey), options.limit());
+    }
+
     @Override
     public void set(@NotNull K key, @NotNull V value) {
         inWriteTransaction(transaction -> index.store(transaction, fromKey(key), fromValue(value)));
@@ -308,4 +317,52 @@ public class TuplDb<K, V> extends ByteArrayDb<K, V> implements KeyValueDb<K, V>
             runRethrow(transaction::exit);
         }
     }
+
+    private class TuplCursor extends ByteArrayCursor<K, V> {
+        private final Transaction transaction = index.newTransaction(DurabilityMode.NO_REDO);
+        private final Cursor cursor = index.newCursor(transaction);
+        private boolean positioned;
+
+        private TuplCursor(@NotNull ByteRange range, int limit) {
+            super(range, limit, TuplDb.this::asKeyNotNull, TuplDb.this::asValueNotNull);
+        }
+
+        @Override
+        protected @Nullable Map.Entry<byte[], byte[]> advance() {
+            try {
+                if (!positioned) {
+                    positioned = true;
+                    seekStart();
+                } else if (range.reverse()) {
+                    cursor.previous();
+                } else {
+                    cursor.next();
+                }
+                byte[] key = cursor.key();
+                return key != null ? new AbstractMap.SimpleEntry<>(key, cursor.value()) : null;
+            } catch (IOException e) {
+                return rethrow(e);
+            }
+        }
+
+        private void seekStart() throws IOException {
+            if (!range.reverse()) {
+                if (range.lower() != null) {
+                    cursor.findGe(range.lower());
+                } else {
+                    cursor.first();
+                }
+            } else if (range.upper() != null) {
+                cursor.findLt(range.upper());
+            } else {
+                cursor.last();
+            }
+        }
+
+        @Override
+        protected void release() {
+            cursor.reset();
+            runRethrow(transaction::exit);
+        }
+    }
 }
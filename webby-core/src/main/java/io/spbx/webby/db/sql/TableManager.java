@@ -10,6 +10,9 @@ import io.spbx.util.lazy.AtomicLazyRecycle;
 import io.spbx.util.lazy.LazyRecycle;
 import io.spbx.webby.app.Settings;
 import io.spbx.webby.common.Lifetime;
+import io.spbx.webby.perf.stats.DbStatsListener;
+import io.spbx.webby.perf.stats.Stat;
+import io.spbx.webby.perf.stats.impl.StatsManager;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 import org.jetbrains.annotations.VisibleForTesting;
@@ -34,11 +37,17 @@ public class TableManager implements HasEngine {
     public TableManager(@NotNull Settings settings,
                         @NotNull ConnectionPool pool,
                         @NotNull ClasspathScanner scanner,
-                        @NotNull Lifetime lifetime) throws Exception {
+                        @NotNull Lifetime lifetime,
+                        @NotNull StatsManager statsManager) throws Exception {
         assert settings.storageSettings().isSqlEnabled() : "SQL storage is disabled";
         assert pool.isRunning() : "Invalid pool state: %s".formatted(pool);
 
-        connector = new ThreadLocalConnector(pool, settings.getLong("db.sql.connection.expiration.millis", 30_000));
+        connector = new ThreadLocalConnector(
+            pool,
+            settings.getLong("db.sql.connection.expiration.millis", 30_000),
+            settings.getInt("db.sql.statement.cache.size", 64),
+            isTrackingStatementsOn(settings) ? statementCacheListener(statsManager.newDbListener()) : null
+        );
         engine = pool.engine();
 
         Set<Class<?>> tableClasses = scanner.timed("BaseTable").getDerivedClasses(settings.modelFilter(), BaseTable.class);
@@ -119,6 +128,14 @@ public class TableManager implements HasEngine {
         return castAny(entityTable.instantiate.apply(connector));
     }
 
+    private static boolean isTrackingStatementsOn(@NotNull Settings settings) {
+        return (settings.isProfileMode() || settings.isMetricsEnabled()) && settings.getBool("perf.track.db.sql.enabled", true);
+    }
+
+    private static @NotNull StatementCache.Listener statementCacheListener(@NotNull DbStatsListener listener) {
+        return hit -> listener.report(hit ? Stat.DB_STATEMENT_HIT : Stat.DB_STATEMENT_MISS).close();
+    }
+
     @VisibleForTesting
     static ImmutableMap<Class<?>, EntityTable> buildTableMap(@NotNull Iterable<Class<?>> tableClasses) throws Exception {
         ImmutableMap.Builder<Class<?>, EntityTable> result = new ImmutableMap.Builder<>();
@@ -3,23 +3,38 @@ package io.spbx.webby.db.sql;
 import io.spbx.orm.api.Connector;
 import io.spbx.orm.api.Engine;
 import io.spbx.orm.api.QueryRunner;
+import io.spbx.orm.api.StatementCache;
 import io.spbx.util.base.Unchecked;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.sql.Connection;
 import java.sql.SQLException;
 
+// Each thread holds its own connection along with the runner and the prepared statements cache (if enabled).
+// The cached statements are closed along with the connection when it expires.
 public final class ThreadLocalConnector implements Connector {
     private static final ThreadLocal<ConnectionData> local = new ThreadLocal<>();
 
     private final ConnectionPool pool;
     private final Engine engine;
     private final long timeoutToExpireMillis;
+    private final int statementCacheSize;
+    private final StatementCache.Listener statementCacheListener;
 
-    public ThreadLocalConnector(@NotNull ConnectionPool pool, long timeoutToExpireMillis) {
+    public ThreadLocalConnector(@NotNull ConnectionPool pool,
+                                long timeoutToExpireMillis,
+                                int statementCacheSize,
+                                @Nullable StatementCache.Listener statementCacheListener) {
         this.pool = pool;
         this.engine = pool.engine();
         this.timeoutToExpireMillis = timeoutToExpireMillis;
+        this.statementCacheSize = statementCacheSize;
+        this.statementCacheListener = statementCacheListener;
+    }
+
+    public ThreadLocalConnector(@NotNull ConnectionPool pool, long timeoutToExpireMillis) {
+        this(pool, timeoutToExpireMillis, 0, null);
     }
 
     @Override
@@ -63,6 +78,16 @@ public final class ThreadLocalConnector implements Connector {
         }
     }
 
+    // Threads which aren't reused after the task (e.g. virtual threads) must give the connection back right away,
+    // otherwise it's only released when the thread-local is garbage collected.
+    public static void cleanupAfterTask(boolean isThreadReused) {
+        if (isThreadReused) {
+            cleanupIfNecessary();
+        } else {
+            forceCleanUp();
+        }
+    }
+
     public static void forceCleanUp() {
         ConnectionData data = local.get();
         if (data != null) {
@@ -73,7 +98,10 @@ public final class ThreadLocalConnector implements Connector {
 
     private @NotNull ConnectionData connectNow() {
         Connection connection = pool.getConnection();
-        QueryRunner runner = new QueryRunner(connection);
+        StatementCache cache = statementCacheSize > 0 ?
+            new StatementCache(connection, statementCacheSize, statementCacheListener) :
+            null;
+        QueryRunner runner = new QueryRunner(connection, cache);
         return new ConnectionData(connection, runner, now() + timeoutToExpireMillis);
     }
 
@@ -83,6 +111,10 @@ public final class ThreadLocalConnector implements Connector {
 
     private record ConnectionData(@NotNull Connection connection, @NotNull QueryRunner runner, long expireEpochMillis) {
         public void close() {
+            StatementCache cache = runner.statementCache();
+            if (cache != null) {
+                cache.close();
+            }
             try {
                 if (!connection.isClosed()) {
                     connection.close();
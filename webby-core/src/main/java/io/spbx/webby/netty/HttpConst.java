@@ -10,10 +10,17 @@ public class HttpConst {
     public static final AsciiString IF_MODIFIED_SINCE = HttpHeaderNames.IF_MODIFIED_SINCE;
     public static final AsciiString IF_NONE_MATCH = HttpHeaderNames.IF_NONE_MATCH;
     public static final AsciiString LAST_MODIFIED = HttpHeaderNames.LAST_MODIFIED;
+    public static final AsciiString VARY = HttpHeaderNames.VARY;
+    public static final AsciiString ACCEPT_ENCODING = HttpHeaderNames.ACCEPT_ENCODING;
+    public static final AsciiString ACCEPT_RANGES = HttpHeaderNames.ACCEPT_RANGES;
+    public static final AsciiString RANGE = HttpHeaderNames.RANGE;
+    public static final AsciiString IF_RANGE = HttpHeaderNames.IF_RANGE;
 
     public static final AsciiString CONTENT_DISPOSITION = HttpHeaderNames.CONTENT_DISPOSITION;
     public static final AsciiString CONTENT_SECURITY_POLICY = HttpHeaderNames.CONTENT_SECURITY_POLICY;
+    public static final AsciiString CONTENT_ENCODING = HttpHeaderNames.CONTENT_ENCODING;
     public static final AsciiString CONTENT_LENGTH = HttpHeaderNames.CONTENT_LENGTH;
+    public static final AsciiString CONTENT_RANGE = HttpHeaderNames.CONTENT_RANGE;
     public static final AsciiString CONTENT_TYPE = HttpHeaderNames.CONTENT_TYPE;
     public static final AsciiString LOCATION = HttpHeaderNames.LOCATION;
     public static final AsciiString SERVER_TIMING = AsciiString.of("Server-Timing");
@@ -2,6 +2,8 @@ package io.spbx.webby.netty.dispatch;
 
 import com.google.inject.AbstractModule;
 import com.google.inject.assistedinject.FactoryModuleBuilder;
+import io.spbx.webby.netty.dispatch.http.HttpContentStreaming;
+import io.spbx.webby.netty.dispatch.http.HttpHandlerExecutors;
 import io.spbx.webby.netty.dispatch.http.NettyHttpHandler;
 import io.spbx.webby.netty.dispatch.ws.NettyWebsocketHandler;
 
@@ -10,6 +12,8 @@ public class DispatchModule extends AbstractModule {
     protected void configure() {
         bind(NettyConst.class).asEagerSingleton();
         bind(NettyBootstrap.class).asEagerSingleton();
+        bind(HttpHandlerExecutors.class).asEagerSingleton();
+        bind(HttpContentStreaming.class).asEagerSingleton();
         bind(NettyDispatcher.class);   // not a singleton!
         bind(NettyHttpHandler.class);  // not a singleton!
         install(new FactoryModuleBuilder().build(NettyWebsocketHandler.Factory.class));
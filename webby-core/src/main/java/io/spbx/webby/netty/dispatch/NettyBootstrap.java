@@ -4,9 +4,8 @@ import com.google.common.flogger.FluentLogger;
 import com.google.inject.Inject;
 import com.google.inject.Provider;
 import io.netty.bootstrap.ServerBootstrap;
+import io.netty.buffer.ByteBufAllocator;
 import io.netty.channel.*;
-import io.netty.channel.nio.NioEventLoopGroup;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
 import io.netty.handler.codec.http.HttpServerCodec;
 import io.spbx.util.log.EasyLogs;
 import io.spbx.webby.app.AppLifetime;
@@ -15,6 +14,8 @@ import io.spbx.webby.app.Settings;
 import io.spbx.webby.common.Lifetime;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.logging.Level;
 
 public class NettyBootstrap {
@@ -23,6 +24,7 @@ public class NettyBootstrap {
     @Inject private Settings settings;
     @Inject private AppMaintenance maintenance;
     @Inject private Provider<NettyDispatcher> nettyDispatcher;
+    @Inject private NettyHttp2Initializer http2Initializer;
     @Inject private NettyConst nc;
 
     private final Lifetime.Definition lifetime;
@@ -35,29 +37,60 @@ public class NettyBootstrap {
     public void runLocally(int port) throws InterruptedException {
         attachShutdownHook();
 
-        EventLoopGroup masterGroup = new NioEventLoopGroup(nc.masterThreads);
+        NettyTransport transport = nc.transport.resolve();
+        log.at(Level.INFO).log("Using netty transport: %s", transport);
+
+        EventLoopGroup masterGroup = transport.newEventLoopGroup(nc.masterThreads);
         lifetime.onTerminate(masterGroup::shutdownGracefully);
 
-        EventLoopGroup workerGroup = new NioEventLoopGroup(nc.workerThreads);
+        EventLoopGroup workerGroup = transport.newEventLoopGroup(nc.workerThreads);
         lifetime.onTerminate(workerGroup::shutdownGracefully);
 
+        ByteBufAllocator allocator = nc.allocator();
+
         try {
             ServerBootstrap bootstrap = new ServerBootstrap();
             bootstrap.group(masterGroup, workerGroup)
-                .channel(NioServerSocketChannel.class)
+                .channel(transport.serverChannelClass())
                 .childHandler(new ChannelInitializer<>() {
                     @Override
                     protected void initChannel(@NotNull Channel channel) {
                         ChannelPipeline pipeline = channel.pipeline();
-                        pipeline.addLast(new HttpServerCodec(nc.maxInitLineLength, nc.maxHeaderLength, nc.maxChunkLength));
+                        if (nc.http2) {
+                            http2Initializer.initCleartext(pipeline);
+                        } else {
+                            pipeline.addLast(new HttpServerCodec(nc.maxInitLineLength, nc.maxHeaderLength, nc.maxChunkLength));
+                        }
                         pipeline.addLast(nettyDispatcher.get());
                     }
                 })
-                .option(ChannelOption.SO_BACKLOG, 128)
-                .childOption(ChannelOption.SO_KEEPALIVE, true);
-            ChannelFuture httpChannel = bootstrap.bind(port).sync();
-            log.at(Level.INFO).log("Server running at %s://%s:%d/", "http", "localhost", port);
-            httpChannel.channel().closeFuture().sync();
+                .option(ChannelOption.SO_BACKLOG, nc.soBacklog)
+                .option(ChannelOption.ALLOCATOR, allocator)
+                .childOption(ChannelOption.SO_KEEPALIVE, nc.soKeepAlive)
+                .childOption(ChannelOption.TCP_NODELAY, nc.tcpNoDelay)
+                .childOption(ChannelOption.WRITE_BUFFER_WATER_MARK, nc.writeBufferWaterMark())
+                .childOption(ChannelOption.ALLOCATOR, allocator);
+
+            // With SO_REUSEPORT the kernel balances the connections between several listening sockets
+            int binds = 1;
+            if (nc.soReusePort) {
+                ChannelOption<Boolean> reusePort = transport.reusePortOption();
+                if (reusePort != null) {
+                    bootstrap.option(reusePort, true);
+                    binds = Math.max(nc.acceptorBinds, 1);
+                } else {
+                    log.at(Level.WARNING).log("SO_REUSEPORT is not supported by netty transport: %s", transport);
+                }
+            }
+
+            List<Channel> httpChannels = new ArrayList<>(binds);
+            for (int i = 0; i < binds; i++) {
+                httpChannels.add(bootstrap.bind(port).sync().channel());
+            }
+            log.at(Level.INFO).log("Server running at %s://%s:%d/ (binds: %d, h2c: %s)", "http", "localhost", port, binds, nc.http2);
+            for (Channel httpChannel : httpChannels) {
+                httpChannel.closeFuture().sync();
+            }
         } finally {
             lifetime.terminateIfAlive();    // normally a shutdown hook is called, so it shouldn't do anything
         }
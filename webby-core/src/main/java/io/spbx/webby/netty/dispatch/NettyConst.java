@@ -1,6 +1,10 @@
 package io.spbx.webby.netty.dispatch;
 
 import com.google.inject.Inject;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.PooledByteBufAllocator;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import io.netty.channel.WriteBufferWaterMark;
 import io.netty.handler.codec.http.HttpObjectDecoder;
 import io.spbx.util.props.PropertyMap;
 import org.jetbrains.annotations.NotNull;
@@ -13,6 +17,19 @@ class NettyConst {
     public final int maxChunkLength;
     public final int maxContentLength;
 
+    public final NettyTransport transport;
+    public final int soBacklog;
+    public final boolean soKeepAlive;
+    public final boolean soReusePort;
+    public final int acceptorBinds;
+    public final boolean tcpNoDelay;
+    public final int writeBufferLowWaterMark;
+    public final int writeBufferHighWaterMark;
+    public final boolean allocatorPooled;
+    public final boolean allocatorPreferDirect;
+    public final boolean http2;
+    public final long http2MaxConcurrentStreams;
+
     @Inject
     public NettyConst(@NotNull PropertyMap properties) {
         masterThreads = properties.getInt("netty.master.group.threads", 0);
@@ -21,5 +38,30 @@ class NettyConst {
         maxHeaderLength = properties.getInt("netty.max.header.length", HttpObjectDecoder.DEFAULT_MAX_HEADER_SIZE);
         maxChunkLength = properties.getInt("netty.max.chunk.length", HttpObjectDecoder.DEFAULT_MAX_CHUNK_SIZE);
         maxContentLength = properties.getInt("netty.content.max.length.bytes", 10 << 20);
+
+        transport = properties.getEnum("netty.transport", NettyTransport.AUTO);
+        soBacklog = properties.getInt("netty.socket.backlog", 1024);
+        soKeepAlive = properties.getBool("netty.socket.keep.alive", true);
+        soReusePort = properties.getBool("netty.socket.reuse.port", false);
+        acceptorBinds = properties.getInt("netty.socket.reuse.port.binds", 1);
+        tcpNoDelay = properties.getBool("netty.tcp.no.delay", true);
+        writeBufferLowWaterMark = properties.getInt("netty.write.buffer.low.water.mark", WriteBufferWaterMark.DEFAULT.low());
+        writeBufferHighWaterMark = properties.getInt("netty.write.buffer.high.water.mark", WriteBufferWaterMark.DEFAULT.high());
+        allocatorPooled = properties.getBool("netty.allocator.pooled", true);
+        allocatorPreferDirect = properties.getBool("netty.allocator.prefer.direct", true);
+        http2 = properties.getBool("netty.http2.enabled", true);
+        http2MaxConcurrentStreams = properties.getLong("netty.http2.max.concurrent.streams", 128);
+    }
+
+    public @NotNull WriteBufferWaterMark writeBufferWaterMark() {
+        return new WriteBufferWaterMark(writeBufferLowWaterMark, writeBufferHighWaterMark);
+    }
+
+    // The pooled allocator is the shared one: a new instance would allocate its own arenas and thread caches
+    // next to the default ones used by netty internally. Its direct preference follows `io.netty.noPreferDirect`.
+    public @NotNull ByteBufAllocator allocator() {
+        return allocatorPooled ?
+            PooledByteBufAllocator.DEFAULT :
+            new UnpooledByteBufAllocator(allocatorPreferDirect);
     }
 }
@@ -11,12 +11,14 @@ import io.netty.handler.codec.http.*;
 import io.netty.handler.codec.http.websocketx.WebSocketFrame;
 import io.netty.handler.codec.http.websocketx.WebSocketServerProtocolHandler;
 import io.netty.handler.codec.http.websocketx.extensions.compression.WebSocketServerCompressionHandler;
+import io.netty.handler.codec.http2.CleartextHttp2ServerUpgradeHandler.PriorKnowledgeUpgradeEvent;
 import io.netty.handler.stream.ChunkedWriteHandler;
 import io.spbx.util.base.Pair;
 import io.spbx.webby.auth.session.SessionManager;
 import io.spbx.webby.auth.session.SessionModel;
 import io.spbx.webby.auth.user.UserModel;
 import io.spbx.webby.auth.user.UserStore;
+import io.spbx.webby.netty.dispatch.http.HttpContentStreaming;
 import io.spbx.webby.netty.dispatch.http.NettyHttpHandler;
 import io.spbx.webby.netty.dispatch.ws.NettyWebsocketHandler;
 import io.spbx.webby.netty.errors.ServeException;
@@ -45,6 +47,7 @@ class NettyDispatcher extends ChannelInboundHandlerAdapter {
     @Inject private NettyConst nc;
     @Inject private WebsocketRouter websocketRouter;
     @Inject private Provider<NettyHttpHandler> httpHandlers;
+    @Inject private HttpContentStreaming contentStreaming;
     @Inject private NettyWebsocketHandler.Factory websocketHandlers;
     @Inject private HttpResponseFactory responses;
     @Inject private SessionManager sessionManager;
@@ -75,7 +78,7 @@ class NettyDispatcher extends ChannelInboundHandlerAdapter {
                 pipeline.addLast(websocketHandlers.create(endpoint, clientInfo));
             } else {
                 log.at(Level.FINER).log("Migrating channel to default HTTP: %s", uri);
-                pipeline.addLast(new HttpObjectAggregator(nc.maxContentLength));
+                pipeline.addLast(contentStreaming.newAggregator(nc.maxContentLength));
                 pipeline.addLast(new ChunkedWriteHandler());
                 pipeline.addLast(httpHandlers.get());
             }
@@ -92,6 +95,16 @@ class NettyDispatcher extends ChannelInboundHandlerAdapter {
         context.fireChannelRead(message);
     }
 
+    @Override
+    public void userEventTriggered(@NotNull ChannelHandlerContext context, @NotNull Object event) {
+        // HTTP/2 streams are dispatched by the multiplex handler to their own child channels
+        if (event instanceof HttpServerUpgradeHandler.UpgradeEvent || event instanceof PriorKnowledgeUpgradeEvent) {
+            log.at(Level.FINER).log("Channel switched to HTTP/2: %s", context.channel());
+            pipeline.remove(this);
+        }
+        context.fireUserEventTriggered(event);
+    }
+
     @Override
     public void exceptionCaught(@NotNull ChannelHandlerContext context, @NotNull Throwable cause) {
         HttpResponse response = null;
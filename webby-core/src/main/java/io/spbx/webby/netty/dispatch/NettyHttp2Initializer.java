@@ -0,0 +1,99 @@
+package io.spbx.webby.netty.dispatch;
+
+import com.google.common.flogger.FluentLogger;
+import com.google.inject.Inject;
+import com.google.inject.Provider;
+import io.netty.channel.ChannelHandler;
+import io.netty.channel.ChannelHandlerAdapter;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.ChannelPipeline;
+import io.netty.handler.codec.http.HttpServerCodec;
+import io.netty.handler.codec.http.HttpServerUpgradeHandler;
+import io.netty.handler.codec.http2.*;
+import io.netty.handler.stream.ChunkedWriteHandler;
+import io.netty.util.AsciiString;
+import io.spbx.webby.netty.dispatch.http.HttpContentStreaming;
+import io.spbx.webby.netty.dispatch.http.NettyHttpHandler;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.jetbrains.annotations.VisibleForTesting;
+
+import java.util.function.Supplier;
+import java.util.logging.Level;
+
+// Serves h2c (cleartext HTTP/2), both via `Upgrade: h2c` and with prior knowledge.
+// Every HTTP/2 stream gets its own child channel with the same aggregating HTTP pipeline as an HTTP/1.1 connection,
+// so the streams of one connection are handled independently and the responses are multiplexed.
+class NettyHttp2Initializer {
+    private static final FluentLogger log = FluentLogger.forEnclosingClass();
+
+    private final NettyConst nc;
+    private final ChannelHandler streamInitializer;
+
+    @Inject
+    public NettyHttp2Initializer(@NotNull NettyConst nc,
+                                 @NotNull HttpContentStreaming contentStreaming,
+                                 @NotNull Provider<NettyHttpHandler> httpHandlers) {
+        this(nc, () -> contentStreaming.newAggregator(nc.maxContentLength), httpHandlers::get);
+    }
+
+    @VisibleForTesting
+    NettyHttp2Initializer(@NotNull NettyConst nc,
+                          @NotNull Supplier<? extends ChannelHandler> aggregators,
+                          @NotNull Supplier<? extends ChannelHandler> streamHandlers) {
+        this.nc = nc;
+        this.streamInitializer = new ChannelInitializer<Http2StreamChannel>() {
+            @Override
+            protected void initChannel(@NotNull Http2StreamChannel channel) {
+                log.at(Level.FINER).log("New HTTP/2 stream: %s", channel.stream());
+                ChannelPipeline pipeline = channel.pipeline();
+                pipeline.addLast(new Http2StreamFrameToHttpObjectCodec(true));
+                pipeline.addLast(aggregators.get());
+                pipeline.addLast(new ChunkedWriteHandler());
+                pipeline.addLast(streamHandlers.get());
+            }
+        };
+    }
+
+    // The HTTP/1.1 handlers are expected to be added after these ones.
+    // They receive everything but the h2c upgrade requests until the connection switches to HTTP/2.
+    public void initCleartext(@NotNull ChannelPipeline pipeline) {
+        HttpServerCodec sourceCodec = new HttpServerCodec(nc.maxInitLineLength, nc.maxHeaderLength, nc.maxChunkLength);
+        HttpServerUpgradeHandler upgradeHandler =
+            new HttpServerUpgradeHandler(sourceCodec, this::newUpgradeCodecOrNull, nc.maxContentLength);
+        pipeline.addLast(new CleartextHttp2ServerUpgradeHandler(sourceCodec, upgradeHandler, newPriorKnowledgeHandler()));
+    }
+
+    private @Nullable HttpServerUpgradeHandler.UpgradeCodec newUpgradeCodecOrNull(@NotNull CharSequence protocol) {
+        if (AsciiString.contentEquals(Http2CodecUtil.HTTP_UPGRADE_PROTOCOL_NAME, protocol)) {
+            log.at(Level.FINER).log("Upgrading channel to HTTP/2");
+            return new Http2ServerUpgradeCodec(newFrameCodec(), newMultiplexHandler());
+        }
+        return null;
+    }
+
+    // `CleartextHttp2ServerUpgradeHandler` accepts a single handler: installs the codec pair in its place
+    private @NotNull ChannelHandler newPriorKnowledgeHandler() {
+        return new ChannelHandlerAdapter() {
+            @Override
+            public void handlerAdded(@NotNull ChannelHandlerContext context) {
+                log.at(Level.FINER).log("Migrating channel to HTTP/2 with prior knowledge");
+                ChannelPipeline pipeline = context.pipeline();
+                Http2FrameCodec frameCodec = newFrameCodec();
+                pipeline.addAfter(context.name(), null, frameCodec);
+                pipeline.addAfter(pipeline.context(frameCodec).name(), null, newMultiplexHandler());
+                pipeline.remove(this);
+            }
+        };
+    }
+
+    private @NotNull Http2FrameCodec newFrameCodec() {
+        Http2Settings settings = Http2Settings.defaultSettings().maxConcurrentStreams(nc.http2MaxConcurrentStreams);
+        return Http2FrameCodecBuilder.forServer().initialSettings(settings).build();
+    }
+
+    private @NotNull Http2MultiplexHandler newMultiplexHandler() {
+        return new Http2MultiplexHandler(streamInitializer);
+    }
+}
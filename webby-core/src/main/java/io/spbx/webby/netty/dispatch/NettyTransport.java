@@ -0,0 +1,98 @@
+package io.spbx.webby.netty.dispatch;
+
+import com.google.common.flogger.FluentLogger;
+import io.netty.channel.ChannelOption;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.ServerChannel;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollChannelOption;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.incubator.channel.uring.IOUring;
+import io.netty.incubator.channel.uring.IOUringChannelOption;
+import io.netty.incubator.channel.uring.IOUringEventLoopGroup;
+import io.netty.incubator.channel.uring.IOUringServerSocketChannel;
+import io.spbx.util.classpath.EasyClasspath;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.logging.Level;
+
+enum NettyTransport {
+    AUTO,
+    IO_URING,
+    EPOLL,
+    NIO;
+
+    private static final FluentLogger log = FluentLogger.forEnclosingClass();
+
+    // io_uring is an incubator module: it's not a part of `netty-all` and must be added to the runtime classpath
+    private static final String IO_URING_CLASS = "io.netty.incubator.channel.uring.IOUring";
+
+    public @NotNull NettyTransport resolve() {
+        return switch (this) {
+            case AUTO -> isIoUringAvailable() ? IO_URING : isEpollAvailable() ? EPOLL : NIO;
+            case IO_URING -> isIoUringAvailable() ? IO_URING : fallback(isEpollAvailable() ? EPOLL : NIO);
+            case EPOLL -> isEpollAvailable() ? EPOLL : fallback(NIO);
+            case NIO -> NIO;
+        };
+    }
+
+    public @NotNull EventLoopGroup newEventLoopGroup(int threads) {
+        return switch (resolve()) {
+            case IO_URING -> IoUringSupport.newEventLoopGroup(threads);
+            case EPOLL -> new EpollEventLoopGroup(threads);
+            default -> new NioEventLoopGroup(threads);
+        };
+    }
+
+    public @NotNull Class<? extends ServerChannel> serverChannelClass() {
+        return switch (resolve()) {
+            case IO_URING -> IoUringSupport.serverChannelClass();
+            case EPOLL -> EpollServerSocketChannel.class;
+            default -> NioServerSocketChannel.class;
+        };
+    }
+
+    public @Nullable ChannelOption<Boolean> reusePortOption() {
+        return switch (resolve()) {
+            case IO_URING -> IoUringSupport.reusePortOption();
+            case EPOLL -> EpollChannelOption.SO_REUSEPORT;
+            default -> null;
+        };
+    }
+
+    private @NotNull NettyTransport fallback(@NotNull NettyTransport transport) {
+        log.at(Level.WARNING).log("Netty transport %s is not available, falling back to %s", this, transport);
+        return transport;
+    }
+
+    private static boolean isIoUringAvailable() {
+        return EasyClasspath.isInClassPath(IO_URING_CLASS) && IoUringSupport.isAvailable();
+    }
+
+    private static boolean isEpollAvailable() {
+        return Epoll.isAvailable();
+    }
+
+    // Isolates the references to optional classes: loaded only after the classpath check
+    private static class IoUringSupport {
+        static boolean isAvailable() {
+            return IOUring.isAvailable();
+        }
+
+        static @NotNull EventLoopGroup newEventLoopGroup(int threads) {
+            return new IOUringEventLoopGroup(threads);
+        }
+
+        static @NotNull Class<? extends ServerChannel> serverChannelClass() {
+            return IOUringServerSocketChannel.class;
+        }
+
+        static @NotNull ChannelOption<Boolean> reusePortOption() {
+            return IOUringChannelOption.SO_REUSEPORT;
+        }
+    }
+}
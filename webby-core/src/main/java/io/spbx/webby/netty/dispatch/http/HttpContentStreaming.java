@@ -0,0 +1,64 @@
+package io.spbx.webby.netty.dispatch.http;
+
+import com.google.inject.Inject;
+import io.netty.handler.codec.http.*;
+import io.spbx.webby.app.Settings;
+import io.spbx.webby.routekit.MatchBuffer;
+import io.spbx.webby.routekit.Router;
+import io.spbx.webby.url.impl.Endpoint;
+import io.spbx.webby.url.impl.RouteEndpoint;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.VisibleForTesting;
+
+// Decides which requests bypass the content aggregation: the ones with the content targeting
+// a `@StreamContent` endpoint. Their `HttpContent` chunks are passed to `NettyHttpHandler` as is.
+public class HttpContentStreaming {
+    private final Router<RouteEndpoint> router;
+    private final boolean ignoreTrailingSlash;
+
+    @Inject
+    public HttpContentStreaming(@NotNull Router<RouteEndpoint> router, @NotNull Settings settings) {
+        this.router = router;
+        this.ignoreTrailingSlash = settings.getBoolOrFalse("netty.url.trailing.slash.ignore");
+    }
+
+    public @NotNull HttpObjectAggregator newAggregator(int maxContentLength) {
+        return new StreamingAwareAggregator(maxContentLength);
+    }
+
+    @VisibleForTesting
+    boolean isStreamingRequest(@NotNull HttpRequest request, @NotNull MatchBuffer buffer) {
+        if (!HttpUtil.isTransferEncodingChunked(request) && HttpUtil.getContentLength(request, 0L) == 0) {
+            return false;  // no content: nothing to stream
+        }
+        RouteEndpoint route = router.routeOrNull(NettyHttpStepNavigator.extractPath(request.uri(), ignoreTrailingSlash), buffer);
+        if (route == null) {
+            return false;
+        }
+        Endpoint endpoint = route.getAcceptedEndpointOrNull(request);
+        return endpoint != null && endpoint.options().streamsContent();
+    }
+
+    private class StreamingAwareAggregator extends HttpObjectAggregator {
+        private final MatchBuffer matchBuffer = new MatchBuffer();  // confined to the channel
+        private boolean streaming = false;
+
+        public StreamingAwareAggregator(int maxContentLength) {
+            super(maxContentLength);
+        }
+
+        @Override
+        public boolean acceptInboundMessage(@NotNull Object message) throws Exception {
+            if (message instanceof HttpRequest request && !(message instanceof FullHttpRequest)) {
+                streaming = isStreamingRequest(request, matchBuffer);
+            }
+            if (streaming) {
+                if (message instanceof LastHttpContent) {
+                    streaming = false;
+                }
+                return false;
+            }
+            return super.acceptInboundMessage(message);
+        }
+    }
+}
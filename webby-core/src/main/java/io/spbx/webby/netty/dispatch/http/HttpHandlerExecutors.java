@@ -0,0 +1,48 @@
+package io.spbx.webby.netty.dispatch.http;
+
+import com.google.common.flogger.FluentLogger;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.inject.Inject;
+import io.spbx.webby.app.Settings;
+import io.spbx.webby.common.Lifetime;
+import io.spbx.webby.url.annotate.Execution;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.concurrent.*;
+import java.util.logging.Level;
+
+public class HttpHandlerExecutors {
+    private static final FluentLogger log = FluentLogger.forEnclosingClass();
+
+    private final ExecutorService virtualThreads;
+    private final ExecutorService workerPool;
+
+    @Inject
+    public HttpHandlerExecutors(@NotNull Settings settings, @NotNull Lifetime lifetime) {
+        int poolSize = settings.getInt(Settings.HTTP_EXECUTION_POOL_SIZE);
+        int threads = poolSize > 0 ? poolSize : 2 * Runtime.getRuntime().availableProcessors();
+        int queueSize = settings.getInt(Settings.HTTP_EXECUTION_QUEUE_SIZE);
+
+        virtualThreads = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("webby-handler-vt-", 0).factory());
+        lifetime.onTerminate(virtualThreads::shutdown);
+
+        // Threads are started on demand, so the pool costs nothing unless some endpoint uses it
+        workerPool = new ThreadPoolExecutor(
+            threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(queueSize),
+            new ThreadFactoryBuilder().setNameFormat("webby-handler-%d").setDaemon(true).build()
+        );
+        lifetime.onTerminate(workerPool::shutdown);
+
+        log.at(Level.FINE).log("Handler worker pool: threads=%d queue=%d", threads, queueSize);
+    }
+
+    public @Nullable Executor getExecutorOrNull(@NotNull Execution execution) {
+        return switch (execution) {
+            case EVENT_LOOP -> null;
+            case VIRTUAL_THREAD -> virtualThreads;
+            case WORKER_POOL -> workerPool;
+        };
+    }
+}
@@ -1,23 +1,33 @@
 package io.spbx.webby.netty.dispatch.http;
 
-import com.google.common.base.Stopwatch;
 import com.google.common.flogger.FluentLogger;
 import com.google.inject.Inject;
+import io.netty.channel.Channel;
 import io.netty.channel.ChannelFutureListener;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.channel.ChannelInboundHandlerAdapter;
-import io.netty.handler.codec.http.FullHttpRequest;
-import io.netty.handler.codec.http.HttpResponse;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.netty.handler.codec.http.*;
+import io.netty.handler.ssl.SslHandler;
 import io.netty.util.ReferenceCountUtil;
-import io.spbx.webby.db.sql.ThreadLocalConnector;
-import io.spbx.webby.netty.HttpConst;
+import io.spbx.webby.app.Settings;
+import io.spbx.webby.netty.request.HttpContentStream;
+import io.spbx.webby.netty.request.StreamingHttpRequest;
 import io.spbx.webby.netty.response.AsyncResponse;
 import io.spbx.webby.netty.response.EmptyHttpResponse;
+import io.spbx.webby.netty.response.FileHttpResponse;
 import io.spbx.webby.netty.response.HttpResponseFactory;
 import io.spbx.webby.netty.response.StreamingHttpResponse;
+import io.spbx.webby.perf.access.AccessLog;
 import org.jetbrains.annotations.NotNull;
 
-import java.util.concurrent.TimeUnit;
+import java.io.IOException;
+import java.nio.channels.ClosedChannelException;
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.Queue;
+import java.util.function.Consumer;
 import java.util.logging.Level;
 
 public class NettyHttpHandler extends ChannelInboundHandlerAdapter {
@@ -25,14 +35,30 @@ public class NettyHttpHandler extends ChannelInboundHandlerAdapter {
 
     @Inject private HttpResponseFactory responses;
     @Inject private NettyHttpStack stack;
+    @Inject private AccessLog accessLog;
+    @Inject private Settings settings;
+
+    private final Consumer<HttpResponse> writer = this::completeResponse;
+
+    // HTTP/1.1 pipelining: the requests received while the previous one is in flight (e.g. offloaded) wait here,
+    // because the responses must be sent in the order of the requests.
+    private final Queue<FullHttpRequest> pipelined = new ArrayDeque<>();
+    private boolean inFlight = false;
+    private boolean draining = false;
+
+    // The streaming request which content is being received (not necessarily the one in flight)
+    private HttpContentStream receivingStream = null;
+    private HttpContentStream inFlightStream = null;
 
     private ChannelHandlerContext context;
+    private boolean zeroCopy;
 
     @Override
     public void handlerAdded(@NotNull ChannelHandlerContext context) {
         // See https://stackoverflow.com/questions/46508433/concurrency-in-netty
         assert this.context == null : "%s is not sharable: can't be added to multiple contexts".formatted(this);
         this.context = context;
+        this.zeroCopy = isZeroCopySupported(context.channel());
         stack.bindContext(this.context);
     }
 
@@ -44,6 +70,14 @@ public class NettyHttpHandler extends ChannelInboundHandlerAdapter {
     @Override
     public void channelInactive(@NotNull ChannelHandlerContext context) {
         log.at(Level.FINER).log("Request Channel is inactive: %s", context);
+        FullHttpRequest request;
+        while ((request = pipelined.poll()) != null) {
+            ReferenceCountUtil.release(request);
+        }
+        if (receivingStream != null) {
+            receivingStream.fail(new ClosedChannelException());
+            receivingStream = null;
+        }
     }
 
     @Override
@@ -51,31 +85,92 @@ public class NettyHttpHandler extends ChannelInboundHandlerAdapter {
         assert this.context == context : "Context mismatch: %s != %s".formatted(this.context, context);
 
         if (message instanceof FullHttpRequest request) {
-            try {
-                Stopwatch stopwatch = Stopwatch.createStarted();
-                HttpResponse response = processIncoming(request);
-                long millis = stopwatch.stop().elapsed(TimeUnit.MILLISECONDS);
-                log.at(Level.INFO).log("%s %s: %s (%s b | %d ms)",
-                                       request.method(), request.uri(), response.status(),
-                                       response.headers().get(HttpConst.CONTENT_LENGTH), millis);
-            } finally {
-                ReferenceCountUtil.release(request);
-                cleanupWorkingThread();
+            if (inFlight) {
+                log.at(Level.FINER).log("Pipelined request is waiting: %s", request.uri());
+                pipelined.add(request);
+            } else {
+                handleRequest(request);
             }
+        } else if (message instanceof HttpRequest request) {
+            // Not aggregated: the content chunks follow
+            if (HttpUtil.is100ContinueExpected(request)) {
+                context.writeAndFlush(new DefaultFullHttpResponse(request.protocolVersion(), HttpResponseStatus.CONTINUE));
+            }
+            int bufferSize = settings.getInt(Settings.HTTP_CONTENT_STREAM_BUFFER_SIZE);
+            receivingStream = new HttpContentStream(context.channel(), bufferSize / 2, bufferSize);
+            channelRead(context, new StreamingHttpRequest(request, receivingStream));
+        } else if (message instanceof HttpContent content && receivingStream != null) {
+            HttpContentStream stream = receivingStream;
+            if (content instanceof LastHttpContent) {
+                receivingStream = null;
+            }
+            stream.offer(content);
         } else {
             context.fireChannelRead(message);
         }
     }
 
-    protected @NotNull HttpResponse processIncoming(@NotNull FullHttpRequest request) {
-        HttpResponse response;
+    private void handleRequest(@NotNull FullHttpRequest request) {
+        inFlight = true;
+        inFlightStream = request instanceof StreamingHttpRequest streaming ? streaming.contentStream() : null;
         try {
-            response = stack.processIncoming(request);
+            processIncoming(request, accessLog.shouldSample() ? accessLogged(request) : writer);
+        } finally {
+            ReferenceCountUtil.release(request);
+        }
+    }
+
+    protected void processIncoming(@NotNull FullHttpRequest request, @NotNull Consumer<HttpResponse> sink) {
+        try {
+            stack.processIncoming(request, sink);
         } catch (Throwable throwable) {
-            response = responses.newResponse500("Unexpected failure", throwable);
+            HttpResponse response = responses.newResponse500("Unexpected failure", throwable);
             log.at(Level.SEVERE).withCause(throwable).log("Unexpected failure: %s", throwable.getMessage());
+            sink.accept(response);
+        }
+    }
+
+    // Captured before the request is released: the response may arrive later from another thread
+    private @NotNull Consumer<HttpResponse> accessLogged(@NotNull FullHttpRequest request) {
+        long startNanos = System.nanoTime();
+        HttpMethod method = request.method();
+        String uri = request.uri();
+        return response -> {
+            accessLog.append(method, uri, context.channel().remoteAddress(),
+                             response.status().code(), contentLength(response), startNanos);
+            completeResponse(response);
+        };
+    }
+
+    private void completeResponse(@NotNull HttpResponse response) {
+        try {
+            writeResponse(response);
+        } finally {
+            inFlight = false;
+            if (inFlightStream != null) {
+                inFlightStream.close();  // the handler may not read all the content
+                inFlightStream = null;
+            }
+        }
+        if (!draining) {
+            drainPipelined();
         }
+    }
 
+    // Iterative: the requests completed synchronously don't recurse back here
+    private void drainPipelined() {
+        draining = true;
+        try {
+            FullHttpRequest request;
+            while (!inFlight && (request = pipelined.poll()) != null) {
+                handleRequest(request);
+            }
+        } finally {
+            draining = false;
+        }
+    }
+
+    private void writeResponse(@NotNull HttpResponse response) {
         if (response instanceof AsyncResponse) {
             if (response instanceof StreamingHttpResponse streaming) {
                 // TODO: streaming must be closed
@@ -84,14 +179,41 @@ public class NettyHttpHandler extends ChannelInboundHandlerAdapter {
                 // Something's wrong with the executor.
                 context.write(streaming);
                 context.writeAndFlush(streaming.chunkedContent());
+            } else if (response instanceof FileHttpResponse file) {
+                writeFile(file);
             } else if (response instanceof EmptyHttpResponse) {
                 log.at(Level.FINE).log("Response to be handled async");
             }
         } else {
             context.writeAndFlush(response);
         }
+    }
 
-        return response;
+    private void writeFile(@NotNull FileHttpResponse response) {
+        List<Object> content;
+        try {
+            content = zeroCopy ? response.regionContent() : List.of(response.chunkedContent());
+        } catch (IOException e) {
+            log.at(Level.WARNING).withCause(e).log("Failed to open the file: %s", response.path());
+            context.writeAndFlush(responses.newResponse500("Failed to open the file", e));
+            return;
+        }
+        context.write(response);
+        content.forEach(context::write);
+        context.flush();
+    }
+
+    // `FileRegion` bypasses the user space, so it's incompatible with TLS and the HTTP/2 framing (stream channels).
+    // The io_uring transport doesn't accept it either.
+    private static boolean isZeroCopySupported(@NotNull Channel channel) {
+        return (channel instanceof NioSocketChannel || channel instanceof EpollSocketChannel) &&
+               channel.pipeline().get(SslHandler.class) == null;
+    }
+
+    private static long contentLength(@NotNull HttpResponse response) {
+        return response instanceof FullHttpResponse full ?
+            full.content().readableBytes() :
+            HttpUtil.getContentLength(response, -1L);
     }
 
     @Override
@@ -101,8 +223,4 @@ public class NettyHttpHandler extends ChannelInboundHandlerAdapter {
             .addListener(ChannelFutureListener.CLOSE);
         log.at(Level.SEVERE).withCause(cause).log("Unexpected failure: %s", cause.getMessage());
     }
-
-    private static void cleanupWorkingThread() {
-        ThreadLocalConnector.cleanupIfNecessary();
-    }
 }
@@ -4,28 +4,48 @@ import com.google.inject.Inject;
 import io.netty.channel.ChannelHandlerContext;
 import io.netty.handler.codec.http.FullHttpRequest;
 import io.netty.handler.codec.http.HttpResponse;
+import io.spbx.webby.perf.metrics.MetricsRegistry;
 import org.jetbrains.annotations.NotNull;
 
+import java.util.function.Consumer;
+
 class NettyHttpStack implements ChannelContextBound {
     @Inject private NettyHttpStepNavigator navigator;
+    @Inject private NettyHttpStepExecutor executor;
     @Inject private NettyHttpStepCaller caller;
     @Inject private NettyHttpStepConverter converter;
+    @Inject private MetricsRegistry metrics;
 
     @Override
     public void bindContext(@NotNull ChannelHandlerContext context) {
         navigator.bindContext(context);
+        executor.bindContext(context);
         caller.bindContext(context);
         converter.bindContext(context);
     }
 
-    public @NotNull HttpResponse processIncoming(@NotNull FullHttpRequest incomingRequest) {
+    public void processIncoming(@NotNull FullHttpRequest incomingRequest, @NotNull Consumer<HttpResponse> sink) {
         // Step 1: navigate to endpoint
-        return navigator.navigateToEndpoint(incomingRequest, (request, match, endpoint) -> {
-            // Step 2: call endpoint
-            return caller.callEndpoint(request, match, endpoint, (callResult, options) -> {
-                // Step 3: convert to response
-                return converter.convertToResponse(callResult, options);
+        HttpResponse response = navigator.navigateToEndpoint(incomingRequest, (request, match, endpoint) -> {
+            // Step 2: switch to the endpoint executor (may complete later, from another thread)
+            return executor.executeEndpoint(request, endpoint, sink, () -> {
+                long startNanos = System.nanoTime();
+                // Step 3: intercept
+                HttpResponse endpointResponse = navigator.interceptEndpoint(request, endpoint, requestEx -> {
+                    // Step 4: call endpoint
+                    return caller.callEndpoint(requestEx, match, endpoint, (callResult, options) -> {
+                        // Step 5: convert to response
+                        return converter.convertToResponse(callResult, options);
+                    });
+                });
+                if (metrics.isEnabled()) {
+                    metrics.recordEndpoint(match.handler(), endpointResponse.status().code(), System.nanoTime() - startNanos);
+                }
+                return endpointResponse;
             });
         });
+        if (response != NettyHttpStepExecutor.OFFLOADED) {
+            sink.accept(response);
+        }
     }
 }
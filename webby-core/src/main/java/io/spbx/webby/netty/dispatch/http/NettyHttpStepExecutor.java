@@ -0,0 +1,91 @@
+package io.spbx.webby.netty.dispatch.http;
+
+import com.google.common.flogger.FluentLogger;
+import com.google.inject.Inject;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.HttpResponse;
+import io.netty.util.ReferenceCountUtil;
+import io.spbx.webby.db.sql.ThreadLocalConnector;
+import io.spbx.webby.netty.response.EmptyHttpResponse;
+import io.spbx.webby.netty.response.HttpResponseFactory;
+import io.spbx.webby.url.annotate.Execution;
+import io.spbx.webby.url.impl.Endpoint;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+
+class NettyHttpStepExecutor implements ChannelContextBound {
+    private static final FluentLogger log = FluentLogger.forEnclosingClass();
+
+    // Returned when the response is delivered to the sink later, from the channel event loop
+    static final HttpResponse OFFLOADED = new EmptyHttpResponse();
+
+    @Inject private HttpHandlerExecutors executors;
+    @Inject private HttpResponseFactory responses;
+
+    private ChannelHandlerContext context;
+
+    @Override
+    public void bindContext(@NotNull ChannelHandlerContext context) {
+        assert this.context == null : "%s is not sharable: can't be added to multiple contexts".formatted(this);
+        this.context = context;
+    }
+
+    @NotNull HttpResponse executeEndpoint(@NotNull FullHttpRequest request,
+                                          @NotNull Endpoint endpoint,
+                                          @NotNull Consumer<HttpResponse> sink,
+                                          @NotNull Supplier<HttpResponse> next) {
+        Execution execution = endpoint.options().execution();
+        Executor executor = executors.getExecutorOrNull(execution);
+        if (executor == null) {
+            try {
+                return next.get();
+            } finally {
+                cleanupWorkingThread(execution);
+            }
+        }
+
+        // The request must outlive the `channelRead()` call.
+        // Stop reading from the channel till the response is written: HTTP/1.1 responses must be sent in order.
+        request.retain();
+        context.channel().config().setAutoRead(false);
+        try {
+            executor.execute(() -> {
+                HttpResponse response;
+                try {
+                    response = next.get();
+                } catch (Throwable throwable) {
+                    response = responses.newResponse500("Unexpected failure", throwable);
+                    log.at(Level.SEVERE).withCause(throwable).log("Unexpected failure: %s", throwable.getMessage());
+                } finally {
+                    ReferenceCountUtil.release(request);
+                    cleanupWorkingThread(execution);
+                }
+                writeOnEventLoop(response, sink);
+            });
+            return OFFLOADED;
+        } catch (RejectedExecutionException e) {
+            ReferenceCountUtil.release(request);
+            context.channel().config().setAutoRead(true);
+            log.at(Level.WARNING).log("Executor %s rejected the request: %s", execution, request.uri());
+            return responses.newResponse503("Executor %s is overloaded".formatted(execution), e);
+        }
+    }
+
+    private void writeOnEventLoop(@NotNull HttpResponse response, @NotNull Consumer<HttpResponse> sink) {
+        context.executor().execute(() -> {
+            // Resumed before the sink, because the sink may proceed with the next pipelined request and offload it again
+            context.channel().config().setAutoRead(true);
+            sink.accept(response);
+        });
+    }
+
+    private static void cleanupWorkingThread(@NotNull Execution execution) {
+        ThreadLocalConnector.cleanupAfterTask(!execution.isThreadPerTask());
+    }
+}
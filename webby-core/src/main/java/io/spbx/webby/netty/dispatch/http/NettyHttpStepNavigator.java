@@ -15,12 +15,14 @@ import io.spbx.webby.netty.request.DefaultHttpRequestEx;
 import io.spbx.webby.netty.request.HttpRequestFactory;
 import io.spbx.webby.netty.response.HttpResponseFactory;
 import io.spbx.webby.routekit.Match;
+import io.spbx.webby.routekit.MatchBuffer;
 import io.spbx.webby.routekit.Router;
 import io.spbx.webby.url.impl.Endpoint;
 import io.spbx.webby.url.impl.RouteEndpoint;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.VisibleForTesting;
 
+import java.util.function.Function;
 import java.util.logging.Level;
 
 class NettyHttpStepNavigator implements ChannelContextBound {
@@ -33,6 +35,7 @@ class NettyHttpStepNavigator implements ChannelContextBound {
     @Inject private Router<RouteEndpoint> router;
 
     private ChannelHandlerContext context;
+    private final MatchBuffer matchBuffer = new MatchBuffer();  // confined to the channel
 
     @Override
     public void bindContext(@NotNull ChannelHandlerContext context) {
@@ -50,31 +53,41 @@ class NettyHttpStepNavigator implements ChannelContextBound {
         }
 
         CharArray path = extractPath(request.uri());
-        Match<RouteEndpoint> match = router.routeOrNull(path);
-        if (match == null) {
+        RouteEndpoint route = router.routeOrNull(path, matchBuffer);
+        if (route == null) {
             log.at(Level.FINE).log("No associated endpoint for url: %s", path);
             return responses.newResponse404();
         }
 
-        Endpoint endpoint = match.handler().getAcceptedEndpointOrNull(request);
+        Endpoint endpoint = route.getAcceptedEndpointOrNull(request);
         if (endpoint == null) {
             log.at(Level.INFO).log("Endpoint does not accept the request %s for url: %s", request.method(), path);
             return responses.newResponse404();
         }
 
+        return next.apply(request, matchBuffer.toMatch(route), endpoint);
+    }
+
+    @NotNull HttpResponse interceptEndpoint(@NotNull FullHttpRequest request,
+                                            @NotNull Endpoint endpoint,
+                                            @NotNull Function<FullHttpRequest, HttpResponse> next) {
         if (endpoint.context().bypassInterceptors()) {
-            return next.apply(request, match, endpoint);
+            return next.apply(request);
         } else {
             DefaultHttpRequestEx requestEx = requests.createRequest(request, context.channel(), endpoint.context());
-            return interceptors.process(requestEx, endpoint, () -> next.apply(requestEx, match, endpoint));
+            return interceptors.process(requestEx, endpoint, () -> next.apply(requestEx));
         }
     }
 
     @VisibleForTesting
     @NotNull CharArray extractPath(@NotNull String uri) {
+        return extractPath(uri, settings.getBoolOrFalse("netty.url.trailing.slash.ignore"));
+    }
+
+    static @NotNull CharArray extractPath(@NotNull String uri, boolean ignoreTrailingSlash) {
         MutableCharArray path = new MutableCharArray(uri);
         path.offsetEnd(path.length() - path.indexOfAny('?', '#', 0, path.length()));
-        if (settings.getBoolOrFalse("netty.url.trailing.slash.ignore") && path.length() > 1) {
+        if (ignoreTrailingSlash && path.length() > 1) {
             path.offsetSuffix('/');
         }
         return path;
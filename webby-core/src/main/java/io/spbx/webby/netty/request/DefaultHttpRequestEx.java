@@ -30,6 +30,7 @@ public class DefaultHttpRequestEx extends DefaultFullHttpRequest implements Muta
     private final Json json;
     private final Map<String, Constraint<?>> constraints;
     private final Object[] attributes;
+    private final HttpContentStream contentStream;
 
     public DefaultHttpRequestEx(@NotNull FullHttpRequest request,
                                 @NotNull Channel channel,
@@ -42,6 +43,7 @@ public class DefaultHttpRequestEx extends DefaultFullHttpRequest implements Muta
         this.json = json;
         this.constraints = constraints;
         this.attributes = attributes;
+        this.contentStream = HttpContentStream.ofRequestOrNull(request);
     }
 
     @Override
@@ -105,6 +107,10 @@ public class DefaultHttpRequestEx extends DefaultFullHttpRequest implements Muta
         }
     }
 
+    public @Nullable HttpContentStream contentStreamOrNull() {
+        return contentStream;
+    }
+
     public @NotNull DefaultHttpRequestEx withHeaders(@NotNull Map<CharSequence, Object> headers) {
         HttpHeaders requestHeaders = headers();
         headers.forEach(requestHeaders::add);
@@ -0,0 +1,214 @@
+package io.spbx.webby.netty.request;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.HttpContent;
+import io.netty.handler.codec.http.LastHttpContent;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// The request content delivered chunk by chunk from the channel event loop to a (blocking) reader thread.
+// The channel stops reading once the `highWaterMark` bytes are buffered, and resumes when the reader
+// drains the buffer down to the `lowWaterMark` or is waiting for more content.
+// The stream over the already aggregated content has no channel: it's complete from the start.
+public class HttpContentStream extends InputStream {
+    private final @Nullable Channel channel;
+    private final long lowWaterMark;
+    private final long highWaterMark;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition readable = lock.newCondition();
+    private final Queue<ByteBuf> chunks = new ArrayDeque<>();
+    private long bufferedBytes = 0;
+    private boolean completed = false;
+    private boolean closed = false;
+    private boolean paused = true;  // the channel doesn't read while the request is dispatched to the handler
+    private Throwable failure = null;
+
+    public HttpContentStream(@NotNull Channel channel, long lowWaterMark, long highWaterMark) {
+        assert 0 <= lowWaterMark && lowWaterMark <= highWaterMark : "Invalid water marks: %d..%d".formatted(lowWaterMark, highWaterMark);
+        this.channel = channel;
+        this.lowWaterMark = lowWaterMark;
+        this.highWaterMark = highWaterMark;
+    }
+
+    private HttpContentStream(@NotNull ByteBuf content) {
+        this.channel = null;
+        this.lowWaterMark = 0;
+        this.highWaterMark = 0;
+        if (content.isReadable()) {
+            chunks.add(content);
+            bufferedBytes = content.readableBytes();
+        } else {
+            content.release();
+        }
+        completed = true;
+        paused = false;
+    }
+
+    // Takes the ownership of the `content`, which is released once read or on close
+    public static @NotNull HttpContentStream ofContent(@NotNull ByteBuf content) {
+        return new HttpContentStream(content);
+    }
+
+    public static @Nullable HttpContentStream ofRequestOrNull(@NotNull FullHttpRequest request) {
+        if (request instanceof StreamingHttpRequest streaming) {
+            return streaming.contentStream();
+        }
+        if (request instanceof DefaultHttpRequestEx requestEx) {
+            return requestEx.contentStreamOrNull();
+        }
+        return null;
+    }
+
+    // Event loop side
+
+    public void offer(@NotNull HttpContent content) {
+        ByteBuf buf = content.content();
+        boolean pause = false;
+        lock.lock();
+        try {
+            if (closed || failure != null || !buf.isReadable()) {
+                buf.release();
+            } else {
+                chunks.add(buf);
+                bufferedBytes += buf.readableBytes();
+            }
+            if (content instanceof LastHttpContent) {
+                completed = true;
+            } else if (!closed && !paused && bufferedBytes >= highWaterMark) {
+                paused = pause = true;
+            }
+            readable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        if (pause) {
+            channel.config().setAutoRead(false);
+        }
+    }
+
+    public void fail(@NotNull Throwable cause) {
+        lock.lock();
+        try {
+            if (!completed && failure == null) {
+                failure = cause;
+                readable.signalAll();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public boolean isCompleted() {
+        lock.lock();
+        try {
+            return completed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Reader side
+
+    @Override
+    public int read() throws IOException {
+        byte[] single = new byte[1];
+        int read = read(single, 0, 1);
+        return read < 0 ? -1 : single[0] & 0xff;
+    }
+
+    @Override
+    public int read(byte @NotNull [] bytes, int off, int len) throws IOException {
+        Objects.checkFromIndexSize(off, len, bytes.length);
+        if (len == 0) {
+            return 0;
+        }
+        lock.lock();
+        try {
+            ByteBuf head;
+            while ((head = chunks.peek()) == null) {
+                if (closed) {
+                    throw new IOException("Stream closed");
+                }
+                if (failure != null) {
+                    throw new IOException("Failed to receive request content", failure);
+                }
+                if (completed) {
+                    return -1;
+                }
+                resumeIfPaused();
+                readable.await();
+            }
+
+            int read = Math.min(len, head.readableBytes());
+            head.readBytes(bytes, off, read);
+            bufferedBytes -= read;
+            if (!head.isReadable()) {
+                chunks.poll();
+                head.release();
+            }
+            if (!completed && bufferedBytes <= lowWaterMark) {
+                resumeIfPaused();
+            }
+            return read;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for request content");
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int available() {
+        lock.lock();
+        try {
+            ByteBuf head = chunks.peek();
+            return head != null ? head.readableBytes() : 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // The rest of the content is discarded, but still read from the channel (the connection may be reused)
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            ByteBuf buf;
+            while ((buf = chunks.poll()) != null) {
+                buf.release();
+            }
+            bufferedBytes = 0;
+            if (!completed) {
+                resumeIfPaused();
+            }
+            readable.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void resumeIfPaused() {
+        assert lock.isHeldByCurrentThread() : "The lock must be held";
+        if (paused) {
+            paused = false;
+            channel.eventLoop().execute(() -> channel.config().setAutoRead(true));
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package io.spbx.webby.netty.request;
+
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.DefaultFullHttpRequest;
+import io.netty.handler.codec.http.EmptyHttpHeaders;
+import io.netty.handler.codec.http.HttpRequest;
+import org.jetbrains.annotations.NotNull;
+
+// A request which content isn't aggregated: it is empty, and the actual content is read from the `contentStream()`.
+public class StreamingHttpRequest extends DefaultFullHttpRequest {
+    private final HttpContentStream contentStream;
+
+    public StreamingHttpRequest(@NotNull HttpRequest request, @NotNull HttpContentStream contentStream) {
+        super(request.protocolVersion(), request.method(), request.uri(), Unpooled.EMPTY_BUFFER, request.headers(),
+              EmptyHttpHeaders.INSTANCE);
+        this.contentStream = contentStream;
+        setDecoderResult(request.decoderResult());
+    }
+
+    public @NotNull HttpContentStream contentStream() {
+        return contentStream;
+    }
+}
@@ -0,0 +1,162 @@
+package io.spbx.webby.netty.response;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.DefaultFileRegion;
+import io.netty.handler.codec.http.*;
+import io.netty.handler.stream.ChunkedInput;
+import io.netty.util.ReferenceCountUtil;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+// Sends the regions of the file, each one optionally preceded by a header (e.g. the multipart delimiter).
+// The file is opened only when the response is written: either zero-copy via `FileRegion` (`sendfile`),
+// or in chunks via the positional reads, if the channel can't transfer the file directly.
+public class FileHttpResponse extends DefaultHttpResponse implements AsyncResponse {
+    private static final int CHUNK_SIZE = 64 << 10;
+
+    private final Path path;
+    private final List<Region> regions;
+    private final byte[] trailer;
+
+    public FileHttpResponse(HttpVersion version, HttpResponseStatus status, Path path, long position, long count) {
+        this(version, status, path, List.of(new Region(new byte[0], position, count)), new byte[0]);
+    }
+
+    public FileHttpResponse(HttpVersion version,
+                            HttpResponseStatus status,
+                            Path path,
+                            List<Region> regions,
+                            byte[] trailer) {
+        super(version, status);
+        this.path = path;
+        this.regions = regions;
+        this.trailer = trailer;
+    }
+
+    public record Region(byte @NotNull [] header, long position, long count) {}
+
+    public @NotNull Path path() {
+        return path;
+    }
+
+    public long contentLength() {
+        long length = trailer.length;
+        for (Region region : regions) {
+            length += region.header().length + region.count();
+        }
+        return length;
+    }
+
+    // The messages to write after the response itself. Each `FileRegion` owns its file channel.
+    public @NotNull List<Object> regionContent() throws IOException {
+        List<Object> content = new ArrayList<>(2 * regions.size() + 2);
+        try {
+            for (Region region : regions) {
+                if (region.header().length > 0) {
+                    content.add(new DefaultHttpContent(Unpooled.wrappedBuffer(region.header())));
+                }
+                content.add(new DefaultFileRegion(FileChannel.open(path), region.position(), region.count()));
+            }
+        } catch (IOException e) {
+            content.forEach(ReferenceCountUtil::release);
+            throw e;
+        }
+        content.add(trailer.length > 0 ?
+            new DefaultLastHttpContent(Unpooled.wrappedBuffer(trailer)) :
+            LastHttpContent.EMPTY_LAST_CONTENT);
+        return content;
+    }
+
+    public @NotNull HttpChunkedInput chunkedContent() throws IOException {
+        return new HttpChunkedInput(new ChunkedRegions(FileChannel.open(path)));
+    }
+
+    private class ChunkedRegions implements ChunkedInput<ByteBuf> {
+        private final FileChannel channel;
+        private final long length = contentLength();
+        private long progress = 0;
+        private int index = 0;
+        private boolean headerSent = false;
+        private long offset = 0;
+
+        private ChunkedRegions(@NotNull FileChannel channel) {
+            this.channel = channel;
+        }
+
+        @Override
+        public boolean isEndOfInput() {
+            return progress == length;
+        }
+
+        @Override
+        public void close() throws Exception {
+            channel.close();
+        }
+
+        @Deprecated
+        @Override
+        public ByteBuf readChunk(ChannelHandlerContext context) throws Exception {
+            return readChunk(context.alloc());
+        }
+
+        @Override
+        public ByteBuf readChunk(ByteBufAllocator allocator) throws Exception {
+            while (index < regions.size()) {
+                Region region = regions.get(index);
+                if (!headerSent) {
+                    headerSent = true;
+                    if (region.header().length > 0) {
+                        progress += region.header().length;
+                        return Unpooled.wrappedBuffer(region.header());
+                    }
+                }
+                if (offset < region.count()) {
+                    int size = (int) Math.min(CHUNK_SIZE, region.count() - offset);
+                    ByteBuf buf = allocator.buffer(size);
+                    try {
+                        long position = region.position() + offset;
+                        while (buf.readableBytes() < size) {
+                            int read = buf.writeBytes(channel, position + buf.readableBytes(), size - buf.readableBytes());
+                            if (read < 0) {
+                                throw new EOFException("The file is truncated: " + path);
+                            }
+                        }
+                    } catch (Throwable e) {
+                        buf.release();
+                        throw e;
+                    }
+                    offset += size;
+                    progress += size;
+                    return buf;
+                }
+                index++;
+                headerSent = false;
+                offset = 0;
+            }
+            if (trailer.length > 0 && progress < length) {
+                progress += trailer.length;
+                return Unpooled.wrappedBuffer(trailer);
+            }
+            return null;
+        }
+
+        @Override
+        public long length() {
+            return length;
+        }
+
+        @Override
+        public long progress() {
+            return progress;
+        }
+    }
+}
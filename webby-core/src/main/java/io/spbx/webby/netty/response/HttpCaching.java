@@ -7,8 +7,10 @@ import io.netty.handler.codec.http.HttpHeaders;
 import io.netty.util.AsciiString;
 import io.spbx.webby.netty.HttpConst;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.sql.Timestamp;
+import java.util.Date;
 
 // Date format: RFC_1123_DATE_TIME "EEE, dd MMM yyyy HH:mm:ss zzz"
 public class HttpCaching {
@@ -26,11 +28,61 @@ public class HttpCaching {
     }
 
     public static boolean isSimpleEtagChanged(@NotNull ByteBuf byteBuf, HttpHeaders headers) {
+        return isEtagChanged(simpleEtag(byteBuf), headers);
+    }
+
+    public static boolean isEtagChanged(@NotNull String etag, @NotNull HttpHeaders headers) {
         String ifNoneMatch = headers.get(HttpConst.IF_NONE_MATCH);
-        return ifNoneMatch == null || !simpleEtag(byteBuf).equals(ifNoneMatch);  // If-None-Match: 1839ce40
+        return ifNoneMatch == null || !isEtagMatch(etag, ifNoneMatch);  // If-None-Match: "1839ce40"
+    }
+
+    // If-None-Match takes precedence over If-Modified-Since, when both are present
+    public static boolean isNotModified(@Nullable String etag, long modifiedTime, @NotNull HttpHeaders headers) {
+        String ifNoneMatch = headers.get(HttpConst.IF_NONE_MATCH);
+        if (ifNoneMatch != null) {
+            return etag != null && isEtagMatch(etag, ifNoneMatch);
+        }
+        return !isModifiedSince(modifiedTime, headers);
+    }
+
+    // If-None-Match: "xyzzy", W/"r2d2xxxx", "c3piozzzz"
+    // The weak comparison: the `W/` prefix is ignored. See https://www.rfc-editor.org/rfc/rfc9110#name-if-none-match
+    public static boolean isEtagMatch(@NotNull String etag, @NotNull String ifNoneMatch) {
+        String expected = stripWeak(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if (trimmed.equals("*") || stripWeak(trimmed).equals(expected)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // If-Range: "xyzzy" or If-Range: Fri, 27 Aug 2021 22:46:13 GMT
+    // The range is applied only if the representation is unchanged: the strong comparison or the exact date.
+    public static boolean isRangeApplicable(@Nullable String etag, long modifiedTime, @NotNull HttpHeaders headers) {
+        String ifRange = headers.get(HttpConst.IF_RANGE);
+        if (ifRange == null) {
+            return true;
+        }
+        String trimmed = ifRange.trim();
+        if (trimmed.startsWith("\"") || trimmed.startsWith("W/")) {
+            return etag != null && !etag.startsWith("W/") && trimmed.equals(etag);
+        }
+        Date rangeDate = DateFormatter.parseHttpDate(trimmed);
+        return rangeDate != null && rangeDate.getTime() / 1000 == modifiedTime / 1000;
     }
 
     public static @NotNull String simpleEtag(@NotNull ByteBuf byteBuf) {
-        return "%08x".formatted(ByteBufUtil.hashCode(byteBuf));
+        return "\"%08x\"".formatted(ByteBufUtil.hashCode(byteBuf));
+    }
+
+    // Changes whenever the file is replaced or modified, without reading it
+    public static @NotNull String fileEtag(long size, long modifiedTime) {
+        return "\"%x-%x\"".formatted(size, modifiedTime);
+    }
+
+    private static @NotNull String stripWeak(@NotNull String etag) {
+        return etag.startsWith("W/") ? etag.substring(2) : etag;
     }
 }
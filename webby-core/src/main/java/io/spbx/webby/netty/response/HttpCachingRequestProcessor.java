@@ -3,73 +3,179 @@ package io.spbx.webby.netty.response;
 import com.google.common.flogger.FluentLogger;
 import com.google.inject.Inject;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.CompositeByteBuf;
 import io.netty.buffer.Unpooled;
 import io.netty.handler.codec.http.*;
-import io.spbx.util.io.EasyFiles;
+import io.netty.util.AsciiString;
 import io.spbx.webby.app.Settings;
 import io.spbx.webby.netty.HttpConst;
+import io.spbx.webby.netty.response.HttpRanges.ByteRange;
+import io.spbx.webby.netty.response.StaticFile.Encoding;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
-import java.io.FileInputStream;
 import java.io.IOException;
-import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.logging.Level;
 
 public class HttpCachingRequestProcessor {
     private static final FluentLogger log = FluentLogger.forEnclosingClass();
-    private static final int MAX_IN_MEMORY_CONTENT_SIZE = 1 << 20;
 
     @Inject private Settings settings;
     @Inject private HttpResponseFactory factory;
-    @Inject private ContentTypeDetector detector;
+    @Inject private StaticFileCache cache;
 
+    // The ETag always comes from the current file version (see `StaticFileCache`), even for the user content:
+    // the files can be overwritten in place, so the file name is not a validator.
     public @NotNull HttpResponse process(@NotNull Path path, @NotNull HttpRequest request) throws IOException {
         HttpHeaders headers = request.headers();
-
-        if (!Files.exists(path)) {
+        StaticFile file = cache.getOrNull(path);
+        if (file == null) {
             log.at(Level.WARNING).log("Requested path does not exist: %s. Return 404", path);
             return factory.newResponse404();
         }
 
-        long lastModifiedMillis = EasyFiles.getLastModifiedTime(path);
-        if (!HttpCaching.isModifiedSince(lastModifiedMillis, headers)) {
+        StaticFile served = selectRepresentation(file, headers);
+        String etag = served.etag();
+        if (HttpCaching.isNotModified(etag, served.lastModifiedMillis(), headers)) {
             return factory.newResponse304();
         }
 
-        long sizeInBytes = Files.size(path);
-        CharSequence contentType = detector.guessContentType(path);
+        HttpResponse response = newContentResponse(served, etag, headers);
+        if (served.encoding() != null) {
+            response.headers().set(HttpConst.CONTENT_ENCODING, served.encoding().value());
+        }
+        if (!file.precompressed().isEmpty()) {
+            response.headers().set(HttpConst.VARY, HttpConst.ACCEPT_ENCODING);
+        }
+        addCachingHeaders(response.headers(), served, etag);
+
+        return response;
+    }
+
+    private @NotNull HttpResponse newContentResponse(@NotNull StaticFile file,
+                                                     @Nullable String etag,
+                                                     @NotNull HttpHeaders headers) {
+        long size = file.isInMemory() ? file.contentDuplicate().readableBytes() : file.size();
+        String range = headers.get(HttpConst.RANGE);
+        if (range != null && HttpCaching.isRangeApplicable(etag, file.lastModifiedMillis(), headers)) {
+            List<ByteRange> ranges = HttpRanges.parseOrNull(range, size);
+            if (ranges != null) {
+                return ranges.isEmpty() ? newRangeNotSatisfiable(size) : newPartialResponse(file, ranges, size);
+            }
+        }
 
-        if (sizeInBytes >= MAX_IN_MEMORY_CONTENT_SIZE) {
-            FileInputStream stream = new FileInputStream(path.toFile());
-            StreamingHttpResponse response = factory.newResponse(stream, HttpResponseStatus.OK, contentType);
-            response.headers().set(HttpConst.CONTENT_LENGTH, sizeInBytes);
-            addCachingHeaders(response.headers(), lastModifiedMillis, null);
+        HttpResponse response;
+        if (file.isInMemory()) {
+            response = factory.newResponse(file.contentDuplicate(), HttpResponseStatus.OK, file.contentType());
+            response.headers().add(HttpConst.CONTENT_DISPOSITION, HttpConst.INLINE);
+        } else {
+            response = factory.newResponse(file.path(), 0, size, HttpResponseStatus.OK, file.contentType());
+        }
+        response.headers().set(HttpConst.ACCEPT_RANGES, HttpRanges.BYTES);
+        return response;
+    }
+
+    private @NotNull HttpResponse newPartialResponse(@NotNull StaticFile file, @NotNull List<ByteRange> ranges, long size) {
+        HttpResponseStatus status = HttpResponseStatus.PARTIAL_CONTENT;
+        if (ranges.size() == 1) {
+            ByteRange range = ranges.getFirst();
+            HttpResponse response = file.isInMemory() ?
+                factory.newResponse(slice(file, range), status, file.contentType()) :
+                factory.newResponse(file.path(), range.start(), range.length(), status, file.contentType());
+            response.headers().set(HttpConst.CONTENT_RANGE, HttpRanges.contentRange(range, size));
             return response;
         }
 
-        ByteBuf byteBuf = Unpooled.wrappedBuffer(Files.readAllBytes(path));
-        if (!HttpCaching.isSimpleEtagChanged(byteBuf, headers)) {
-            return factory.newResponse304();
+        String boundary = HttpRanges.newBoundary();
+        CharSequence contentType = HttpRanges.multipartContentType(boundary);
+        byte[] trailer = HttpRanges.multipartEnd(boundary);
+        if (file.isInMemory()) {
+            CompositeByteBuf content = Unpooled.compositeBuffer(2 * ranges.size() + 1);
+            for (int i = 0; i < ranges.size(); i++) {
+                ByteRange range = ranges.get(i);
+                byte[] header = HttpRanges.multipartPartHeader(boundary, i == 0, file.contentType(), range, size);
+                content.addComponent(true, Unpooled.wrappedBuffer(header));
+                content.addComponent(true, slice(file, range));
+            }
+            content.addComponent(true, Unpooled.wrappedBuffer(trailer));
+            return factory.newResponse(content, status, contentType);
         }
 
-        FullHttpResponse response = factory.newResponse(byteBuf, HttpResponseStatus.OK, contentType);
-        response.headers().add(HttpConst.CONTENT_DISPOSITION, HttpConst.INLINE);
-        addCachingHeaders(response.headers(), lastModifiedMillis, byteBuf);
+        List<FileHttpResponse.Region> regions = new ArrayList<>(ranges.size());
+        for (int i = 0; i < ranges.size(); i++) {
+            ByteRange range = ranges.get(i);
+            byte[] header = HttpRanges.multipartPartHeader(boundary, i == 0, file.contentType(), range, size);
+            regions.add(new FileHttpResponse.Region(header, range.start(), range.length()));
+        }
+        return factory.newResponse(file.path(), regions, trailer, status, contentType);
+    }
 
+    private @NotNull HttpResponse newRangeNotSatisfiable(long size) {
+        FullHttpResponse response = factory.newErrorResponse(HttpResponseStatus.REQUESTED_RANGE_NOT_SATISFIABLE, null, null);
+        response.headers().set(HttpConst.CONTENT_RANGE, HttpRanges.unsatisfiedContentRange(size));
         return response;
     }
 
-    private void addCachingHeaders(@NotNull HttpHeaders headers, long lastModifiedMillis, @Nullable ByteBuf byteBuf) {
-        if (settings.isProdMode()) {
-            headers.add(HttpConst.CACHE_CONTROL, HttpCaching.CACHE_FOREVER);
-        } else {
-            headers.add(HttpConst.CACHE_CONTROL, HttpCaching.NO_NOT_CACHE);
-            headers.add(HttpConst.LAST_MODIFIED, HttpCaching.lastModifiedValue(lastModifiedMillis));
-            if (byteBuf != null) {
-                headers.add(HttpConst.ETAG, HttpCaching.simpleEtag(byteBuf));
+    private static @NotNull ByteBuf slice(@NotNull StaticFile file, @NotNull ByteRange range) {
+        return file.contentDuplicate().slice((int) range.start(), (int) range.length());
+    }
+
+    // Serves the precompressed sibling (`foo.js.br`, `foo.js.gz`) if it exists and the client accepts it
+    private @NotNull StaticFile selectRepresentation(@NotNull StaticFile file, @NotNull HttpHeaders headers)
+            throws IOException {
+        if (file.precompressed().isEmpty()) {
+            return file;
+        }
+        String acceptEncoding = headers.get(HttpConst.ACCEPT_ENCODING);
+        for (Encoding encoding : file.precompressed()) {
+            if (acceptsEncoding(acceptEncoding, encoding.value())) {
+                StaticFile encoded = cache.getPrecompressedOrNull(file, encoding);
+                if (encoded != null) {
+                    return encoded;
+                }
+            }
+        }
+        return file;
+    }
+
+    // The validators are sent in prod as well: the clients need them to resume the downloads (If-Range)
+    private void addCachingHeaders(@NotNull HttpHeaders headers, @NotNull StaticFile file, @Nullable String etag) {
+        headers.add(HttpConst.CACHE_CONTROL, settings.isProdMode() ? HttpCaching.CACHE_FOREVER : HttpCaching.NO_NOT_CACHE);
+        headers.add(HttpConst.LAST_MODIFIED, file.lastModified());
+        if (etag != null) {
+            headers.add(HttpConst.ETAG, etag);
+        }
+    }
+
+    // Accept-Encoding: gzip, deflate;q=0.5, br;q=0
+    static boolean acceptsEncoding(@Nullable String acceptEncoding, @NotNull CharSequence coding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String part : acceptEncoding.split(",")) {
+            int semicolon = part.indexOf(';');
+            String name = (semicolon >= 0 ? part.substring(0, semicolon) : part).trim();
+            if (AsciiString.contentEqualsIgnoreCase(name, coding) || name.equals("*")) {
+                return semicolon < 0 || !isZeroQuality(part.substring(semicolon + 1));
+            }
+        }
+        return false;
+    }
+
+    private static boolean isZeroQuality(@NotNull String params) {
+        for (String param : params.split(";")) {
+            String trimmed = param.trim();
+            if (trimmed.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(trimmed.substring(2)) <= 0;
+                } catch (NumberFormatException e) {
+                    return false;
+                }
             }
         }
+        return false;
     }
 }
@@ -0,0 +1,139 @@
+package io.spbx.webby.netty.response;
+
+import io.netty.util.AsciiString;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Range: bytes=0-499, 1000-, -500
+// See https://www.rfc-editor.org/rfc/rfc9110#name-range-requests
+public class HttpRanges {
+    public static final AsciiString BYTES = AsciiString.of("bytes");
+    public static final AsciiString MULTIPART_BYTERANGES = AsciiString.of("multipart/byteranges");
+
+    // Many small ranges cost more than the whole file: such requests are served in full
+    private static final int MAX_RANGES = 16;
+
+    public record ByteRange(long start, long end) {
+        public ByteRange {
+            assert 0 <= start && start <= end : "Invalid range: %d-%d".formatted(start, end);
+        }
+
+        public long length() {
+            return end - start + 1;
+        }
+    }
+
+    // Returns null if the range is malformed or should be ignored (then the full content is served),
+    // an empty list if none of the ranges is satisfiable (416).
+    // The overlapping and adjacent ranges are coalesced, so the result is sorted.
+    public static @Nullable List<ByteRange> parseOrNull(@NotNull String header, long size) {
+        String value = header.trim();
+        if (!value.regionMatches(true, 0, "bytes=", 0, 6)) {
+            return null;
+        }
+
+        String[] specs = value.substring(6).split(",");
+        if (specs.length > MAX_RANGES) {
+            return null;
+        }
+
+        List<ByteRange> ranges = new ArrayList<>(specs.length);
+        for (String spec : specs) {
+            String trimmed = spec.trim();
+            int dash = trimmed.indexOf('-');
+            if (dash < 0) {
+                return null;
+            }
+            long first = parseOrMinusOne(trimmed.substring(0, dash));
+            long last = parseOrMinusOne(trimmed.substring(dash + 1));
+            if (dash == 0) {
+                // Suffix range: the last N bytes
+                if (last < 0) {
+                    return null;
+                }
+                if (last > 0 && size > 0) {
+                    ranges.add(new ByteRange(Math.max(size - last, 0), size - 1));
+                }
+            } else {
+                if (first < 0 || (dash < trimmed.length() - 1 && (last < 0 || last < first))) {
+                    return null;
+                }
+                if (first < size) {
+                    long end = last < 0 ? size - 1 : Math.min(last, size - 1);
+                    ranges.add(new ByteRange(first, end));
+                }
+            }
+        }
+        return coalesce(ranges);
+    }
+
+    public static @NotNull String contentRange(@NotNull ByteRange range, long size) {
+        return "bytes %d-%d/%d".formatted(range.start(), range.end(), size);
+    }
+
+    public static @NotNull String unsatisfiedContentRange(long size) {
+        return "bytes */%d".formatted(size);
+    }
+
+    public static @NotNull String newBoundary() {
+        return Long.toHexString(ThreadLocalRandom.current().nextLong() | Long.MIN_VALUE);
+    }
+
+    public static @NotNull String multipartContentType(@NotNull String boundary) {
+        return "%s; boundary=%s".formatted(MULTIPART_BYTERANGES, boundary);
+    }
+
+    // The delimiter and the headers preceding the part content
+    public static byte @NotNull [] multipartPartHeader(@NotNull String boundary,
+                                                       boolean first,
+                                                       @NotNull CharSequence contentType,
+                                                       @NotNull ByteRange range,
+                                                       long size) {
+        String header = "%s--%s\r\nContent-Type: %s\r\nContent-Range: %s\r\n\r\n"
+            .formatted(first ? "" : "\r\n", boundary, contentType, contentRange(range, size));
+        return header.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    public static byte @NotNull [] multipartEnd(@NotNull String boundary) {
+        return "\r\n--%s--\r\n".formatted(boundary).getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static @NotNull List<ByteRange> coalesce(@NotNull List<ByteRange> ranges) {
+        if (ranges.size() <= 1) {
+            return ranges;
+        }
+        ranges.sort(Comparator.comparingLong(ByteRange::start));
+        List<ByteRange> result = new ArrayList<>(ranges.size());
+        ByteRange current = ranges.getFirst();
+        for (int i = 1; i < ranges.size(); i++) {
+            ByteRange next = ranges.get(i);
+            if (next.start() <= current.end() + 1) {
+                current = new ByteRange(current.start(), Math.max(current.end(), next.end()));
+            } else {
+                result.add(current);
+                current = next;
+            }
+        }
+        result.add(current);
+        return result;
+    }
+
+    private static long parseOrMinusOne(@NotNull String value) {
+        if (value.isEmpty() || value.length() > 18) {
+            return -1;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            if (ch < '0' || ch > '9') {
+                return -1;
+            }
+        }
+        return Long.parseLong(value);
+    }
+}
@@ -21,6 +21,7 @@ import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.nio.file.Path;
+import java.util.List;
 import java.util.function.Consumer;
 import java.util.logging.Level;
 
@@ -81,6 +82,26 @@ public class HttpResponseFactory {
         return response;
     }
 
+    public @NotNull FileHttpResponse newResponse(@NotNull Path path,
+                                                 long position,
+                                                 long count,
+                                                 @NotNull HttpResponseStatus status,
+                                                 @NotNull CharSequence contentType) {
+        FileHttpResponse response = new FileHttpResponse(HttpVersion.HTTP_1_1, status, path, position, count);
+        response.headers().set(HttpConst.CONTENT_LENGTH, count);
+        return withContentType(response, headers.ensureCharset(contentType));
+    }
+
+    public @NotNull FileHttpResponse newResponse(@NotNull Path path,
+                                                 @NotNull List<FileHttpResponse.Region> regions,
+                                                 byte @NotNull [] trailer,
+                                                 @NotNull HttpResponseStatus status,
+                                                 @NotNull CharSequence contentType) {
+        FileHttpResponse response = new FileHttpResponse(HttpVersion.HTTP_1_1, status, path, regions, trailer);
+        response.headers().set(HttpConst.CONTENT_LENGTH, response.contentLength());
+        return withContentType(response, headers.ensureCharset(contentType));
+    }
+
     public @NotNull FullHttpResponse newResponse304() {
         return newResponse(statusLine(HttpResponseStatus.NOT_MODIFIED), HttpResponseStatus.NOT_MODIFIED);
     }
@@ -9,6 +9,7 @@ public class ResponseModule extends AbstractModule {
         bind(HttpResponseFactory.class).asEagerSingleton();
         bind(ResponseHeaders.class).asEagerSingleton();
         bind(ResponseMapper.class).asEagerSingleton();
+        bind(StaticFileCache.class).asEagerSingleton();
         bind(HttpCachingRequestProcessor.class).asEagerSingleton();
         bind(StaticServing.class).asEagerSingleton();
         bind(UserContentServing.class).asEagerSingleton();
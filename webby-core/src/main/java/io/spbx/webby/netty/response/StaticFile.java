@@ -0,0 +1,61 @@
+package io.spbx.webby.netty.response;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.util.AsciiString;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.file.Path;
+import java.util.Set;
+
+// A snapshot of a served file: the metadata and the validators are computed once per file version.
+// The `content` is present only for the small files and is shared by all responses, hence never released.
+public record StaticFile(@NotNull Path path,
+                         long size,
+                         long lastModifiedMillis,
+                         @NotNull CharSequence contentType,
+                         @Nullable Encoding encoding,
+                         @NotNull Set<Encoding> precompressed,
+                         @NotNull String lastModified,
+                         @Nullable String etag,
+                         @Nullable ByteBuf content) {
+    public boolean isInMemory() {
+        return content != null;
+    }
+
+    public boolean isSameVersion(long size, long lastModifiedMillis) {
+        return this.size == size && this.lastModifiedMillis == lastModifiedMillis;
+    }
+
+    // Each response needs its own reader index
+    public @NotNull ByteBuf contentDuplicate() {
+        assert content != null : "The file is not in memory: " + path;
+        return content.duplicate();
+    }
+
+    int weight() {
+        return 256 + (content != null ? content.capacity() : 0);
+    }
+
+    // The precompressed siblings, in the order of preference
+    public enum Encoding {
+        BROTLI("br", ".br"),
+        GZIP("gzip", ".gz");
+
+        private final AsciiString value;
+        private final String extension;
+
+        Encoding(@NotNull String value, @NotNull String extension) {
+            this.value = AsciiString.cached(value);
+            this.extension = extension;
+        }
+
+        public @NotNull AsciiString value() {
+            return value;
+        }
+
+        public @NotNull Path siblingOf(@NotNull Path path) {
+            return path.resolveSibling(path.getFileName() + extension);
+        }
+    }
+}
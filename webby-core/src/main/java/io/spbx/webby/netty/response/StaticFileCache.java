@@ -0,0 +1,129 @@
+package io.spbx.webby.netty.response;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.Sets;
+import com.google.common.flogger.FluentLogger;
+import com.google.inject.Inject;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.spbx.webby.app.Settings;
+import io.spbx.webby.netty.response.StaticFile.Encoding;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.logging.Level;
+
+// Keeps the served files metadata and the content of the small ones, bounded by the total content size.
+// An entry is validated against the current file size and mtime on every lookup, which costs a single `stat`,
+// so the hot files are neither read, nor hashed, nor content-type probed on every request.
+public class StaticFileCache {
+    private static final FluentLogger log = FluentLogger.forEnclosingClass();
+
+    private final ContentTypeDetector detector;
+    private final int maxFileSize;
+    private final Cache<Path, StaticFile> cache;
+
+    @Inject
+    public StaticFileCache(@NotNull Settings settings, @NotNull ContentTypeDetector detector) {
+        this.detector = detector;
+        this.maxFileSize = settings.getInt(Settings.STATIC_CACHE_MAX_FILE_SIZE);
+        this.cache = CacheBuilder.newBuilder()
+            .maximumWeight(settings.getLong(Settings.STATIC_CACHE_MAX_SIZE))
+            .weigher((Path path, StaticFile file) -> file.weight())
+            .build();
+    }
+
+    public @Nullable StaticFile getOrNull(@NotNull Path path) throws IOException {
+        return lookup(path, null, null);
+    }
+
+    public @Nullable StaticFile getPrecompressedOrNull(@NotNull StaticFile file, @NotNull Encoding encoding)
+            throws IOException {
+        if (!file.precompressed().contains(encoding)) {
+            return null;
+        }
+        return lookup(encoding.siblingOf(file.path()), file, encoding);
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    private @Nullable StaticFile lookup(@NotNull Path path,
+                                        @Nullable StaticFile original,
+                                        @Nullable Encoding encoding) throws IOException {
+        BasicFileAttributes attributes = readAttributesOrNull(path);
+        if (attributes == null || !attributes.isRegularFile()) {
+            cache.invalidate(path);
+            return null;
+        }
+
+        long size = attributes.size();
+        long lastModifiedMillis = attributes.lastModifiedTime().toMillis();
+        StaticFile cached = cache.getIfPresent(path);
+        if (cached != null && cached.isSameVersion(size, lastModifiedMillis)) {
+            return cached;
+        }
+
+        StaticFile file = load(path, size, lastModifiedMillis, original, encoding);
+        cache.put(path, file);
+        return file;
+    }
+
+    private @NotNull StaticFile load(@NotNull Path path,
+                                     long size,
+                                     long lastModifiedMillis,
+                                     @Nullable StaticFile original,
+                                     @Nullable Encoding encoding) throws IOException {
+        log.at(Level.FINE).log("Loading static file: %s", path);
+        CharSequence contentType = original != null ? original.contentType() : detector.guessContentType(path);
+        Set<Encoding> precompressed = original != null ? Set.of() : findPrecompressed(path, lastModifiedMillis);
+        String lastModified = HttpCaching.lastModifiedValue(lastModifiedMillis);
+
+        if (size >= maxFileSize) {
+            return new StaticFile(path, size, lastModifiedMillis, contentType, encoding, precompressed, lastModified,
+                                  HttpCaching.fileEtag(size, lastModifiedMillis), null);
+        }
+
+        ByteBuf content = toSharedBuffer(Files.readAllBytes(path));
+        return new StaticFile(path, size, lastModifiedMillis, contentType, encoding, precompressed, lastModified,
+                              HttpCaching.simpleEtag(content), content);
+    }
+
+    // The siblings older than the file are stale and ignored
+    private static @NotNull Set<Encoding> findPrecompressed(@NotNull Path path, long lastModifiedMillis)
+            throws IOException {
+        EnumSet<Encoding> precompressed = EnumSet.noneOf(Encoding.class);
+        for (Encoding encoding : Encoding.values()) {
+            BasicFileAttributes attributes = readAttributesOrNull(encoding.siblingOf(path));
+            if (attributes != null && attributes.isRegularFile() &&
+                attributes.lastModifiedTime().toMillis() >= lastModifiedMillis) {
+                precompressed.add(encoding);
+            }
+        }
+        return Sets.immutableEnumSet(precompressed);
+    }
+
+    private static @Nullable BasicFileAttributes readAttributesOrNull(@NotNull Path path) throws IOException {
+        try {
+            return Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    // Direct memory saves a copy on every socket write. It's not pooled: freed by the GC after the eviction.
+    private static @NotNull ByteBuf toSharedBuffer(byte @NotNull [] bytes) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length).put(bytes).flip();
+        return Unpooled.unreleasableBuffer(Unpooled.wrappedBuffer(buffer).asReadOnly());
+    }
+}
@@ -1,11 +1,15 @@
 package io.spbx.webby.perf;
 
 import com.google.inject.AbstractModule;
+import io.spbx.webby.perf.access.AccessLog;
+import io.spbx.webby.perf.metrics.MetricsRegistry;
 import io.spbx.webby.perf.stats.impl.StatsInterceptor;
 import io.spbx.webby.perf.stats.impl.StatsManager;
 
 public class PerfModule extends AbstractModule {
     public void configure() {
+        bind(AccessLog.class).asEagerSingleton();
+        bind(MetricsRegistry.class).asEagerSingleton();
         bind(StatsInterceptor.class).asEagerSingleton();
         bind(StatsManager.class).asEagerSingleton();
     }
@@ -0,0 +1,121 @@
+package io.spbx.webby.perf.access;
+
+import com.google.common.flogger.FluentLogger;
+import com.google.common.util.concurrent.Uninterruptibles;
+import com.google.inject.Inject;
+import io.netty.handler.codec.http.HttpMethod;
+import io.spbx.util.base.Unchecked.Consumers;
+import io.spbx.webby.app.Settings;
+import io.spbx.webby.common.Lifetime;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.io.IOException;
+import java.net.SocketAddress;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+
+// Asynchronous access log: request threads only fill a pre-allocated slot in a lock-free ring,
+// the formatting and file I/O happen on a background writer thread.
+public class AccessLog {
+    private static final FluentLogger log = FluentLogger.forEnclosingClass();
+
+    private static final int DRAIN_BATCH = 1024;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final double sampleRate;
+    private final @Nullable AccessLogRing ring;
+    private final @Nullable Thread writerThread;
+    private volatile boolean running;
+
+    @Inject
+    public AccessLog(@NotNull Settings settings, @NotNull Lifetime lifetime) {
+        sampleRate = settings.getDouble(Settings.ACCESS_LOG_SAMPLE_RATE);
+        if (!settings.getBool(Settings.ACCESS_LOG) || sampleRate <= 0) {
+            ring = null;
+            writerThread = null;
+            return;
+        }
+
+        AccessLogWriter writer;
+        try {
+            writer = new AccessLogWriter(settings.getPath(Settings.ACCESS_LOG_PATH),
+                                         settings.getLong(Settings.ACCESS_LOG_MAX_FILE_SIZE),
+                                         settings.getInt(Settings.ACCESS_LOG_MAX_FILES));
+        } catch (IOException e) {
+            log.at(Level.SEVERE).withCause(e).log("Failed to open the access log, disabling it");
+            ring = null;
+            writerThread = null;
+            return;
+        }
+
+        ring = new AccessLogRing(settings.getInt(Settings.ACCESS_LOG_BUFFER_SIZE));
+        running = true;
+        writerThread = new Thread(() -> runWriter(ring, writer), "webby-access-log");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        lifetime.onTerminate(this::stop);
+        log.at(Level.FINE).log("Access log is enabled: sample-rate=%.3f buffer=%d", sampleRate, ring.capacity());
+    }
+
+    public boolean isEnabled() {
+        return ring != null;
+    }
+
+    // Decided once per request, before anything is captured for it
+    public boolean shouldSample() {
+        return ring != null && (sampleRate >= 1.0 || ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+
+    public void append(@NotNull HttpMethod method, @NotNull String uri, @Nullable SocketAddress remote,
+                       int status, long contentLength, long startNanos) {
+        if (ring != null) {
+            long durationNanos = System.nanoTime() - startNanos;
+            ring.offer(System.currentTimeMillis(), durationNanos, method, uri, remote, status, contentLength);
+        }
+    }
+
+    public long dropped() {
+        return ring != null ? ring.dropped() : 0;
+    }
+
+    private void runWriter(@NotNull AccessLogRing ring, @NotNull AccessLogWriter writer) {
+        Consumer<AccessLogEntry> consumer = Consumers.rethrow(writer::write);
+        try (writer) {
+            while (running) {
+                if (drainAll(ring, writer, consumer) == 0) {
+                    LockSupport.parkNanos(IDLE_PARK_NANOS);
+                }
+            }
+            drainAll(ring, writer, consumer);
+        } catch (Throwable e) {
+            log.at(Level.SEVERE).withCause(e).log("Access log writer failed");
+        }
+    }
+
+    private static int drainAll(@NotNull AccessLogRing ring,
+                                @NotNull AccessLogWriter writer,
+                                @NotNull Consumer<AccessLogEntry> consumer) throws IOException {
+        int total = 0;
+        int drained;
+        do {
+            drained = ring.drain(consumer, DRAIN_BATCH);
+            total += drained;
+        } while (drained == DRAIN_BATCH);
+        if (total > 0) {
+            writer.flush();
+        }
+        return total;
+    }
+
+    private void stop() {
+        running = false;
+        if (writerThread != null) {
+            LockSupport.unpark(writerThread);
+            Uninterruptibles.joinUninterruptibly(writerThread, 5, TimeUnit.SECONDS);
+        }
+    }
+}
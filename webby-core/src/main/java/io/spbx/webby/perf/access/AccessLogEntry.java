@@ -0,0 +1,29 @@
+package io.spbx.webby.perf.access;
+
+import io.netty.handler.codec.http.HttpMethod;
+import org.jetbrains.annotations.Nullable;
+
+import java.net.SocketAddress;
+
+// Pre-allocated ring slot: the producer fills the fields in place, the writer reads and clears them.
+final class AccessLogEntry {
+    volatile long sequence;
+
+    long epochMillis;
+    long durationNanos;
+    @Nullable HttpMethod method;
+    @Nullable String uri;
+    @Nullable SocketAddress remote;
+    int status;
+    long contentLength;
+
+    AccessLogEntry(long sequence) {
+        this.sequence = sequence;
+    }
+
+    void clear() {
+        method = null;
+        uri = null;
+        remote = null;
+    }
+}
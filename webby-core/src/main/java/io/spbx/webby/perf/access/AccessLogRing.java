@@ -0,0 +1,83 @@
+package io.spbx.webby.perf.access;
+
+import io.netty.handler.codec.http.HttpMethod;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.net.SocketAddress;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+// Bounded lock-free multi-producer single-consumer ring of pre-allocated entries.
+// Each slot carries a sequence number: `position` means free for the producer, `position + 1` means published.
+// See https://www.1024cores.net/home/lock-free-algorithms/queues/bounded-mpmc-queue
+final class AccessLogRing {
+    private final AccessLogEntry[] entries;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+    private long head;  // consumer-only
+
+    AccessLogRing(int capacity) {
+        int size = Integer.highestOneBit(Math.max(capacity - 1, 1)) << 1;
+        entries = new AccessLogEntry[size];
+        for (int i = 0; i < size; i++) {
+            entries[i] = new AccessLogEntry(i);
+        }
+        mask = size - 1;
+    }
+
+    public int capacity() {
+        return entries.length;
+    }
+
+    public long dropped() {
+        return dropped.sum();
+    }
+
+    public boolean offer(long epochMillis, long durationNanos,
+                         @NotNull HttpMethod method, @NotNull String uri, @Nullable SocketAddress remote,
+                         int status, long contentLength) {
+        long position = tail.get();
+        while (true) {
+            AccessLogEntry entry = entries[(int) (position & mask)];
+            long diff = entry.sequence - position;
+            if (diff == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    entry.epochMillis = epochMillis;
+                    entry.durationNanos = durationNanos;
+                    entry.method = method;
+                    entry.uri = uri;
+                    entry.remote = remote;
+                    entry.status = status;
+                    entry.contentLength = contentLength;
+                    entry.sequence = position + 1;  // publish
+                    return true;
+                }
+                position = tail.get();
+            } else if (diff < 0) {
+                dropped.increment();                // full: the writer can't keep up, never block the caller
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    public int drain(@NotNull Consumer<AccessLogEntry> consumer, int limit) {
+        int count = 0;
+        while (count < limit) {
+            AccessLogEntry entry = entries[(int) (head & mask)];
+            if (entry.sequence != head + 1) {
+                break;
+            }
+            consumer.accept(entry);
+            entry.clear();
+            entry.sequence = head + entries.length;  // release the slot for the next round
+            head++;
+            count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,114 @@
+package io.spbx.webby.perf.access;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.VisibleForTesting;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+
+// Single-threaded: only called from the access log writer thread.
+final class AccessLogWriter implements Closeable {
+    private final Path path;
+    private final long maxFileSize;
+    private final int maxFiles;
+    private final StringBuilder line = new StringBuilder(256);
+
+    private OutputStream output;
+    private long fileSize;
+
+    AccessLogWriter(@NotNull Path path, long maxFileSize, int maxFiles) throws IOException {
+        this.path = path;
+        this.maxFileSize = maxFileSize;
+        this.maxFiles = maxFiles;
+        open();
+    }
+
+    public void write(@NotNull AccessLogEntry entry) throws IOException {
+        line.setLength(0);
+        format(entry, line);
+        byte[] bytes = line.toString().getBytes(StandardCharsets.UTF_8);
+        if (fileSize > 0 && fileSize + bytes.length > maxFileSize) {
+            rotate();
+        }
+        output.write(bytes);
+        fileSize += bytes.length;
+    }
+
+    public void flush() throws IOException {
+        output.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        output.close();
+    }
+
+    // Logfmt: `ts=... method=GET uri="/foo?bar" status=200 bytes=123 nanos=456789 remote=/127.0.0.1:12345`
+    @VisibleForTesting
+    static void format(@NotNull AccessLogEntry entry, @NotNull StringBuilder builder) {
+        builder.append("ts=").append(Instant.ofEpochMilli(entry.epochMillis))
+            .append(" method=").append(entry.method)
+            .append(" uri=\"");
+        appendEscaped(builder, String.valueOf(entry.uri));
+        builder.append("\" status=").append(entry.status)
+            .append(" bytes=").append(entry.contentLength)
+            .append(" nanos=").append(entry.durationNanos);
+        if (entry.remote != null) {
+            builder.append(" remote=").append(entry.remote);
+        }
+        builder.append('\n');
+    }
+
+    private static void appendEscaped(@NotNull StringBuilder builder, @NotNull String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            switch (ch) {
+                case '"', '\\' -> builder.append('\\').append(ch);
+                case '\n' -> builder.append("\\n");
+                case '\r' -> builder.append("\\r");
+                default -> builder.append(ch);
+            }
+        }
+    }
+
+    private void open() throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        output = new BufferedOutputStream(
+            Files.newOutputStream(path, StandardOpenOption.CREATE, StandardOpenOption.APPEND), 64 << 10
+        );
+        fileSize = Files.size(path);
+    }
+
+    // Shifts `access.log` -> `access.log.1` -> ... -> `access.log.<maxFiles>`, the last one is dropped.
+    private void rotate() throws IOException {
+        output.close();
+        Files.deleteIfExists(rotated(maxFiles));
+        for (int i = maxFiles - 1; i >= 1; i--) {
+            Path source = rotated(i);
+            if (Files.exists(source)) {
+                Files.move(source, rotated(i + 1), StandardCopyOption.REPLACE_EXISTING);
+            }
+        }
+        if (maxFiles > 0) {
+            Files.move(path, rotated(1), StandardCopyOption.REPLACE_EXISTING);
+        } else {
+            Files.delete(path);
+        }
+        open();
+    }
+
+    private @NotNull Path rotated(int index) {
+        return path.resolveSibling(path.getFileName() + "." + index);
+    }
+}
@@ -0,0 +1,32 @@
+package io.spbx.webby.perf.metrics;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.TimeUnit;
+
+public record HistogramSnapshot(long count, long sum, long max, long @NotNull [] buckets) {
+    public double mean() {
+        return count > 0 ? (double) sum / count : 0;
+    }
+
+    // Returns the upper bound of the bucket holding the `quantile` (0..1), i.e. never underestimates
+    public long valueAt(double quantile) {
+        assert quantile >= 0 && quantile <= 1 : "Invalid quantile: " + quantile;
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(quantile * count));
+        long seen = 0;
+        for (int i = 0; i < buckets.length; i++) {
+            seen += buckets[i];
+            if (seen >= rank) {
+                return Math.min(LatencyHistogram.upperBound(i), max);
+            }
+        }
+        return max;
+    }
+
+    public double valueAt(double quantile, @NotNull TimeUnit unit) {
+        return (double) valueAt(quantile) / unit.toNanos(1);
+    }
+}
@@ -0,0 +1,66 @@
+package io.spbx.webby.perf.metrics;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// A lock-free latency histogram with the nanosecond resolution and a fixed memory footprint.
+// The buckets are log-linear (like HdrHistogram): every power of two is split into 32 linear sub-buckets,
+// so the relative error is within ~3% across the whole range. Recording is a few atomic adds, never allocates.
+public final class LatencyHistogram {
+    private static final int SUB_BITS = 5;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    private static final int MAX_EXPONENT = 45;  // ~9.7 hours, the larger values are clamped
+    private static final long MAX_VALUE = (1L << (MAX_EXPONENT + 1)) - 1;
+    /*package*/ static final int BUCKETS = (MAX_EXPONENT - SUB_BITS + 2) * SUB_COUNT;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+    private final LongAdder sum = new LongAdder();
+    private final AtomicLong max = new AtomicLong();
+
+    public void record(long nanos) {
+        long value = Math.min(Math.max(nanos, 0), MAX_VALUE);
+        counts.getAndIncrement(indexOf(value));
+        sum.add(value);
+        long current;
+        while (value > (current = max.get()) && !max.compareAndSet(current, value)) {
+            Thread.onSpinWait();
+        }
+    }
+
+    // Not atomic as a whole: the concurrent records may be partially included
+    public @NotNull HistogramSnapshot snapshot() {
+        long[] buckets = new long[BUCKETS];
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            buckets[i] = counts.get(i);
+            count += buckets[i];
+        }
+        return new HistogramSnapshot(count, sum.sum(), max.get(), buckets);
+    }
+
+    /*package*/ static int indexOf(long value) {
+        if (value < SUB_COUNT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BITS;
+        return ((shift + 1) << SUB_BITS) + (int) ((value >>> shift) & (SUB_COUNT - 1));
+    }
+
+    // Inclusive
+    /*package*/ static long lowerBound(int index) {
+        if (index < SUB_COUNT) {
+            return index;
+        }
+        int shift = (index >>> SUB_BITS) - 1;
+        return (long) (SUB_COUNT + (index & (SUB_COUNT - 1))) << shift;
+    }
+
+    // Inclusive
+    /*package*/ static long upperBound(int index) {
+        return index + 1 < BUCKETS ? lowerBound(index + 1) - 1 : MAX_VALUE;
+    }
+}
@@ -0,0 +1,114 @@
+package io.spbx.webby.perf.metrics;
+
+import com.carrotsearch.hppc.IntObjectHashMap;
+import com.carrotsearch.hppc.IntObjectMap;
+import com.carrotsearch.hppc.cursors.ObjectCursor;
+import com.google.inject.Inject;
+import io.spbx.webby.app.Settings;
+import io.spbx.webby.perf.metrics.MetricsSnapshot.EndpointSnapshot;
+import io.spbx.webby.perf.metrics.MetricsSnapshot.StatSnapshot;
+import io.spbx.webby.perf.stats.Stat;
+import io.spbx.webby.url.impl.RouteEndpoint;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// Process-wide aggregated metrics: the latency and the totals per `Stat` and per `RouteEndpoint`.
+// The steady-state recording doesn't allocate and doesn't lock, so it's suitable to stay always-on in production.
+public class MetricsRegistry {
+    private final boolean enabled;
+
+    // Copy-on-write: the new stats are registered rarely, the lookups are on every event
+    private volatile IntObjectMap<StatMetrics> stats = new IntObjectHashMap<>();
+    private final ConcurrentHashMap<RouteEndpoint, EndpointMetrics> endpoints = new ConcurrentHashMap<>();
+
+    @Inject
+    public MetricsRegistry(@NotNull Settings settings) {
+        this.enabled = settings.isMetricsEnabled();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void recordStat(@NotNull Stat stat, int amount, long elapsedNanos) {
+        StatMetrics metrics = stats.get(stat.key());
+        if (metrics == null) {
+            metrics = registerStat(stat);
+        }
+        metrics.events.increment();
+        metrics.amount.add(amount);
+        metrics.latency.record(elapsedNanos);
+    }
+
+    public void recordEndpoint(@NotNull RouteEndpoint endpoint, int status, long elapsedNanos) {
+        EndpointMetrics metrics = endpoints.get(endpoint);
+        if (metrics == null) {
+            metrics = endpoints.computeIfAbsent(endpoint, EndpointMetrics::new);
+        }
+        metrics.requests.increment();
+        metrics.statuses[Math.min(Math.max(status / 100, 1), 5) - 1].increment();
+        metrics.latency.record(elapsedNanos);
+    }
+
+    public @NotNull MetricsSnapshot snapshot() {
+        List<StatSnapshot> statSnapshots = new ArrayList<>();
+        for (ObjectCursor<StatMetrics> cursor : stats.values()) {
+            StatMetrics metrics = cursor.value;
+            statSnapshots.add(new StatSnapshot(metrics.stat, metrics.events.sum(), metrics.amount.sum(),
+                                               metrics.latency.snapshot()));
+        }
+        statSnapshots.sort(Comparator.comparing(snapshot -> snapshot.stat().name()));
+
+        List<EndpointSnapshot> endpointSnapshots = new ArrayList<>();
+        for (EndpointMetrics metrics : endpoints.values()) {
+            long[] statuses = new long[metrics.statuses.length];
+            for (int i = 0; i < statuses.length; i++) {
+                statuses[i] = metrics.statuses[i].sum();
+            }
+            endpointSnapshots.add(new EndpointSnapshot(metrics.name, metrics.requests.sum(), statuses,
+                                                       metrics.latency.snapshot()));
+        }
+        endpointSnapshots.sort(Comparator.comparing(EndpointSnapshot::endpoint));
+
+        return new MetricsSnapshot(statSnapshots, endpointSnapshots);
+    }
+
+    private synchronized @NotNull StatMetrics registerStat(@NotNull Stat stat) {
+        StatMetrics existing = stats.get(stat.key());
+        if (existing != null) {
+            return existing;
+        }
+        StatMetrics metrics = new StatMetrics(stat);
+        IntObjectMap<StatMetrics> copy = new IntObjectHashMap<>(stats);
+        copy.put(stat.key(), metrics);
+        stats = copy;
+        return metrics;
+    }
+
+    private static class StatMetrics {
+        private final Stat stat;
+        private final LongAdder events = new LongAdder();
+        private final LongAdder amount = new LongAdder();
+        private final LatencyHistogram latency = new LatencyHistogram();
+
+        private StatMetrics(@NotNull Stat stat) {
+            this.stat = stat;
+        }
+    }
+
+    private static class EndpointMetrics {
+        private final String name;
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder[] statuses = { new LongAdder(), new LongAdder(), new LongAdder(), new LongAdder(), new LongAdder() };
+        private final LatencyHistogram latency = new LatencyHistogram();
+
+        private EndpointMetrics(@NotNull RouteEndpoint endpoint) {
+            this.name = endpoint.describe();
+        }
+    }
+}
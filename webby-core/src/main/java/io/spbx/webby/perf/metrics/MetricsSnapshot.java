@@ -0,0 +1,19 @@
+package io.spbx.webby.perf.metrics;
+
+import io.spbx.webby.perf.stats.Stat;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+public record MetricsSnapshot(@NotNull List<StatSnapshot> stats, @NotNull List<EndpointSnapshot> endpoints) {
+    // `amount` is the sum of the reported values, i.e. the number of calls or bytes, depending on the `stat` unit
+    public record StatSnapshot(@NotNull Stat stat, long events, long amount, @NotNull HistogramSnapshot latency) {
+    }
+
+    // `statuses` are the response counts by the status class: 1xx, 2xx, 3xx, 4xx, 5xx
+    public record EndpointSnapshot(@NotNull String endpoint,
+                                   long requests,
+                                   long @NotNull [] statuses,
+                                   @NotNull HistogramSnapshot latency) {
+    }
+}
@@ -0,0 +1,101 @@
+package io.spbx.webby.perf.metrics;
+
+import io.spbx.webby.perf.metrics.MetricsSnapshot.EndpointSnapshot;
+import io.spbx.webby.perf.metrics.MetricsSnapshot.StatSnapshot;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+// Prometheus text exposition format (version 0.0.4).
+// The histograms are exported as summaries: the log-linear buckets are far too many for the Prometheus buckets.
+// See https://prometheus.io/docs/instrumenting/exposition_formats/
+public class PrometheusFormat {
+    public static final String CONTENT_TYPE = "text/plain; version=0.0.4";
+
+    private static final double[] QUANTILES = { 0.5, 0.9, 0.99, 0.999 };
+    private static final String[] STATUS_CLASSES = { "1xx", "2xx", "3xx", "4xx", "5xx" };
+
+    public static @NotNull String format(@NotNull MetricsSnapshot snapshot) {
+        StringBuilder builder = new StringBuilder(1024);
+
+        if (!snapshot.stats().isEmpty()) {
+            header(builder, "webby_stat_events_total", "counter", "Number of the reported events");
+            for (StatSnapshot stat : snapshot.stats()) {
+                sample(builder, "webby_stat_events_total", "stat", stat.stat().name(), null, null, stat.events());
+            }
+            header(builder, "webby_stat_amount_total", "counter", "Sum of the reported values (calls or bytes)");
+            for (StatSnapshot stat : snapshot.stats()) {
+                sample(builder, "webby_stat_amount_total", "stat", stat.stat().name(), "unit", stat.stat().unit().lowerName(),
+                       stat.amount());
+            }
+            header(builder, "webby_stat_latency_seconds", "summary", "Latency of the reported events");
+            for (StatSnapshot stat : snapshot.stats()) {
+                summary(builder, "webby_stat_latency_seconds", "stat", stat.stat().name(), stat.latency());
+            }
+        }
+
+        if (!snapshot.endpoints().isEmpty()) {
+            header(builder, "webby_http_requests_total", "counter", "Number of the handled requests by status class");
+            for (EndpointSnapshot endpoint : snapshot.endpoints()) {
+                long[] statuses = endpoint.statuses();
+                for (int i = 0; i < statuses.length; i++) {
+                    if (statuses[i] > 0) {
+                        sample(builder, "webby_http_requests_total", "endpoint", endpoint.endpoint(),
+                               "status", STATUS_CLASSES[i], statuses[i]);
+                    }
+                }
+            }
+            header(builder, "webby_http_request_latency_seconds", "summary", "Latency of the endpoint handling");
+            for (EndpointSnapshot endpoint : snapshot.endpoints()) {
+                summary(builder, "webby_http_request_latency_seconds", "endpoint", endpoint.endpoint(), endpoint.latency());
+            }
+        }
+
+        return builder.toString();
+    }
+
+    private static void header(@NotNull StringBuilder builder, @NotNull String name, @NotNull String type,
+                               @NotNull String help) {
+        builder.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        builder.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static void summary(@NotNull StringBuilder builder, @NotNull String name,
+                                @NotNull String label, @NotNull String value, @NotNull HistogramSnapshot latency) {
+        for (double quantile : QUANTILES) {
+            sample(builder, name, label, value, "quantile", String.valueOf(quantile), seconds(latency.valueAt(quantile)));
+        }
+        sample(builder, name + "_sum", label, value, null, null, seconds(latency.sum()));
+        sample(builder, name + "_count", label, value, null, null, latency.count());
+    }
+
+    private static void sample(@NotNull StringBuilder builder, @NotNull String name,
+                               @NotNull String label1, @NotNull String value1,
+                               @Nullable String label2, @Nullable String value2,
+                               @NotNull Object sample) {
+        builder.append(name).append('{').append(label1).append("=\"");
+        escapeLabelValue(builder, value1);
+        builder.append('"');
+        if (label2 != null) {
+            builder.append(',').append(label2).append("=\"");
+            escapeLabelValue(builder, value2);
+            builder.append('"');
+        }
+        builder.append("} ").append(sample).append('\n');
+    }
+
+    private static void escapeLabelValue(@NotNull StringBuilder builder, @NotNull String value) {
+        for (int i = 0; i < value.length(); i++) {
+            char ch = value.charAt(i);
+            switch (ch) {
+                case '\\' -> builder.append("\\\\");
+                case '"' -> builder.append("\\\"");
+                case '\n' -> builder.append("\\n");
+                default -> builder.append(ch);
+            }
+        }
+    }
+
+    private static double seconds(long nanos) {
+        return nanos / 1e9;
+    }
+}
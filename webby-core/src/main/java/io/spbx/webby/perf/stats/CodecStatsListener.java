@@ -4,5 +4,5 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 public interface CodecStatsListener {
-    void report(@NotNull Stat stat, int numBytes, long elapsedMillis, @Nullable Object hint);
+    void report(@NotNull Stat stat, int numBytes, long elapsedNanos, @Nullable Object hint);
 }
@@ -4,5 +4,5 @@ import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
 public interface RenderingStatsListener {
-    void report(@NotNull Stat stat, int size, long elapsedMillis, @Nullable Object hint);
+    void report(@NotNull Stat stat, int size, long elapsedNanos, @Nullable Object hint);
 }
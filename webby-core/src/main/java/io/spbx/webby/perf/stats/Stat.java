@@ -23,6 +23,10 @@ public record Stat(@NotNull String name, int key, Unit unit) {
     public static final Stat DB_SIZE = registerStat("db_size", 4, Unit.CALLS);
     public static final Stat DB_SCAN = registerStat("db_scan", 5, Unit.CALLS);
     public static final Stat DB_IO = registerStat("db_io", 6, Unit.CALLS);
+    public static final Stat DB_CACHE_HIT = registerStat("cache_hit", 7, Unit.CALLS);
+    public static final Stat DB_CACHE_MISS = registerStat("cache_miss", 8, Unit.CALLS);
+    public static final Stat DB_STATEMENT_HIT = registerStat("stmt_hit", 9, Unit.CALLS);
+    public static final Stat DB_STATEMENT_MISS = registerStat("stmt_miss", 10, Unit.CALLS);
 
     public static final Stat CODEC_READ = registerStat("codec_read", 101, Unit.BYTES);
     public static final Stat CODEC_WRITE = registerStat("codec_write", 102, Unit.BYTES);
@@ -1,6 +1,7 @@
 package io.spbx.webby.perf.stats.impl;
 
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 public class LocalStatsHolder {
     static final ThreadLocal<StatsCollector> localStatsRef = new ThreadLocal<>();
@@ -12,6 +13,10 @@ public class LocalStatsHolder {
         }
     };
 
+    public static @Nullable StatsCollector getLocalStatsOrNull() {
+        return localStatsRef.get();
+    }
+
     public static @NotNull StatsCollector getLocalStats() {
         StatsCollector stats = localStatsRef.get();
         return stats != null ? stats : EMPTY_COLLECTOR;
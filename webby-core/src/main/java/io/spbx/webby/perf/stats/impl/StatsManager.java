@@ -1,60 +1,104 @@
 package io.spbx.webby.perf.stats.impl;
 
+import com.google.inject.Inject;
+import io.spbx.webby.perf.metrics.MetricsRegistry;
 import io.spbx.webby.perf.stats.CodecStatsListener;
 import io.spbx.webby.perf.stats.DbStatsListener;
 import io.spbx.webby.perf.stats.RenderingStatsListener;
 import io.spbx.webby.perf.stats.Stat;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
 import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 import static io.spbx.webby.perf.stats.DbStatsListener.OpContext;
 
+// Reports every event to the process-wide metrics (if enabled) and to the current request stats (in profile mode).
 public class StatsManager {
     private static final OpContext EMPTY_CONTEXT = () -> {};
 
+    private final MetricsRegistry metrics;
+    private final ThreadLocal<LocalOpContext> outerContext = new ThreadLocal<>();
+
+    @Inject
+    public StatsManager(@NotNull MetricsRegistry metrics) {
+        this.metrics = metrics;
+    }
+
     public @NotNull DbStatsListener newDbListener() {
         return new DbStatsListener() {
             @Override
             public @NotNull OpContext report(@NotNull Stat stat) {
-                StatsCollector stats = LocalStatsHolder.getLocalStats();
-                if (stats.lock()) {
-                    return () -> stats.unlockAndReport(stat.key(), 1, null);
-                }
-                return EMPTY_CONTEXT;
+                return start(stat, 1, null);
             }
 
             @Override
             public @NotNull OpContext reportKey(@NotNull Stat stat, @NotNull Object key) {
-                StatsCollector stats = LocalStatsHolder.getLocalStats();
-                if (stats.lock()) {
-                    return () -> stats.unlockAndReport(stat.key(), 1, key);
-                }
-                return EMPTY_CONTEXT;
+                return start(stat, 1, key);
             }
 
             @Override
             public @NotNull OpContext reportKeys(@NotNull Stat stat, @NotNull List<?> keys) {
-                StatsCollector stats = LocalStatsHolder.getLocalStats();
-                if (stats.lock()) {
-                    return () -> stats.unlockAndReport(stat.key(), keys.size(), keys);
-                }
-                return EMPTY_CONTEXT;
+                return start(stat, keys.size(), keys);
             }
         };
     }
 
     public @NotNull CodecStatsListener newCodecStatsListener() {
-        return (stat, numBytes, elapsedMillis, hint) -> {
-            StatsCollector stats = LocalStatsHolder.getLocalStats();
-            stats.report(stat.key(), numBytes, elapsedMillis, hint);
-        };
+        return this::report;
     }
 
     public @NotNull RenderingStatsListener newRenderingStatsListener() {
-        return (stat, size, elapsedMillis, hint) -> {
-            StatsCollector stats = LocalStatsHolder.getLocalStats();
-            stats.report(stat.key(), size, elapsedMillis, hint);
-        };
+        return this::report;
+    }
+
+    // The nested operations (e.g. a db call from another db call) aren't reported, only the outer one.
+    // The thread only remembers its outer context, which can be closed on any thread.
+    private @NotNull OpContext start(@NotNull Stat stat, int count, @Nullable Object hint) {
+        LocalOpContext outer = outerContext.get();
+        if (outer != null && !outer.closed) {
+            return EMPTY_CONTEXT;
+        }
+        LocalOpContext context = new LocalOpContext(stat, count, hint);
+        outerContext.set(context);
+        return context;
+    }
+
+    private void report(@NotNull Stat stat, int count, long elapsedNanos, @Nullable Object hint) {
+        if (metrics.isEnabled()) {
+            metrics.recordStat(stat, count, elapsedNanos);
+        }
+        StatsCollector stats = LocalStatsHolder.getLocalStatsOrNull();
+        if (stats != null) {
+            stats.report(stat.key(), count, TimeUnit.NANOSECONDS.toMillis(elapsedNanos), hint);
+        }
+    }
+
+    // A fresh context per operation, so that nothing is shared between the operations and the threads
+    private class LocalOpContext implements OpContext {
+        private final Stat stat;
+        private final int count;
+        private Object hint;
+        private final long startNanos = System.nanoTime();
+        private volatile boolean closed;
+
+        private LocalOpContext(@NotNull Stat stat, int count, @Nullable Object hint) {
+            this.stat = stat;
+            this.count = count;
+            this.hint = hint;
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            long elapsedNanos = System.nanoTime() - startNanos;
+            Object hint = this.hint;
+            this.hint = null;
+            closed = true;
+            report(stat, count, elapsedNanos, hint);
+        }
     }
 }
@@ -0,0 +1,10 @@
+package io.spbx.webby.url.annotate;
+
+public enum Execution {
+    EVENT_LOOP,
+    VIRTUAL_THREAD,
+    WORKER_POOL;
+
+    public boolean isOffloaded() { return this != EVENT_LOOP; }
+    public boolean isThreadPerTask() { return this == VIRTUAL_THREAD; }
+}
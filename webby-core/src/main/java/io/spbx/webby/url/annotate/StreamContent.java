@@ -0,0 +1,14 @@
+package io.spbx.webby.url.annotate;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// The request content isn't aggregated in memory: the handler reads it as it arrives,
+// via `InputStream`, `HttpContentStream` or `ReadableByteChannel` content argument.
+// Implies an offloaded execution, because the reads block till the next chunk is received.
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface StreamContent {
+}
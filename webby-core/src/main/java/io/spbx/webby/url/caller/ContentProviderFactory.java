@@ -2,17 +2,30 @@ package io.spbx.webby.url.caller;
 
 import com.google.inject.Inject;
 import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.HttpUtil;
 import io.spbx.webby.netty.marshal.Marshaller;
 import io.spbx.webby.netty.marshal.MarshallerFactory;
+import io.spbx.webby.netty.request.HttpContentStream;
+import io.spbx.webby.url.HandlerConfigError;
 import io.spbx.webby.url.annotate.Marshal;
 import io.spbx.webby.url.impl.EndpointOptions;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+
 public class ContentProviderFactory {
     @Inject private MarshallerFactory factory;
 
     public @Nullable ContentProvider getContentProvider(@NotNull EndpointOptions options, @NotNull Class<?> klass) {
+        if (options.streamsContent()) {
+            return getStreamContentProvider(klass);
+        }
         return getContentProvider(options.in(), klass);
     }
 
@@ -26,4 +39,34 @@ public class ContentProviderFactory {
         }
         return null;
     }
+
+    private static @NotNull ContentProvider getStreamContentProvider(@NotNull Class<?> klass) {
+        if (klass == HttpContentStream.class || klass == InputStream.class) {
+            return new StreamContentProvider(false);
+        }
+        if (klass == ReadableByteChannel.class) {
+            return new StreamContentProvider(true);
+        }
+        throw new HandlerConfigError("Streamed content must be InputStream, HttpContentStream or ReadableByteChannel: %s",
+                                     klass);
+    }
+
+    // The requests which are aggregated anyway (e.g. over HTTP/2) get the stream over the aggregated content.
+    // The content is owned by the request, so the stream doesn't release it.
+    private record StreamContentProvider(boolean asChannel) implements ContentProvider {
+        @Override
+        public @NotNull Object getContent(@NotNull ByteBuf byteBuf, @NotNull Charset charset) {
+            return wrap(HttpContentStream.ofContent(Unpooled.unreleasableBuffer(byteBuf.duplicate())));
+        }
+
+        @Override
+        public @NotNull Object getContent(@NotNull FullHttpRequest request) {
+            HttpContentStream stream = HttpContentStream.ofRequestOrNull(request);
+            return stream != null ? wrap(stream) : getContent(request.content(), HttpUtil.getCharset(request));
+        }
+
+        private @NotNull Object wrap(@NotNull HttpContentStream stream) {
+            return asChannel ? Channels.newChannel(stream) : stream;
+        }
+    }
 }
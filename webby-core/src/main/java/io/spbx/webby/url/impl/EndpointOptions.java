@@ -1,6 +1,7 @@
 package io.spbx.webby.url.impl;
 
 import io.spbx.webby.url.annotate.Access;
+import io.spbx.webby.url.annotate.Execution;
 import io.spbx.webby.url.annotate.Marshal;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
@@ -9,9 +10,12 @@ public record EndpointOptions(@Nullable Marshal in, @NotNull Marshal out,
                               @NotNull EndpointHttp http,
                               @Nullable EndpointView<?> view,
                               int access,
-                              boolean expectsContent) {
+                              @NotNull Execution execution,
+                              boolean expectsContent,
+                              boolean streamsContent) {
     public static final EndpointOptions DEFAULT =
-            new EndpointOptions(null, Marshal.AS_STRING, EndpointHttp.EMPTY, null, Access.Public, false);
+            new EndpointOptions(null, Marshal.AS_STRING, EndpointHttp.EMPTY, null, Access.Public, Execution.EVENT_LOOP,
+                                false, false);
 
     public boolean requiresAuth() {
         return access >= Access.AuthUsersOnly;
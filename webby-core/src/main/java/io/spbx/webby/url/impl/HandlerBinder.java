@@ -9,8 +9,10 @@ import io.spbx.util.base.Pair;
 import io.spbx.util.time.TimeIt;
 import io.spbx.webby.app.AppConfigException;
 import io.spbx.webby.app.Settings;
+import io.spbx.webby.netty.response.HttpResponseFactory;
 import io.spbx.webby.netty.response.StaticServing;
 import io.spbx.webby.netty.response.UserContentServing;
+import io.spbx.webby.perf.metrics.MetricsRegistry;
 import io.spbx.webby.routekit.*;
 import io.spbx.webby.url.HandlerConfigError;
 import io.spbx.webby.url.UrlConfigError;
@@ -48,6 +50,8 @@ public class HandlerBinder {
     @Inject private RendererFactory rendererFactory;
     @Inject private StaticServing staticServing;
     @Inject private UserContentServing userContentServing;
+    @Inject private MetricsRegistry metrics;
+    @Inject private HttpResponseFactory responses;
 
     public @NotNull Router<RouteEndpoint> buildHandlerRouter() throws AppConfigException {
         Set<Class<?>> handlerClasses = scanner.getHandlerClassesFromClasspath();
@@ -58,7 +62,8 @@ public class HandlerBinder {
 
     @VisibleForTesting
     @NotNull RouterSetup<RouteEndpoint> getRouterSetup(@NotNull List<Binding> bindings) throws AppConfigException {
-        RouterSetup<RouteEndpoint> setup = new RouterSetup<>();
+        RouterSetup<RouteEndpoint> setup = new RouterSetup<RouteEndpoint>()
+            .withBuilder(new RouterBuilder().setCompiled(settings.getBool(Settings.URL_ROUTER_COMPILED)));
         QueryParser parser = settings.urlParser();
 
         BiConsumer<String, RouteEndpoint> setupConsumer = (url, endpoint) -> {
@@ -99,6 +104,10 @@ public class HandlerBinder {
         RouteEndpoint endpoint = new DynamicServingRouteEndpoint(userContentUrlPrefix, "", userContentServing);
         setupConsumer.accept(url, endpoint);
 
+        if (metrics.isEnabled()) {
+            setupConsumer.accept(settings.get(Settings.METRICS_URL), new MetricsRouteEndpoint(metrics, responses));
+        }
+
         return setup.withParser(parser);
     }
 
@@ -122,6 +131,7 @@ public class HandlerBinder {
         Marshal defaultIn = settings.defaultRequestContentMarshal();
         Marshal defaultOut = settings.defaultResponseContentMarshal();
         Render defaultRender = settings.defaultRender();
+        Execution defaultExecution = settings.defaultExecution();
 
         handlerClasses.forEach(klass -> {
             log.at(Level.ALL).log("Processing %s", klass);
@@ -140,6 +150,7 @@ public class HandlerBinder {
             Marshal classOut = getMarshalFromAnnotations(klass, defaultOut);
             EndpointHttp classHttp = getEndpointHttpFromAnnotation(klass);
             int classAccess = getOptionalAnnotation(klass, Access.class).map(Access::value).orElse(Access.Public);
+            Execution classExecution = getOptionalAnnotation(klass, Execute.class).map(Execute::value).orElse(defaultExecution);
 
             for (Method method : klass.getDeclaredMethods()) {
                 Marshal in = method.getParameterCount() > 0 ?
@@ -149,6 +160,13 @@ public class HandlerBinder {
                 EndpointHttp http = getEndpointHttpFromAnnotation(method).mergeWithDefault(classHttp);
                 EndpointView<?> view = getEndpointViewFromAnnotation(method, classRender);
                 int access = getOptionalAnnotation(method, Access.class).map(Access::value).orElse(classAccess);
+                boolean streamsContent = method.isAnnotationPresent(StreamContent.class);
+                Execution execution = getOptionalAnnotation(method, Execute.class).map(Execute::value).orElse(classExecution);
+                if (streamsContent && !execution.isOffloaded()) {
+                    log.at(Level.FINE).log("Streaming content handler is moved off the event loop: %s", method);
+                    execution = Execution.VIRTUAL_THREAD;
+                }
+                Execution endpointExecution = execution;
 
                 interface Sink {
                     void accept(String type, String url, boolean usuallyExpectsContent);
@@ -162,8 +180,9 @@ public class HandlerBinder {
 
                     method.setAccessible(true);
 
-                    boolean expectsContent = usuallyExpectsContent && in != null;
-                    EndpointOptions options = new EndpointOptions(in, out, http, view, access, expectsContent);
+                    boolean expectsContent = usuallyExpectsContent && (in != null || streamsContent);
+                    EndpointOptions options =
+                        new EndpointOptions(in, out, http, view, access, endpointExecution, expectsContent, streamsContent);
                     Binding binding = new Binding(url, method, type, options);
                     consumer.accept(binding);
                 };
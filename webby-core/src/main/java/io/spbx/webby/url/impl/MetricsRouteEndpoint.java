@@ -0,0 +1,50 @@
+package io.spbx.webby.url.impl;
+
+import io.netty.handler.codec.http.FullHttpRequest;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpRequest;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.spbx.util.base.CharArray;
+import io.spbx.webby.netty.response.HttpResponseFactory;
+import io.spbx.webby.perf.metrics.MetricsRegistry;
+import io.spbx.webby.perf.metrics.PrometheusFormat;
+import io.spbx.webby.url.caller.Caller;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Map;
+
+public final class MetricsRouteEndpoint implements RouteEndpoint {
+    private final Endpoint endpoint;
+    private final MetricsRegistry metrics;
+    private final HttpResponseFactory responses;
+
+    public MetricsRouteEndpoint(@NotNull MetricsRegistry metrics, @NotNull HttpResponseFactory responses) {
+        this.metrics = metrics;
+        this.responses = responses;
+        this.endpoint = new Endpoint(new MetricsCaller(), EndpointContext.EMPTY_CONTEXT, EndpointOptions.DEFAULT);
+    }
+
+    @Override
+    public @Nullable Endpoint getAcceptedEndpointOrNull(@NotNull HttpRequest request) {
+        return request.method().equals(HttpMethod.GET) || request.method().equals(HttpMethod.HEAD) ? endpoint : null;
+    }
+
+    @Override
+    public @NotNull String describe() {
+        return endpoint.caller().method().toString();
+    }
+
+    private class MetricsCaller implements Caller {
+        @Override
+        public Object call(@NotNull FullHttpRequest request, @NotNull Map<String, CharArray> variables) {
+            String content = PrometheusFormat.format(metrics.snapshot());
+            return responses.newResponse(content, HttpResponseStatus.OK, PrometheusFormat.CONTENT_TYPE);
+        }
+
+        @Override
+        public @NotNull Object method() {
+            return "MetricsCaller";
+        }
+    }
+}
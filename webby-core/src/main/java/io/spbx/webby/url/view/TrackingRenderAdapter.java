@@ -43,19 +43,19 @@ public class TrackingRenderAdapter<T> implements Renderer<T> {
 
     @Override
     public @NotNull String renderToString(@NotNull T template, @NotNull Object model) throws Exception {
-        long start = System.currentTimeMillis();
+        long start = System.nanoTime();
         String rendered = delegate.renderToString(template, model);
-        long elapsedMillis = System.currentTimeMillis() - start;
-        listener.report(Stat.RENDER, rendered.length(), elapsedMillis, delegate);
+        long elapsedNanos = System.nanoTime() - start;
+        listener.report(Stat.RENDER, rendered.length(), elapsedNanos, delegate);
         return rendered;
     }
 
     @Override
     public byte @NotNull [] renderToBytes(@NotNull T template, @NotNull Object model) throws Exception {
-        long start = System.currentTimeMillis();
+        long start = System.nanoTime();
         byte @NotNull [] rendered = delegate.renderToBytes(template, model);
-        long elapsedMillis = System.currentTimeMillis() - start;
-        listener.report(Stat.RENDER, rendered.length, elapsedMillis, delegate);
+        long elapsedNanos = System.nanoTime() - start;
+        listener.report(Stat.RENDER, rendered.length, elapsedNanos, delegate);
         return rendered;
     }
 
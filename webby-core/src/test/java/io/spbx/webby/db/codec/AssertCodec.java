@@ -8,6 +8,7 @@ import org.jetbrains.annotations.NotNull;
 
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
 import java.util.Arrays;
 
 import static com.google.common.truth.Truth.assertThat;
@@ -40,6 +41,17 @@ public class AssertCodec {
             assertSize(buffer.remaining(), predictedSize);
             assertThat(codec.readFromByteBuffer(buffer)).isEqualTo(value);
 
+            // The buffer order must not affect the encoding
+            ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length + 2).order(ByteOrder.LITTLE_ENDIAN).position(1);
+            assertThat(codec.writeTo(direct, value)).isEqualTo(bytes.length);
+            assertThat(direct.position()).isEqualTo(bytes.length + 1);
+            direct.flip().position(1);
+            byte[] directBytes = new byte[bytes.length];
+            direct.get(1, directBytes);
+            assertBytes(directBytes).isEqualTo(bytes);
+            assertThat(codec.readFrom(direct)).isEqualTo(value);
+            assertThat(direct.hasRemaining()).isFalse();
+
             ByteBuf byteBuf = codec.writeToByteBuf(value);
             assertSize(byteBuf.readableBytes(), predictedSize);
             assertThat(codec.readFromByteBuf(byteBuf)).isEqualTo(value);
@@ -24,6 +24,7 @@ public class CodecProviderTest {
         assertCodec(provider.getCodecOrDie(Long.class)).roundtrip(0L);
         assertCodec(provider.getCodecOrDie(String.class)).roundtrip("");
         assertCodec(provider.getCodecOrDie(String.class)).roundtrip("foo");
+        assertCodec(provider.getCodecOrDie(String.class)).roundtrip("фу".repeat(5000));
         assertCodec(provider.getCodecOrDie(IntArrayList.class)).roundtrip(IntArrayList.from(1, 2, 3));
         assertCodec(provider.getCodecOrDie(IntHashSet.class)).roundtrip(IntHashSet.from(1, 2, 3));
         assertCodec(provider.getCodecOrDie(DefaultSession.class)).roundtrip(SessionBuilder.ofId(123).build());
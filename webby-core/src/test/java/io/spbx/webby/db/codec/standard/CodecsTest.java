@@ -7,6 +7,10 @@ import okio.Buffer;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
 
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
 import static com.google.common.truth.Truth.assertThat;
 import static io.spbx.util.testing.TestingBytes.CHARSET;
 import static io.spbx.util.testing.TestingBytes.assertBytes;
@@ -106,4 +110,21 @@ public class CodecsTest {
             assertThat(readShortString(buffer.inputStream(), CHARSET)).isEqualTo(input);
         }
     }
+
+    @ParameterizedTest
+    @ValueSource(booleans = {false, true})
+    public void string_direct_buffer(boolean virtual) throws Exception {
+        ByteBuffer direct = ByteBuffer.allocateDirect(64);
+        writeString("foo", CHARSET, direct);
+        writeString("barbaz", CHARSET, direct);
+        direct.flip();
+
+        List<String> result = new ArrayList<>();
+        Thread thread = (virtual ? Thread.ofVirtual() : Thread.ofPlatform()).start(() -> {
+            result.add(readString(direct, CHARSET));
+            result.add(readString(direct, CHARSET));
+        });
+        thread.join();
+        assertThat(result).containsExactly("foo", "barbaz").inOrder();
+    }
 }
@@ -0,0 +1,69 @@
+package io.spbx.webby.db.codec.standard;
+
+import io.spbx.webby.db.codec.Codec;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.google.common.truth.Truth.assertThat;
+import static io.spbx.webby.db.codec.AssertCodec.assertCodec;
+import static io.spbx.webby.db.codec.standard.OrderedCodecs.*;
+
+public class OrderedCodecsTest {
+    @Test
+    public void int_roundtrip_and_order() throws Exception {
+        List<Integer> sorted = List.of(Integer.MIN_VALUE, -100, -1, 0, 1, 255, 256, Integer.MAX_VALUE);
+        for (int value : sorted) {
+            assertCodec(ORDERED_INT_CODEC).roundtrip(value);
+        }
+        assertOrdered(ORDERED_INT_CODEC, sorted);
+    }
+
+    @Test
+    public void long_roundtrip_and_order() throws Exception {
+        List<Long> sorted = List.of(Long.MIN_VALUE, -100L, -1L, 0L, 1L, 1L << 40, Long.MAX_VALUE);
+        for (long value : sorted) {
+            assertCodec(ORDERED_LONG_CODEC).roundtrip(value);
+        }
+        assertOrdered(ORDERED_LONG_CODEC, sorted);
+    }
+
+    @Test
+    public void instant_roundtrip_and_order() throws Exception {
+        List<Instant> sorted = List.of(Instant.MIN, Instant.parse("1900-01-01T00:00:00Z"), Instant.ofEpochMilli(-1000),
+                                       Instant.ofEpochSecond(-1, 999_999_999), Instant.ofEpochMilli(0),
+                                       Instant.ofEpochMilli(1), Instant.parse("2024-01-01T00:00:00.000000001Z"),
+                                       Instant.parse("2600-01-01T00:00:00Z"), Instant.MAX);
+        for (Instant value : sorted) {
+            assertCodec(ORDERED_INSTANT_CODEC).roundtrip(value);
+        }
+        assertOrdered(ORDERED_INSTANT_CODEC, sorted);
+    }
+
+    @Test
+    public void string_roundtrip_and_order() throws Exception {
+        List<String> sorted = List.of("", "a", "ab", "abc", "b", "z", "é", "中");
+        for (String value : sorted) {
+            assertCodec(ORDERED_STRING_CODEC).roundtrip(value);
+        }
+        assertOrdered(ORDERED_STRING_CODEC, sorted);
+    }
+
+    @Test
+    public void string_prefix_is_byte_prefix() {
+        byte[] prefix = ORDERED_STRING_CODEC.writeToBytes("ab");
+        byte[] bytes = ORDERED_STRING_CODEC.writeToBytes("abc");
+        assertThat(Arrays.copyOf(bytes, prefix.length)).isEqualTo(prefix);
+    }
+
+    private static <T> void assertOrdered(@NotNull Codec<T> codec, @NotNull List<T> sorted) {
+        for (int i = 1; i < sorted.size(); i++) {
+            byte[] prev = codec.writeToBytes(sorted.get(i - 1));
+            byte[] next = codec.writeToBytes(sorted.get(i));
+            assertThat(Arrays.compareUnsigned(prev, next)).isLessThan(0);
+        }
+    }
+}
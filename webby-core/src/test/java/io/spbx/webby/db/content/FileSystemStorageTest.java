@@ -7,6 +7,7 @@ import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.EnumSource;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.nio.file.FileSystem;
 import java.nio.file.Files;
@@ -40,6 +41,26 @@ public class FileSystemStorageTest {
         assertBytes(Files.readAllBytes(root.resolve("dir/foo.txt"))).isEqualTo(CONTENT);
     }
 
+    @ParameterizedTest
+    @EnumSource(Scenario.class)
+    public void add_new_file_from_stream(Scenario scenario) throws IOException {
+        setup(scenario);
+        storage.addFile(new FileId("dir/foo.txt"), new ByteArrayInputStream(CONTENT), WriteMode.FAIL_IF_EXISTS);
+        assertThat(Files.exists(root.resolve("dir/foo.txt"))).isTrue();
+        assertBytes(Files.readAllBytes(root.resolve("dir/foo.txt"))).isEqualTo(CONTENT);
+    }
+
+    @ParameterizedTest
+    @EnumSource(Scenario.class)
+    public void add_file_from_stream_overwrite(Scenario scenario) throws IOException {
+        setup(scenario);
+        FileId fileId = new FileId("foo.txt");
+        storage.addFile(fileId, "bar".getBytes(), WriteMode.FAIL_IF_EXISTS);
+        assertThrows(Throwable.class, () -> storage.addFile(fileId, new ByteArrayInputStream(CONTENT), WriteMode.FAIL_IF_EXISTS));
+        storage.addFile(fileId, new ByteArrayInputStream(CONTENT), WriteMode.OVERWRITE);
+        assertBytes(Files.readAllBytes(root.resolve("foo.txt"))).isEqualTo(CONTENT);
+    }
+
     @ParameterizedTest
     @EnumSource(Scenario.class)
     public void add_file_already_exists_fails(Scenario scenario) throws IOException {
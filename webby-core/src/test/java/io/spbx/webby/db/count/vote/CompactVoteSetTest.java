@@ -0,0 +1,64 @@
+package io.spbx.webby.db.count.vote;
+
+import com.carrotsearch.hppc.IntHashSet;
+import org.junit.jupiter.api.Test;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class CompactVoteSetTest {
+    @Test
+    public void initial_votes() {
+        CompactVoteSet set = new CompactVoteSet(IntHashSet.from(5, -3, 1));
+        assertThat(set.count()).isEqualTo(1);
+        assertThat(set.vote(1)).isEqualTo(1);
+        assertThat(set.vote(3)).isEqualTo(-1);
+        assertThat(set.vote(5)).isEqualTo(1);
+        assertThat(set.vote(7)).isEqualTo(0);
+        assertThat(set.snapshot()).asList().containsExactly(-3, 1, 5).inOrder();
+        assertThat(set.isDirty()).isFalse();
+    }
+
+    @Test
+    public void update_votes() {
+        CompactVoteSet set = new CompactVoteSet(new IntHashSet());
+
+        assertThat(set.updateVote(1, 1)).isTrue();
+        assertThat(set.updateVote(1, 1)).isFalse();
+        assertThat(set.updateVote(-2, -1)).isTrue();
+        assertThat(set.count()).isEqualTo(0);
+        assertThat(set.vote(1)).isEqualTo(1);
+        assertThat(set.vote(2)).isEqualTo(-1);
+
+        assertThat(set.updateVote(2, 1)).isTrue();
+        assertThat(set.vote(2)).isEqualTo(0);
+        assertThat(set.count()).isEqualTo(1);
+        assertThat(set.snapshot()).asList().containsExactly(1);
+    }
+
+    @Test
+    public void compacted_on_large_delta() {
+        CompactVoteSet set = new CompactVoteSet(new IntHashSet());
+        for (int actor = 1; actor <= 1000; actor++) {
+            set.updateVote(actor % 2 == 0 ? actor : -actor, actor % 2 == 0 ? 1 : -1);
+        }
+        assertThat(set.count()).isEqualTo(0);
+        assertThat(set.vote(500)).isEqualTo(1);
+        assertThat(set.vote(501)).isEqualTo(-1);
+        assertThat(set.snapshot()).hasLength(1000);
+    }
+
+    @Test
+    public void mark_stored() {
+        CompactVoteSet set = new CompactVoteSet(IntHashSet.from(1));
+        int[] stored = set.stored();
+
+        set.updateVote(2, 1);
+        assertThat(set.isDirty()).isTrue();
+
+        int[] snapshot = set.snapshot();
+        assertThat(CompactVoteSet.toSet(snapshot)).isEqualTo(IntHashSet.from(1, 2));
+        assertThat(set.markStored(stored, snapshot)).isTrue();
+        assertThat(set.isDirty()).isFalse();
+        assertThat(set.markStored(stored, snapshot)).isFalse();
+    }
+}
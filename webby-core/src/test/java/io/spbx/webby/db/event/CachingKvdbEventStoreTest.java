@@ -0,0 +1,108 @@
+package io.spbx.webby.db.event;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.Multimap;
+import io.spbx.webby.db.kv.javamap.JavaMapDbFactory;
+import io.spbx.webby.db.managed.FlushMode;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class CachingKvdbEventStoreTest {
+    private final CachingKvdbEventStore<Integer, String> store = new CachingKvdbEventStore<>(
+        new JavaMapDbFactory().inMemoryDb(new ConcurrentHashMap<>()), events -> events, 100, 1000, 8, 4
+    );
+
+    @Test
+    public void append_get_delete() {
+        store.append(1, "a");
+        store.append(2, "b");
+        store.append(1, "c");
+        assertThat(store.getAll(1)).containsExactly("a", "c");
+        assertThat(store.cache().size()).isEqualTo(3);
+
+        store.flush(FlushMode.FULL_CLEAR);
+        assertThat(store.cache().isEmpty()).isTrue();
+        assertThat(store.getAll(1)).containsExactly("a", "c");
+
+        store.append(1, "d");
+        assertThat(store.getAll(1)).containsExactly("a", "c", "d");
+
+        store.deleteAll(1);
+        assertThat(store.getAll(1)).isEmpty();
+        assertThat(store.getAll(2)).containsExactly("b");
+    }
+
+    @Test
+    public void flush_on_hard_limit() {
+        for (int i = 0; i < 1000; i++) {
+            store.append(i % 10, "event-" + i);
+        }
+        assertThat(store.cache().isEmpty()).isTrue();
+        assertThat(store.db().size()).isEqualTo(10);
+    }
+
+    @Test
+    public void concurrent_append_and_flush() throws Exception {
+        int threads = 8;
+        int eventsPerThread = 5000;
+        int keys = 50;
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads + 1);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            AtomicBoolean appending = new AtomicBoolean(true);
+            List<Future<?>> appenders = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                appenders.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < eventsPerThread; i++) {
+                        store.append(i % keys, thread + ":" + i);
+                    }
+                    return null;
+                }));
+            }
+            Future<?> flusher = executor.submit(() -> {
+                start.await();
+                while (appending.get()) {
+                    store.flush(FlushMode.INCREMENTAL);
+                }
+                return null;
+            });
+
+            start.countDown();
+            for (Future<?> appender : appenders) {
+                appender.get(1, TimeUnit.MINUTES);
+            }
+            appending.set(false);
+            flusher.get(1, TimeUnit.MINUTES);
+        } finally {
+            executor.shutdown();
+        }
+
+        Multimap<Integer, String> expected = ArrayListMultimap.create();
+        for (int t = 0; t < threads; t++) {
+            for (int i = 0; i < eventsPerThread; i++) {
+                expected.put(i % keys, t + ":" + i);
+            }
+        }
+        for (int key = 0; key < keys; key++) {
+            assertThat(store.getAll(key)).containsExactlyElementsIn(expected.get(key));
+        }
+        store.flush(FlushMode.FULL_CLEAR);
+        for (int key = 0; key < keys; key++) {
+            assertThat(store.getAll(key)).containsExactlyElementsIn(expected.get(key));
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package io.spbx.webby.db.event;
+
+import io.spbx.webby.db.managed.FlushMode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static com.google.common.truth.Truth.assertThat;
+import static io.spbx.webby.db.codec.standard.OrderedCodecs.ORDERED_STRING_CODEC;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class MappedEventLogTest {
+    @TempDir private Path dir;
+
+    @Test
+    public void append_and_forEach() {
+        try (MappedEventLog<String> log = new MappedEventLog<>(MappedEventLogOptions.of(dir), ORDERED_STRING_CODEC)) {
+            log.append("foo");
+            log.append("");
+            log.append("bar");
+            assertThat(readAll(log)).containsExactly("foo", "", "bar").inOrder();
+        }
+    }
+
+    @Test
+    public void readFrom_tailing() {
+        try (MappedEventLog<String> log = new MappedEventLog<>(MappedEventLogOptions.of(dir), ORDERED_STRING_CODEC)) {
+            long offset = log.appendAndGetOffset("a");
+            log.append("b");
+
+            List<String> events = new ArrayList<>();
+            offset = log.readFrom(offset, events::add);
+            assertThat(events).containsExactly("a", "b").inOrder();
+            assertThat(offset).isEqualTo(log.endOffset());
+
+            log.append("c");
+            events.clear();
+            offset = log.readFrom(offset, events::add);
+            assertThat(events).containsExactly("c");
+            assertThat(log.readFrom(offset, events::add)).isEqualTo(offset);
+        }
+    }
+
+    @Test
+    public void segments_roll_and_retention() throws IOException {
+        MappedEventLogOptions options = MappedEventLogOptions.of(dir).withSegmentSize(64).withRetainSegments(3);
+        try (MappedEventLog<String> log = new MappedEventLog<>(options, ORDERED_STRING_CODEC)) {
+            for (int i = 0; i < 100; i++) {
+                log.append("event-%02d".formatted(i));
+            }
+            assertThat(segmentFiles()).hasSize(3);
+
+            List<String> events = readAll(log);
+            assertThat(events).isNotEmpty();
+            assertThat(events.getLast()).isEqualTo("event-99");
+
+            assertThrows(IllegalArgumentException.class, () -> log.append("x".repeat(100)));
+        }
+    }
+
+    @Test
+    public void append_too_large_keeps_segments() throws IOException {
+        MappedEventLogOptions options = MappedEventLogOptions.of(dir).withSegmentSize(64).withRetainSegments(2);
+        try (MappedEventLog<String> log = new MappedEventLog<>(options, ORDERED_STRING_CODEC)) {
+            for (int i = 0; i < 10; i++) {
+                log.append("event-%02d".formatted(i));
+            }
+            List<String> events = readAll(log);
+            List<Path> files = segmentFiles();
+
+            assertThrows(IllegalArgumentException.class, () -> log.append("x".repeat(100)));
+            assertThrows(IllegalArgumentException.class, () -> log.append("x".repeat(100)));
+            assertThat(readAll(log)).isEqualTo(events);
+            assertThat(segmentFiles()).isEqualTo(files);
+
+            log.append("last");
+            assertThat(readAll(log).getLast()).isEqualTo("last");
+        }
+    }
+
+    @Test
+    public void truncateBefore() {
+        MappedEventLogOptions options = MappedEventLogOptions.of(dir).withSegmentSize(64);
+        try (MappedEventLog<String> log = new MappedEventLog<>(options, ORDERED_STRING_CODEC)) {
+            for (int i = 0; i < 20; i++) {
+                log.append("event-%02d".formatted(i));
+            }
+            long offset = log.endOffset();
+            log.append("last");
+            log.truncateBefore(offset);
+            assertThat(log.startOffset()).isAtMost(offset);
+            assertThat(readAll(log).getLast()).isEqualTo("last");
+            assertThat(readAll(log)).doesNotContain("event-00");
+        }
+    }
+
+    @Test
+    public void reopen_recovers_events() {
+        MappedEventLogOptions options = MappedEventLogOptions.of(dir).withSegmentSize(256).withGroupCommit(2, 0);
+        try (MappedEventLog<String> log = new MappedEventLog<>(options, ORDERED_STRING_CODEC)) {
+            for (int i = 0; i < 30; i++) {
+                log.append("event-%02d".formatted(i));
+            }
+        }
+        try (MappedEventLog<String> log = new MappedEventLog<>(options, ORDERED_STRING_CODEC)) {
+            assertThat(readAll(log)).hasSize(30);
+            log.append("more");
+            log.flush(FlushMode.INCREMENTAL);
+            assertThat(readAll(log)).hasSize(31);
+        }
+    }
+
+    @Test
+    public void reopen_truncates_corrupted_tail() throws IOException {
+        long corruptedOffset;
+        try (MappedEventLog<String> log = new MappedEventLog<>(MappedEventLogOptions.of(dir), ORDERED_STRING_CODEC)) {
+            log.append("foo");
+            corruptedOffset = log.appendAndGetOffset("bar");
+        }
+
+        Path segment = segmentFiles().getFirst();
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] { 1, 2, 3 }), corruptedOffset + MappedEventLog.HEADER_SIZE);
+        }
+
+        try (MappedEventLog<String> log = new MappedEventLog<>(MappedEventLogOptions.of(dir), ORDERED_STRING_CODEC)) {
+            assertThat(readAll(log)).containsExactly("foo");
+            log.append("baz");
+            assertThat(readAll(log)).containsExactly("foo", "baz").inOrder();
+        }
+    }
+
+    private static List<String> readAll(MappedEventLog<String> log) {
+        List<String> events = new ArrayList<>();
+        log.forEach(events::add);
+        return events;
+    }
+
+    private List<Path> segmentFiles() throws IOException {
+        try (Stream<Path> stream = Files.list(dir)) {
+            return stream.sorted().toList();
+        }
+    }
+}
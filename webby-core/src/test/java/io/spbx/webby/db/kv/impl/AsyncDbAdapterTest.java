@@ -0,0 +1,65 @@
+package io.spbx.webby.db.kv.impl;
+
+import com.google.common.util.concurrent.MoreExecutors;
+import io.spbx.webby.db.kv.KeyValueDb;
+import io.spbx.webby.db.kv.javamap.JavaMapDbFactory;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class AsyncDbAdapterTest {
+    private final Map<Integer, String> backing = new HashMap<>();
+    private final KeyValueDb<Integer, String> delegate = new JavaMapDbFactory().inMemoryDb(backing);
+
+    @Test
+    public void get_and_getAll() {
+        backing.putAll(Map.of(1, "foo", 2, "bar"));
+        AsyncDbAdapter<Integer, String> db = new AsyncDbAdapter<>(delegate, MoreExecutors.directExecutor());
+
+        assertThat(db.getAsync(1).join()).isEqualTo("foo");
+        assertThat(db.getAsync(3).join()).isNull();
+        assertThat(db.getAllAsync(List.of(2, 3, 1)).join()).containsExactly("bar", null, "foo").inOrder();
+        assertThat(db.getAllAsync(new Integer[] { 1 }).join()).containsExactly("foo");
+    }
+
+    @Test
+    public void put_and_delete() {
+        AsyncDbAdapter<Integer, String> db = new AsyncDbAdapter<>(delegate, MoreExecutors.directExecutor());
+
+        db.putAsync(1, "foo").join();
+        db.putAllAsync(Map.of(2, "bar", 3, "baz")).join();
+        assertThat(backing).containsExactly(1, "foo", 2, "bar", 3, "baz");
+
+        db.deleteAsync(2).join();
+        assertThat(backing).containsExactly(1, "foo", 3, "baz");
+    }
+
+    @Test
+    public void runs_on_executor() {
+        ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> new Thread(runnable, "db-test"));
+        try {
+            KeyValueDb<Integer, String> threadNameDb = new DefaultKeyValueDb<>(new HashMap<Integer, String>()) {
+                @Override
+                public String get(Integer key) {
+                    return Thread.currentThread().getName();
+                }
+
+                @Override
+                public void flush() {}
+
+                @Override
+                public void close() {}
+            };
+            AsyncDbAdapter<Integer, String> db = new AsyncDbAdapter<>(threadNameDb, executor);
+            assertThat(db.getAsync(1).join()).isEqualTo("db-test");
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
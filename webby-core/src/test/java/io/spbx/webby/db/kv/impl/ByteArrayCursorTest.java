@@ -0,0 +1,109 @@
+package io.spbx.webby.db.kv.impl;
+
+import io.spbx.webby.db.kv.ScanOptions;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+
+import java.util.*;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class ByteArrayCursorTest {
+    private final NavigableMap<byte[], byte[]> map = new TreeMap<>(Arrays::compareUnsigned);
+
+    @Test
+    public void forward_and_reverse() {
+        putAll("a", "b", "c", "d");
+        assertThat(keys(cursor(ScanOptions.all()))).containsExactly("a", "b", "c", "d").inOrder();
+        assertThat(keys(cursor(ScanOptions.range("b", "d")))).containsExactly("b", "c").inOrder();
+        assertThat(keys(cursor(ScanOptions.range("b", "d").withReverse()))).containsExactly("c", "b").inOrder();
+        assertThat(keys(cursor(ScanOptions.range("x", "z")))).isEmpty();
+    }
+
+    @Test
+    public void prefix() {
+        putAll("a", "ab", "abc", "b");
+        assertThat(keys(cursor(ScanOptions.prefix("ab")))).containsExactly("ab", "abc").inOrder();
+        assertThat(keys(cursor(ScanOptions.prefix("ab").withReverse()))).containsExactly("abc", "ab").inOrder();
+    }
+
+    @Test
+    public void limit_and_resume() {
+        putAll("a", "b", "c", "d", "e");
+        ScanOptions<String> page = ScanOptions.<String>all().withLimit(2);
+
+        FakeCursor first = cursor(page);
+        assertThat(keys(first)).containsExactly("a", "b").inOrder();
+        FakeCursor second = cursor(page.resumeAfter(first.resumeToken()));
+        assertThat(keys(second)).containsExactly("c", "d").inOrder();
+        FakeCursor third = cursor(page.resumeAfter(second.resumeToken()));
+        assertThat(keys(third)).containsExactly("e");
+        assertThat(third.resumeToken()).isNull();
+    }
+
+    @Test
+    public void limit_and_resume_reverse() {
+        putAll("a", "b", "c");
+        ScanOptions<String> page = ScanOptions.<String>all().withReverse().withLimit(2);
+
+        FakeCursor first = cursor(page);
+        assertThat(keys(first)).containsExactly("c", "b").inOrder();
+        FakeCursor second = cursor(page.resumeAfter(first.resumeToken()));
+        assertThat(keys(second)).containsExactly("a");
+        assertThat(second.resumeToken()).isNull();
+    }
+
+    @Test
+    public void close_once() {
+        putAll("a", "b");
+        FakeCursor cursor = cursor(ScanOptions.all());
+        cursor.close();
+        cursor.close();
+        assertThat(cursor.released).isEqualTo(1);
+        assertThat(cursor.hasNext()).isFalse();
+    }
+
+    private void putAll(@NotNull String @NotNull ... keys) {
+        for (String key : keys) {
+            map.put(key.getBytes(), key.getBytes());
+        }
+    }
+
+    private @NotNull FakeCursor cursor(@NotNull ScanOptions<String> options) {
+        return new FakeCursor(ByteRange.of(options, String::getBytes), options.limit());
+    }
+
+    private static @NotNull List<String> keys(@NotNull FakeCursor cursor) {
+        List<String> keys = new ArrayList<>();
+        cursor.forEachRemaining(entry -> keys.add(entry.getKey()));
+        return keys;
+    }
+
+    private class FakeCursor extends ByteArrayCursor<String, String> {
+        private final Iterator<Map.Entry<byte[], byte[]>> iterator;
+        private int released;
+
+        private FakeCursor(@NotNull ByteRange range, int limit) {
+            super(range, limit, String::new, String::new);
+            NavigableMap<byte[], byte[]> view = map;
+            if (range.reverse()) {
+                view = range.upper() != null ? view.headMap(range.upper(), false) : view;
+                iterator = view.descendingMap().entrySet().iterator();
+            } else {
+                view = range.lower() != null ? view.tailMap(range.lower(), true) : view;
+                iterator = view.entrySet().iterator();
+            }
+        }
+
+        @Override
+        protected @Nullable Map.Entry<byte[], byte[]> advance() {
+            return iterator.hasNext() ? iterator.next() : null;
+        }
+
+        @Override
+        protected void release() {
+            released++;
+        }
+    }
+}
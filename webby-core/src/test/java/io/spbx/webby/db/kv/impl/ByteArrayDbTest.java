@@ -0,0 +1,84 @@
+package io.spbx.webby.db.kv.impl;
+
+import io.spbx.webby.db.codec.Codec;
+import io.spbx.webby.db.codec.CodecProvider;
+import io.spbx.webby.testing.Testing;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class ByteArrayDbTest {
+    private static final Codec<String> STRING_CODEC =
+        Testing.testStartup().getInstance(CodecProvider.class).getCodecOrDie(String.class);
+
+    private final ByteArrayDb<Integer, String> db = new ByteArrayDb<>(CodecProvider.INT_CODEC, STRING_CODEC) {};
+
+    @Test
+    public void directBufferFromKey_reused() {
+        ByteBuffer buffer1 = db.directBufferFromKey(1);
+        assertThat(buffer1.isDirect()).isTrue();
+        assertThat(buffer1.remaining()).isEqualTo(4);
+        assertThat(db.asKey(buffer1)).isEqualTo(1);
+
+        ByteBuffer buffer2 = db.directBufferFromKey(2);
+        assertThat(buffer2).isSameInstanceAs(buffer1);
+        assertThat(db.asKey(buffer2)).isEqualTo(2);
+    }
+
+    @Test
+    public void directBufferFromValue_separate_from_key() {
+        ByteBuffer key = db.directBufferFromKey(777);
+        ByteBuffer value = db.directBufferFromValue("foo");
+        assertThat(value).isNotSameInstanceAs(key);
+        assertThat(db.asKey(key)).isEqualTo(777);
+        assertThat(db.asValue(value)).isEqualTo("foo");
+    }
+
+    @Test
+    public void directBufferFromValue_grows() {
+        String large = "a".repeat(10_000);
+        ByteBuffer buffer = db.directBufferFromValue(large);
+        assertThat(buffer.isDirect()).isTrue();
+        assertThat(buffer.remaining()).isEqualTo(10_004);
+        assertThat(db.asValue(buffer)).isEqualTo(large);
+
+        ByteBuffer small = db.directBufferFromValue("bar");
+        assertThat(small).isSameInstanceAs(buffer);
+        assertThat(db.asValue(small)).isEqualTo("bar");
+    }
+
+    @Test
+    public void directOutputBuffer_capacity() {
+        assertThat(db.directOutputBuffer(0).remaining()).isAtLeast(1);
+        assertThat(db.directOutputBuffer(100_000).remaining()).isAtLeast(100_000);
+    }
+
+    @Test
+    public void directBuffers_virtual_threads() throws Exception {
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < 100; i++) {
+                int key = i;
+                futures.add(executor.submit(() -> {
+                    ByteBuffer buffer1 = db.directBufferFromKey(key);
+                    ByteBuffer buffer2 = db.directBufferFromValue("foo-" + key);
+                    assertThat(buffer1.isDirect()).isTrue();
+                    assertThat(buffer1.capacity()).isEqualTo(4);
+                    assertThat(db.asKey(buffer1)).isEqualTo(key);
+                    assertThat(db.asValue(buffer2)).isEqualTo("foo-" + key);
+                    assertThat(db.directOutputBuffer(16).capacity()).isAtLeast(16);
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package io.spbx.webby.db.kv.impl;
+
+import io.spbx.webby.db.kv.ScanOptions;
+import org.junit.jupiter.api.Test;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class ByteRangeTest {
+    @Test
+    public void of_unbounded() {
+        ByteRange range = ByteRange.of(ScanOptions.<String>all(), String::getBytes);
+        assertThat(range.lower()).isNull();
+        assertThat(range.upper()).isNull();
+        assertThat(range.contains(new byte[0])).isTrue();
+        assertThat(range.isEmpty()).isFalse();
+    }
+
+    @Test
+    public void of_range() {
+        ByteRange range = ByteRange.of(ScanOptions.range("b", "d"), String::getBytes);
+        assertThat(range.contains("a".getBytes())).isFalse();
+        assertThat(range.contains("b".getBytes())).isTrue();
+        assertThat(range.contains("cz".getBytes())).isTrue();
+        assertThat(range.contains("d".getBytes())).isFalse();
+    }
+
+    @Test
+    public void of_prefix() {
+        ByteRange range = ByteRange.of(ScanOptions.prefix("ab"), String::getBytes);
+        assertThat(range.lower()).isEqualTo("ab".getBytes());
+        assertThat(range.upper()).isEqualTo("ac".getBytes());
+        assertThat(range.contains("a".getBytes())).isFalse();
+        assertThat(range.contains("ab".getBytes())).isTrue();
+        assertThat(range.contains("abzzz".getBytes())).isTrue();
+        assertThat(range.contains("ac".getBytes())).isFalse();
+    }
+
+    @Test
+    public void of_prefix_intersects_range() {
+        ByteRange range = ByteRange.of(new ScanOptions<>("abc", "z", "ab", false, 0, null), String::getBytes);
+        assertThat(range.lower()).isEqualTo("abc".getBytes());
+        assertThat(range.upper()).isEqualTo("ac".getBytes());
+    }
+
+    @Test
+    public void of_resume_forward() {
+        String token = ByteRange.encodeToken("b".getBytes());
+        ByteRange range = ByteRange.of(ScanOptions.<String>range("a", "d").resumeAfter(token), String::getBytes);
+        assertThat(range.contains("b".getBytes())).isFalse();
+        assertThat(range.contains("b\0".getBytes())).isTrue();
+        assertThat(range.contains("c".getBytes())).isTrue();
+    }
+
+    @Test
+    public void of_resume_reverse() {
+        String token = ByteRange.encodeToken("b".getBytes());
+        ByteRange range = ByteRange.of(ScanOptions.<String>range("a", "d").withReverse().resumeAfter(token), String::getBytes);
+        assertThat(range.reverse()).isTrue();
+        assertThat(range.contains("a".getBytes())).isTrue();
+        assertThat(range.contains("b".getBytes())).isFalse();
+        assertThat(range.contains("c".getBytes())).isFalse();
+    }
+
+    @Test
+    public void isEmpty() {
+        assertThat(ByteRange.of(ScanOptions.range("b", "b"), String::getBytes).isEmpty()).isTrue();
+        assertThat(ByteRange.of(ScanOptions.range("c", "b"), String::getBytes).isEmpty()).isTrue();
+    }
+
+    @Test
+    public void prefixUpperBound() {
+        assertThat(ByteRange.prefixUpperBound(new byte[] { 1, 2 })).isEqualTo(new byte[] { 1, 3 });
+        assertThat(ByteRange.prefixUpperBound(new byte[] { 1, (byte) 0xFF })).isEqualTo(new byte[] { 2 });
+        assertThat(ByteRange.prefixUpperBound(new byte[] { (byte) 0xFF, (byte) 0xFF })).isNull();
+        assertThat(ByteRange.prefixUpperBound(new byte[0])).isNull();
+    }
+
+    @Test
+    public void token_roundtrip() {
+        byte[] key = { 0, 1, (byte) 0xFF, 127, -128 };
+        assertThat(ByteRange.decodeToken(ByteRange.encodeToken(key))).isEqualTo(key);
+    }
+}
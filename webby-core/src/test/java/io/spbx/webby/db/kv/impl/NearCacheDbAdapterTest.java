@@ -0,0 +1,137 @@
+package io.spbx.webby.db.kv.impl;
+
+import io.spbx.webby.db.kv.KeyValueDb;
+import io.spbx.webby.db.kv.NearCacheOptions;
+import io.spbx.webby.db.kv.javamap.JavaMapDbFactory;
+import io.spbx.webby.db.managed.FlushMode;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class NearCacheDbAdapterTest {
+    private final Map<Integer, String> backing = new HashMap<>();
+    private final KeyValueDb<Integer, String> delegate = new JavaMapDbFactory().inMemoryDb(backing);
+
+    @Test
+    public void get_cached_after_first_read() {
+        backing.put(1, "foo");
+        NearCacheDbAdapter<Integer, String> db = new NearCacheDbAdapter<>(delegate, NearCacheOptions.ofMaxSize(10), null);
+
+        assertThat(db.get(1)).isEqualTo("foo");
+        backing.put(1, "bar");
+        assertThat(db.get(1)).isEqualTo("foo");
+        assertThat(db.cachedSize()).isEqualTo(1);
+    }
+
+    @Test
+    public void get_missing_without_negative_caching() {
+        NearCacheDbAdapter<Integer, String> db = new NearCacheDbAdapter<>(delegate, NearCacheOptions.ofMaxSize(10), null);
+
+        assertThat(db.get(1)).isNull();
+        backing.put(1, "foo");
+        assertThat(db.get(1)).isEqualTo("foo");
+    }
+
+    @Test
+    public void get_missing_with_negative_caching() {
+        NearCacheOptions<Integer, String> options = NearCacheOptions.<Integer, String>ofMaxSize(10).withNegativeCaching();
+        NearCacheDbAdapter<Integer, String> db = new NearCacheDbAdapter<>(delegate, options, null);
+
+        assertThat(db.get(1)).isNull();
+        backing.put(1, "foo");
+        assertThat(db.get(1)).isNull();
+    }
+
+    @Test
+    public void getAll_mixed_cached_and_loaded() {
+        backing.putAll(Map.of(1, "foo", 2, "bar"));
+        NearCacheDbAdapter<Integer, String> db = new NearCacheDbAdapter<>(delegate, NearCacheOptions.ofMaxSize(10), null);
+
+        assertThat(db.get(2)).isEqualTo("bar");
+        assertThat(db.getAll(List.of(1, 2, 3))).containsExactly("foo", "bar", null).inOrder();
+        assertThat(db.cachedSize()).isEqualTo(2);
+    }
+
+    @Test
+    public void eviction_bounded_by_size() {
+        NearCacheDbAdapter<Integer, String> db = new NearCacheDbAdapter<>(delegate, NearCacheOptions.ofMaxSize(5), null);
+        for (int i = 0; i < 100; i++) {
+            db.set(i, "value-" + i);
+        }
+        assertThat(db.cachedSize()).isAtMost(5);
+        assertThat(backing).hasSize(100);
+        assertThat(db.get(0)).isEqualTo("value-0");
+    }
+
+    @Test
+    public void write_through_set_and_delete() {
+        NearCacheDbAdapter<Integer, String> db = new NearCacheDbAdapter<>(delegate, NearCacheOptions.ofMaxSize(10), null);
+
+        db.set(1, "foo");
+        assertThat(backing).containsExactly(1, "foo");
+        assertThat(db.get(1)).isEqualTo("foo");
+
+        db.delete(1);
+        assertThat(backing).isEmpty();
+        assertThat(db.get(1)).isNull();
+        assertThat(db.pendingSize()).isEqualTo(0);
+    }
+
+    @Test
+    public void write_behind_coalesced_until_flush() {
+        NearCacheOptions<Integer, String> options = NearCacheOptions.<Integer, String>ofMaxSize(10).withWriteBehind(100);
+        NearCacheDbAdapter<Integer, String> db = new NearCacheDbAdapter<>(delegate, options, null);
+        backing.put(3, "baz");
+
+        db.set(1, "foo");
+        db.set(1, "bar");
+        db.set(2, "foo");
+        db.delete(3);
+        assertThat(backing).containsExactly(3, "baz");
+        assertThat(db.pendingSize()).isEqualTo(3);
+        assertThat(db.get(1)).isEqualTo("bar");
+        assertThat(db.get(3)).isNull();
+
+        db.flush(FlushMode.INCREMENTAL);
+        assertThat(backing).containsExactly(1, "bar", 2, "foo");
+        assertThat(db.pendingSize()).isEqualTo(0);
+    }
+
+    @Test
+    public void write_behind_flushed_on_batch_size() {
+        NearCacheOptions<Integer, String> options = NearCacheOptions.<Integer, String>ofMaxSize(10).withWriteBehind(3);
+        NearCacheDbAdapter<Integer, String> db = new NearCacheDbAdapter<>(delegate, options, null);
+
+        db.set(1, "foo");
+        db.set(2, "bar");
+        assertThat(backing).isEmpty();
+        db.set(3, "baz");
+        assertThat(backing).containsExactly(1, "foo", 2, "bar", 3, "baz");
+        assertThat(db.pendingSize()).isEqualTo(0);
+    }
+
+    @Test
+    public void write_behind_scan_sees_pending() {
+        NearCacheOptions<Integer, String> options = NearCacheOptions.<Integer, String>ofMaxSize(10).withWriteBehind(100);
+        NearCacheDbAdapter<Integer, String> db = new NearCacheDbAdapter<>(delegate, options, null);
+
+        db.set(1, "foo");
+        assertThat(db.size()).isEqualTo(1);
+        assertThat(db.copyToMap()).containsExactly(1, "foo");
+    }
+
+    @Test
+    public void full_clear_flushes_and_invalidates() {
+        NearCacheOptions<Integer, String> options = NearCacheOptions.<Integer, String>ofMaxSize(10).withWriteBehind(100);
+        NearCacheDbAdapter<Integer, String> db = new NearCacheDbAdapter<>(delegate, options, null);
+
+        db.set(1, "foo");
+        db.flush(FlushMode.FULL_CLEAR);
+        assertThat(backing).containsExactly(1, "foo");
+        assertThat(db.cachedSize()).isEqualTo(0);
+    }
+}
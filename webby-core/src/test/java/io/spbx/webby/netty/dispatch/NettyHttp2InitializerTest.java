@@ -0,0 +1,172 @@
+package io.spbx.webby.netty.dispatch;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelInitializer;
+import io.netty.channel.DefaultChannelId;
+import io.netty.channel.ServerChannel;
+import io.netty.channel.SimpleChannelInboundHandler;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.*;
+import io.netty.handler.codec.http2.*;
+import io.netty.util.ReferenceCountUtil;
+import io.spbx.util.props.InMemoryProperties;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class NettyHttp2InitializerTest {
+    private final List<String> served = new ArrayList<>();
+    private final List<Object> http1 = new ArrayList<>();
+    // HTTP/2 multiplexing on the server side requires a `ServerChannel` parent
+    private final EmbeddedChannel server =
+        new EmbeddedChannel(new EmbeddedServerChannel(), DefaultChannelId.newInstance(), true, false);
+
+    @AfterEach
+    void tearDown() {
+        http1.forEach(ReferenceCountUtil::release);
+        server.finishAndReleaseAll();
+    }
+
+    @Test
+    public void http1_passes_through() {
+        initServer();
+        server.writeInbound(ascii("GET /foo HTTP/1.1\r\nHost: localhost\r\n\r\n"));
+
+        assertThat(http1).hasSize(2);
+        assertThat(http1.getFirst()).isInstanceOf(HttpRequest.class);
+        assertThat(((HttpRequest) http1.getFirst()).uri()).isEqualTo("/foo");
+        assertThat(served).isEmpty();
+    }
+
+    @Test
+    public void h2c_upgrade() {
+        initServer();
+        server.writeInbound(ascii("""
+            GET /foo HTTP/1.1\r
+            Host: localhost\r
+            Connection: Upgrade, HTTP2-Settings\r
+            Upgrade: h2c\r
+            HTTP2-Settings: AAMAAABkAAQAAP__\r
+            \r
+            """));
+
+        assertThat(readOutboundAscii()).startsWith("HTTP/1.1 101 Switching Protocols");
+        assertThat(served).containsExactly("/foo");
+        assertThat(http1).isEmpty();
+        assertThat(server.pipeline().get(Http2FrameCodec.class)).isNotNull();
+        assertThat(server.pipeline().get(HttpServerCodec.class)).isNull();
+    }
+
+    @Test
+    public void h2c_prior_knowledge_multiplexed() {
+        initServer();
+
+        List<String> responses = new ArrayList<>();
+        EmbeddedChannel client = new EmbeddedChannel(
+            Http2FrameCodecBuilder.forClient().build(),
+            new Http2MultiplexHandler(new ChannelInboundHandlerAdapter())
+        );
+        try {
+            List<Http2StreamChannel> streams = List.of(openStream(client, responses), openStream(client, responses));
+            for (int i = 0; i < streams.size(); i++) {
+                FullHttpRequest request = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, "/stream/" + i);
+                request.headers().set(HttpHeaderNames.HOST, "localhost");
+                streams.get(i).writeAndFlush(request);
+            }
+            exchange(client);
+
+            assertThat(served).containsExactly("/stream/0", "/stream/1");
+            assertThat(responses).containsExactly("/stream/0", "/stream/1");
+            assertThat(http1).isEmpty();
+            assertThat(server.pipeline().get(Http2FrameCodec.class)).isNotNull();
+        } finally {
+            client.finishAndReleaseAll();
+        }
+    }
+
+    private void initServer() {
+        NettyConst nc = new NettyConst(new InMemoryProperties());
+        new NettyHttp2Initializer(nc, () -> new HttpObjectAggregator(nc.maxContentLength), EchoHandler::new).initCleartext(server.pipeline());
+        server.pipeline().addLast(new ChannelInboundHandlerAdapter() {
+            @Override
+            public void channelRead(@NotNull ChannelHandlerContext context, @NotNull Object message) {
+                if (message instanceof HttpObject) {
+                    http1.add(message);
+                } else {
+                    ReferenceCountUtil.release(message);
+                }
+            }
+        });
+    }
+
+    private static @NotNull Http2StreamChannel openStream(@NotNull EmbeddedChannel client, @NotNull List<String> responses) {
+        ChannelInitializer<Http2StreamChannel> initializer = new ChannelInitializer<>() {
+            @Override
+            protected void initChannel(@NotNull Http2StreamChannel channel) {
+                channel.pipeline().addLast(new Http2StreamFrameToHttpObjectCodec(false));
+                channel.pipeline().addLast(new HttpObjectAggregator(1 << 16));
+                channel.pipeline().addLast(new SimpleChannelInboundHandler<FullHttpResponse>() {
+                    @Override
+                    protected void channelRead0(@NotNull ChannelHandlerContext context, @NotNull FullHttpResponse response) {
+                        responses.add(response.content().toString(StandardCharsets.US_ASCII));
+                    }
+                });
+            }
+        };
+        return new Http2StreamChannelBootstrap(client).handler(initializer).open().syncUninterruptibly().getNow();
+    }
+
+    // Pumps the bytes between the client and the server till both are quiet
+    private void exchange(@NotNull EmbeddedChannel client) {
+        boolean progress = true;
+        while (progress) {
+            progress = false;
+            client.runPendingTasks();
+            server.runPendingTasks();
+            ByteBuf buf;
+            while ((buf = client.readOutbound()) != null) {
+                server.writeInbound(buf);
+                progress = true;
+            }
+            while ((buf = server.readOutbound()) != null) {
+                client.writeInbound(buf);
+                progress = true;
+            }
+        }
+    }
+
+    private @NotNull String readOutboundAscii() {
+        ByteBuf buf = server.readOutbound();
+        try {
+            return buf.toString(StandardCharsets.US_ASCII);
+        } finally {
+            buf.release();
+        }
+    }
+
+    private static @NotNull ByteBuf ascii(@NotNull String content) {
+        return Unpooled.copiedBuffer(content, StandardCharsets.US_ASCII);
+    }
+
+    private static class EmbeddedServerChannel extends EmbeddedChannel implements ServerChannel {}
+
+    private class EchoHandler extends SimpleChannelInboundHandler<FullHttpRequest> {
+        @Override
+        protected void channelRead0(@NotNull ChannelHandlerContext context, @NotNull FullHttpRequest request) {
+            served.add(request.uri());
+            ByteBuf content = ascii(request.uri());
+            FullHttpResponse response = new DefaultFullHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK, content);
+            HttpUtil.setContentLength(response, content.readableBytes());
+            context.writeAndFlush(response);
+        }
+    }
+}
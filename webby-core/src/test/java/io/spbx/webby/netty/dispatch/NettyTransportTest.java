@@ -0,0 +1,36 @@
+package io.spbx.webby.netty.dispatch;
+
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import org.junit.jupiter.api.Test;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class NettyTransportTest {
+    @Test
+    public void resolve_nio() {
+        assertThat(NettyTransport.NIO.resolve()).isEqualTo(NettyTransport.NIO);
+        assertThat(NettyTransport.NIO.serverChannelClass()).isEqualTo(NioServerSocketChannel.class);
+        assertThat(NettyTransport.NIO.reusePortOption()).isNull();
+    }
+
+    @Test
+    public void resolve_always_concrete() {
+        for (NettyTransport transport : NettyTransport.values()) {
+            NettyTransport resolved = transport.resolve();
+            assertThat(resolved).isNotEqualTo(NettyTransport.AUTO);
+            assertThat(resolved.resolve()).isEqualTo(resolved);
+        }
+    }
+
+    @Test
+    public void newEventLoopGroup_nio() {
+        EventLoopGroup group = NettyTransport.NIO.newEventLoopGroup(1);
+        try {
+            assertThat(group).isInstanceOf(NioEventLoopGroup.class);
+        } finally {
+            group.shutdownGracefully();
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package io.spbx.webby.netty.request;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.DefaultHttpContent;
+import io.netty.handler.codec.http.DefaultLastHttpContent;
+import io.netty.handler.codec.http.LastHttpContent;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.channels.ClosedChannelException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.truth.Truth.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class HttpContentStreamTest {
+    private final EmbeddedChannel channel = new EmbeddedChannel();
+
+    @Test
+    public void read_all_chunks() throws IOException {
+        HttpContentStream stream = new HttpContentStream(channel, 4, 8);
+        stream.offer(content("foo"));
+        stream.offer(content(""));
+        stream.offer(content("bar"));
+        stream.offer(LastHttpContent.EMPTY_LAST_CONTENT);
+
+        assertThat(stream.isCompleted()).isTrue();
+        assertThat(new String(stream.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("foobar");
+        assertThat(stream.read()).isEqualTo(-1);
+    }
+
+    @Test
+    public void read_partial_chunks() throws IOException {
+        HttpContentStream stream = new HttpContentStream(channel, 4, 8);
+        stream.offer(lastContent("foobar"));
+
+        byte[] bytes = new byte[4];
+        assertThat(stream.available()).isEqualTo(6);
+        assertThat(stream.read(bytes, 0, 4)).isEqualTo(4);
+        assertThat(stream.available()).isEqualTo(2);
+        assertThat(stream.read(bytes, 0, 4)).isEqualTo(2);
+        assertThat(stream.read(bytes, 0, 4)).isEqualTo(-1);
+    }
+
+    @Test
+    public void backpressure_pauses_and_resumes_channel() throws IOException {
+        HttpContentStream stream = new HttpContentStream(channel, 2, 4);
+
+        // Initially paused (the request is being dispatched): the first read resumes
+        channel.config().setAutoRead(false);
+        stream.offer(content("f"));
+        assertThat(stream.read()).isEqualTo((int) 'f');
+        channel.runPendingTasks();
+        assertThat(channel.config().isAutoRead()).isTrue();
+
+        // Above the high water mark: pauses
+        stream.offer(content("oo"));
+        assertThat(channel.config().isAutoRead()).isTrue();
+        stream.offer(content("bar"));
+        assertThat(channel.config().isAutoRead()).isFalse();
+
+        // Drained down to the low water mark: resumes
+        assertThat(stream.read(new byte[4], 0, 4)).isEqualTo(2);
+        channel.runPendingTasks();
+        assertThat(channel.config().isAutoRead()).isFalse();
+        assertThat(stream.read()).isEqualTo((int) 'b');
+        channel.runPendingTasks();
+        assertThat(channel.config().isAutoRead()).isTrue();
+        stream.offer(LastHttpContent.EMPTY_LAST_CONTENT);
+        assertThat(new String(stream.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("ar");
+    }
+
+    @Test
+    public void reader_waits_for_content() throws Exception {
+        HttpContentStream stream = new HttpContentStream(channel, 2, 4);
+        CompletableFuture<byte[]> future = CompletableFuture.supplyAsync(() -> readAllSilently(stream));
+        Thread.sleep(50);
+        assertThat(future.isDone()).isFalse();
+
+        stream.offer(lastContent("foo"));
+        assertThat(new String(future.get(10, TimeUnit.SECONDS), StandardCharsets.UTF_8)).isEqualTo("foo");
+    }
+
+    @Test
+    public void close_discards_content() throws IOException {
+        HttpContentStream stream = new HttpContentStream(channel, 2, 4);
+        ByteBuf buf = Unpooled.copiedBuffer("foo", StandardCharsets.UTF_8);
+        stream.offer(new DefaultHttpContent(buf));
+        stream.close();
+        assertThat(buf.refCnt()).isEqualTo(0);
+
+        ByteBuf next = Unpooled.copiedBuffer("bar", StandardCharsets.UTF_8);
+        stream.offer(new DefaultLastHttpContent(next));
+        assertThat(next.refCnt()).isEqualTo(0);
+        assertThrows(IOException.class, stream::read);
+    }
+
+    @Test
+    public void fail_wakes_up_reader() {
+        HttpContentStream stream = new HttpContentStream(channel, 2, 4);
+        stream.offer(content("f"));
+        stream.fail(new ClosedChannelException());
+
+        assertThrows(IOException.class, stream::readAllBytes);
+    }
+
+    @Test
+    public void of_content() throws IOException {
+        ByteBuf buf = Unpooled.copiedBuffer("foobar", StandardCharsets.UTF_8);
+        HttpContentStream stream = HttpContentStream.ofContent(buf);
+
+        assertThat(stream.isCompleted()).isTrue();
+        assertThat(stream.available()).isEqualTo(6);
+        assertThat(new String(stream.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo("foobar");
+        assertThat(stream.read()).isEqualTo(-1);
+        assertThat(buf.refCnt()).isEqualTo(0);
+    }
+
+    @Test
+    public void of_content_close_releases() {
+        ByteBuf buf = Unpooled.copiedBuffer("foo", StandardCharsets.UTF_8);
+        HttpContentStream.ofContent(buf).close();
+        assertThat(buf.refCnt()).isEqualTo(0);
+    }
+
+    private static byte @NotNull [] readAllSilently(@NotNull HttpContentStream stream) {
+        try {
+            return stream.readAllBytes();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static @NotNull DefaultHttpContent content(@NotNull String content) {
+        return new DefaultHttpContent(Unpooled.copiedBuffer(content, StandardCharsets.UTF_8));
+    }
+
+    private static @NotNull DefaultLastHttpContent lastContent(@NotNull String content) {
+        return new DefaultLastHttpContent(Unpooled.copiedBuffer(content, StandardCharsets.UTF_8));
+    }
+}
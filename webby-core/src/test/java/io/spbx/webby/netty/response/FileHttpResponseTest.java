@@ -0,0 +1,79 @@
+package io.spbx.webby.netty.response;
+
+import io.netty.channel.FileRegion;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.*;
+import io.netty.handler.stream.ChunkedWriteHandler;
+import io.netty.util.ReferenceCountUtil;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class FileHttpResponseTest {
+    @TempDir private Path dir;
+
+    @Test
+    public void chunkedContent() throws IOException {
+        FileHttpResponse response = newResponse("0123456789", 2, 5);
+        assertThat(readChunked(response)).isEqualTo("23456");
+    }
+
+    @Test
+    public void chunkedContent_multiple_regions() throws IOException {
+        Path path = Files.writeString(dir.resolve("foo.txt"), "0123456789");
+        List<FileHttpResponse.Region> regions = List.of(
+            new FileHttpResponse.Region("[".getBytes(), 0, 2),
+            new FileHttpResponse.Region(new byte[0], 5, 0),
+            new FileHttpResponse.Region("|".getBytes(), 8, 2)
+        );
+        FileHttpResponse response =
+            new FileHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.PARTIAL_CONTENT, path, regions, "]".getBytes());
+        assertThat(response.contentLength()).isEqualTo(7);
+        assertThat(readChunked(response)).isEqualTo("[01|89]");
+    }
+
+    @Test
+    public void regionContent() throws IOException {
+        FileHttpResponse response = newResponse("0123456789", 2, 5);
+        List<Object> content = response.regionContent();
+        try {
+            assertThat(content).hasSize(2);
+            assertThat(((FileRegion) content.getFirst()).position()).isEqualTo(2);
+            assertThat(((FileRegion) content.getFirst()).count()).isEqualTo(5);
+            assertThat(content.getLast()).isSameInstanceAs(LastHttpContent.EMPTY_LAST_CONTENT);
+        } finally {
+            content.forEach(ReferenceCountUtil::release);
+        }
+    }
+
+    private static @NotNull String readChunked(@NotNull FileHttpResponse response) throws IOException {
+        EmbeddedChannel channel = new EmbeddedChannel(new ChunkedWriteHandler());
+        channel.writeAndFlush(response.chunkedContent());
+
+        StringBuilder content = new StringBuilder();
+        HttpContent chunk;
+        boolean last = false;
+        while ((chunk = channel.readOutbound()) != null) {
+            content.append(chunk.content().toString(StandardCharsets.US_ASCII));
+            last = chunk instanceof LastHttpContent;
+            chunk.release();
+        }
+        assertThat(last).isTrue();
+        assertThat(channel.finish()).isFalse();
+        return content.toString();
+    }
+
+    private @NotNull FileHttpResponse newResponse(@NotNull String content, long position, long count)
+            throws IOException {
+        Path path = Files.writeString(dir.resolve("foo.txt"), content);
+        return new FileHttpResponse(HttpVersion.HTTP_1_1, HttpResponseStatus.OK, path, position, count);
+    }
+}
@@ -0,0 +1,287 @@
+package io.spbx.webby.netty.response;
+
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.http.*;
+import io.spbx.webby.app.AppSettings;
+import io.spbx.webby.app.Settings;
+import io.spbx.webby.netty.HttpConst;
+import io.spbx.webby.testing.Testing;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class HttpCachingRequestProcessorTest {
+    @TempDir private Path dir;
+    private HttpCachingRequestProcessor processor;
+
+    @BeforeEach
+    void setUp() {
+        processor = Testing.testStartup((AppSettings settings) -> {
+            settings.setWebPath(dir);
+            settings.setString(Settings.STATIC_CACHE_MAX_FILE_SIZE.key(), "16");
+        }).getInstance(HttpCachingRequestProcessor.class);
+    }
+
+    @Test
+    public void small_file_in_memory() throws IOException {
+        Path path = write("foo.txt", "foo", 1000);
+
+        HttpResponse response = processor.process(path, get());
+        assertThat(response.status()).isEqualTo(HttpResponseStatus.OK);
+        assertThat(contentOf(response)).isEqualTo("foo");
+        assertThat(response.headers().get(HttpConst.CONTENT_LENGTH)).isEqualTo("3");
+        assertThat(response.headers().get(HttpConst.CONTENT_DISPOSITION)).isEqualTo("inline");
+        assertThat(response.headers().get(HttpConst.LAST_MODIFIED)).isEqualTo(HttpCaching.lastModifiedValue(1000));
+        assertThat(response.headers().get(HttpConst.ETAG)).isEqualTo(etagOf("foo"));
+        assertThat(response.headers().contains(HttpConst.VARY)).isFalse();
+
+        // The cached content is shared, the responses are not
+        assertThat(contentOf(processor.process(path, get()))).isEqualTo("foo");
+    }
+
+    @Test
+    public void small_file_not_modified() throws IOException {
+        Path path = write("foo.txt", "foo", 1000);
+
+        HttpRequest request = get();
+        request.headers().set(HttpConst.IF_NONE_MATCH, etagOf("foo"));
+        assertThat(processor.process(path, request).status()).isEqualTo(HttpResponseStatus.NOT_MODIFIED);
+    }
+
+    @Test
+    public void small_file_modified() throws IOException {
+        Path path = write("foo.txt", "foo", 1000);
+        assertThat(contentOf(processor.process(path, get()))).isEqualTo("foo");
+
+        write("foo.txt", "foobar", 2000);
+        HttpResponse response = processor.process(path, get());
+        assertThat(contentOf(response)).isEqualTo("foobar");
+        assertThat(response.headers().get(HttpConst.ETAG)).isEqualTo(etagOf("foobar"));
+    }
+
+    @Test
+    public void large_file_not_in_memory() throws IOException {
+        Path path = write("foo.txt", "0123456789abcdefghij", 1000);
+
+        HttpResponse response = processor.process(path, get());
+        assertThat(response).isInstanceOf(FileHttpResponse.class);
+        assertThat(((FileHttpResponse) response).contentLength()).isEqualTo(20);
+        assertThat(response.headers().get(HttpConst.CONTENT_LENGTH)).isEqualTo("20");
+        assertThat(response.headers().get(HttpConst.LAST_MODIFIED)).isEqualTo(HttpCaching.lastModifiedValue(1000));
+    }
+
+    @Test
+    public void file_does_not_exist() throws IOException {
+        assertThat(processor.process(dir.resolve("foo.txt"), get()).status()).isEqualTo(HttpResponseStatus.NOT_FOUND);
+        assertThat(processor.process(dir, get()).status()).isEqualTo(HttpResponseStatus.NOT_FOUND);
+    }
+
+    @Test
+    public void precompressed_siblings() throws IOException {
+        Path path = write("foo.js", "foo", 1000);
+        write("foo.js.gz", "gzip", 1000);
+        write("foo.js.br", "brotli", 1000);
+
+        assertEncoded(processor.process(path, get()), "foo", null);
+        assertEncoded(processor.process(path, get("gzip")), "gzip", "gzip");
+        assertEncoded(processor.process(path, get("gzip, deflate, br")), "brotli", "br");
+        assertEncoded(processor.process(path, get("br;q=0, gzip;q=0.5")), "gzip", "gzip");
+        assertEncoded(processor.process(path, get("identity")), "foo", null);
+    }
+
+    @Test
+    public void precompressed_stale_sibling_ignored() throws IOException {
+        Path path = write("foo.js", "foo", 2000);
+        write("foo.js.gz", "gzip", 1000);
+
+        HttpResponse response = processor.process(path, get("gzip"));
+        assertThat(contentOf(response)).isEqualTo("foo");
+        assertThat(response.headers().contains(HttpConst.CONTENT_ENCODING)).isFalse();
+    }
+
+    @Test
+    public void range_single_in_memory() throws IOException {
+        Path path = write("foo.txt", "0123456789", 1000);
+
+        HttpResponse response = processor.process(path, get(HttpConst.RANGE, "bytes=2-5"));
+        assertThat(response.status()).isEqualTo(HttpResponseStatus.PARTIAL_CONTENT);
+        assertThat(contentOf(response)).isEqualTo("2345");
+        assertThat(response.headers().get(HttpConst.CONTENT_LENGTH)).isEqualTo("4");
+        assertThat(response.headers().get(HttpConst.CONTENT_RANGE)).isEqualTo("bytes 2-5/10");
+
+        // The cached content is intact
+        assertThat(contentOf(processor.process(path, get()))).isEqualTo("0123456789");
+    }
+
+    @Test
+    public void range_multiple_in_memory() throws IOException {
+        Path path = write("foo.txt", "0123456789", 1000);
+
+        HttpResponse response = processor.process(path, get(HttpConst.RANGE, "bytes=0-1,-2"));
+        assertThat(response.status()).isEqualTo(HttpResponseStatus.PARTIAL_CONTENT);
+        String contentType = response.headers().get(HttpConst.CONTENT_TYPE);
+        assertThat(contentType).startsWith("multipart/byteranges; boundary=");
+        String boundary = contentType.substring(contentType.indexOf('=') + 1);
+        assertThat(contentOf(response)).isEqualTo("""
+            --%1$s\r
+            Content-Type: text/plain\r
+            Content-Range: bytes 0-1/10\r
+            \r
+            01\r
+            --%1$s\r
+            Content-Type: text/plain\r
+            Content-Range: bytes 8-9/10\r
+            \r
+            89\r
+            --%1$s--\r
+            """.formatted(boundary));
+        assertThat(response.headers().getInt(HttpConst.CONTENT_LENGTH)).isEqualTo(contentOf(response).length());
+    }
+
+    @Test
+    public void range_large_file() throws IOException {
+        Path path = write("foo.txt", "0123456789abcdefghij", 1000);
+
+        HttpResponse response = processor.process(path, get(HttpConst.RANGE, "bytes=10-"));
+        assertThat(response.status()).isEqualTo(HttpResponseStatus.PARTIAL_CONTENT);
+        assertThat(response).isInstanceOf(FileHttpResponse.class);
+        assertThat(((FileHttpResponse) response).contentLength()).isEqualTo(10);
+        assertThat(response.headers().get(HttpConst.CONTENT_RANGE)).isEqualTo("bytes 10-19/20");
+        assertThat(response.headers().get(HttpConst.ETAG)).isEqualTo(HttpCaching.fileEtag(20, 1000));
+    }
+
+    @Test
+    public void range_multiple_large_file() throws IOException {
+        Path path = write("foo.txt", "0123456789abcdefghij", 1000);
+
+        HttpResponse response = processor.process(path, get(HttpConst.RANGE, "bytes=0-1,10-11"));
+        assertThat(response.status()).isEqualTo(HttpResponseStatus.PARTIAL_CONTENT);
+        assertThat(response).isInstanceOf(FileHttpResponse.class);
+        assertThat(response.headers().get(HttpConst.CONTENT_TYPE)).startsWith("multipart/byteranges; boundary=");
+        assertThat(response.headers().getInt(HttpConst.CONTENT_LENGTH))
+            .isEqualTo((int) ((FileHttpResponse) response).contentLength());
+    }
+
+    @Test
+    public void range_not_satisfiable() throws IOException {
+        Path path = write("foo.txt", "0123456789", 1000);
+
+        HttpResponse response = processor.process(path, get(HttpConst.RANGE, "bytes=10-"));
+        assertThat(response.status()).isEqualTo(HttpResponseStatus.REQUESTED_RANGE_NOT_SATISFIABLE);
+        assertThat(response.headers().get(HttpConst.CONTENT_RANGE)).isEqualTo("bytes */10");
+    }
+
+    @Test
+    public void range_ignored() throws IOException {
+        Path path = write("foo.txt", "0123456789", 1000);
+
+        HttpResponse response = processor.process(path, get(HttpConst.RANGE, "lines=1-2"));
+        assertThat(response.status()).isEqualTo(HttpResponseStatus.OK);
+        assertThat(response.headers().get(HttpConst.ACCEPT_RANGES)).isEqualTo("bytes");
+        assertThat(contentOf(response)).isEqualTo("0123456789");
+    }
+
+    @Test
+    public void if_range() throws IOException {
+        Path path = write("foo.txt", "0123456789abcdefghij", 1000);
+        String etag = HttpCaching.fileEtag(20, 1000);
+
+        HttpRequest matching = get(HttpConst.RANGE, "bytes=0-1");
+        matching.headers().set(HttpConst.IF_RANGE, etag);
+        assertThat(processor.process(path, matching).status()).isEqualTo(HttpResponseStatus.PARTIAL_CONTENT);
+
+        HttpRequest stale = get(HttpConst.RANGE, "bytes=0-1");
+        stale.headers().set(HttpConst.IF_RANGE, HttpCaching.fileEtag(20, 999));
+        HttpResponse response = processor.process(path, stale);
+        assertThat(response.status()).isEqualTo(HttpResponseStatus.OK);
+        assertThat(((FileHttpResponse) response).contentLength()).isEqualTo(20);
+    }
+
+    @Test
+    public void if_range_in_memory() throws IOException {
+        Path path = write("foo.txt", "0123456789", 1000);
+
+        HttpRequest matching = get(HttpConst.RANGE, "bytes=2-5");
+        matching.headers().set(HttpConst.IF_RANGE, etagOf("0123456789"));
+        HttpResponse partial = processor.process(path, matching);
+        assertThat(partial.status()).isEqualTo(HttpResponseStatus.PARTIAL_CONTENT);
+        assertThat(contentOf(partial)).isEqualTo("2345");
+
+        HttpRequest stale = get(HttpConst.RANGE, "bytes=2-5");
+        stale.headers().set(HttpConst.IF_RANGE, etagOf("abcdefghij"));
+        HttpResponse full = processor.process(path, stale);
+        assertThat(full.status()).isEqualTo(HttpResponseStatus.OK);
+        assertThat(contentOf(full)).isEqualTo("0123456789");
+    }
+
+    @Test
+    public void overwritten_file_not_stale() throws IOException {
+        Path path = write("foo.txt", "0123456789", 1000);
+        String etag = processor.process(path, get()).headers().get(HttpConst.ETAG);
+
+        write("foo.txt", "abcdefghij", 2000);
+        HttpResponse response = processor.process(path, get(HttpConst.IF_NONE_MATCH, etag));
+        assertThat(response.status()).isEqualTo(HttpResponseStatus.OK);
+        assertThat(contentOf(response)).isEqualTo("abcdefghij");
+        assertThat(response.headers().get(HttpConst.ETAG)).isNotEqualTo(etag);
+    }
+
+    @Test
+    public void acceptsEncoding() {
+        assertThat(HttpCachingRequestProcessor.acceptsEncoding(null, "gzip")).isFalse();
+        assertThat(HttpCachingRequestProcessor.acceptsEncoding("", "gzip")).isFalse();
+        assertThat(HttpCachingRequestProcessor.acceptsEncoding("gzip", "gzip")).isTrue();
+        assertThat(HttpCachingRequestProcessor.acceptsEncoding("GZIP", "gzip")).isTrue();
+        assertThat(HttpCachingRequestProcessor.acceptsEncoding("deflate, gzip", "gzip")).isTrue();
+        assertThat(HttpCachingRequestProcessor.acceptsEncoding("deflate, gzip;q=0.1", "gzip")).isTrue();
+        assertThat(HttpCachingRequestProcessor.acceptsEncoding("deflate, gzip; q=0", "gzip")).isFalse();
+        assertThat(HttpCachingRequestProcessor.acceptsEncoding("deflate, gzip;q=0.000", "gzip")).isFalse();
+        assertThat(HttpCachingRequestProcessor.acceptsEncoding("*", "br")).isTrue();
+        assertThat(HttpCachingRequestProcessor.acceptsEncoding("deflate", "br")).isFalse();
+    }
+
+    private static void assertEncoded(@NotNull HttpResponse response, @NotNull String content, String encoding) {
+        assertThat(contentOf(response)).isEqualTo(content);
+        assertThat(response.headers().get(HttpConst.CONTENT_ENCODING)).isEqualTo(encoding);
+        assertThat(response.headers().get(HttpConst.VARY)).isEqualTo(HttpConst.ACCEPT_ENCODING.toString());
+        assertThat(response.headers().get(HttpConst.ETAG)).isEqualTo(etagOf(content));
+    }
+
+    private @NotNull Path write(@NotNull String name, @NotNull String content, long lastModifiedMillis) throws IOException {
+        Path path = Files.writeString(dir.resolve(name), content);
+        Files.setLastModifiedTime(path, FileTime.fromMillis(lastModifiedMillis));
+        return path;
+    }
+
+    private static @NotNull HttpRequest get() {
+        return new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.GET, "/");
+    }
+
+    private static @NotNull HttpRequest get(@NotNull String acceptEncoding) {
+        return get(HttpConst.ACCEPT_ENCODING, acceptEncoding);
+    }
+
+    private static @NotNull HttpRequest get(@NotNull CharSequence header, @NotNull String value) {
+        HttpRequest request = get();
+        request.headers().set(header, value);
+        return request;
+    }
+
+    private static @NotNull String contentOf(@NotNull HttpResponse response) {
+        assertThat(response).isInstanceOf(FullHttpResponse.class);
+        return ((FullHttpResponse) response).content().toString(StandardCharsets.UTF_8);
+    }
+
+    private static @NotNull String etagOf(@NotNull String content) {
+        return HttpCaching.simpleEtag(Unpooled.copiedBuffer(content, StandardCharsets.UTF_8));
+    }
+}
@@ -33,6 +33,63 @@ public class HttpCachingTest {
         assertThat(HttpCaching.lastModifiedValue(1641030397661L)).isEqualTo("Sat, 01 Jan 2022 09:46:37 GMT");
     }
 
+    @Test
+    public void isEtagMatch() {
+        assertThat(HttpCaching.isEtagMatch("1839ce40", "1839ce40")).isTrue();
+        assertThat(HttpCaching.isEtagMatch("\"foo\"", "\"foo\"")).isTrue();
+        assertThat(HttpCaching.isEtagMatch("\"foo\"", "\"bar\", W/\"foo\"")).isTrue();
+        assertThat(HttpCaching.isEtagMatch("W/\"foo\"", "\"foo\"")).isTrue();
+        assertThat(HttpCaching.isEtagMatch("\"foo\"", "*")).isTrue();
+        assertThat(HttpCaching.isEtagMatch("\"foo\"", "\"bar\"")).isFalse();
+        assertThat(HttpCaching.isEtagMatch("\"foo\"", "foo")).isFalse();
+    }
+
+    @Test
+    public void isNotModified() {
+        long millis = toMillis("2021-04-09T23:55:38.00Z");
+        HttpHeaders headers = new DefaultHttpHeaders();
+        assertThat(HttpCaching.isNotModified("\"foo\"", millis, headers)).isFalse();
+
+        headers.set(HttpConst.IF_MODIFIED_SINCE, "Fri, 09 Apr 2021 23:55:38 GMT");
+        assertThat(HttpCaching.isNotModified("\"foo\"", millis, headers)).isTrue();
+
+        // If-None-Match takes precedence
+        headers.set(HttpConst.IF_NONE_MATCH, "\"bar\"");
+        assertThat(HttpCaching.isNotModified("\"foo\"", millis, headers)).isFalse();
+        assertThat(HttpCaching.isNotModified(null, millis, headers)).isFalse();
+        headers.set(HttpConst.IF_NONE_MATCH, "\"foo\"");
+        assertThat(HttpCaching.isNotModified("\"foo\"", millis, headers)).isTrue();
+    }
+
+    @Test
+    public void isRangeApplicable() {
+        long millis = toMillis("2021-04-09T23:55:38.00Z");
+        HttpHeaders headers = new DefaultHttpHeaders();
+        assertThat(HttpCaching.isRangeApplicable("\"foo\"", millis, headers)).isTrue();
+
+        headers.set(HttpConst.IF_RANGE, "\"foo\"");
+        assertThat(HttpCaching.isRangeApplicable("\"foo\"", millis, headers)).isTrue();
+        assertThat(HttpCaching.isRangeApplicable("\"bar\"", millis, headers)).isFalse();
+        assertThat(HttpCaching.isRangeApplicable("W/\"foo\"", millis, headers)).isFalse();
+        assertThat(HttpCaching.isRangeApplicable(null, millis, headers)).isFalse();
+
+        headers.set(HttpConst.IF_RANGE, "W/\"foo\"");
+        assertThat(HttpCaching.isRangeApplicable("W/\"foo\"", millis, headers)).isFalse();
+
+        headers.set(HttpConst.IF_RANGE, "Fri, 09 Apr 2021 23:55:38 GMT");
+        assertThat(HttpCaching.isRangeApplicable("\"foo\"", millis, headers)).isTrue();
+        assertThat(HttpCaching.isRangeApplicable("\"foo\"", millis + 500, headers)).isTrue();
+        assertThat(HttpCaching.isRangeApplicable("\"foo\"", millis + 1000, headers)).isFalse();
+
+        headers.set(HttpConst.IF_RANGE, "garbage");
+        assertThat(HttpCaching.isRangeApplicable("\"foo\"", millis, headers)).isFalse();
+    }
+
+    @Test
+    public void fileEtag() {
+        assertThat(HttpCaching.fileEtag(1024, 1618012538000L)).isEqualTo("\"400-178b9100490\"");
+    }
+
     private static long toMillis(String date) {
         return Instant.parse(date).toEpochMilli();
     }
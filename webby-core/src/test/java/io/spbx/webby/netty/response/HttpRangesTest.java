@@ -0,0 +1,82 @@
+package io.spbx.webby.netty.response;
+
+import io.spbx.webby.netty.response.HttpRanges.ByteRange;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.nio.charset.StandardCharsets;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class HttpRangesTest {
+    @Test
+    public void parse_single() {
+        assertThat(HttpRanges.parseOrNull("bytes=0-499", 1000)).containsExactly(new ByteRange(0, 499));
+        assertThat(HttpRanges.parseOrNull("bytes=500-999", 1000)).containsExactly(new ByteRange(500, 999));
+        assertThat(HttpRanges.parseOrNull("bytes=500-", 1000)).containsExactly(new ByteRange(500, 999));
+        assertThat(HttpRanges.parseOrNull("bytes=-300", 1000)).containsExactly(new ByteRange(700, 999));
+        assertThat(HttpRanges.parseOrNull("Bytes = 0-0", 1000)).isNull();
+        assertThat(HttpRanges.parseOrNull("BYTES=0-0", 1000)).containsExactly(new ByteRange(0, 0));
+    }
+
+    @Test
+    public void parse_clamped_to_size() {
+        assertThat(HttpRanges.parseOrNull("bytes=500-5000", 1000)).containsExactly(new ByteRange(500, 999));
+        assertThat(HttpRanges.parseOrNull("bytes=-5000", 1000)).containsExactly(new ByteRange(0, 999));
+    }
+
+    @Test
+    public void parse_multiple() {
+        assertThat(HttpRanges.parseOrNull("bytes=0-9, 20-29", 1000))
+            .containsExactly(new ByteRange(0, 9), new ByteRange(20, 29)).inOrder();
+        assertThat(HttpRanges.parseOrNull("bytes=20-29,0-9", 1000))
+            .containsExactly(new ByteRange(0, 9), new ByteRange(20, 29)).inOrder();
+        assertThat(HttpRanges.parseOrNull("bytes=0-9,5-14,15-19,-10", 1000))
+            .containsExactly(new ByteRange(0, 19), new ByteRange(990, 999)).inOrder();
+        assertThat(HttpRanges.parseOrNull("bytes=0-9,2000-3000", 1000)).containsExactly(new ByteRange(0, 9));
+        assertThat(HttpRanges.parseOrNull("bytes=0-9,", 1000)).containsExactly(new ByteRange(0, 9));
+    }
+
+    @Test
+    public void parse_unsatisfiable() {
+        assertThat(HttpRanges.parseOrNull("bytes=1000-", 1000)).isEmpty();
+        assertThat(HttpRanges.parseOrNull("bytes=2000-3000", 1000)).isEmpty();
+        assertThat(HttpRanges.parseOrNull("bytes=-0", 1000)).isEmpty();
+        assertThat(HttpRanges.parseOrNull("bytes=0-", 0)).isEmpty();
+        assertThat(HttpRanges.parseOrNull("bytes=-10", 0)).isEmpty();
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "bytes", "bytes=", "bytes=-", "bytes=abc", "bytes=1-a", "bytes=10-5", "items=0-1",
+                            "bytes=99999999999999999999-"})
+    public void parse_malformed(String header) {
+        assertThat(HttpRanges.parseOrNull(header, 1000)).isNull();
+    }
+
+    @Test
+    public void parse_too_many_ranges() {
+        String header = "bytes=" + "0-0,".repeat(16) + "0-0";
+        assertThat(HttpRanges.parseOrNull(header, 1000)).isNull();
+    }
+
+    @Test
+    public void contentRange() {
+        assertThat(HttpRanges.contentRange(new ByteRange(0, 499), 1234)).isEqualTo("bytes 0-499/1234");
+        assertThat(HttpRanges.unsatisfiedContentRange(1234)).isEqualTo("bytes */1234");
+    }
+
+    @Test
+    public void multipart() {
+        String boundary = HttpRanges.newBoundary();
+        assertThat(boundary).hasLength(16);
+        assertThat(HttpRanges.multipartContentType(boundary)).isEqualTo("multipart/byteranges; boundary=" + boundary);
+
+        ByteRange range = new ByteRange(1, 2);
+        assertThat(new String(HttpRanges.multipartPartHeader("XYZ", true, "text/plain", range, 10), StandardCharsets.US_ASCII))
+            .isEqualTo("--XYZ\r\nContent-Type: text/plain\r\nContent-Range: bytes 1-2/10\r\n\r\n");
+        assertThat(new String(HttpRanges.multipartPartHeader("XYZ", false, "text/plain", range, 10), StandardCharsets.US_ASCII))
+            .isEqualTo("\r\n--XYZ\r\nContent-Type: text/plain\r\nContent-Range: bytes 1-2/10\r\n\r\n");
+        assertThat(new String(HttpRanges.multipartEnd("XYZ"), StandardCharsets.US_ASCII)).isEqualTo("\r\n--XYZ--\r\n");
+    }
+}
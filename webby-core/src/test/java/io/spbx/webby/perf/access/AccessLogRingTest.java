@@ -0,0 +1,79 @@
+package io.spbx.webby.perf.access;
+
+import io.netty.handler.codec.http.HttpMethod;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class AccessLogRingTest {
+    @Test
+    public void capacity_power_of_two() {
+        assertThat(new AccessLogRing(1).capacity()).isEqualTo(2);
+        assertThat(new AccessLogRing(8).capacity()).isEqualTo(8);
+        assertThat(new AccessLogRing(9).capacity()).isEqualTo(16);
+    }
+
+    @Test
+    public void offer_and_drain_in_order() {
+        AccessLogRing ring = new AccessLogRing(4);
+        assertThat(offer(ring, "/1")).isTrue();
+        assertThat(offer(ring, "/2")).isTrue();
+
+        List<String> uris = new ArrayList<>();
+        assertThat(ring.drain(entry -> uris.add(entry.uri), 10)).isEqualTo(2);
+        assertThat(uris).containsExactly("/1", "/2").inOrder();
+        assertThat(ring.drain(entry -> uris.add(entry.uri), 10)).isEqualTo(0);
+    }
+
+    @Test
+    public void offer_full_drops() {
+        AccessLogRing ring = new AccessLogRing(2);
+        assertThat(offer(ring, "/1")).isTrue();
+        assertThat(offer(ring, "/2")).isTrue();
+        assertThat(offer(ring, "/3")).isFalse();
+        assertThat(ring.dropped()).isEqualTo(1);
+
+        List<String> uris = new ArrayList<>();
+        assertThat(ring.drain(entry -> uris.add(entry.uri), 1)).isEqualTo(1);
+        assertThat(offer(ring, "/4")).isTrue();
+        assertThat(ring.drain(entry -> uris.add(entry.uri), 10)).isEqualTo(2);
+        assertThat(uris).containsExactly("/1", "/2", "/4").inOrder();
+    }
+
+    @Test
+    public void concurrent_producers() throws Exception {
+        int threads = 4;
+        int perThread = 10_000;
+        AccessLogRing ring = new AccessLogRing(1024);
+
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        for (int i = 0; i < threads; i++) {
+            executor.execute(() -> {
+                for (int j = 0; j < perThread; j++) {
+                    while (!offer(ring, "/")) {
+                        Thread.onSpinWait();
+                    }
+                }
+            });
+        }
+
+        long drained = 0;
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (drained < (long) threads * perThread && System.nanoTime() < deadline) {
+            drained += ring.drain(entry -> assertThat(entry.uri).isEqualTo("/"), 256);
+        }
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(drained).isEqualTo((long) threads * perThread);
+    }
+
+    private static boolean offer(AccessLogRing ring, String uri) {
+        return ring.offer(0, 0, HttpMethod.GET, uri, null, 200, 0);
+    }
+}
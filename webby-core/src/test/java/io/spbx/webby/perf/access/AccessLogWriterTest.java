@@ -0,0 +1,73 @@
+package io.spbx.webby.perf.access;
+
+import com.google.common.jimfs.Configuration;
+import com.google.common.jimfs.Jimfs;
+import io.netty.handler.codec.http.HttpMethod;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.FileSystem;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class AccessLogWriterTest {
+    private final FileSystem fs = Jimfs.newFileSystem(Configuration.unix());
+    private final Path path = fs.getPath("/logs/access.log");
+
+    @Test
+    public void format_simple() {
+        AccessLogEntry entry = entry("/foo?bar=\"baz\"");
+        entry.remote = InetSocketAddress.createUnresolved("localhost", 8080);
+
+        StringBuilder builder = new StringBuilder();
+        AccessLogWriter.format(entry, builder);
+        assertThat(builder.toString()).isEqualTo(
+            "ts=1970-01-01T00:00:01Z method=GET uri=\"/foo?bar=\\\"baz\\\"\" status=200 bytes=3 nanos=12345 " +
+            "remote=localhost/<unresolved>:8080\n"
+        );
+    }
+
+    @Test
+    public void write_appends() throws IOException {
+        try (AccessLogWriter writer = new AccessLogWriter(path, 1 << 20, 2)) {
+            writer.write(entry("/1"));
+            writer.write(entry("/2"));
+        }
+        assertThat(Files.readAllLines(path)).hasSize(2);
+
+        try (AccessLogWriter writer = new AccessLogWriter(path, 1 << 20, 2)) {
+            writer.write(entry("/3"));
+        }
+        assertThat(Files.readAllLines(path)).hasSize(3);
+    }
+
+    @Test
+    public void write_rotates_by_size() throws IOException {
+        try (AccessLogWriter writer = new AccessLogWriter(path, 100, 2)) {
+            for (int i = 0; i < 10; i++) {
+                writer.write(entry("/" + i));
+            }
+        }
+        assertThat(Files.exists(path)).isTrue();
+        assertThat(Files.exists(path.resolveSibling("access.log.1"))).isTrue();
+        assertThat(Files.exists(path.resolveSibling("access.log.2"))).isTrue();
+        assertThat(Files.exists(path.resolveSibling("access.log.3"))).isFalse();
+        assertThat(Files.readString(path)).contains("uri=\"/9\"");
+        assertThat(Files.size(path)).isAtMost(100);
+    }
+
+    private static @NotNull AccessLogEntry entry(@NotNull String uri) {
+        AccessLogEntry entry = new AccessLogEntry(0);
+        entry.epochMillis = 1000;
+        entry.durationNanos = 12345;
+        entry.method = HttpMethod.GET;
+        entry.uri = uri;
+        entry.status = 200;
+        entry.contentLength = 3;
+        return entry;
+    }
+}
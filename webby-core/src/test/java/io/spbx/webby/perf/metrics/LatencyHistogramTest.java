@@ -0,0 +1,100 @@
+package io.spbx.webby.perf.metrics;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class LatencyHistogramTest {
+    @Test
+    public void indexOf_small_values_exact() {
+        for (int value = 0; value < 32; value++) {
+            assertThat(LatencyHistogram.indexOf(value)).isEqualTo(value);
+            assertThat(LatencyHistogram.lowerBound(value)).isEqualTo(value);
+            assertThat(LatencyHistogram.upperBound(value)).isEqualTo(value);
+        }
+    }
+
+    @Test
+    public void indexOf_bounds_continuous() {
+        for (int index = 0; index < LatencyHistogram.BUCKETS - 1; index++) {
+            long lower = LatencyHistogram.lowerBound(index);
+            long upper = LatencyHistogram.upperBound(index);
+            assertThat(upper).isAtLeast(lower);
+            assertThat(LatencyHistogram.lowerBound(index + 1)).isEqualTo(upper + 1);
+            assertThat(LatencyHistogram.indexOf(lower)).isEqualTo(index);
+            assertThat(LatencyHistogram.indexOf(upper)).isEqualTo(index);
+        }
+    }
+
+    @Test
+    public void indexOf_relative_error() {
+        for (int index = 32; index < LatencyHistogram.BUCKETS; index++) {
+            long lower = LatencyHistogram.lowerBound(index);
+            long upper = LatencyHistogram.upperBound(index);
+            assertThat((double) (upper - lower) / lower).isLessThan(1.0 / 32);
+        }
+    }
+
+    @Test
+    public void snapshot_empty() {
+        HistogramSnapshot snapshot = new LatencyHistogram().snapshot();
+        assertThat(snapshot.count()).isEqualTo(0);
+        assertThat(snapshot.sum()).isEqualTo(0);
+        assertThat(snapshot.max()).isEqualTo(0);
+        assertThat(snapshot.mean()).isEqualTo(0.0);
+        assertThat(snapshot.valueAt(0.5)).isEqualTo(0);
+    }
+
+    @Test
+    public void snapshot_simple() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(5);
+        histogram.record(10);
+        histogram.record(15);
+        HistogramSnapshot snapshot = histogram.snapshot();
+        assertThat(snapshot.count()).isEqualTo(3);
+        assertThat(snapshot.sum()).isEqualTo(30);
+        assertThat(snapshot.max()).isEqualTo(15);
+        assertThat(snapshot.mean()).isEqualTo(10.0);
+        assertThat(snapshot.valueAt(0)).isEqualTo(5);
+        assertThat(snapshot.valueAt(0.5)).isEqualTo(10);
+        assertThat(snapshot.valueAt(1)).isEqualTo(15);
+    }
+
+    @Test
+    public void snapshot_negative_clamped() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-100);
+        HistogramSnapshot snapshot = histogram.snapshot();
+        assertThat(snapshot.count()).isEqualTo(1);
+        assertThat(snapshot.sum()).isEqualTo(0);
+        assertThat(snapshot.valueAt(1)).isEqualTo(0);
+    }
+
+    @Test
+    public void snapshot_quantiles_within_error() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(TimeUnit.MICROSECONDS.toNanos(i));
+        }
+        HistogramSnapshot snapshot = histogram.snapshot();
+        assertThat(snapshot.count()).isEqualTo(1000);
+        assertThat(snapshot.max()).isEqualTo(1_000_000);
+        assertThat(snapshot.valueAt(0.5, TimeUnit.MICROSECONDS)).isWithin(500 / 32.0).of(500);
+        assertThat(snapshot.valueAt(0.99, TimeUnit.MICROSECONDS)).isWithin(990 / 32.0).of(990);
+        assertThat(snapshot.valueAt(0.99)).isAtLeast(990_000);
+        assertThat(snapshot.valueAt(1)).isEqualTo(1_000_000);
+    }
+
+    @Test
+    public void snapshot_huge_value_clamped() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(Long.MAX_VALUE);
+        HistogramSnapshot snapshot = histogram.snapshot();
+        assertThat(snapshot.count()).isEqualTo(1);
+        assertThat(snapshot.buckets()[LatencyHistogram.BUCKETS - 1]).isEqualTo(1);
+        assertThat(snapshot.valueAt(1)).isEqualTo(snapshot.max());
+    }
+}
@@ -0,0 +1,118 @@
+package io.spbx.webby.perf.metrics;
+
+import io.netty.handler.codec.http.HttpRequest;
+import io.spbx.webby.app.AppSettings;
+import io.spbx.webby.app.Settings;
+import io.spbx.webby.perf.metrics.MetricsSnapshot.EndpointSnapshot;
+import io.spbx.webby.perf.metrics.MetricsSnapshot.StatSnapshot;
+import io.spbx.webby.perf.stats.Stat;
+import io.spbx.webby.testing.Testing;
+import io.spbx.webby.url.impl.Endpoint;
+import io.spbx.webby.url.impl.RouteEndpoint;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class MetricsRegistryTest {
+    private final MetricsRegistry registry = new MetricsRegistry(enabledSettings());
+
+    @Test
+    public void isEnabled() {
+        assertThat(registry.isEnabled()).isTrue();
+        assertThat(new MetricsRegistry(Testing.defaultAppSettings()).isEnabled()).isFalse();
+    }
+
+    @Test
+    public void snapshot_empty() {
+        MetricsSnapshot snapshot = registry.snapshot();
+        assertThat(snapshot.stats()).isEmpty();
+        assertThat(snapshot.endpoints()).isEmpty();
+    }
+
+    @Test
+    public void recordStat_simple() {
+        registry.recordStat(Stat.DB_GET, 1, 1000);
+        registry.recordStat(Stat.DB_GET, 3, 2000);
+        registry.recordStat(Stat.CODEC_READ, 100, 500);
+
+        MetricsSnapshot snapshot = registry.snapshot();
+        assertThat(snapshot.stats()).hasSize(2);
+
+        StatSnapshot codec = snapshot.stats().get(0);
+        assertThat(codec.stat()).isEqualTo(Stat.CODEC_READ);
+        assertThat(codec.events()).isEqualTo(1);
+        assertThat(codec.amount()).isEqualTo(100);
+        assertThat(codec.latency().count()).isEqualTo(1);
+        assertThat(codec.latency().sum()).isEqualTo(500);
+
+        StatSnapshot db = snapshot.stats().get(1);
+        assertThat(db.stat()).isEqualTo(Stat.DB_GET);
+        assertThat(db.events()).isEqualTo(2);
+        assertThat(db.amount()).isEqualTo(4);
+        assertThat(db.latency().count()).isEqualTo(2);
+        assertThat(db.latency().sum()).isEqualTo(3000);
+        assertThat(db.latency().max()).isEqualTo(2000);
+    }
+
+    @Test
+    public void recordEndpoint_simple() {
+        RouteEndpoint foo = new FakeEndpoint("foo");
+        RouteEndpoint bar = new FakeEndpoint("bar");
+        registry.recordEndpoint(foo, 200, 1000);
+        registry.recordEndpoint(foo, 404, 2000);
+        registry.recordEndpoint(foo, 500, 3000);
+        registry.recordEndpoint(bar, 302, 4000);
+
+        MetricsSnapshot snapshot = registry.snapshot();
+        assertThat(snapshot.endpoints()).hasSize(2);
+
+        EndpointSnapshot first = snapshot.endpoints().get(0);
+        assertThat(first.endpoint()).isEqualTo("bar");
+        assertThat(first.requests()).isEqualTo(1);
+        assertThat(first.statuses()).asList().containsExactly(0L, 0L, 1L, 0L, 0L).inOrder();
+        assertThat(first.latency().sum()).isEqualTo(4000);
+
+        EndpointSnapshot second = snapshot.endpoints().get(1);
+        assertThat(second.endpoint()).isEqualTo("foo");
+        assertThat(second.requests()).isEqualTo(3);
+        assertThat(second.statuses()).asList().containsExactly(0L, 1L, 0L, 1L, 1L).inOrder();
+        assertThat(second.latency().count()).isEqualTo(3);
+        assertThat(second.latency().max()).isEqualTo(3000);
+    }
+
+    @Test
+    public void record_steady_state_does_not_allocate() {
+        com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        RouteEndpoint endpoint = new FakeEndpoint("foo");
+        for (int i = 0; i < 20_000; i++) {
+            registry.recordStat(Stat.DB_GET, 1, i);
+            registry.recordEndpoint(endpoint, 200, i);
+        }
+
+        long threadId = Thread.currentThread().threadId();
+        long before = bean.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < 10_000; i++) {
+            registry.recordStat(Stat.DB_GET, 1, i);
+            registry.recordEndpoint(endpoint, 200, i);
+        }
+        long allocated = bean.getThreadAllocatedBytes(threadId) - before;
+        assertThat(allocated).isLessThan(1024);
+    }
+
+    private static @NotNull Settings enabledSettings() {
+        AppSettings settings = Testing.defaultAppSettings();
+        settings.setBool(Settings.METRICS, true);
+        return settings;
+    }
+
+    private record FakeEndpoint(@NotNull String describe) implements RouteEndpoint {
+        @Override
+        public @Nullable Endpoint getAcceptedEndpointOrNull(@NotNull HttpRequest request) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package io.spbx.webby.perf.metrics;
+
+import io.spbx.webby.perf.metrics.MetricsSnapshot.EndpointSnapshot;
+import io.spbx.webby.perf.metrics.MetricsSnapshot.StatSnapshot;
+import io.spbx.webby.perf.stats.Stat;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static com.google.common.truth.Truth.assertThat;
+
+public class PrometheusFormatTest {
+    @Test
+    public void format_empty() {
+        assertThat(PrometheusFormat.format(new MetricsSnapshot(List.of(), List.of()))).isEmpty();
+    }
+
+    @Test
+    public void format_stats() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(2_000_000);
+        MetricsSnapshot snapshot = new MetricsSnapshot(
+            List.of(new StatSnapshot(Stat.DB_GET, 1, 5, histogram.snapshot())),
+            List.of()
+        );
+        assertThat(PrometheusFormat.format(snapshot)).isEqualTo("""
+            # HELP webby_stat_events_total Number of the reported events
+            # TYPE webby_stat_events_total counter
+            webby_stat_events_total{stat="db_get"} 1
+            # HELP webby_stat_amount_total Sum of the reported values (calls or bytes)
+            # TYPE webby_stat_amount_total counter
+            webby_stat_amount_total{stat="db_get",unit="calls"} 5
+            # HELP webby_stat_latency_seconds Latency of the reported events
+            # TYPE webby_stat_latency_seconds summary
+            webby_stat_latency_seconds{stat="db_get",quantile="0.5"} 0.002
+            webby_stat_latency_seconds{stat="db_get",quantile="0.9"} 0.002
+            webby_stat_latency_seconds{stat="db_get",quantile="0.99"} 0.002
+            webby_stat_latency_seconds{stat="db_get",quantile="0.999"} 0.002
+            webby_stat_latency_seconds_sum{stat="db_get"} 0.002
+            webby_stat_latency_seconds_count{stat="db_get"} 1
+            """);
+    }
+
+    @Test
+    public void format_endpoints_escaped() {
+        MetricsSnapshot snapshot = new MetricsSnapshot(
+            List.of(),
+            List.of(new EndpointSnapshot("a\"b\\c", 2, new long[] { 0, 1, 0, 1, 0 }, new LatencyHistogram().snapshot()))
+        );
+        assertThat(PrometheusFormat.format(snapshot)).isEqualTo("""
+            # HELP webby_http_requests_total Number of the handled requests by status class
+            # TYPE webby_http_requests_total counter
+            webby_http_requests_total{endpoint="a\\"b\\\\c",status="2xx"} 1
+            webby_http_requests_total{endpoint="a\\"b\\\\c",status="4xx"} 1
+            # HELP webby_http_request_latency_seconds Latency of the endpoint handling
+            # TYPE webby_http_request_latency_seconds summary
+            webby_http_request_latency_seconds{endpoint="a\\"b\\\\c",quantile="0.5"} 0.0
+            webby_http_request_latency_seconds{endpoint="a\\"b\\\\c",quantile="0.9"} 0.0
+            webby_http_request_latency_seconds{endpoint="a\\"b\\\\c",quantile="0.99"} 0.0
+            webby_http_request_latency_seconds{endpoint="a\\"b\\\\c",quantile="0.999"} 0.0
+            webby_http_request_latency_seconds_sum{endpoint="a\\"b\\\\c"} 0.0
+            webby_http_request_latency_seconds_count{endpoint="a\\"b\\\\c"} 0
+            """);
+    }
+}
@@ -0,0 +1,91 @@
+package io.spbx.webby.perf.stats.impl;
+
+import io.spbx.webby.app.AppSettings;
+import io.spbx.webby.app.Settings;
+import io.spbx.webby.perf.metrics.MetricsRegistry;
+import io.spbx.webby.perf.metrics.MetricsSnapshot.StatSnapshot;
+import io.spbx.webby.perf.stats.DbStatsListener;
+import io.spbx.webby.perf.stats.Stat;
+import io.spbx.webby.testing.Testing;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import static com.google.common.truth.Truth.assertThat;
+import static io.spbx.webby.perf.stats.DbStatsListener.OpContext;
+
+public class StatsManagerTest {
+    private final MetricsRegistry metrics = new MetricsRegistry(enabledSettings());
+    private final DbStatsListener listener = new StatsManager(metrics).newDbListener();
+
+    @Test
+    public void report_simple() {
+        listener.reportKey(Stat.DB_GET, "foo").close();
+        listener.reportKeys(Stat.DB_SET, List.of("foo", "bar")).close();
+
+        assertThat(eventsOf(Stat.DB_GET)).isEqualTo(1);
+        assertThat(eventsOf(Stat.DB_SET)).isEqualTo(1);
+        assertThat(amountOf(Stat.DB_SET)).isEqualTo(2);
+    }
+
+    @Test
+    public void report_nested_not_reported() {
+        try (OpContext ignored = listener.report(Stat.DB_SCAN)) {
+            listener.reportKey(Stat.DB_GET, "foo").close();
+        }
+        listener.reportKey(Stat.DB_GET, "bar").close();
+
+        assertThat(eventsOf(Stat.DB_SCAN)).isEqualTo(1);
+        assertThat(eventsOf(Stat.DB_GET)).isEqualTo(1);
+    }
+
+    @Test
+    public void report_closed_twice() {
+        OpContext context = listener.report(Stat.DB_SIZE);
+        context.close();
+        context.close();
+
+        assertThat(eventsOf(Stat.DB_SIZE)).isEqualTo(1);
+    }
+
+    @Test
+    public void report_closed_on_another_thread() {
+        OpContext context = listener.reportKey(Stat.DB_GET, "foo");
+        CompletableFuture.runAsync(context::close).join();
+        assertThat(eventsOf(Stat.DB_GET)).isEqualTo(1);
+
+        listener.reportKey(Stat.DB_SET, "foo").close();
+        assertThat(eventsOf(Stat.DB_SET)).isEqualTo(1);
+    }
+
+    @Test
+    public void report_started_on_another_thread() {
+        OpContext context = CompletableFuture.supplyAsync(() -> listener.reportKey(Stat.DB_GET, "foo")).join();
+        listener.reportKey(Stat.DB_SET, "foo").close();
+        context.close();
+
+        assertThat(eventsOf(Stat.DB_GET)).isEqualTo(1);
+        assertThat(eventsOf(Stat.DB_SET)).isEqualTo(1);
+    }
+
+    private long eventsOf(@NotNull Stat stat) {
+        return snapshotOf(stat).map(StatSnapshot::events).orElse(0L);
+    }
+
+    private long amountOf(@NotNull Stat stat) {
+        return snapshotOf(stat).map(StatSnapshot::amount).orElse(0L);
+    }
+
+    private @NotNull Optional<StatSnapshot> snapshotOf(@NotNull Stat stat) {
+        return metrics.snapshot().stats().stream().filter(snapshot -> snapshot.stat() == stat).findFirst();
+    }
+
+    private static @NotNull Settings enabledSettings() {
+        AppSettings settings = Testing.defaultAppSettings();
+        settings.setBool(Settings.METRICS, true);
+        return settings;
+    }
+}
@@ -59,6 +59,20 @@ public class StatsSummaryTest {
         assertThat(summary.recordsAsJson()).isEqualTo("{'codec_read':[[2222]],'codec_write':[[1111]]}");
     }
 
+    @Test
+    public void summary_statement_stats() {
+        stats.report(Stat.DB_STATEMENT_HIT.key(), 12, 0, null);
+        stats.report(Stat.DB_STATEMENT_MISS.key(), 3, 4, null);
+        long millis = stats.stop().totalElapsed(TimeUnit.MILLISECONDS);
+
+        assertThat(summary.mainAsJson()).isEqualTo("{stmt_miss:3,stmt_hit:12,time:%d}".formatted(millis));
+        assertThat(summary.mainAsTable()).isEqualTo("""
+            Total       | % 4d ms |
+            stmt_miss   |    4 ms |    3 calls
+            stmt_hit    |    0 ms |   12 calls
+            """.formatted(millis).trim());
+    }
+
     @Test
     public void summary_single_key_reported_twice() {
         stats.report(Stat.RENDER.key(), 499, 111, "abc");
@@ -1,17 +1,30 @@
 package io.spbx.webby.url.impl;
 
-import io.netty.handler.codec.http.HttpMethod;
-import io.netty.handler.codec.http.HttpRequest;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.http.*;
 import io.spbx.util.base.Pair;
 import io.spbx.util.reflect.EasyMembers.Scope;
+import io.spbx.webby.netty.request.HttpContentStream;
+import io.spbx.webby.netty.request.StreamingHttpRequest;
 import io.spbx.webby.routekit.SimpleQueryParser;
 import io.spbx.webby.testing.Testing;
+import io.spbx.webby.url.annotate.Execute;
+import io.spbx.webby.url.annotate.Execution;
 import io.spbx.webby.url.annotate.GET;
+import io.spbx.webby.url.annotate.POST;
+import io.spbx.webby.url.HandlerConfigError;
+import io.spbx.webby.url.annotate.StreamContent;
 import io.spbx.webby.url.caller.Caller;
 import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.Test;
 
+import java.io.IOException;
+import java.io.InputStream;
 import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -21,6 +34,7 @@ import java.util.function.BiPredicate;
 import static com.google.common.truth.Truth.assertThat;
 import static io.spbx.util.reflect.EasyMembers.findMethod;
 import static java.util.Objects.requireNonNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class HandlerBinderTest {
     @Test
@@ -37,6 +51,54 @@ public class HandlerBinderTest {
         assertThat(instanceFoo).isSameInstanceAs(instanceBar);
     }
 
+    @Test
+    public void getEndpoints_execution() {
+        HandlerBinder binder = Testing.testStartup().getInstance(HandlerBinder.class);
+
+        Map<String, RouteEndpoint> simple = getEndpoints(binder, SimpleHandler.class);
+        assertExecution(simple.get("/foo"), Execution.EVENT_LOOP);
+        assertExecution(simple.get("/bar"), Execution.EVENT_LOOP);
+
+        Map<String, RouteEndpoint> offloaded = getEndpoints(binder, OffloadedHandler.class);
+        assertExecution(offloaded.get("/foo"), Execution.VIRTUAL_THREAD);
+        assertExecution(offloaded.get("/bar"), Execution.WORKER_POOL);
+    }
+
+    @Test
+    public void getEndpoints_stream_content() throws Exception {
+        HandlerBinder binder = Testing.testStartup().getInstance(HandlerBinder.class);
+        Map<String, RouteEndpoint> endpoints = getEndpoints(binder, StreamingHandler.class);
+
+        SingleRouteEndpoint upload = assertSingleRoute(endpoints.get("/upload"), HttpMethod.POST, false);
+        assertThat(upload.endpoint().options().streamsContent()).isTrue();
+        assertThat(upload.endpoint().options().expectsContent()).isTrue();
+        assertExecution(upload, Execution.VIRTUAL_THREAD);
+        assertThat(callWithContent(upload, "foobar")).isEqualTo(6);
+
+        SingleRouteEndpoint channel = assertSingleRoute(endpoints.get("/channel"), HttpMethod.POST, false);
+        assertThat(channel.endpoint().options().streamsContent()).isTrue();
+        assertExecution(channel, Execution.WORKER_POOL);
+        assertThat(callWithContent(channel, "foo")).isEqualTo(3);
+
+        Map<String, RouteEndpoint> simple = getEndpoints(binder, SimpleHandler.class);
+        assertThat(((SingleRouteEndpoint) simple.get("/foo")).endpoint().options().streamsContent()).isFalse();
+    }
+
+    @Test
+    public void getEndpoints_stream_content_aggregated() throws Exception {
+        HandlerBinder binder = Testing.testStartup().getInstance(HandlerBinder.class);
+        Map<String, RouteEndpoint> endpoints = getEndpoints(binder, StreamingHandler.class);
+
+        assertThat(callWithAggregatedContent((SingleRouteEndpoint) endpoints.get("/upload"), "foobar")).isEqualTo(6);
+        assertThat(callWithAggregatedContent((SingleRouteEndpoint) endpoints.get("/channel"), "foo")).isEqualTo(3);
+    }
+
+    @Test
+    public void getEndpoints_stream_content_invalid_type() {
+        HandlerBinder binder = Testing.testStartup().getInstance(HandlerBinder.class);
+        assertThrows(HandlerConfigError.class, () -> getEndpoints(binder, InvalidStreamingHandler.class));
+    }
+
     private static @NotNull SingleRouteEndpoint
             assertSingleRoute(@NotNull RouteEndpoint endpoint, @NotNull HttpMethod method, boolean isVoid) {
         assertThat(endpoint instanceof SingleRouteEndpoint).isTrue();
@@ -46,6 +108,31 @@ public class HandlerBinderTest {
         return single;
     }
 
+    private static void assertExecution(@NotNull RouteEndpoint endpoint, @NotNull Execution execution) {
+        assertThat(endpoint instanceof SingleRouteEndpoint).isTrue();
+        assertThat(((SingleRouteEndpoint) endpoint).endpoint().options().execution()).isEqualTo(execution);
+    }
+
+    private static @NotNull Object callWithContent(@NotNull SingleRouteEndpoint endpoint,
+                                                   @NotNull String content) throws Exception {
+        EmbeddedChannel channel = new EmbeddedChannel();
+        HttpContentStream stream = new HttpContentStream(channel, 0, 1024);
+        stream.offer(new DefaultLastHttpContent(Unpooled.copiedBuffer(content, StandardCharsets.UTF_8)));
+        HttpRequest request = new DefaultHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.POST, "/");
+        return endpoint.endpoint().caller().call(new StreamingHttpRequest(request, stream), Map.of());
+    }
+
+    private static @NotNull Object callWithAggregatedContent(@NotNull SingleRouteEndpoint endpoint,
+                                                             @NotNull String content) throws Exception {
+        FullHttpRequest request = new DefaultFullHttpRequest(HttpVersion.HTTP_1_1, HttpMethod.POST, "/",
+                                                             Unpooled.copiedBuffer(content, StandardCharsets.UTF_8));
+        try {
+            return endpoint.endpoint().caller().call(request, Map.of());
+        } finally {
+            assertThat(request.release()).isTrue();
+        }
+    }
+
     private static @NotNull Object assertCaller(@NotNull Caller caller, @NotNull String method) throws Exception {
         Pair<String, String> pair = Pair.of(method.split("\\."));
         assertThat(((Method) caller.method()).getName()).isEqualTo(pair.second());
@@ -70,6 +157,39 @@ public class HandlerBinderTest {
         public int bar(@NotNull HttpRequest request) { return 0; }
     }
 
+    @Execute(Execution.VIRTUAL_THREAD)
+    public static class OffloadedHandler {
+        @GET(url = "/foo")
+        public int foo() { return 0; }
+
+        @GET(url = "/bar")
+        @Execute(Execution.WORKER_POOL)
+        public int bar() { return 0; }
+    }
+
+    public static class StreamingHandler {
+        @POST(url = "/upload")
+        @StreamContent
+        public int upload(@NotNull InputStream content) throws IOException {
+            return content.readAllBytes().length;
+        }
+
+        @POST(url = "/channel")
+        @StreamContent
+        @Execute(Execution.WORKER_POOL)
+        public int channel(@NotNull ReadableByteChannel content) throws IOException {
+            return content.read(ByteBuffer.allocate(16));
+        }
+    }
+
+    public static class InvalidStreamingHandler {
+        @POST(url = "/upload")
+        @StreamContent
+        public int upload(@NotNull Object content) {
+            return 0;
+        }
+    }
+
     private static @NotNull BiPredicate<String, String> onlyInsideClass(@NotNull Class<?> klass) {
         String name = klass.getName();
         int lastDot = name.lastIndexOf('.');
@@ -0,0 +1,335 @@
+package io.spbx.webby.routekit;
+
+import io.spbx.util.base.CharArray;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A {@link Router} which compiles the state machine once at construction into a tree of specialized steps.
+ * <p>
+ * A single constant follow-up becomes a plain char comparison, a single variable becomes a separator scan,
+ * and the several constant follow-ups of a node are merged into a char-by-char automaton, which finds the
+ * longest matching constant in one pass over the input instead of matching every {@link Router.Node#next()} token.
+ * <p>
+ * The matching semantics is exactly the same as {@link Router}: the longest token match wins, the earlier rule
+ * wins the tie. The nodes which can't be compiled statically (e.g. with a wildcard among several follow-ups)
+ * fall back to the same selection as the {@link Router}.
+ *
+ * @param <T> handler type
+ */
+public class CompiledRouter<T> extends Router<T> {
+    private final Step root;
+
+    public CompiledRouter(Map<CharArray, T> quickMatchIndex, Node<T> root) {
+        super(quickMatchIndex, root);
+        this.root = compileNode(root);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    /*package*/ T navigate(CharSequence input, int length, MatchBuffer buffer) {
+        return (T) root.match(input, 0, length, buffer);
+    }
+
+    // Compilation
+
+    private static NodeStep compileNode(Node<?> node) {
+        Object handler = node.isTerminal() ? node.terminalRule().handler() : null;
+        Step next = node.next().length > 0 ? compileNext(node.next()) : null;
+        return new NodeStep(handler, next);
+    }
+
+    private static Step compileNext(Node<?>[] next) {
+        if (next.length == 1) {
+            Node<?> node = next[0];
+            if (isConst(node)) {
+                return new ConstStep(toChars(node), compileNode(node));
+            }
+            if (node.token() instanceof SeparableVariableToken token) {
+                return new VariableStep(token.name(), token.separator(), compileNode(node));
+            }
+            if (node.token() instanceof WildcardToken token) {
+                return new WildcardStep(token.name(), compileNode(node));
+            }
+        }
+
+        int varIndex = -1;
+        for (int i = 0; i < next.length; i++) {
+            if (next[i].token() instanceof SeparableVariableToken && varIndex < 0) {
+                varIndex = i;
+            } else if (!isConst(next[i])) {
+                NodeStep[] steps = Arrays.stream(next).map(CompiledRouter::compileNode).toArray(NodeStep[]::new);
+                return new SelectStep(next, steps);
+            }
+        }
+        return compileConsts(next, varIndex);
+    }
+
+    private static Step compileConsts(Node<?>[] next, int varIndex) {
+        SeparableVariableToken var = varIndex >= 0 ? (SeparableVariableToken) next[varIndex].token() : null;
+        char separator = var != null ? var.separator() : 0;
+        VariableStep fallback = var != null ? new VariableStep(var.name(), separator, compileNode(next[varIndex])) : null;
+
+        int size = varIndex >= 0 ? next.length - 1 : next.length;
+        List<char[]> tokens = new ArrayList<>(size);
+        NodeStep[] steps = new NodeStep[size];
+        boolean[] wins = new boolean[size];
+        boolean[] winsTie = new boolean[size];
+        for (int i = 0, j = 0; i < next.length; i++) {
+            if (i != varIndex) {
+                char[] token = toChars(next[i]);
+                tokens.add(token);
+                steps[j] = compileNode(next[i]);
+                // Without the separator inside, the constant is never longer than the variable match,
+                // so it only wins the tie (if goes first). With the separator inside, it's always longer.
+                wins[j] = var == null || new String(token).indexOf(separator) >= 0;
+                winsTie[j] = i < varIndex;
+                j++;
+            }
+        }
+        return new ConstTrieStep(ConstAutomaton.of(tokens), steps, wins, winsTie, separator, fallback);
+    }
+
+    private static boolean isConst(Node<?> node) {
+        return node.token() instanceof ConstToken token && token.buffer().isNotEmpty();
+    }
+
+    private static char[] toChars(Node<?> node) {
+        return ((ConstToken) node.token()).buffer().toString().toCharArray();
+    }
+
+    // Steps
+
+    private abstract static class Step {
+        abstract Object match(CharSequence input, int pos, int end, MatchBuffer buffer);
+    }
+
+    private static final class NodeStep extends Step {
+        private final Object handler;
+        private final Step next;
+
+        NodeStep(Object handler, Step next) {
+            this.handler = handler;
+            this.next = next;
+        }
+
+        @Override
+        Object match(CharSequence input, int pos, int end, MatchBuffer buffer) {
+            if (pos == end) {
+                return handler;  // null if matches part of the rule
+            }
+            return next != null ? next.match(input, pos, end, buffer) : null;
+        }
+    }
+
+    private static final class ConstStep extends Step {
+        private final char[] token;
+        private final NodeStep next;
+
+        ConstStep(char[] token, NodeStep next) {
+            this.token = token;
+            this.next = next;
+        }
+
+        @Override
+        Object match(CharSequence input, int pos, int end, MatchBuffer buffer) {
+            char[] token = this.token;
+            if (end - pos < token.length) {
+                return null;
+            }
+            for (int i = 0; i < token.length; i++) {
+                if (input.charAt(pos + i) != token[i]) {
+                    return null;
+                }
+            }
+            return next.match(input, pos + token.length, end, buffer);
+        }
+    }
+
+    private static final class VariableStep extends Step {
+        private final String name;
+        private final char separator;
+        private final NodeStep next;
+
+        VariableStep(String name, char separator, NodeStep next) {
+            this.name = name;
+            this.separator = separator;
+            this.next = next;
+        }
+
+        @Override
+        Object match(CharSequence input, int pos, int end, MatchBuffer buffer) {
+            int index = pos;
+            while (index < end && input.charAt(index) != separator) {
+                index++;
+            }
+            if (index == pos) {
+                return null;  // empty match
+            }
+            buffer.add(name, pos, index);
+            return next.match(input, index, end, buffer);
+        }
+    }
+
+    private static final class WildcardStep extends Step {
+        private final String name;
+        private final NodeStep next;
+
+        WildcardStep(String name, NodeStep next) {
+            this.name = name;
+            this.next = next;
+        }
+
+        @Override
+        Object match(CharSequence input, int pos, int end, MatchBuffer buffer) {
+            buffer.add(name, pos, end);  // `pos < end` here, so never empty
+            return next.match(input, end, end, buffer);
+        }
+    }
+
+    // Several constants and at most one separable variable
+    private static final class ConstTrieStep extends Step {
+        private final ConstAutomaton automaton;
+        private final NodeStep[] next;
+        private final boolean[] wins;
+        private final boolean[] winsTie;
+        private final char separator;
+        private final VariableStep fallback;
+
+        ConstTrieStep(ConstAutomaton automaton, NodeStep[] next, boolean[] wins, boolean[] winsTie,
+                      char separator, VariableStep fallback) {
+            this.automaton = automaton;
+            this.next = next;
+            this.wins = wins;
+            this.winsTie = winsTie;
+            this.separator = separator;
+            this.fallback = fallback;
+        }
+
+        // The longest constant is the only one which can win over the variable
+        @Override
+        Object match(CharSequence input, int pos, int end, MatchBuffer buffer) {
+            long longest = automaton.longestMatch(input, pos, end);
+            if (longest >= 0) {
+                int index = (int) (longest >>> 32);
+                int until = pos + (int) longest;
+                if (wins[index] || winsTie[index] && (until == end || input.charAt(until) == separator)) {
+                    return next[index].match(input, until, end, buffer);
+                }
+            }
+            return fallback != null ? fallback.match(input, pos, end, buffer) : null;
+        }
+    }
+
+    // Same as `Router.navigate()` step
+    private static final class SelectStep extends Step {
+        private final Node<?>[] nodes;
+        private final NodeStep[] next;
+
+        SelectStep(Node<?>[] nodes, NodeStep[] next) {
+            this.nodes = nodes;
+            this.next = next;
+        }
+
+        @Override
+        Object match(CharSequence input, int pos, int end, MatchBuffer buffer) {
+            int maxMatch = -1;
+            int maxIndex = -1;
+            for (int i = 0; i < nodes.length; i++) {
+                int matchLength = nodes[i].token().match(input, pos, end);
+                if (matchLength > maxMatch) {
+                    maxMatch = matchLength;
+                    maxIndex = i;
+                }
+            }
+            if (maxIndex < 0) {
+                return null;  // no continuation found
+            }
+            if (nodes[maxIndex].token() instanceof Variable variable) {
+                buffer.add(variable.name(), pos, pos + maxMatch);
+            }
+            return next[maxIndex].match(input, pos + maxMatch, end, buffer);
+        }
+    }
+
+    // A char-by-char automaton over the constants. The transitions are stored in the flat arrays:
+    // the outgoing chars of the state `s` are `chars[offsets[s]..offsets[s+1])` (sorted) leading to `targets[...]`.
+    private record ConstAutomaton(int[] offsets, char[] chars, int[] targets, int[] accept) {
+        private static final int LINEAR_SEARCH_MAX = 8;
+
+        static ConstAutomaton of(List<char[]> tokens) {
+            List<List<int[]>> edges = new ArrayList<>();  // per state: {char, target} pairs
+            List<Integer> accept = new ArrayList<>();
+            edges.add(new ArrayList<>());
+            accept.add(-1);
+            for (int index = 0; index < tokens.size(); index++) {
+                int state = 0;
+                for (char ch : tokens.get(index)) {
+                    int target = edges.get(state).stream().filter(edge -> edge[0] == ch).mapToInt(edge -> edge[1])
+                        .findFirst().orElse(-1);
+                    if (target < 0) {
+                        target = edges.size();
+                        edges.add(new ArrayList<>());
+                        accept.add(-1);
+                        edges.get(state).add(new int[] { ch, target });
+                    }
+                    state = target;
+                }
+                if (accept.get(state) < 0) {
+                    accept.set(state, index);
+                }
+            }
+
+            int[] offsets = new int[edges.size() + 1];
+            int total = edges.stream().mapToInt(List::size).sum();
+            char[] chars = new char[total];
+            int[] targets = new int[total];
+            for (int state = 0, offset = 0; state < edges.size(); state++) {
+                offsets[state] = offset;
+                List<int[]> sorted = edges.get(state).stream().sorted(Comparator.comparingInt(edge -> edge[0])).toList();
+                for (int[] edge : sorted) {
+                    chars[offset] = (char) edge[0];
+                    targets[offset] = edge[1];
+                    offset++;
+                }
+                offsets[state + 1] = offset;
+            }
+            return new ConstAutomaton(offsets, chars, targets, accept.stream().mapToInt(i -> i).toArray());
+        }
+
+        // Returns `(index << 32) | length` of the longest matching constant or -1.
+        long longestMatch(CharSequence input, int pos, int end) {
+            long result = -1;
+            int state = 0;
+            for (int i = pos; i < end; i++) {
+                state = transition(state, input.charAt(i));
+                if (state < 0) {
+                    break;
+                }
+                if (accept[state] >= 0) {
+                    result = ((long) accept[state] << 32) | (i - pos + 1);
+                }
+            }
+            return result;
+        }
+
+        private int transition(int state, char ch) {
+            int from = offsets[state];
+            int to = offsets[state + 1];
+            if (to - from <= LINEAR_SEARCH_MAX) {
+                for (int i = from; i < to; i++) {
+                    if (chars[i] == ch) {
+                        return targets[i];
+                    }
+                }
+                return -1;
+            }
+            int index = Arrays.binarySearch(chars, from, to, ch);
+            return index >= 0 ? targets[index] : -1;
+        }
+    }
+}
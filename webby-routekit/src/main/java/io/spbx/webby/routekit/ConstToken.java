@@ -25,6 +25,20 @@ public final class ConstToken implements Token {
         return charArray.startsWith(token) ? token.length() : -1;
     }
 
+    @Override
+    public int match(CharSequence input, int start, int end) {
+        int length = token.length();
+        if (end - start < length) {
+            return -1;
+        }
+        for (int i = 0; i < length; i++) {
+            if (input.charAt(start + i) != token.charAt(i)) {
+                return -1;
+            }
+        }
+        return length;
+    }
+
     public CharArray buffer() {
         return token;
     }
@@ -0,0 +1,116 @@
+package io.spbx.webby.routekit;
+
+import io.spbx.util.base.CharArray;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A reusable buffer for the allocation-free routing via {@link Router#routeOrNull(CharSequence, MatchBuffer)}.
+ * The variables are recorded as the {@code (start, end)} offsets into the routed input, in the order of the rule.
+ * <p>
+ * The buffer is mutable and not thread-safe: it's supposed to be confined to a thread (or a channel)
+ * and reused for every routing call. Each call resets the previous state.
+ */
+public final class MatchBuffer {
+    private CharSequence input;
+    private String[] names;
+    private int[] bounds;
+    private int size;
+
+    public MatchBuffer(int expectedVariables) {
+        this.names = new String[Math.max(expectedVariables, 1)];
+        this.bounds = new int[2 * names.length];
+    }
+
+    public MatchBuffer() {
+        this(4);
+    }
+
+    public CharSequence input() {
+        return input;
+    }
+
+    public int variableCount() {
+        return size;
+    }
+
+    public String variableName(int index) {
+        assert index < size : "Variable index out of bounds: %d".formatted(index);
+        return names[index];
+    }
+
+    public int variableStart(int index) {
+        assert index < size : "Variable index out of bounds: %d".formatted(index);
+        return bounds[2 * index];
+    }
+
+    public int variableEnd(int index) {
+        assert index < size : "Variable index out of bounds: %d".formatted(index);
+        return bounds[2 * index + 1];
+    }
+
+    /**
+     * Returns the index of the variable by {@code name} or -1 if the matched rule has no such variable.
+     */
+    public int indexOf(String name) {
+        for (int i = 0; i < size; i++) {
+            if (names[i].equals(name)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the value of the variable. Note: allocates, unless the routed input is a {@link CharArray}.
+     */
+    public CharArray variableValue(int index) {
+        int start = variableStart(index);
+        int end = variableEnd(index);
+        return input instanceof CharArray array ?
+            array.substring(start, end) :
+            new CharArray(input.subSequence(start, end));
+    }
+
+    /**
+     * Converts the buffer into a standalone {@link Match} (allocates).
+     */
+    public <T> Match<T> toMatch(T handler) {
+        if (size == 0) {
+            return new Match<>(handler, Collections.emptyMap());
+        }
+        Map<String, CharArray> variables = new LinkedHashMap<>();  // preserve the order
+        for (int i = 0; i < size; i++) {
+            variables.put(names[i], variableValue(i));
+        }
+        return new Match<>(handler, variables);
+    }
+
+    /*package*/ void reset(CharSequence input) {
+        this.input = input;
+        this.size = 0;
+    }
+
+    /*package*/ void add(String name, int start, int end) {
+        if (size == names.length) {
+            names = Arrays.copyOf(names, 2 * size);
+            bounds = Arrays.copyOf(bounds, 4 * size);
+        }
+        names[size] = name;
+        bounds[2 * size] = start;
+        bounds[2 * size + 1] = end;
+        size++;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("{");
+        for (int i = 0; i < size; i++) {
+            builder.append(i > 0 ? ", " : "").append(names[i]).append('=').append(variableValue(i));
+        }
+        return builder.append('}').toString();
+    }
+}
@@ -0,0 +1,65 @@
+package io.spbx.webby.routekit;
+
+import io.spbx.util.base.CharArray;
+
+import java.util.Map;
+
+/**
+ * An open-addressing hash table of the constant rules, which is queried by a region of any {@link CharSequence}
+ * without wrapping or copying it.
+ */
+/*package*/ final class QuickMatchIndex<T> {
+    private final CharArray[] keys;
+    private final Object[] values;
+    private final int mask;
+
+    QuickMatchIndex(Map<CharArray, T> map) {
+        int capacity = Integer.highestOneBit(Math.max(2, 2 * map.size()) - 1) << 1;  // load factor <= 0.5
+        keys = new CharArray[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        for (Map.Entry<CharArray, T> entry : map.entrySet()) {
+            CharArray key = entry.getKey();
+            int index = hash(key, 0, key.length()) & mask;
+            while (keys[index] != null) {
+                index = (index + 1) & mask;
+            }
+            keys[index] = key;
+            values[index] = entry.getValue();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    T getOrNull(CharSequence input, int start, int end) {
+        int index = hash(input, start, end) & mask;
+        CharArray key;
+        while ((key = keys[index]) != null) {
+            if (regionEquals(key, input, start, end)) {
+                return (T) values[index];
+            }
+            index = (index + 1) & mask;
+        }
+        return null;
+    }
+
+    private static int hash(CharSequence input, int start, int end) {
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + input.charAt(i);
+        }
+        return hash ^ (hash >>> 16);
+    }
+
+    private static boolean regionEquals(CharArray key, CharSequence input, int start, int end) {
+        int length = key.length();
+        if (length != end - start) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (key.charAt(i) != input.charAt(start + i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -10,11 +10,11 @@ import java.util.logging.Logger;
 public class Router<T> {
     private static final Logger log = Logger.getLogger("RouteKit");
 
-    private final Map<CharArray, T> quickMatchIndex;
+    private final QuickMatchIndex<T> quickMatchIndex;
     private final Node<T> root;
 
     public Router(Map<CharArray, T> quickMatchIndex, Node<T> root) {
-        this.quickMatchIndex = quickMatchIndex;
+        this.quickMatchIndex = new QuickMatchIndex<>(quickMatchIndex);
         this.root = root;
     }
 
@@ -31,49 +31,79 @@ public class Router<T> {
     }
 
     public Match<T> routeOrNull(CharArray input) {
-        T match = quickMatchIndex.get(input);
+        MatchBuffer buffer = new MatchBuffer();
+        T handler = routeOrNull(input, buffer);
+        return handler != null ? buffer.toMatch(handler) : null;
+    }
+
+    /**
+     * Routes the {@code input} without allocations: the matched variables are recorded into the {@code buffer}
+     * as offsets into the {@code input}. Returns the handler or null if no rule matches.
+     */
+    public T routeOrNull(CharSequence input, MatchBuffer buffer) {
+        buffer.reset(input);
+        int length = input.length();
+        T match = quickMatchIndex.getOrNull(input, 0, length);
         if (match != null) {
-            log.log(Level.FINEST, () -> "Routing `%s`: return immediately from the quick-match index".formatted(input));
-            return new Match<>(match, Collections.emptyMap());
+            if (log.isLoggable(Level.FINEST)) {
+                log.finest("Routing `%s`: return immediately from the quick-match index".formatted(input));
+            }
+            return match;
         }
 
-        return navigate(input, root);
+        return navigate(input, length, buffer);
     }
 
-    private static <T> Match<T> navigate(CharArray input, Node<T> current) {
-        MutableCharArray array = input.mutableCopy();  // copy to avoid modifying the input
-        Map<String, CharArray> vars = new LinkedHashMap<>();  // preserve the order
+    /*package*/ T navigate(CharSequence input, int length, MatchBuffer buffer) {
+        return navigate(input, length, root, buffer);
+    }
 
-        while (array.isNotEmpty()) {
+    private static <T> T navigate(CharSequence input, int length, Node<T> current, MatchBuffer buffer) {
+        int pos = 0;
+        while (pos < length) {
             int maxMatch = -1;
             Node<T> maxNode = null;
-            for (Node<T> next : current.next) {  // No allocations: https://stackoverflow.com/a/3433775
-                int matchLength = next.token.match(array);
+            for (Node<T> next : current.candidates(input.charAt(pos))) {  // No allocations: https://stackoverflow.com/a/3433775
+                int matchLength = next.token.match(input, pos, length);
                 if (matchLength > maxMatch) {
                     maxMatch = matchLength;
                     maxNode = next;
                 }
             }
             if (maxNode == null) {
-                log.log(Level.FINEST, () -> "Routing `%s`: no continuation found at `%s`".formatted(input, array));
+                if (log.isLoggable(Level.FINEST)) {
+                    log.finest("Routing `%s`: no continuation found at %d".formatted(input, pos));
+                }
                 return null;  // no continuation found
             }
             if (maxNode.token instanceof Variable variable) {
-                vars.put(variable.name(), array.substringUntil(maxMatch));
+                buffer.add(variable.name(), pos, pos + maxMatch);
             }
-            array.offsetStart(maxMatch);
+            pos += maxMatch;
             current = maxNode;
         }
 
         if (!current.isTerminal()) {
-            log.log(Level.FINEST, () -> "Routing `%s`: matches non-terminal node (middle of the rule)".formatted(input));
+            if (log.isLoggable(Level.FINEST)) {
+                log.finest("Routing `%s`: matches non-terminal node (middle of the rule)".formatted(input));
+            }
             return null;  // matches part of the rule
         }
-        log.log(Level.FINEST, () -> "Routing `%s`: matches with variables %s".formatted(input, vars));
-        return new Match<>(current.terminalRule.handler(), vars);
+        if (log.isLoggable(Level.FINEST)) {
+            log.finest("Routing `%s`: matches with variables %s".formatted(input, buffer));
+        }
+        return current.terminalRule.handler();
     }
 
-    /*package*/ record Node<T>(Token token, Node<T>[] next, RouterSetup.Rule<T> terminalRule) {
+    // The `dispatch` table narrows down the `next` candidates by the first (ASCII) char of the remaining input:
+    // only the const tokens starting with this char, plus all variables, in the original order.
+    /*package*/ record Node<T>(Token token, Node<T>[] next, RouterSetup.Rule<T> terminalRule, Node<T>[][] dispatch) {
+        private static final int DISPATCH_SIZE = 128;
+
+        Node(Token token, Node<T>[] next, RouterSetup.Rule<T> terminalRule) {
+            this(token, next, terminalRule, buildDispatch(next));
+        }
+
         Node {
             List<Node<T>> variables = Arrays.stream(next).filter(Node::isVar).toList();
             if (variables.size() > 1) {
@@ -84,6 +114,10 @@ public class Router<T> {
             }
         }
 
+        public Node<T>[] candidates(char ch) {
+            return dispatch != null && ch < DISPATCH_SIZE ? dispatch[ch] : next;
+        }
+
         public boolean isTerminal() {
             return terminalRule != null;  // Note: non-leaf nodes can be terminal.
         }
@@ -91,5 +125,32 @@ public class Router<T> {
         private boolean isVar() {
             return token instanceof SeparableVariableToken;
         }
+
+        @SuppressWarnings("unchecked")
+        private static <T> Node<T>[][] buildDispatch(Node<T>[] next) {
+            if (next.length < 2) {
+                return null;
+            }
+            Node<T>[] others = Arrays.stream(next).filter(node -> !isDispatchable(node)).toArray(Node[]::new);
+            Node<T>[][] dispatch = new Node[DISPATCH_SIZE][];
+            for (char ch = 0; ch < DISPATCH_SIZE; ch++) {
+                char first = ch;
+                boolean any = Arrays.stream(next).anyMatch(node -> isDispatchable(node) && firstChar(node) == first);
+                dispatch[ch] = any ?
+                    Arrays.stream(next)
+                        .filter(node -> !isDispatchable(node) || firstChar(node) == first)
+                        .toArray(Node[]::new) :
+                    others;
+            }
+            return dispatch;
+        }
+
+        private static boolean isDispatchable(Node<?> node) {
+            return node.token instanceof ConstToken constToken && !constToken.buffer().isEmpty();
+        }
+
+        private static char firstChar(Node<?> node) {
+            return ((ConstToken) node.token).buffer().charAt(0);
+        }
     }
 }
@@ -17,6 +17,7 @@ public class RouterBuilder {
     private boolean excludeConstFromFSM = true;
     private char separator = DEFAULT_SEPARATOR;
     private int minCommonPrefixLength = DEFAULT_MIN_COMMON_PREFIX;
+    private boolean compiled = false;
 
     public RouterBuilder setQuickMatchForConst(boolean quickMatchForConst) {
         this.quickMatchForConst = quickMatchForConst;
@@ -38,11 +39,16 @@ public class RouterBuilder {
         return this;
     }
 
+    public RouterBuilder setCompiled(boolean compiled) {
+        this.compiled = compiled;
+        return this;
+    }
+
     public <T> Router<T> buildRouter(List<RouterSetup.Rule<T>> rules) {
         Map<CharArray, T> quickMatchIndex = buildQuickMatchIndex(rules);
         Router.Node<T> root = buildStateMachine(rules);
         log.log(Level.FINEST, () -> "Using quick-match index of size %d".formatted(quickMatchIndex.size()));
-        return new Router<>(quickMatchIndex, root);
+        return compiled ? new CompiledRouter<>(quickMatchIndex, root) : new Router<>(quickMatchIndex, root);
     }
 
     /*package*/ <T> Map<CharArray, T> buildQuickMatchIndex(List<RouterSetup.Rule<T>> rules) {
@@ -17,11 +17,24 @@ public final class SeparableVariableToken extends Variable implements Token {
         this(name, SimpleQueryParser.DEFAULT_SEPARATOR);
     }
 
+    public char separator() {
+        return separator;
+    }
+
     @Override
     public int match(CharArray charArray) {
         return handleEmptyMatch(charArray.indexOf(separator, 0, charArray.length()));  // match until separator
     }
 
+    @Override
+    public int match(CharSequence input, int start, int end) {
+        int index = start;
+        while (index < end && input.charAt(index) != separator) {
+            index++;
+        }
+        return handleEmptyMatch(index - start);
+    }
+
     @Override
     public String toString() {
         return "SeparableVariableToken[%s]".formatted(name());
@@ -24,4 +24,12 @@ public interface Token {
      * </pre>
      */
     int match(CharArray charArray);
+
+    /**
+     * Same as {@link #match(CharArray)} for the region of the {@code input} from {@code start} to {@code end}.
+     * The built-in tokens match in place, the default implementation copies the region.
+     */
+    default int match(CharSequence input, int start, int end) {
+        return match(new CharArray(input.subSequence(start, end)));
+    }
 }
@@ -15,6 +15,11 @@ public final class WildcardToken extends Variable implements Token {
         return handleEmptyMatch(charArray.length());
     }
 
+    @Override
+    public int match(CharSequence input, int start, int end) {
+        return handleEmptyMatch(end - start);
+    }
+
     @Override
     public String toString() {
         return "WildcardToken[%s]".formatted(name());
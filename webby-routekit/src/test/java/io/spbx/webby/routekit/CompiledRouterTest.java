@@ -0,0 +1,57 @@
+package io.spbx.webby.routekit;
+
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static com.google.common.truth.Truth.assertThat;
+
+// Runs all `RouterTest` cases against the compiled router
+public class CompiledRouterTest extends RouterTest {
+    @Override
+    protected @NotNull RouterSetup<String> setup() {
+        return new RouterSetup<String>().withBuilder(new RouterBuilder().setCompiled(true));
+    }
+
+    @Test
+    public void build_is_compiled() {
+        assertThat(setup().add("/foo/{id}", "1").build()).isInstanceOf(CompiledRouter.class);
+        assertThat(new RouterSetup<String>().add("/foo/{id}", "1").build()).isNotInstanceOf(CompiledRouter.class);
+    }
+
+    @Test
+    public void routeOrNull_same_as_interpreted() {
+        List<String> rules = List.of(
+            "/", "/foo", "/foo/{id}", "/foo/{id}/bar", "/foo/{id}/bar/{*rest}", "/foo/{id}/baz", "/foo/{id}/{name}",
+            "/foobar/{id}", "/fo{x}", "/f/{id}", "/ab{x}", "/abc", "/abcd/{y}", "/ab/cd", "/x/{a}/{b}/{c}",
+            "/w/{*all}", "/w/{id}", "/ы/{id}", "/ы{id}/z", "{var}/{y}", "/q/{id}/-q", "/q/{id}/-{r}/qq"
+        );
+        Router<String> interpreted = addAll(new RouterSetup<>(), rules).build();
+        Router<String> compiled = addAll(setup(), rules).build();
+
+        Random random = new Random(0);
+        String alphabet = "/fobarzcdxyqw-ы";
+        for (int i = 0; i < 50_000; i++) {
+            StringBuilder input = new StringBuilder();
+            for (int j = random.nextInt(16); j > 0; j--) {
+                input.append(alphabet.charAt(random.nextInt(alphabet.length())));
+            }
+            String path = input.toString();
+            assertThat(compiled.routeOrNull(path)).isEqualTo(interpreted.routeOrNull(path));
+        }
+        for (String path : List.of("/foo/1/bar/2/3", "/foo/1/baz", "/foo/1/qux", "/foobar/1", "/fox", "/abc", "/abcd",
+                                   "/abcd/1", "/ab/cd", "/abx", "/x/1/2/3", "/w/1", "/w/1/2", "/ы/1", "/ы1/z", "a/b",
+                                   "/q/1/-q", "/q/1/-2/qq")) {
+            assertThat(compiled.routeOrNull(path)).isEqualTo(interpreted.routeOrNull(path));
+        }
+    }
+
+    private static @NotNull RouterSetup<String> addAll(@NotNull RouterSetup<String> setup, @NotNull List<String> rules) {
+        for (String rule : rules) {
+            setup.add(rule, rule);
+        }
+        return setup;
+    }
+}
@@ -17,11 +17,15 @@ import java.util.stream.Collectors;
 import static com.google.common.truth.Truth.assertThat;
 
 public class RouterTest {
+    protected @NotNull RouterSetup<String> setup() {
+        return new RouterSetup<>();
+    }
+
     // Trivial cases
 
     @Test
     public void routeOrNull_empty() {
-        Router<String> router = new RouterSetup<String>().build();
+        Router<String> router = setup().build();
         assertRoute(router.routeOrNull("")).is404();
         assertRoute(router.routeOrNull("/")).is404();
         assertRoute(router.routeOrNull("a")).is404();
@@ -30,7 +34,7 @@ public class RouterTest {
 
     @Test
     public void routeOrNull_const_rules_no_prefix() {
-        Router<String> router = new RouterSetup<String>()
+        Router<String> router = setup()
             .add("foo", "1")
             .add("bar", "2")
             .build();
@@ -46,7 +50,7 @@ public class RouterTest {
 
     @Test
     public void routeOrNull_const_rules_common_prefix() {
-        Router<String> router = new RouterSetup<String>()
+        Router<String> router = setup()
             .add("/foo/foo", "1")
             .add("/foo/bar", "2")
             .build();
@@ -66,7 +70,7 @@ public class RouterTest {
 
     @Test
     public void routeOrNull_just_variable_rule() {
-        Router<String> router = new RouterSetup<String>()
+        Router<String> router = setup()
             .add("{var}", "1")
             .build();
 
@@ -87,7 +91,7 @@ public class RouterTest {
 
     @Test
     public void routeOrNull_just_wildcard_rule() {
-        Router<String> router = new RouterSetup<String>()
+        Router<String> router = setup()
             .add("{*var}", "1")
             .build();
 
@@ -104,7 +108,7 @@ public class RouterTest {
 
     @Test
     public void routeOrNull_const_variable_rule() {
-        Router<String> router = new RouterSetup<String>()
+        Router<String> router = setup()
             .add("/foo/{var}", "1")
             .build();
 
@@ -127,7 +131,7 @@ public class RouterTest {
 
     @Test
     public void routeOrNull_const_variable_const_rule() {
-        Router<String> router = new RouterSetup<String>()
+        Router<String> router = setup()
             .add("/foo/{var}/bar", "1")
             .build();
 
@@ -149,7 +153,7 @@ public class RouterTest {
 
     @Test
     public void routeOrNull_variable_const_rule() {
-        Router<String> router = new RouterSetup<String>()
+        Router<String> router = setup()
             .add("{var}/foo/", "1")
             .build();
 
@@ -177,7 +181,7 @@ public class RouterTest {
 
     @Test
     public void routeOrNull_const_wildcard_rule() {
-        Router<String> router = new RouterSetup<String>()
+        Router<String> router = setup()
             .add("/foo/{*var}", "1")
             .build();
 
@@ -204,7 +208,7 @@ public class RouterTest {
     @Test
     public void routeOrNull_variables_without_separator_invalid() {
         Assertions.assertThrows(QueryParseException.class, () ->
-            new RouterSetup<String>()
+            setup()
                 .add("/{x}", "1")
                 .add("/{x}{y}", "2")  // `y` is unreachable
                 .build()
@@ -214,7 +218,7 @@ public class RouterTest {
     @Test
     public void routeOrNull_variables_separated_by_dash_invalid() {
         Assertions.assertThrows(QueryParseException.class, () ->
-            new RouterSetup<String>()
+            setup()
                 .add("/{x}", "1")
                 .add("/{x}-{y}", "2")  // `y` is unreachable (recommended workaround: change variable separator).
                 .build()
@@ -223,7 +227,7 @@ public class RouterTest {
 
     @Test
     public void routeOrNull_variables_separated_by_slash_and_dash() {
-        Router<String> router = new RouterSetup<String>()
+        Router<String> router = setup()
             .add("/{x}", "1")
             .add("/{x}/-{y}", "2")
             .build();
@@ -244,7 +248,7 @@ public class RouterTest {
     @Test
     public void routeOrNull_variables_with_same_prefix_invalid() {
         Assertions.assertThrows(RouteException.class, () ->
-            new RouterSetup<String>()
+            setup()
                 .add("/foo/{x}", "1")
                 .add("/foo/{y}", "2")  // `y` is unreachable
                 .build()
@@ -253,7 +257,7 @@ public class RouterTest {
 
     @Test
     public void routeOrNull_variables_with_same_part_unreachable() {
-        Router<String> router = new RouterSetup<String>()
+        Router<String> router = setup()
             .add("/user/{name}", "1")
             .add("/user/id{id}", "2")  // unreachable (workaround: add a separator)
             .build();
@@ -271,7 +275,7 @@ public class RouterTest {
 
     @Test
     public void routeOrNull_variables_with_same_part_swapped_unreachable() {
-        Router<String> router = new RouterSetup<String>()
+        Router<String> router = setup()
             .add("/user/id{id}", "2")  // unreachable (workaround: add a separator)
             .add("/user/{name}", "1")
             .build();
@@ -289,7 +293,7 @@ public class RouterTest {
 
     @Test
     public void routeOrNull_variables_with_different_parts() {
-        Router<String> router = new RouterSetup<String>()
+        Router<String> router = setup()
             .add("/user/{name}", "1")
             .add("/user/id/{id}", "2")
             .build();
@@ -308,7 +312,7 @@ public class RouterTest {
 
     @Test
     public void routeOrNull_optional_variables_defined_as_hierarchy_simple() {
-        Router<String> router = new RouterSetup<String>()
+        Router<String> router = setup()
             .add("/{first}/", "1")
             .add("/{first}/{last}/", "2")
             .add("/{first}/{last}/{age}", "3")
@@ -334,7 +338,7 @@ public class RouterTest {
 
     @Test
     public void routeOrNull_optional_variables_defined_as_hierarchy() {
-        Router<String> router = new RouterSetup<String>()
+        Router<String> router = setup()
             .add("/post/{id}", "1")
             .add("/post/{id}/", "2")
             .add("/post/{id}/{slug}", "3")
@@ -354,7 +358,7 @@ public class RouterTest {
 
     @Test
     public void routeOrNull_optional_variables_defined_as_hierarchy_with_defaults() {
-        Router<String> router = new RouterSetup<String>()
+        Router<String> router = setup()
             .add("/foo/bar", "1")
             .add("/foo/{name}", "2")
             .add("/foo/{name}/{age}", "3")
@@ -382,7 +386,7 @@ public class RouterTest {
 
     @Test
     public void routeOrNull_just_const_and_just_variable_rules() {
-        Router<String> router = new RouterSetup<String>()
+        Router<String> router = setup()
             .add("/foo", "1")
             .add("/{var}", "2")
             .build();
@@ -404,7 +408,7 @@ public class RouterTest {
 
     @Test
     public void routeOrNull_just_const_and_just_variable_rules_swapped() {
-        Router<String> router = new RouterSetup<String>()
+        Router<String> router = setup()
             .add("/{var}", "2")
             .add("/foo", "1")
             .build();
@@ -426,7 +430,7 @@ public class RouterTest {
 
     @Test
     public void routeOrNull_two_rules_variable_and_const_default() {
-        Router<String> router = new RouterSetup<String>()
+        Router<String> router = setup()
             .add("/foo/{name}/default", "1")
             .add("/foo/{name}/{age}", "2")
             .build();
@@ -440,7 +444,7 @@ public class RouterTest {
 
     @Test
     public void routeOrNull_two_rules_variable_and_const_default_swapped() {
-        Router<String> router = new RouterSetup<String>()
+        Router<String> router = setup()
             .add("/foo/{name}/{age}", "2")
             .add("/foo/{name}/default", "1")
             .build();
@@ -458,7 +462,7 @@ public class RouterTest {
 
     @Test
     public void routeOrNull_three_rules_two_vars_and_wildcard_all_matching() {
-        Router<String> router = new RouterSetup<String>()
+        Router<String> router = setup()
             .add("/foo/{name}/default", "1")
             .add("/foo/{name}/{age}", "2")
             .add("/foo/{name}/{*rest}", "3")
@@ -476,7 +480,7 @@ public class RouterTest {
 
     @Test
     public void routeOrNull_char_buffer_as_input() {
-        Router<String> router = new RouterSetup<String>()
+        Router<String> router = setup()
             .add("/foo/{name}", "1")
             .build();
 
@@ -488,7 +492,7 @@ public class RouterTest {
 
     @Test
     public void routeOrNull_quick_match_char_buffer_as_input() {
-        Router<String> router = new RouterSetup<String>()
+        Router<String> router = setup()
             .add("/foo/bar", "1")
             .add("/foo/{name}", "2")
             .build();
@@ -502,6 +506,64 @@ public class RouterTest {
         assertRoute(router.routeOrNull(new CharArray("//foo/bar/", 0, 9))).is404();
     }
 
+    // Match buffer
+
+    @Test
+    public void routeOrNull_match_buffer_offsets() {
+        Router<String> router = setup()
+            .add("/user/{id}", "1")
+            .add("/post/{id}/{slug}", "2")
+            .add("/p/{id}/{*slug}", "3")
+            .build();
+        MatchBuffer buffer = new MatchBuffer(1);
+
+        assertThat(router.routeOrNull("/post/12/foo-bar", buffer)).isEqualTo("2");
+        assertThat(buffer.variableCount()).isEqualTo(2);
+        assertThat(buffer.variableName(0)).isEqualTo("id");
+        assertThat(buffer.variableStart(0)).isEqualTo(6);
+        assertThat(buffer.variableEnd(0)).isEqualTo(8);
+        assertThat(buffer.variableName(1)).isEqualTo("slug");
+        assertThat(buffer.variableStart(1)).isEqualTo(9);
+        assertThat(buffer.variableEnd(1)).isEqualTo(16);
+        assertThat(buffer.indexOf("slug")).isEqualTo(1);
+        assertThat(buffer.indexOf("foo")).isEqualTo(-1);
+        assertThat(buffer.variableValue(1).toString()).isEqualTo("foo-bar");
+        assertThat(buffer.toString()).isEqualTo("{id=12, slug=foo-bar}");
+
+        assertThat(router.routeOrNull("/p/1/a/b", buffer)).isEqualTo("3");
+        assertThat(buffer.variableCount()).isEqualTo(2);
+        assertThat(buffer.variableValue(1).toString()).isEqualTo("a/b");
+
+        assertThat(router.routeOrNull("/user/", buffer)).isNull();
+        assertThat(router.routeOrNull("/user/abc", buffer)).isEqualTo("1");
+        assertThat(buffer.variableCount()).isEqualTo(1);
+        assertThat(buffer.variableValue(0).toString()).isEqualTo("abc");
+    }
+
+    @Test
+    public void routeOrNull_match_buffer_same_as_match() {
+        Router<String> router = setup()
+            .add("/", "0")
+            .add("/foo", "1")
+            .add("/foo/{name}", "2")
+            .add("/foo/{name}/bar", "3")
+            .add("/foo/{name}/{*rest}", "4")
+            .add("/bar/{x}/-{y}", "5")
+            .add("/baz/{name}", "6")
+            .add("/ба/{name}", "7")
+            .build();
+        MatchBuffer buffer = new MatchBuffer();
+
+        for (String input : new String[] {
+            "", "/", "/foo", "/foo/", "/foo/x", "/foo/x/bar", "/foo/x/baz/", "/bar/1/-2", "/bar/1", "/baz/a", "/ба/a", "/b"
+        }) {
+            String handler = router.routeOrNull(input, buffer);
+            Match<String> match = router.routeOrNull(input);
+            assertThat(handler).isEqualTo(match != null ? match.handler() : null);
+            assertThat(handler != null ? buffer.toMatch(handler) : null).isEqualTo(match);
+        }
+    }
+
     private static @NotNull RouteSubject assertRoute(@Nullable Match<String> match) {
         return new RouteSubject(match);
     }
@@ -1,8 +1,11 @@
 package io.spbx.webby.routekit.jmh;
 
+import io.spbx.webby.routekit.MatchBuffer;
 import io.spbx.webby.routekit.Router;
+import io.spbx.webby.routekit.RouterBuilder;
 import io.spbx.webby.routekit.RouterSetup;
 import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
 import org.openjdk.jmh.runner.Runner;
 import org.openjdk.jmh.runner.options.Options;
 import org.openjdk.jmh.runner.options.OptionsBuilder;
@@ -19,11 +22,14 @@ public class RouterJmhBenchmark {
     public static class ExecutionPlan {
         @Param({ "1000" })
         private int iterations = 0;
+        @Param({ "false", "true" })
+        private boolean compiled = false;
         private Router<String> router;
 
-        @Setup(Level.Invocation)
+        @Setup(Level.Trial)
         public void setUp() {
             router = new RouterSetup<String>()
+                    .withBuilder(new RouterBuilder().setCompiled(compiled))
                     .add("/", "home")
                     .add("/index", "index")
                     .add("/about", "about")
@@ -44,6 +50,79 @@ public class RouterJmhBenchmark {
         }
     }
 
+    // Hundreds of routes: `/api/v1/resource{i}`, `/api/v1/resource{i}/{id}`, `/api/v1/resource{i}/{id}/items/{item}`
+    @State(Scope.Benchmark)
+    public static class LargeExecutionPlan {
+        @Param({ "1000" })
+        private int iterations = 0;
+        @Param({ "100", "300" })
+        private int resources = 0;
+        @Param({ "false", "true" })
+        private boolean compiled = false;
+        private Router<String> router;
+        private final MatchBuffer buffer = new MatchBuffer();
+        private String constPath;
+        private String varPath;
+        private String deepPath;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            RouterSetup<String> setup = new RouterSetup<String>().withBuilder(new RouterBuilder().setCompiled(compiled));
+            for (int i = 0; i < resources; i++) {
+                setup.add("/api/v1/resource%d".formatted(i), "all_" + i)
+                    .add("/api/v1/resource%d/{id}".formatted(i), "one_" + i)
+                    .add("/api/v1/resource%d/{id}/items/{item}".formatted(i), "item_" + i);
+            }
+            router = setup.build();
+            int last = resources - 1;
+            constPath = "/api/v1/resource%d".formatted(last);
+            varPath = "/api/v1/resource%d/123456".formatted(last);
+            deepPath = "/api/v1/resource%d/123456/items/java-microbenchmark-harness".formatted(last);
+        }
+    }
+
+    @Benchmark
+    public void large_const_match(LargeExecutionPlan plan, Blackhole blackhole) {
+        for (int i = 0; i < plan.iterations; i++) {
+            blackhole.consume(plan.router.routeOrNull(plan.constPath));
+        }
+    }
+
+    @Benchmark
+    public void large_const_buffer(LargeExecutionPlan plan, Blackhole blackhole) {
+        for (int i = 0; i < plan.iterations; i++) {
+            blackhole.consume(plan.router.routeOrNull(plan.constPath, plan.buffer));
+        }
+    }
+
+    @Benchmark
+    public void large_var_match(LargeExecutionPlan plan, Blackhole blackhole) {
+        for (int i = 0; i < plan.iterations; i++) {
+            blackhole.consume(plan.router.routeOrNull(plan.varPath));
+        }
+    }
+
+    @Benchmark
+    public void large_var_buffer(LargeExecutionPlan plan, Blackhole blackhole) {
+        for (int i = 0; i < plan.iterations; i++) {
+            blackhole.consume(plan.router.routeOrNull(plan.varPath, plan.buffer));
+        }
+    }
+
+    @Benchmark
+    public void large_deep_match(LargeExecutionPlan plan, Blackhole blackhole) {
+        for (int i = 0; i < plan.iterations; i++) {
+            blackhole.consume(plan.router.routeOrNull(plan.deepPath));
+        }
+    }
+
+    @Benchmark
+    public void large_deep_buffer(LargeExecutionPlan plan, Blackhole blackhole) {
+        for (int i = 0; i < plan.iterations; i++) {
+            blackhole.consume(plan.router.routeOrNull(plan.deepPath, plan.buffer));
+        }
+    }
+
     @Benchmark
     public void route_home(ExecutionPlan plan) {
         for (int i = 0; i < plan.iterations; i++) {